@@ -19,6 +19,16 @@ public class ExtendedBlockStorageExt extends ExtendedBlockStorage {
     public ExtendedBlockStorageExt(Chunk chunk, ExtendedBlockStorage storage) {
         super(storage.yBase, storage.getSkylightArray() != null);
 
+        this.copyFrom(chunk, storage);
+    }
+
+    /**
+     * Overwrites the contents of this storage with a copy of the given one, re-using the existing arrays where possible.
+     */
+    public void copyFrom(Chunk chunk, ExtendedBlockStorage storage) {
+        this.yBase = storage.yBase;
+        this.hasSky = false;
+
         if (ModStatus.isChunkAPILoaded) {
             if (storage.getSkylightArray() != null) {
                 hasSky = true;
@@ -29,10 +39,7 @@ public class ExtendedBlockStorageExt extends ExtendedBlockStorage {
             if (ModStatus.isNEIDLoaded){
                 final short[] block16BArray = ((IExtendedBlockStorageMixin)(Object)this).getBlock16BArray();
                 System.arraycopy(((IExtendedBlockStorageMixin)(Object)storage).getBlock16BArray(), 0, block16BArray, 0, block16BArray.length);
-                if(storage.getBlockMSBArray() != null) {
-                    this.setBlockMSBArray(new NibbleArray(block16BArray.length, 4));
-                    copyNibbleArray(storage.getBlockMSBArray(), this.getBlockMSBArray());
-                }
+                copyOptionalMSBArray(storage, block16BArray.length);
                 arrayLen = block16BArray.length;
                 if (ModStatus.isNEIDMetadataExtended) {
                     final short[] block16BMetaArray = ((IExtendedBlockStorageMixin)(Object)this).getBlock16BMetaArray();
@@ -48,10 +55,7 @@ public class ExtendedBlockStorageExt extends ExtendedBlockStorage {
             else {
                 final byte[] blockLSBArray = this.getBlockLSBArray();
                 System.arraycopy(storage.getBlockLSBArray(), 0, blockLSBArray, 0, blockLSBArray.length);
-                if(storage.getBlockMSBArray() != null) {
-                    this.setBlockMSBArray(new NibbleArray(blockLSBArray.length, 4));
-                    copyNibbleArray(storage.getBlockMSBArray(), this.getBlockMSBArray());
-                }
+                copyOptionalMSBArray(storage, blockLSBArray.length);
                 arrayLen = blockLSBArray.length;
             }
 
@@ -70,6 +74,19 @@ public class ExtendedBlockStorageExt extends ExtendedBlockStorage {
     }
 
 
+    private void copyOptionalMSBArray(ExtendedBlockStorage storage, int length) {
+        if (storage.getBlockMSBArray() == null) {
+            this.setBlockMSBArray(null);
+            return;
+        }
+
+        if (this.getBlockMSBArray() == null) {
+            this.setBlockMSBArray(new NibbleArray(length, 4));
+        }
+
+        copyNibbleArray(storage.getBlockMSBArray(), this.getBlockMSBArray());
+    }
+
     private static void copyNibbleArray(NibbleArray srcArray, NibbleArray dstArray) {
         if (srcArray == null || dstArray == null) {
             throw new RuntimeException("NibbleArray is null src: " + (srcArray == null) + " dst: " + (dstArray == null));
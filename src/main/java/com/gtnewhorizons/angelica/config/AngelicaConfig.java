@@ -37,6 +37,15 @@ public class AngelicaConfig {
     @Config.RequiresMcRestart
     public static boolean enableIris;
 
+    @Config.Comment("Cache transformed shader pack sources and linked shader programs on disk, to speed up shader pack loading")
+    @Config.DefaultBoolean(true)
+    public static boolean enableShaderDiskCache;
+
+    @Config.Comment("Maximum size of each on-disk shader cache, in megabytes")
+    @Config.DefaultInt(128)
+    @Config.RangeInt(min = 8, max = 2048)
+    public static int shaderDiskCacheSizeMB;
+
     @Config.Comment("Enable MCPatcherForge features, still in Alpha. Individual features are toggled in mcpatcher.json")
     @Config.DefaultBoolean(false)
     @Config.RequiresMcRestart
@@ -47,6 +56,12 @@ public class AngelicaConfig {
     @Config.RequiresMcRestart
     public static boolean enableVBO;
 
+    @Config.Comment("Move the geometry of display lists compiled by vanilla and mods into vertex buffers. Helps on drivers "
+        + "with slow display lists, such as Mesa [Experimental]")
+    @Config.DefaultBoolean(false)
+    @Config.RequiresMcRestart
+    public static boolean enableVBODisplayLists;
+
     @Config.Comment("Enable NotFine features")
     @Config.DefaultBoolean(true)
     @Config.RequiresMcRestart
@@ -148,7 +163,7 @@ public class AngelicaConfig {
     @Config.RequiresMcRestart
     public static boolean optimizeInWorldItemRendering_WIP;
 
-    @Config.Comment("Max amount of display lists to cache for optimized item rendering. Higher number will use more VRAM")
+    @Config.Comment("Max amount of item renders to cache in VBOs for optimized item rendering. Higher number will use more VRAM")
     @Config.DefaultInt(256)
     @Config.RangeInt(min = 64, max = 1024)
     public static int itemRendererDisplayListCacheSize;
@@ -163,6 +178,18 @@ public class AngelicaConfig {
     @Config.DefaultBoolean(false)
     public static boolean sleepBeforeSwap;
 
+    @Config.Comment("Defer GL capability, blend function and depth state changes until the next draw, so that changes "
+        + "which are undone before anything is drawn never reach the driver [Experimental]")
+    @Config.DefaultBoolean(false)
+    @Config.RequiresMcRestart
+    public static boolean enableDeferredGLState;
+
+    @Config.Comment("Keep the modelview and projection matrix stacks on the client, and only load the current matrices "
+        + "into GL before something is drawn [Experimental]")
+    @Config.DefaultBoolean(false)
+    @Config.RequiresMcRestart
+    public static boolean enableClientSideMatrices;
+
     @Config.Comment("Allows unicode languages to use an odd gui scale")
     @Config.DefaultBoolean(true)
     public static boolean removeUnicodeEvenScaling;
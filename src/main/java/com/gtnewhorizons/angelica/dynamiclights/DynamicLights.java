@@ -38,10 +38,11 @@ public class DynamicLights {
     public static DynamicLightsMode Mode = DynamicLightsMode.OFF;
     public static boolean ShaderForce = false;
 
-    private static final double MAX_RADIUS = 7.75;
-    private static final double MAX_RADIUS_SQUARED = MAX_RADIUS * MAX_RADIUS;
+    static final double MAX_RADIUS = 7.75;
+    static final double MAX_RADIUS_SQUARED = MAX_RADIUS * MAX_RADIUS;
     private final Set<IDynamicLightSource> dynamicLightSources = new ObjectOpenHashSet<>();
     private final ReentrantReadWriteLock lightSourcesLock = new ReentrantReadWriteLock();
+    private volatile DynamicLightsSnapshot snapshot = DynamicLightsSnapshot.EMPTY;
     private long lastUpdate = System.currentTimeMillis();
     private int lastUpdateCount = 0;
 
@@ -65,21 +66,34 @@ public class DynamicLights {
      * @param renderer the renderer
      */
     public void updateAll(@NotNull SodiumWorldRenderer renderer) {
-        if (!isEnabled())
+        if (!isEnabled()) {
+            this.snapshot = DynamicLightsSnapshot.EMPTY;
             return;
+        }
+
+        this.lightSourcesLock.readLock().lock();
 
         long now = System.currentTimeMillis();
         if (now >= this.lastUpdate + Mode.getDelay()) {
             this.lastUpdate = now;
             this.lastUpdateCount = 0;
 
-            this.lightSourcesLock.readLock().lock();
             for (var lightSource : this.dynamicLightSources) {
                 if (lightSource.angelica$updateDynamicLight(renderer))
                     this.lastUpdateCount++;
             }
-            this.lightSourcesLock.readLock().unlock();
         }
+
+        this.snapshot = DynamicLightsSnapshot.capture(this.dynamicLightSources);
+        this.lightSourcesLock.readLock().unlock();
+    }
+
+    /**
+     * Returns the light sources as of the last {@link #updateAll(SodiumWorldRenderer)} call. The snapshot is
+     * immutable and can be read from any thread without locking.
+     */
+    public DynamicLightsSnapshot getSnapshot() {
+        return this.snapshot;
     }
 
     public int getLastUpdateCount() {
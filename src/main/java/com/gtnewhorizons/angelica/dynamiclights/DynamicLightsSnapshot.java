@@ -0,0 +1,154 @@
+package com.gtnewhorizons.angelica.dynamiclights;
+
+import com.gtnewhorizons.angelica.compat.mojang.ChunkSectionPos;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import net.minecraft.util.MathHelper;
+
+import java.util.Collection;
+
+/**
+ * An immutable copy of the dynamic light sources taken once per frame, bucketed by the chunk sections each source can
+ * affect. Chunk build tasks fetch the {@link SectionLights} for their section once and then query it without taking
+ * any locks.
+ */
+public final class DynamicLightsSnapshot {
+    public static final DynamicLightsSnapshot EMPTY = new DynamicLightsSnapshot(new Long2ObjectOpenHashMap<>());
+
+    // Chunk builds sample light for blocks up to two blocks outside of their section
+    private static final double SECTION_MARGIN = DynamicLights.MAX_RADIUS + 2.0;
+
+    private final Long2ObjectMap<SectionLights> sections;
+
+    private DynamicLightsSnapshot(Long2ObjectMap<SectionLights> sections) {
+        this.sections = sections;
+    }
+
+    /**
+     * Captures the position and luminance of every emitting light source. Must be called with the light source set
+     * locked against modification.
+     */
+    static DynamicLightsSnapshot capture(Collection<IDynamicLightSource> lightSources) {
+        final Long2ObjectMap<IntArrayList> buckets = new Long2ObjectOpenHashMap<>();
+
+        final int count = lightSources.size();
+        final double[] x = new double[count];
+        final double[] y = new double[count];
+        final double[] z = new double[count];
+        final int[] luminance = new int[count];
+
+        int n = 0;
+
+        for (IDynamicLightSource lightSource : lightSources) {
+            final int lum = lightSource.angelica$getLuminance();
+
+            if (lum <= 0) {
+                continue;
+            }
+
+            x[n] = lightSource.angelica$getDynamicLightX();
+            y[n] = lightSource.angelica$getDynamicLightY();
+            z[n] = lightSource.angelica$getDynamicLightZ();
+            luminance[n] = lum;
+
+            final int minX = MathHelper.floor_double(x[n] - SECTION_MARGIN) >> 4;
+            final int minY = MathHelper.floor_double(y[n] - SECTION_MARGIN) >> 4;
+            final int minZ = MathHelper.floor_double(z[n] - SECTION_MARGIN) >> 4;
+            final int maxX = MathHelper.floor_double(x[n] + SECTION_MARGIN) >> 4;
+            final int maxY = MathHelper.floor_double(y[n] + SECTION_MARGIN) >> 4;
+            final int maxZ = MathHelper.floor_double(z[n] + SECTION_MARGIN) >> 4;
+
+            for (int sx = minX; sx <= maxX; sx++) {
+                for (int sy = minY; sy <= maxY; sy++) {
+                    for (int sz = minZ; sz <= maxZ; sz++) {
+                        buckets.computeIfAbsent(ChunkSectionPos.asLong(sx, sy, sz), k -> new IntArrayList()).add(n);
+                    }
+                }
+            }
+
+            n++;
+        }
+
+        if (n == 0) {
+            return EMPTY;
+        }
+
+        final Long2ObjectMap<SectionLights> sections = new Long2ObjectOpenHashMap<>(buckets.size());
+
+        for (Long2ObjectMap.Entry<IntArrayList> entry : buckets.long2ObjectEntrySet()) {
+            final IntArrayList indices = entry.getValue();
+            final int size = indices.size();
+
+            final double[] sx = new double[size];
+            final double[] sy = new double[size];
+            final double[] sz = new double[size];
+            final int[] sl = new int[size];
+
+            for (int i = 0; i < size; i++) {
+                final int idx = indices.getInt(i);
+                sx[i] = x[idx];
+                sy[i] = y[idx];
+                sz[i] = z[idx];
+                sl[i] = luminance[idx];
+            }
+
+            sections.put(entry.getLongKey(), new SectionLights(sx, sy, sz, sl));
+        }
+
+        return new DynamicLightsSnapshot(sections);
+    }
+
+    /**
+     * Returns the light sources which can affect blocks in (or directly around) the given chunk section.
+     */
+    public SectionLights getSectionLights(ChunkSectionPos pos) {
+        final SectionLights lights = this.sections.get(pos.asLong());
+
+        return lights != null ? lights : SectionLights.EMPTY;
+    }
+
+    public static final class SectionLights {
+        public static final SectionLights EMPTY = new SectionLights(new double[0], new double[0], new double[0], new int[0]);
+
+        private final double[] x, y, z;
+        private final int[] luminance;
+
+        private SectionLights(double[] x, double[] y, double[] z, int[] luminance) {
+            this.x = x;
+            this.y = y;
+            this.z = z;
+            this.luminance = luminance;
+        }
+
+        public boolean isEmpty() {
+            return this.luminance.length == 0;
+        }
+
+        /**
+         * Equivalent to {@link DynamicLights#getDynamicLightLevel(int, int, int)}, restricted to the sources in this
+         * section.
+         */
+        public double getDynamicLightLevel(int x, int y, int z) {
+            double result = 0;
+
+            for (int i = 0; i < this.luminance.length; i++) {
+                final double dx = x - this.x[i] + 0.5;
+                final double dy = y - this.y[i] + 0.5;
+                final double dz = z - this.z[i] + 0.5;
+
+                final double distanceSquared = dx * dx + dy * dy + dz * dz;
+
+                if (distanceSquared <= DynamicLights.MAX_RADIUS_SQUARED) {
+                    final double lightLevel = (1.0 - Math.sqrt(distanceSquared) / DynamicLights.MAX_RADIUS) * this.luminance[i];
+
+                    if (lightLevel > result) {
+                        result = lightLevel;
+                    }
+                }
+            }
+
+            return MathHelper.clamp_double(result, 0, 15);
+        }
+    }
+}
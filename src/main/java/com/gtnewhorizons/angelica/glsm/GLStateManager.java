@@ -1,9 +1,12 @@
 package com.gtnewhorizons.angelica.glsm;
 
+import com.google.common.collect.ObjectArrays;
 import com.gtnewhorizon.gtnhlib.client.renderer.stacks.IStateStack;
 import com.gtnewhorizon.gtnhlib.client.renderer.vbo.VBOManager;
 import com.gtnewhorizons.angelica.AngelicaMod;
 import com.gtnewhorizons.angelica.config.AngelicaConfig;
+import com.gtnewhorizons.angelica.glsm.displaylist.CompiledDisplayList;
+import com.gtnewhorizons.angelica.glsm.displaylist.DisplayListCompiler;
 import com.gtnewhorizons.angelica.glsm.stacks.AlphaStateStack;
 import com.gtnewhorizons.angelica.glsm.stacks.BlendStateStack;
 import com.gtnewhorizons.angelica.glsm.stacks.BooleanStateStack;
@@ -17,7 +20,10 @@ import com.gtnewhorizons.angelica.glsm.stacks.LightStateStack;
 import com.gtnewhorizons.angelica.glsm.stacks.MaterialStateStack;
 import com.gtnewhorizons.angelica.glsm.stacks.MatrixModeStack;
 import com.gtnewhorizons.angelica.glsm.stacks.ViewPortStateStack;
+import com.gtnewhorizons.angelica.glsm.states.BlendState;
+import com.gtnewhorizons.angelica.glsm.states.BooleanState;
 import com.gtnewhorizons.angelica.glsm.states.Color4;
+import com.gtnewhorizons.angelica.glsm.states.DepthState;
 import com.gtnewhorizons.angelica.glsm.states.ISettableState;
 import com.gtnewhorizons.angelica.glsm.states.TextureBinding;
 import com.gtnewhorizons.angelica.glsm.states.TextureUnitArray;
@@ -33,6 +39,7 @@ import it.unimi.dsi.fastutil.ints.IntArrayList;
 import it.unimi.dsi.fastutil.ints.IntOpenHashSet;
 import it.unimi.dsi.fastutil.ints.IntStack;
 import it.unimi.dsi.fastutil.objects.Object2ObjectArrayMap;
+import it.unimi.dsi.fastutil.objects.ObjectArrayList;
 import it.unimi.dsi.fastutil.objects.ObjectArraySet;
 import lombok.Getter;
 import lombok.Setter;
@@ -180,6 +187,8 @@ public class GLStateManager {
 
         modelViewMatrix.clear();
         projectionMatrix.clear();
+        modelViewUpload.invalidate();
+        projectionUpload.invalidate();
     }
 
     // Iris Listeners
@@ -200,6 +209,31 @@ public class GLStateManager {
     private static int glListId = -1;
     private static final Map<IStateStack<?>, ISettableState<?>> glListStates = new Object2ObjectArrayMap<>();
     private static final Int2ObjectMap<Set<Map.Entry<IStateStack<?>, ISettableState<?>>>> glListChanges = new Int2ObjectOpenHashMap<>();
+    private static int replayingLists; /* Depth of compiled display lists being replayed */
+
+    // Deferred State
+    @Getter private static boolean deferringState = false;
+    private static final BooleanState[] deferredCaps = ObjectArrays.concat(new BooleanState[] { alphaTest, blendMode, colorMaterial, cullState, depthTest,
+        fogMode, lightingState, rescaleNormalState, scissorTest }, lightStates, BooleanState.class);
+    private static final List<BooleanState> dirtyCaps = new ObjectArrayList<>();
+    private static final BlendState appliedBlendState = new BlendState();
+    private static final DepthState appliedDepthState = new DepthState();
+    private static boolean blendStateDirty;
+    private static boolean depthStateDirty;
+    private static int deferredCalls;
+    private static int issuedCalls;
+    @Getter private static int avoidedCallsLastFrame;
+    @Getter private static int issuedCallsLastFrame;
+
+    // Client-side Matrices
+    @Getter private static boolean clientSideMatrices = false;
+    private static final int MATRIX_ISSUE = 1;
+    private static final int MATRIX_TRACK = 2;
+    private static final FloatBuffer matrixBuffer = BufferUtils.createFloatBuffer(16);
+    private static final MatrixUpload modelViewUpload = new MatrixUpload(GL11.GL_MODELVIEW, GL11.GL_MODELVIEW_MATRIX, modelViewMatrix);
+    private static final MatrixUpload projectionUpload = new MatrixUpload(GL11.GL_PROJECTION, GL11.GL_PROJECTION_MATRIX, projectionMatrix);
+    // Lists that leave a matrix changed once called
+    private static final IntOpenHashSet matrixChangingLists = new IntOpenHashSet();
 
 
 
@@ -272,6 +306,13 @@ public class GLStateManager {
         }
         if(BYPASS_CACHE) {
             LOGGER.info("GLStateManager cache bypassed");
+        } else if (AngelicaConfig.enableDeferredGLState) {
+            LOGGER.info("GLStateManager deferring state changes");
+            setDeferringState(true);
+        }
+        if(!BYPASS_CACHE && AngelicaConfig.enableClientSideMatrices) {
+            LOGGER.info("GLStateManager keeping matrices client-side");
+            setClientSideMatrices(true);
         }
         if(AngelicaMod.lwjglDebug) {
             LOGGER.info("Enabling additional LWJGL debug output");
@@ -295,7 +336,219 @@ public class GLStateManager {
     }
 
     public static boolean shouldBypassCache() {
-        return BYPASS_CACHE || runningSplash;
+        return BYPASS_CACHE || runningSplash || replayingLists > 0;
+    }
+
+    /**
+     * While deferring, capability toggles, the blend function and the depth function and mask only update the tracked
+     * state, and whatever differs from what GL was last set to is issued by {@link #flushState()} right before the next
+     * draw. Toggles which are undone before anything is drawn then never reach the driver.
+     */
+    public static void setDeferringState(boolean defer) {
+        if (defer == deferringState) {
+            return;
+        }
+
+        if (defer) {
+            // GL matches the tracked state while changes are issued right away
+            syncDeferredState();
+        } else {
+            flushState();
+        }
+        deferringState = defer;
+    }
+
+    private static boolean shouldDeferState() {
+        return deferringState && !poppingAttributes && !shouldBypassCache();
+    }
+
+    /**
+     * Queues a capability toggle for the next flush, if state changes are being deferred.
+     * @return Whether the change was deferred, otherwise the caller has to issue it
+     */
+    public static boolean deferState(BooleanState state) {
+        if (!shouldDeferState()) {
+            return false;
+        }
+
+        if (state.markDirty()) {
+            dirtyCaps.add(state);
+        }
+        deferredCalls++;
+        return true;
+    }
+
+    private static boolean deferBlendState() {
+        if (!shouldDeferState()) {
+            return false;
+        }
+
+        blendStateDirty = true;
+        deferredCalls++;
+        return true;
+    }
+
+    private static boolean deferDepthState() {
+        if (!shouldDeferState()) {
+            return false;
+        }
+
+        depthStateDirty = true;
+        deferredCalls++;
+        return true;
+    }
+
+    /**
+     * Issues the net change of every deferred state since the last flush. This is called by all the draw entry points
+     * in here, and has to be called by anything drawing with GL directly while state changes are being deferred.
+     */
+    public static void flushState() {
+        if (clientSideMatrices) {
+            if (modelViewUpload.flush()) issuedCalls++;
+            if (projectionUpload.flush()) issuedCalls++;
+        }
+
+        final int size = dirtyCaps.size();
+
+        for (int i = 0; i < size; i++) {
+            if (dirtyCaps.get(i).flush()) {
+                issuedCalls++;
+            }
+        }
+        dirtyCaps.clear();
+
+        if (blendStateDirty) {
+            blendStateDirty = false;
+
+            if (!appliedBlendState.sameAs(blendState)) {
+                appliedBlendState.set(blendState);
+                if (blendState.getSrcRgb() == blendState.getSrcAlpha() && blendState.getDstRgb() == blendState.getDstAlpha()) {
+                    GL11.glBlendFunc(blendState.getSrcRgb(), blendState.getDstRgb());
+                } else {
+                    OpenGlHelper.glBlendFunc(blendState.getSrcRgb(), blendState.getDstRgb(), blendState.getSrcAlpha(), blendState.getDstAlpha());
+                }
+                issuedCalls++;
+            }
+        }
+
+        if (depthStateDirty) {
+            depthStateDirty = false;
+
+            if (appliedDepthState.getFunc() != depthState.getFunc()) {
+                appliedDepthState.setFunc(depthState.getFunc());
+                GL11.glDepthFunc(depthState.getFunc());
+                issuedCalls++;
+            }
+            if (appliedDepthState.isEnabled() != depthState.isEnabled()) {
+                appliedDepthState.setEnabled(depthState.isEnabled());
+                GL11.glDepthMask(depthState.isEnabled());
+                issuedCalls++;
+            }
+        }
+    }
+
+    /**
+     * Records that GL matches the tracked state, after something other than a flush brought them back in line.
+     */
+    private static void syncDeferredState() {
+        for (BooleanState cap : deferredCaps) {
+            cap.syncApplied();
+        }
+        dirtyCaps.clear();
+
+        appliedBlendState.set(blendState);
+        appliedDepthState.set(depthState);
+        blendStateDirty = false;
+        depthStateDirty = false;
+    }
+
+    /**
+     * With client-side matrices, operations on the modelview and projection stacks only update the tracked stacks, and
+     * {@link #flushState()} loads the top of each into GL before the next draw, if it differs from what was loaded
+     * last. Pushing, transforming and popping around a draw then costs at most one upload per stack.
+     */
+    public static void setClientSideMatrices(boolean clientSide) {
+        if (clientSide == clientSideMatrices) {
+            return;
+        }
+
+        if (clientSide) {
+            // GL matches the tracked stacks while matrix operations are issued right away
+            modelViewUpload.sync();
+            projectionUpload.sync();
+        } else {
+            modelViewUpload.flush();
+            projectionUpload.flush();
+        }
+        clientSideMatrices = clientSide;
+    }
+
+    /**
+     * Loads the tracked modelview into GL right away. Light positions and directions, eye planes, clip planes and raster
+     * positions are transformed by the matrices GL holds when they are set, not at the next draw. Inside a list being
+     * compiled they are only transformed once the list is called, which flushes first.
+     */
+    public static void flushModelViewMatrix() {
+        if (clientSideMatrices && glListMode == 0 && modelViewUpload.flush()) {
+            issuedCalls++;
+        }
+    }
+
+    private static void flushRasterPosMatrices() {
+        flushModelViewMatrix();
+        if (clientSideMatrices && glListMode == 0 && projectionUpload.flush()) {
+            issuedCalls++;
+        }
+    }
+
+    /**
+     * Decides whether a matrix operation on the current stack goes to GL, the tracked stack, or both. While a list is
+     * being compiled, the operations {@link DisplayListCompiler} doesn't record are issued into it and counted towards
+     * whether calling it leaves a matrix changed.
+     * @param depthChange 1 for a push, -1 for a pop, 0 for anything changing the top of the stack
+     */
+    private static int matrixOpTarget(int depthChange) {
+        final int mode = matrixMode.getMode();
+        if (!clientSideMatrices || (mode != GL11.GL_MODELVIEW && mode != GL11.GL_PROJECTION)) {
+            return MATRIX_ISSUE | MATRIX_TRACK;
+        }
+
+        final MatrixUpload upload = mode == GL11.GL_MODELVIEW ? modelViewUpload : projectionUpload;
+
+        if (glListMode != 0) {
+            upload.listDepth += depthChange;
+            if (upload.listDepth < 0 || (depthChange == 0 && upload.listDepth == 0)) {
+                matrixChangingLists.add(glListId);
+            }
+
+            // A compiled list only changes the matrix once it's called
+            if (glListMode == GL11.GL_COMPILE) {
+                return MATRIX_ISSUE;
+            }
+            upload.invalidate();
+            return MATRIX_ISSUE | MATRIX_TRACK;
+        }
+
+        if (shouldBypassCache()) {
+            upload.invalidate();
+            return MATRIX_ISSUE | MATRIX_TRACK;
+        }
+
+        // Pushing doesn't change the top of the stack
+        if (depthChange <= 0) {
+            upload.dirty = true;
+        }
+        deferredCalls++;
+        return MATRIX_TRACK;
+    }
+
+    public static void endFrame() {
+        flushState();
+
+        avoidedCallsLastFrame = deferredCalls - issuedCalls;
+        issuedCallsLastFrame = issuedCalls;
+        deferredCalls = 0;
+        issuedCalls = 0;
     }
 
     // LWJGL Overrides
@@ -319,7 +572,13 @@ public class GLStateManager {
             case GL11.GL_SCISSOR_TEST -> enableScissorTest();
             case GL11.GL_TEXTURE_2D -> enableTexture();
             case GL12.GL_RESCALE_NORMAL -> enableRescaleNormal();
-            default -> GL11.glEnable(cap);
+            default -> {
+                if (DisplayListCompiler.isRecording()) {
+                    DisplayListCompiler.recordCapability(cap, true);
+                } else {
+                    GL11.glEnable(cap);
+                }
+            }
         }
     }
 
@@ -343,7 +602,13 @@ public class GLStateManager {
             case GL11.GL_SCISSOR_TEST -> disableScissorTest();
             case GL11.GL_TEXTURE_2D -> disableTexture();
             case GL12.GL_RESCALE_NORMAL -> disableRescaleNormal();
-            default -> GL11.glDisable(cap);
+            default -> {
+                if (DisplayListCompiler.isRecording()) {
+                    DisplayListCompiler.recordCapability(cap, false);
+                } else {
+                    GL11.glDisable(cap);
+                }
+            }
         }
     }
 
@@ -442,6 +707,8 @@ public class GLStateManager {
             case GL11.GL_MATRIX_MODE -> matrixMode.getMode();
             case GL11.GL_SHADE_MODEL -> shadeModelState.getValue();
             case GL11.GL_TEXTURE_BINDING_2D -> getBoundTexture();
+            case GL11.GL_BLEND_DST -> blendState.getDstRgb();
+            case GL11.GL_BLEND_SRC -> blendState.getSrcRgb();
             case GL14.GL_BLEND_DST_ALPHA -> blendState.getDstAlpha();
             case GL14.GL_BLEND_DST_RGB -> blendState.getDstRgb();
             case GL14.GL_BLEND_SRC_ALPHA -> blendState.getSrcAlpha();
@@ -594,13 +861,21 @@ public class GLStateManager {
             blendState.setDstRgb(dstFactor);
             blendState.setSrcAlpha(GL11.GL_ONE);
             blendState.setDstAlpha(GL11.GL_ONE_MINUS_SRC_ALPHA);
-            OpenGlHelper.glBlendFunc(srcFactor, dstFactor, GL11.GL_ONE, GL11.GL_ONE_MINUS_SRC_ALPHA);
+            if (!deferBlendState()) {
+                OpenGlHelper.glBlendFunc(srcFactor, dstFactor, GL11.GL_ONE, GL11.GL_ONE_MINUS_SRC_ALPHA);
+            }
             return;
         }
-        if (shouldBypassCache() || blendState.getSrcRgb() != srcFactor || blendState.getDstRgb() != dstFactor) {
+        // glBlendFunc sets the alpha factors as well
+        if (shouldBypassCache() || blendState.getSrcRgb() != srcFactor || blendState.getDstRgb() != dstFactor || blendState.getSrcAlpha() != srcFactor
+            || blendState.getDstAlpha() != dstFactor) {
             blendState.setSrcRgb(srcFactor);
             blendState.setDstRgb(dstFactor);
-            GL11.glBlendFunc(srcFactor, dstFactor);
+            blendState.setSrcAlpha(srcFactor);
+            blendState.setDstAlpha(dstFactor);
+            if (!deferBlendState()) {
+                GL11.glBlendFunc(srcFactor, dstFactor);
+            }
         }
 
         // Iris
@@ -632,7 +907,9 @@ public class GLStateManager {
             blendState.setDstRgb(dstRgb);
             blendState.setSrcAlpha(srcAlpha);
             blendState.setDstAlpha(dstAlpha);
-            OpenGlHelper.glBlendFunc(srcRgb, dstRgb, srcAlpha, dstAlpha);
+            if (!deferBlendState()) {
+                OpenGlHelper.glBlendFunc(srcRgb, dstRgb, srcAlpha, dstAlpha);
+            }
         }
 
         // Iris
@@ -655,7 +932,9 @@ public class GLStateManager {
     public static void glDepthFunc(int func) {
         if (shouldBypassCache() || func != depthState.getFunc() ) {
             depthState.setFunc(func);
-            GL11.glDepthFunc(func);
+            if (!deferDepthState()) {
+                GL11.glDepthFunc(func);
+            }
         }
     }
 
@@ -669,7 +948,9 @@ public class GLStateManager {
 
         if (shouldBypassCache() || mask != depthState.isEnabled()) {
             depthState.setEnabled(mask);
-            GL11.glDepthMask(mask);
+            if (!deferDepthState()) {
+                GL11.glDepthMask(mask);
+            }
         }
     }
 
@@ -737,6 +1018,15 @@ public class GLStateManager {
 
     private static boolean changeColor(float red, float green, float blue, float alpha) {
         // Helper function for glColor*
+        if (DisplayListCompiler.isRecording()) {
+            // Recorded whether it's redundant or not, the color can be anything by the time the list is called
+            color.setRed(red);
+            color.setGreen(green);
+            color.setBlue(blue);
+            color.setAlpha(alpha);
+            DisplayListCompiler.recordColor(red, green, blue, alpha);
+            return false;
+        }
         if (shouldBypassCache() || red != color.getRed() || green != color.getGreen() || blue != color.getBlue() || alpha != color.getAlpha()) {
             color.setRed(red);
             color.setGreen(green);
@@ -952,31 +1242,58 @@ public class GLStateManager {
         textures.getTextureUnitStates(textureUnit).disable();
     }
 
+    public static void glTexGen(int coord, int pname, FloatBuffer params) {
+        if (pname == GL11.GL_EYE_PLANE) flushModelViewMatrix();
+        GL11.glTexGen(coord, pname, params);
+    }
+    public static void glTexGen(int coord, int pname, IntBuffer params) {
+        if (pname == GL11.GL_EYE_PLANE) flushModelViewMatrix();
+        GL11.glTexGen(coord, pname, params);
+    }
+    public static void glTexGen(int coord, int pname, DoubleBuffer params) {
+        if (pname == GL11.GL_EYE_PLANE) flushModelViewMatrix();
+        GL11.glTexGen(coord, pname, params);
+    }
+
+    public static void glClipPlane(int plane, DoubleBuffer equation) {
+        flushModelViewMatrix();
+        GL11.glClipPlane(plane, equation);
+    }
+
     public static void glRasterPos2f(float x, float y) {
+        flushRasterPosMatrices();
         GL11.glRasterPos2f(x, y);
     }
     public static void glRasterPos2d(double x, double y) {
+        flushRasterPosMatrices();
         GL11.glRasterPos2d(x, y);
     }
     public static void glRasterPos2i(int x, int y) {
+        flushRasterPosMatrices();
         GL11.glRasterPos2i(x, y);
     }
     public static void glRasterPos3f(float x, float y, float z) {
+        flushRasterPosMatrices();
         GL11.glRasterPos3f(x, y, z);
     }
     public static void glRasterPos3d(double x, double y, double z) {
+        flushRasterPosMatrices();
         GL11.glRasterPos3d(x, y, z);
     }
     public static void glRasterPos3i(int x, int y, int z) {
+        flushRasterPosMatrices();
         GL11.glRasterPos3i(x, y, z);
     }
     public static void glRasterPos4f(float x, float y, float z, float w) {
+        flushRasterPosMatrices();
         GL11.glRasterPos4f(x, y, z, w);
     }
     public static void glRasterPos4d(double x, double y, double z, double w) {
+        flushRasterPosMatrices();
         GL11.glRasterPos4d(x, y, z, w);
     }
     public static void glRasterPos4i(int x, int y, int z, int w) {
+        flushRasterPosMatrices();
         GL11.glRasterPos4i(x, y, z, w);
     }
 
@@ -998,6 +1315,7 @@ public class GLStateManager {
         if (AngelicaConfig.enableIris) {
             Iris.getPipelineManager().getPipeline().ifPresent(WorldRenderingPipeline::syncProgram);
         }
+        flushState();
     }
 
     public static void glBegin(int mode) {
@@ -1248,8 +1566,18 @@ public class GLStateManager {
 
         glListId = list;
         glListMode = mode;
+        // Anything still pending belongs before the list, not inside it
+        flushState();
+        DisplayListCompiler.remove(list);
+        matrixChangingLists.remove(list);
+        modelViewUpload.listDepth = 0;
+        projectionUpload.listDepth = 0;
         GL11.glNewList(list, mode);
 
+        if (AngelicaConfig.enableVBODisplayLists && mode == GL11.GL_COMPILE && isMainThread()) {
+            DisplayListCompiler.begin(list);
+        }
+
         List<IStateStack<?>> stacks = Feature.maskToFeatures(GL11.GL_ALL_ATTRIB_BITS);
         int size = stacks.size();
 
@@ -1275,6 +1603,8 @@ public class GLStateManager {
             throw new RuntimeException("glEndList called outside of a display list!");
         }
 
+        flushState();
+
         final Set<Map.Entry<IStateStack<?>, ISettableState<?>>> changedStates = new ObjectArraySet<>();
         for(Map.Entry<IStateStack<?>, ISettableState<?>> entry : glListStates.entrySet()) {
             // If the current stack state is different than the copy of the state at the start
@@ -1286,33 +1616,97 @@ public class GLStateManager {
         if(changedStates.size() != 0) {
             glListChanges.put(glListId, changedStates);
         }
+        if (modelViewUpload.listDepth != 0 || projectionUpload.listDepth != 0) {
+            matrixChangingLists.add(glListId);
+        }
         if(glListMode == GL11.GL_COMPILE) {
             // GL_COMPILE doesn't actually apply the state, just stores it for replay in glCallList, so we'll
             // roll back any changes that we tracked
             popState();
+            if (deferringState) {
+                syncDeferredState();
+            }
         }
         glListId = -1;
         glListStates.clear();
         glListMode = 0;
-        GL11.glEndList();
+        if (DisplayListCompiler.isRecording()) {
+            DisplayListCompiler.end();
+        } else {
+            GL11.glEndList();
+        }
 
     }
 
     public static void glCallList(int list) {
-        if(list < 0) {
+        final boolean changesMatrices = clientSideMatrices && matrixChangingLists.contains(list);
+        if (changesMatrices && glListMode != 0) {
+            matrixChangingLists.add(glListId);
+        }
+
+        if (DisplayListCompiler.isRecording()) {
+            DisplayListCompiler.recordCall(list);
+            // Replayed with the list being compiled, but the tracked state has to follow it now
+            applyListChanges(list);
+        } else if(list < 0) {
+            flushState();
             VBOManager.get(list).render();
         } else {
             trySyncProgram();
-            GL11.glCallList(list);
-            if(glListChanges.containsKey(list)) {
-                for(Map.Entry<IStateStack<?>, ISettableState<?>> entry : glListChanges.get(list)) {
-                    // Set the stack to the cached state at the end of the call list compilation
-                    ((ISettableState<?>)entry.getKey()).set(entry.getValue());
-                }
+            final CompiledDisplayList compiled = DisplayListCompiler.get(list);
+            if (compiled != null) {
+                renderCompiledList(compiled);
+            } else {
+                GL11.glCallList(list);
+            }
+            applyListChanges(list);
+            if (compiled != null && deferringState) {
+                // The replayed state changes went straight to GL
+                syncDeferredState();
+            }
+            if (changesMatrices && glListMode != GL11.GL_COMPILE) {
+                modelViewUpload.readBack();
+                projectionUpload.readBack();
             }
         }
     }
 
+    /**
+     * The segments of a compiled list change state behind the cache's back, so the state changes recorded between them
+     * are issued right away instead of being compared against the cache or deferred. The tracked state still follows
+     * them, and is set to what the list changed once it was called, as for any other list.
+     */
+    private static void renderCompiledList(CompiledDisplayList compiled) {
+        flushState();
+        replayingLists++;
+        try {
+            compiled.render();
+        } finally {
+            replayingLists--;
+        }
+    }
+
+    private static void applyListChanges(int list) {
+        if(glListChanges.containsKey(list)) {
+            for(Map.Entry<IStateStack<?>, ISettableState<?>> entry : glListChanges.get(list)) {
+                // Set the stack to the cached state at the end of the call list compilation
+                ((ISettableState<?>)entry.getKey()).set(entry.getValue());
+            }
+            if (deferringState) {
+                syncDeferredState();
+            }
+        }
+    }
+
+    public static void glDeleteLists(int list, int range) {
+        for (int i = list; i < list + range; i++) {
+            DisplayListCompiler.remove(i);
+            glListChanges.remove(i);
+            matrixChangingLists.remove(i);
+        }
+        GL11.glDeleteLists(list, range);
+    }
+
     public static void pushState(int mask) {
         attribs.push(mask);
 
@@ -1337,18 +1731,25 @@ public class GLStateManager {
 
     public static void glClear(int mask) {
         // TODO: Implement
+        flushState();
         GL11.glClear(mask);
     }
     public static void glPushAttrib(int mask) {
+        // GL has to hold the tracked state when it takes its copy
+        flushState();
         pushState(mask);
         GL11.glPushAttrib(mask);
     }
 
     public static void glPopAttrib() {
+        flushState();
         poppingAttributes = true;
         popState();
         GL11.glPopAttrib();
         poppingAttributes = false;
+        if (deferringState) {
+            syncDeferredState();
+        }
     }
 
     // Matrix Operations
@@ -1357,14 +1758,18 @@ public class GLStateManager {
     }
 
     public static void glLoadMatrix(FloatBuffer m) {
-        getMatrixStack().set(m);
-        GL11.glLoadMatrix(m);
+        final int target = matrixOpTarget(0);
+        if ((target & MATRIX_TRACK) != 0) getMatrixStack().set(m);
+        if ((target & MATRIX_ISSUE) != 0) GL11.glLoadMatrix(m);
     }
 
     public static void glLoadMatrix(DoubleBuffer m) {
-        conversionMatrix4d.set(m);
-        getMatrixStack().set(conversionMatrix4d);
-        GL11.glLoadMatrix(m);
+        final int target = matrixOpTarget(0);
+        if ((target & MATRIX_TRACK) != 0) {
+            conversionMatrix4d.set(m);
+            getMatrixStack().set(conversionMatrix4d);
+        }
+        if ((target & MATRIX_ISSUE) != 0) GL11.glLoadMatrix(m);
     }
 
     public static Matrix4fStack getMatrixStack() {
@@ -1383,69 +1788,122 @@ public class GLStateManager {
     }
 
     public static void glLoadIdentity() {
-        GL11.glLoadIdentity();
-        getMatrixStack().identity();
+        if (DisplayListCompiler.isRecording()) {
+            DisplayListCompiler.recordLoadIdentity();
+            return;
+        }
+        final int target = matrixOpTarget(0);
+        if ((target & MATRIX_ISSUE) != 0) GL11.glLoadIdentity();
+        if ((target & MATRIX_TRACK) != 0) getMatrixStack().identity();
     }
 
     public static void glTranslatef(float x, float y, float z) {
-        GL11.glTranslatef(x, y, z);
-        getMatrixStack().translate(x, y, z);
+        if (DisplayListCompiler.isRecording()) {
+            DisplayListCompiler.recordTranslate(x, y, z);
+            return;
+        }
+        final int target = matrixOpTarget(0);
+        if ((target & MATRIX_ISSUE) != 0) GL11.glTranslatef(x, y, z);
+        if ((target & MATRIX_TRACK) != 0) getMatrixStack().translate(x, y, z);
     }
     public static void glTranslated(double x, double y, double z) {
-        GL11.glTranslated(x, y, z);
-        getMatrixStack().translate((float) x, (float) y, (float) z);
+        if (DisplayListCompiler.isRecording()) {
+            DisplayListCompiler.recordTranslate((float) x, (float) y, (float) z);
+            return;
+        }
+        final int target = matrixOpTarget(0);
+        if ((target & MATRIX_ISSUE) != 0) GL11.glTranslated(x, y, z);
+        if ((target & MATRIX_TRACK) != 0) getMatrixStack().translate((float) x, (float) y, (float) z);
     }
 
     public static void glScalef(float x, float y, float z) {
-        GL11.glScalef(x, y, z);
-        getMatrixStack().scale(x, y, z);
+        if (DisplayListCompiler.isRecording()) {
+            DisplayListCompiler.recordScale(x, y, z);
+            return;
+        }
+        final int target = matrixOpTarget(0);
+        if ((target & MATRIX_ISSUE) != 0) GL11.glScalef(x, y, z);
+        if ((target & MATRIX_TRACK) != 0) getMatrixStack().scale(x, y, z);
     }
 
     public static void glScaled(double x, double y, double z) {
-        GL11.glScaled(x, y, z);
-        getMatrixStack().scale((float) x, (float) y, (float) z);
+        if (DisplayListCompiler.isRecording()) {
+            DisplayListCompiler.recordScale((float) x, (float) y, (float) z);
+            return;
+        }
+        final int target = matrixOpTarget(0);
+        if ((target & MATRIX_ISSUE) != 0) GL11.glScaled(x, y, z);
+        if ((target & MATRIX_TRACK) != 0) getMatrixStack().scale((float) x, (float) y, (float) z);
     }
 
     private static final Matrix4f tempMatrix4f = new Matrix4f();
     public static void glMultMatrix(FloatBuffer floatBuffer) {
-        GL11.glMultMatrix(floatBuffer);
-        tempMatrix4f.set(floatBuffer);
-        getMatrixStack().mul(tempMatrix4f);
+        final int target = matrixOpTarget(0);
+        if ((target & MATRIX_ISSUE) != 0) GL11.glMultMatrix(floatBuffer);
+        if ((target & MATRIX_TRACK) != 0) {
+            tempMatrix4f.set(floatBuffer);
+            getMatrixStack().mul(tempMatrix4f);
+        }
     }
 
     public static final Matrix4d conversionMatrix4d = new Matrix4d();
     public static final Matrix4f conversionMatrix4f = new Matrix4f();
     public static void glMultMatrix(DoubleBuffer matrix) {
-        GL11.glMultMatrix(matrix);
-        conversionMatrix4d.set(matrix);
-        conversionMatrix4f.set(conversionMatrix4d);
-        getMatrixStack().mul(conversionMatrix4f);
+        final int target = matrixOpTarget(0);
+        if ((target & MATRIX_ISSUE) != 0) GL11.glMultMatrix(matrix);
+        if ((target & MATRIX_TRACK) != 0) {
+            conversionMatrix4d.set(matrix);
+            conversionMatrix4f.set(conversionMatrix4d);
+            getMatrixStack().mul(conversionMatrix4f);
+        }
     }
 
     private static final Vector3f rotation = new Vector3f();
     public static void glRotatef(float angle, float x, float y, float z) {
-        GL11.glRotatef(angle, x, y, z);
-        rotation.set(x, y, z).normalize();
-        getMatrixStack().rotate((float)Math.toRadians(angle), rotation);
+        if (DisplayListCompiler.isRecording()) {
+            DisplayListCompiler.recordRotate(angle, x, y, z);
+            return;
+        }
+        final int target = matrixOpTarget(0);
+        if ((target & MATRIX_ISSUE) != 0) GL11.glRotatef(angle, x, y, z);
+        if ((target & MATRIX_TRACK) != 0) {
+            rotation.set(x, y, z).normalize();
+            getMatrixStack().rotate((float)Math.toRadians(angle), rotation);
+        }
     }
 
     public static void glRotated(double angle, double x, double y, double z) {
-        GL11.glRotated(angle, x, y, z);
-        rotation.set(x, y, z).normalize();
-        getMatrixStack().rotate((float)Math.toRadians(angle), rotation);
+        if (DisplayListCompiler.isRecording()) {
+            DisplayListCompiler.recordRotate((float) angle, (float) x, (float) y, (float) z);
+            return;
+        }
+        final int target = matrixOpTarget(0);
+        if ((target & MATRIX_ISSUE) != 0) GL11.glRotated(angle, x, y, z);
+        if ((target & MATRIX_TRACK) != 0) {
+            rotation.set(x, y, z).normalize();
+            getMatrixStack().rotate((float)Math.toRadians(angle), rotation);
+        }
     }
 
     public static void glOrtho(double left, double right, double bottom, double top, double zNear, double zFar) {
-        GL11.glOrtho(left, right, bottom, top, zNear, zFar);
-        getMatrixStack().ortho((float)left, (float)right, (float)bottom, (float)top, (float)zNear, (float)zFar);
+        final int target = matrixOpTarget(0);
+        if ((target & MATRIX_ISSUE) != 0) GL11.glOrtho(left, right, bottom, top, zNear, zFar);
+        if ((target & MATRIX_TRACK) != 0) getMatrixStack().ortho((float)left, (float)right, (float)bottom, (float)top, (float)zNear, (float)zFar);
     }
 
     public static void glFrustum(double left, double right, double bottom, double top, double zNear, double zFar) {
-        GL11.glFrustum(left, right, bottom, top, zNear, zFar);
-        getMatrixStack().frustum((float)left, (float)right, (float)bottom, (float)top, (float)zNear, (float)zFar);
+        final int target = matrixOpTarget(0);
+        if ((target & MATRIX_ISSUE) != 0) GL11.glFrustum(left, right, bottom, top, zNear, zFar);
+        if ((target & MATRIX_TRACK) != 0) getMatrixStack().frustum((float)left, (float)right, (float)bottom, (float)top, (float)zNear, (float)zFar);
     }
     public static void glPushMatrix() {
-        GL11.glPushMatrix();
+        if (DisplayListCompiler.isRecording()) {
+            DisplayListCompiler.recordPushMatrix();
+            return;
+        }
+        final int target = matrixOpTarget(1);
+        if ((target & MATRIX_ISSUE) != 0) GL11.glPushMatrix();
+        if ((target & MATRIX_TRACK) == 0) return;
         try {
             getMatrixStack().pushMatrix();
         } catch(IllegalStateException ignored) {
@@ -1456,7 +1914,13 @@ public class GLStateManager {
     }
 
     public static void glPopMatrix() {
-        GL11.glPopMatrix();
+        if (DisplayListCompiler.isRecording()) {
+            DisplayListCompiler.recordPopMatrix();
+            return;
+        }
+        final int target = matrixOpTarget(-1);
+        if ((target & MATRIX_ISSUE) != 0) GL11.glPopMatrix();
+        if ((target & MATRIX_TRACK) == 0) return;
         try {
             getMatrixStack().popMatrix();
         } catch(IllegalStateException ignored) {
@@ -1471,10 +1935,13 @@ public class GLStateManager {
     public static void gluPerspective(float fovy, float aspect, float zNear, float zFar) {
         perspectiveMatrix.identity().perspective((float)Math.toRadians(fovy), aspect, zNear, zFar);
 
-        perspectiveMatrix.get(0, perspectiveBuffer);
-        GL11.glMultMatrix(perspectiveBuffer);
+        final int target = matrixOpTarget(0);
+        if ((target & MATRIX_ISSUE) != 0) {
+            perspectiveMatrix.get(0, perspectiveBuffer);
+            GL11.glMultMatrix(perspectiveBuffer);
+        }
 
-        getMatrixStack().mul(perspectiveMatrix);
+        if ((target & MATRIX_TRACK) != 0) getMatrixStack().mul(perspectiveMatrix);
 
     }
 
@@ -1877,4 +2344,64 @@ public class GLStateManager {
 
 
 
+
+    private static final class MatrixUpload {
+        private final int mode;
+        private final int getEnum;
+        private final Matrix4fStack stack;
+        private final Matrix4f uploaded = new Matrix4f();
+        private boolean uploadedValid; /* Whether GL holds the uploaded matrix */
+        private boolean dirty;
+        private int listDepth; /* Relative to the start of the list being compiled */
+
+        private MatrixUpload(int mode, int getEnum, Matrix4fStack stack) {
+            this.mode = mode;
+            this.getEnum = getEnum;
+            this.stack = stack;
+        }
+
+        private void invalidate() {
+            this.uploadedValid = false;
+            this.dirty = true;
+        }
+
+        private void sync() {
+            this.uploaded.set(this.stack);
+            this.uploadedValid = true;
+            this.dirty = false;
+        }
+
+        /**
+         * @return Whether the matrix had to be loaded
+         */
+        private boolean flush() {
+            if (!this.dirty) {
+                return false;
+            }
+            this.dirty = false;
+
+            if (this.uploadedValid && this.uploaded.equals(this.stack, 0.0f)) {
+                return false;
+            }
+
+            this.stack.get(0, matrixBuffer);
+            final int current = matrixMode.getMode();
+            if (current != this.mode) GL11.glMatrixMode(this.mode);
+            GL11.glLoadMatrix(matrixBuffer);
+            if (current != this.mode) GL11.glMatrixMode(current);
+
+            this.uploaded.set(this.stack);
+            this.uploadedValid = true;
+            return true;
+        }
+
+        /**
+         * Takes over the matrix from GL, after a display list changed it.
+         */
+        private void readBack() {
+            GL11.glGetFloat(this.getEnum, matrixBuffer);
+            this.stack.set(matrixBuffer);
+            this.sync();
+        }
+    }
 }
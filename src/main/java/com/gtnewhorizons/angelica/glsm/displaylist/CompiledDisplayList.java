@@ -0,0 +1,158 @@
+package com.gtnewhorizons.angelica.glsm.displaylist;
+
+import com.gtnewhorizons.angelica.glsm.GLStateManager;
+import net.minecraft.client.renderer.OpenGlHelper;
+import org.lwjgl.opengl.GL11;
+import org.lwjgl.opengl.GL15;
+
+/**
+ * A display list whose tessellator geometry was moved into a vertex buffer while it was compiled. It is replayed as a
+ * sequence of ops: each draw sources its vertices from the buffer, recorded state changes and calls to other lists go
+ * through GLSM, and whatever else was issued while compiling stays in small driver display lists (segments) which are
+ * called when their op is reached.
+ */
+public class CompiledDisplayList {
+    static final int OP_SEGMENT = 0; /* arg: driver display list */
+    static final int OP_DRAW = 1; /* arg: draw index */
+    static final int OP_CALL = 2; /* arg: display list */
+    static final int OP_ENABLE = 3; /* arg: capability */
+    static final int OP_DISABLE = 4; /* arg: capability */
+    static final int OP_COLOR = 5; /* args: red, green, blue, alpha */
+    static final int OP_MATRIX_MODE = 6; /* arg: mode */
+    static final int OP_PUSH_MATRIX = 7;
+    static final int OP_POP_MATRIX = 8;
+    static final int OP_LOAD_IDENTITY = 9;
+    static final int OP_TRANSLATE = 10; /* args: x, y, z */
+    static final int OP_ROTATE = 11; /* args: angle, x, y, z */
+    static final int OP_SCALE = 12; /* args: x, y, z */
+
+    static final int FLAG_TEXTURE = 1;
+    static final int FLAG_BRIGHTNESS = 2;
+    static final int FLAG_COLOR = 4;
+    static final int FLAG_NORMALS = 8;
+
+    static final int DRAW_STRIDE = 4; /* first vertex, vertex count, mode, flags */
+
+    // Same layout as the tessellator's raw buffer
+    private static final int VERTEX_STRIDE = 32; /* number of bytes */
+
+    private final int[] ops; /* each op followed by its args, floats as their raw bits */
+    private final int[] draws;
+    private final int[] segments; /* all of them, except the display list this was compiled from */
+    private final int vertexBuffer; /* 0 if there are no draws */
+
+    CompiledDisplayList(int[] ops, int[] draws, int[] segments, int vertexBuffer) {
+        this.ops = ops;
+        this.draws = draws;
+        this.segments = segments;
+        this.vertexBuffer = vertexBuffer;
+    }
+
+    /**
+     * Has to be called through {@link GLStateManager#glCallList(int)}, which makes sure the state changes reach GL in
+     * order with the segments.
+     */
+    public void render() {
+        final int[] ops = this.ops;
+        int i = 0;
+
+        while (i < ops.length) {
+            switch (ops[i++]) {
+                case OP_SEGMENT -> GL11.glCallList(ops[i++]);
+                case OP_DRAW -> this.draw(ops[i++] * DRAW_STRIDE);
+                case OP_CALL -> GLStateManager.glCallList(ops[i++]);
+                case OP_ENABLE -> GLStateManager.glEnable(ops[i++]);
+                case OP_DISABLE -> GLStateManager.glDisable(ops[i++]);
+                case OP_COLOR -> {
+                    GLStateManager.glColor4f(getFloat(i), getFloat(i + 1), getFloat(i + 2), getFloat(i + 3));
+                    i += 4;
+                }
+                case OP_MATRIX_MODE -> GLStateManager.glMatrixMode(ops[i++]);
+                case OP_PUSH_MATRIX -> GLStateManager.glPushMatrix();
+                case OP_POP_MATRIX -> GLStateManager.glPopMatrix();
+                case OP_LOAD_IDENTITY -> GLStateManager.glLoadIdentity();
+                case OP_TRANSLATE -> {
+                    GLStateManager.glTranslatef(getFloat(i), getFloat(i + 1), getFloat(i + 2));
+                    i += 3;
+                }
+                case OP_ROTATE -> {
+                    GLStateManager.glRotatef(getFloat(i), getFloat(i + 1), getFloat(i + 2), getFloat(i + 3));
+                    i += 4;
+                }
+                case OP_SCALE -> {
+                    GLStateManager.glScalef(getFloat(i), getFloat(i + 1), getFloat(i + 2));
+                    i += 3;
+                }
+                default -> throw new IllegalStateException("Unknown display list op " + ops[i - 1]);
+            }
+        }
+    }
+
+    private float getFloat(int index) {
+        return Float.intBitsToFloat(this.ops[index]);
+    }
+
+    private void draw(int offset) {
+        final int first = this.draws[offset];
+        final int count = this.draws[offset + 1];
+        final int mode = this.draws[offset + 2];
+        final int flags = this.draws[offset + 3];
+
+        GL15.glBindBuffer(GL15.GL_ARRAY_BUFFER, this.vertexBuffer);
+
+        // Mirrors the client state setup of Tessellator.draw()
+        if ((flags & FLAG_TEXTURE) != 0) {
+            GL11.glTexCoordPointer(2, GL11.GL_FLOAT, VERTEX_STRIDE, 12L);
+            GL11.glEnableClientState(GL11.GL_TEXTURE_COORD_ARRAY);
+        }
+        if ((flags & FLAG_BRIGHTNESS) != 0) {
+            OpenGlHelper.setClientActiveTexture(OpenGlHelper.lightmapTexUnit);
+            GL11.glTexCoordPointer(2, GL11.GL_SHORT, VERTEX_STRIDE, 28L);
+            GL11.glEnableClientState(GL11.GL_TEXTURE_COORD_ARRAY);
+            OpenGlHelper.setClientActiveTexture(OpenGlHelper.defaultTexUnit);
+        }
+        if ((flags & FLAG_COLOR) != 0) {
+            GL11.glColorPointer(4, GL11.GL_UNSIGNED_BYTE, VERTEX_STRIDE, 20L);
+            GL11.glEnableClientState(GL11.GL_COLOR_ARRAY);
+        }
+        if ((flags & FLAG_NORMALS) != 0) {
+            GL11.glNormalPointer(GL11.GL_BYTE, VERTEX_STRIDE, 24L);
+            GL11.glEnableClientState(GL11.GL_NORMAL_ARRAY);
+        }
+        GL11.glVertexPointer(3, GL11.GL_FLOAT, VERTEX_STRIDE, 0L);
+        GL11.glEnableClientState(GL11.GL_VERTEX_ARRAY);
+
+        GL11.glDrawArrays(mode, first, count);
+
+        GL11.glDisableClientState(GL11.GL_VERTEX_ARRAY);
+        if ((flags & FLAG_TEXTURE) != 0) {
+            GL11.glDisableClientState(GL11.GL_TEXTURE_COORD_ARRAY);
+        }
+        if ((flags & FLAG_BRIGHTNESS) != 0) {
+            OpenGlHelper.setClientActiveTexture(OpenGlHelper.lightmapTexUnit);
+            GL11.glDisableClientState(GL11.GL_TEXTURE_COORD_ARRAY);
+            OpenGlHelper.setClientActiveTexture(OpenGlHelper.defaultTexUnit);
+        }
+        if ((flags & FLAG_COLOR) != 0) {
+            GL11.glDisableClientState(GL11.GL_COLOR_ARRAY);
+        }
+        if ((flags & FLAG_NORMALS) != 0) {
+            GL11.glDisableClientState(GL11.GL_NORMAL_ARRAY);
+        }
+
+        GL15.glBindBuffer(GL15.GL_ARRAY_BUFFER, 0);
+    }
+
+    /**
+     * Frees the vertex buffer and every segment except the display list this was compiled from.
+     */
+    void delete() {
+        for (int segment : this.segments) {
+            GL11.glDeleteLists(segment, 1);
+        }
+
+        if (this.vertexBuffer != 0) {
+            GL15.glDeleteBuffers(this.vertexBuffer);
+        }
+    }
+}
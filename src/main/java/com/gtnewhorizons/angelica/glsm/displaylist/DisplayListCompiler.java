@@ -0,0 +1,223 @@
+package com.gtnewhorizons.angelica.glsm.displaylist;
+
+import com.gtnewhorizons.angelica.glsm.GLStateManager;
+import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import net.minecraft.client.renderer.Tessellator;
+import org.lwjgl.opengl.GL11;
+import org.lwjgl.opengl.GL15;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+import static com.gtnewhorizon.gtnhlib.bytebuf.MemoryUtilities.memAlloc;
+import static com.gtnewhorizon.gtnhlib.bytebuf.MemoryUtilities.memFree;
+
+/**
+ * Moves the tessellator geometry of display lists compiled with {@link GL11#GL_COMPILE} into vertex buffers, which
+ * drivers with poor display list support (Mesa in particular) draw much faster than lists holding immediate geometry.
+ *
+ * While a list is being compiled, tessellator draws, calls to other lists, and the state changes GLSM knows how to
+ * replay (capabilities, the current color, matrix operations) are recorded as ops. Everything else still goes to a
+ * driver display list (a segment), which is ended in front of every op and started again after it. GL calls can reach
+ * the driver without going through anything in here, so a segment is never known to be empty and is always kept, the
+ * list itself included. The captured vertices are uploaded into a single buffer once the list ends, and the resulting
+ * {@link CompiledDisplayList} is replayed by {@link GLStateManager#glCallList(int)}. Lists without any ops are left as
+ * plain display lists.
+ *
+ * Only used on the main thread.
+ */
+public class DisplayListCompiler {
+    private static final int INITIAL_VERTEX_CAPACITY = 8192; /* number of ints */
+
+    private static final Int2ObjectMap<CompiledDisplayList> compiledLists = new Int2ObjectOpenHashMap<>();
+
+    // State of the list currently being compiled
+    private static int recordingList = -1;
+    private static int segment; /* driver list receiving whatever isn't recorded, starts out as the list itself */
+    private static final IntArrayList ops = new IntArrayList();
+    private static final IntArrayList segments = new IntArrayList(); /* the ones allocated here */
+    private static final IntArrayList draws = new IntArrayList();
+    private static final IntArrayList vertexData = new IntArrayList(INITIAL_VERTEX_CAPACITY);
+
+    public static boolean isRecording() {
+        return recordingList != -1 && GLStateManager.isMainThread();
+    }
+
+    /**
+     * Must be called after the driver started compiling the list.
+     */
+    public static void begin(int list) {
+        recordingList = list;
+        segment = list;
+    }
+
+    /**
+     * Captures a tessellator draw instead of letting it be compiled into the current segment.
+     * @return Whether the draw was captured, in which case the tessellator still needs to be reset
+     */
+    public static boolean recordDraw(Tessellator tessellator) {
+        if (tessellator.vertexCount == 0) {
+            return false;
+        }
+
+        endSegment();
+
+        int flags = 0;
+        if (tessellator.hasTexture) flags |= CompiledDisplayList.FLAG_TEXTURE;
+        if (tessellator.hasBrightness) flags |= CompiledDisplayList.FLAG_BRIGHTNESS;
+        if (tessellator.hasColor) flags |= CompiledDisplayList.FLAG_COLOR;
+        if (tessellator.hasNormals) flags |= CompiledDisplayList.FLAG_NORMALS;
+
+        ops.add(CompiledDisplayList.OP_DRAW);
+        ops.add(draws.size() / CompiledDisplayList.DRAW_STRIDE);
+
+        draws.add(vertexData.size() / 8);
+        draws.add(tessellator.vertexCount);
+        draws.add(tessellator.drawMode);
+        draws.add(flags);
+
+        vertexData.addElements(vertexData.size(), tessellator.rawBuffer, 0, tessellator.rawBufferIndex);
+
+        return true;
+    }
+
+    /**
+     * Calls are replayed by GLSM, which knows the lists it compiled and keeps its tracked state in line with the others.
+     */
+    public static void recordCall(int list) {
+        endSegment();
+        ops.add(CompiledDisplayList.OP_CALL);
+        ops.add(list);
+    }
+
+    public static void recordCapability(int cap, boolean enabled) {
+        endSegment();
+        ops.add(enabled ? CompiledDisplayList.OP_ENABLE : CompiledDisplayList.OP_DISABLE);
+        ops.add(cap);
+    }
+
+    public static void recordColor(float red, float green, float blue, float alpha) {
+        endSegment();
+        ops.add(CompiledDisplayList.OP_COLOR);
+        addFloats(red, green, blue);
+        ops.add(Float.floatToRawIntBits(alpha));
+    }
+
+    public static void recordMatrixMode(int mode) {
+        endSegment();
+        ops.add(CompiledDisplayList.OP_MATRIX_MODE);
+        ops.add(mode);
+    }
+
+    public static void recordPushMatrix() {
+        endSegment();
+        ops.add(CompiledDisplayList.OP_PUSH_MATRIX);
+    }
+
+    public static void recordPopMatrix() {
+        endSegment();
+        ops.add(CompiledDisplayList.OP_POP_MATRIX);
+    }
+
+    public static void recordLoadIdentity() {
+        endSegment();
+        ops.add(CompiledDisplayList.OP_LOAD_IDENTITY);
+    }
+
+    /**
+     * Double precision operations are recorded in single precision, which is what GLSM tracks them in as well.
+     */
+    public static void recordTranslate(float x, float y, float z) {
+        endSegment();
+        ops.add(CompiledDisplayList.OP_TRANSLATE);
+        addFloats(x, y, z);
+    }
+
+    public static void recordRotate(float angle, float x, float y, float z) {
+        endSegment();
+        ops.add(CompiledDisplayList.OP_ROTATE);
+        ops.add(Float.floatToRawIntBits(angle));
+        addFloats(x, y, z);
+    }
+
+    public static void recordScale(float x, float y, float z) {
+        endSegment();
+        ops.add(CompiledDisplayList.OP_SCALE);
+        addFloats(x, y, z);
+    }
+
+    /**
+     * Ends the driver list and uploads the captured geometry, if there is any.
+     */
+    public static void end() {
+        GL11.glEndList();
+        ops.add(CompiledDisplayList.OP_SEGMENT);
+        ops.add(segment);
+
+        // Unless the list itself is all there is
+        if (!ops.isEmpty() && !(ops.size() == 2 && ops.getInt(0) == CompiledDisplayList.OP_SEGMENT)) {
+            int vertexBuffer = 0;
+
+            if (!vertexData.isEmpty()) {
+                final ByteBuffer buffer = memAlloc(vertexData.size() * 4).order(ByteOrder.nativeOrder());
+                buffer.asIntBuffer().put(vertexData.elements(), 0, vertexData.size());
+
+                vertexBuffer = GL15.glGenBuffers();
+                GL15.glBindBuffer(GL15.GL_ARRAY_BUFFER, vertexBuffer);
+                GL15.glBufferData(GL15.GL_ARRAY_BUFFER, buffer, GL15.GL_STATIC_DRAW);
+                GL15.glBindBuffer(GL15.GL_ARRAY_BUFFER, 0);
+
+                memFree(buffer);
+            }
+
+            compiledLists.put(recordingList, new CompiledDisplayList(ops.toIntArray(), draws.toIntArray(), segments.toIntArray(), vertexBuffer));
+        }
+
+        recordingList = -1;
+        ops.clear();
+        segments.clear();
+        draws.clear();
+        vertexData.clear();
+        vertexData.trim(INITIAL_VERTEX_CAPACITY);
+    }
+
+    public static CompiledDisplayList get(int list) {
+        return compiledLists.get(list);
+    }
+
+    /**
+     * Frees everything that was allocated for a compiled list, except the display list itself.
+     */
+    public static void remove(int list) {
+        final CompiledDisplayList compiled = compiledLists.remove(list);
+
+        if (compiled != null) {
+            compiled.delete();
+        }
+    }
+
+    private static void addFloats(float x, float y, float z) {
+        ops.add(Float.floatToRawIntBits(x));
+        ops.add(Float.floatToRawIntBits(y));
+        ops.add(Float.floatToRawIntBits(z));
+    }
+
+    /**
+     * Closes the open segment, so that whatever went into it is replayed before the op about to be recorded, and starts
+     * the next one.
+     */
+    private static void endSegment() {
+        // Pending state belongs before the op
+        GLStateManager.flushState();
+
+        GL11.glEndList();
+        ops.add(CompiledDisplayList.OP_SEGMENT);
+        ops.add(segment);
+
+        segment = GL11.glGenLists(1);
+        segments.add(segment);
+        GL11.glNewList(segment, GL11.GL_COMPILE);
+    }
+}
@@ -1,6 +1,7 @@
 package com.gtnewhorizons.angelica.glsm.states;
 
 import com.gtnewhorizons.angelica.glsm.GLStateManager;
+import com.gtnewhorizons.angelica.glsm.displaylist.DisplayListCompiler;
 import lombok.Getter;
 import org.lwjgl.opengl.GL11;
 
@@ -9,6 +10,10 @@ public class BooleanState implements ISettableState<BooleanState> {
 
     @Getter protected boolean enabled;
 
+    // The value GL was last set to, which lags behind enabled while GLStateManager is deferring state changes
+    protected boolean applied;
+    protected boolean dirty;
+
     public BooleanState(int glCap) {
         this.glCap = glCap;
     }
@@ -22,8 +27,21 @@ public class BooleanState implements ISettableState<BooleanState> {
     }
 
     public void setEnabled(boolean enabled) {
+        if (DisplayListCompiler.isRecording()) {
+            // Tracked for the changes the list leaves behind, but only issued once it's called
+            this.enabled = enabled;
+            DisplayListCompiler.recordCapability(this.glCap, enabled);
+            return;
+        }
+
         if (GLStateManager.shouldBypassCache() || enabled != this.enabled || (this.glCap == GL11.GL_BLEND && GLStateManager.isAMD() && GLStateManager.isPoppingAttributes())) {
             this.enabled = enabled;
+
+            // Texture enables apply to the active texture unit, so they can't be issued later on
+            if (this.glCap != GL11.GL_TEXTURE_2D && GLStateManager.deferState(this)) {
+                return;
+            }
+
             if (enabled) {
                 GL11.glEnable(this.glCap);
             } else {
@@ -32,6 +50,46 @@ public class BooleanState implements ISettableState<BooleanState> {
         }
     }
 
+    /**
+     * @return Whether the state wasn't already waiting to be flushed
+     */
+    public boolean markDirty() {
+        if (this.dirty) {
+            return false;
+        }
+
+        this.dirty = true;
+        return true;
+    }
+
+    /**
+     * Issues the net change since the last flush, if there is one.
+     * @return Whether a GL call was made
+     */
+    public boolean flush() {
+        this.dirty = false;
+
+        if (this.applied == this.enabled) {
+            return false;
+        }
+
+        this.applied = this.enabled;
+        if (this.enabled) {
+            GL11.glEnable(this.glCap);
+        } else {
+            GL11.glDisable(this.glCap);
+        }
+        return true;
+    }
+
+    /**
+     * Records that GL already matches the tracked state, e.g. after it was changed by glPopAttrib or a display list.
+     */
+    public void syncApplied() {
+        this.applied = this.enabled;
+        this.dirty = false;
+    }
+
     @Override
     public BooleanState set(BooleanState state) {
         this.enabled = state.enabled;
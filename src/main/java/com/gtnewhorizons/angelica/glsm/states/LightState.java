@@ -129,6 +129,7 @@ public class LightState implements ISettableState<LightState> {
         // with and the untransformed coordinates in addition to the final transformation.
         this.position.set(newBuffer);
         this.position.mul(GLStateManager.getModelViewMatrix());
+        GLStateManager.flushModelViewMatrix();
         GL11.glLight(this.light, GL11.GL_POSITION, newBuffer);
     }
 
@@ -136,6 +137,7 @@ public class LightState implements ISettableState<LightState> {
         vector4i.set(newBuffer);
         this.position.set((float) vector4i.x, (float) vector4i.y, (float) vector4i.z, (float) vector4i.w);
         this.position.mul(GLStateManager.getModelViewMatrix());
+        GLStateManager.flushModelViewMatrix();
         GL11.glLight(this.light, GL11.GL_POSITION, newBuffer);
     }
 
@@ -146,6 +148,7 @@ public class LightState implements ISettableState<LightState> {
         GLStateManager.getModelViewMatrix().get3x3(matrix3f);
         this.spotDirection.set(newBuffer);
         this.spotDirection.mul(matrix3f);
+        GLStateManager.flushModelViewMatrix();
         GL11.glLight(this.light, GL11.GL_SPOT_DIRECTION, newBuffer);
     }
 
@@ -154,6 +157,7 @@ public class LightState implements ISettableState<LightState> {
         GLStateManager.getModelViewMatrix().get3x3(matrix3f);
         this.spotDirection.set((float) vector3i.x, (float) vector3i.y, (float) vector3i.z);
         this.spotDirection.mul(matrix3f);
+        GLStateManager.flushModelViewMatrix();
         GL11.glLight(this.light, GL11.GL_SPOT_DIRECTION, newBuffer);
     }
 
@@ -1,6 +1,7 @@
 package com.gtnewhorizons.angelica.glsm.states;
 
 import com.gtnewhorizons.angelica.glsm.GLStateManager;
+import com.gtnewhorizons.angelica.glsm.displaylist.DisplayListCompiler;
 import lombok.Getter;
 import org.lwjgl.opengl.GL11;
 
@@ -9,7 +10,16 @@ public class MatrixMode implements ISettableState<MatrixMode> {
     protected int mode = GL11.GL_MODELVIEW;
 
     public void setMode(int mode) {
-        if(mode != GL11.GL_MODELVIEW && mode != GL11.GL_PROJECTION && mode != GL11.GL_TEXTURE && mode != GL11.GL_COLOR) {
+        final boolean valid = mode == GL11.GL_MODELVIEW || mode == GL11.GL_PROJECTION || mode == GL11.GL_TEXTURE || mode == GL11.GL_COLOR;
+
+        if (DisplayListCompiler.isRecording()) {
+            // The mode matters to the matrix operations GLSM still sees while compiling, so it's tracked as well
+            if (valid) this.mode = mode;
+            DisplayListCompiler.recordMatrixMode(mode);
+            return;
+        }
+
+        if(!valid) {
             // Invalid mode, do nothing on the cache, but pass it along to OGL
             GL11.glMatrixMode(mode);
             return;
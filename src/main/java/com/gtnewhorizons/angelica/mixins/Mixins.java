@@ -44,6 +44,10 @@ public enum Mixins {
                 ,"angelica.vbo.MixinWavefrontObject"
         )
     ),
+    ANGELICA_VBO_DISPLAY_LISTS(
+        new Builder("Angelica VBO Display Lists").addTargetedMod(TargetedMod.VANILLA).setApplyIf(() -> AngelicaConfig.enableVBODisplayLists)
+            .setSide(Side.CLIENT).setPhase(Phase.EARLY).addMixinClasses("angelica.vbo.MixinTessellator")
+    ),
     ANGELICA_FONT_RENDERER(new Builder("Angelica Font Renderer").addTargetedMod(TargetedMod.VANILLA).setSide(Side.CLIENT)
         .setPhase(Phase.EARLY).setApplyIf(() -> AngelicaConfig.enableFontRenderer).addMixinClasses(
              "angelica.fontrenderer.MixinGuiIngameForge"
@@ -0,0 +1,11 @@
+package com.gtnewhorizons.angelica.mixins.interfaces;
+
+public interface IChunkSectionVersions {
+    /**
+     * @return A value which changes every time the given section of this chunk is modified, and which is never shared
+     * with any other chunk instance. Sections outside the build limit share a single version for the whole chunk.
+     */
+    long angelica$getSectionVersion(int sectionY);
+
+    void angelica$markSectionModified(int sectionY);
+}
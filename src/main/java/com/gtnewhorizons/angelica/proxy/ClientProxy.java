@@ -20,6 +20,8 @@ import com.gtnewhorizons.angelica.hudcaching.HUDCaching;
 import com.gtnewhorizons.angelica.models.VanillaModels;
 import com.gtnewhorizons.angelica.render.CloudRenderer;
 import com.gtnewhorizons.angelica.rendering.AngelicaBlockSafetyRegistry;
+import com.gtnewhorizons.angelica.rendering.ItemRenderListManager;
+import com.gtnewhorizons.angelica.rendering.MainThreadBlockTelemetry;
 import com.gtnewhorizons.angelica.utils.AssetLoader;
 import com.gtnewhorizons.angelica.zoom.Zoom;
 import cpw.mods.fml.client.registry.ClientRegistry;
@@ -96,6 +98,7 @@ public class ClientProxy extends CommonProxy {
     }
 
     private static KeyBinding glsmKeyBinding;
+    private static KeyBinding mainThreadBlocksKeyBinding;
 
     @Override
     public void init(FMLInitializationEvent event) {
@@ -139,6 +142,9 @@ public class ClientProxy extends CommonProxy {
         glsmKeyBinding = new KeyBinding("Print GLSM Debug", Keyboard.KEY_NONE, "Angelica");
         ClientRegistry.registerKeyBinding(glsmKeyBinding);
 
+        mainThreadBlocksKeyBinding = new KeyBinding("Dump Main Thread Block Stats", Keyboard.KEY_NONE, "Angelica");
+        ClientRegistry.registerKeyBinding(mainThreadBlocksKeyBinding);
+
         VanillaModels.init();
 
         if (ModStatus.isBetterCrashesLoaded) {
@@ -150,6 +156,7 @@ public class ClientProxy extends CommonProxy {
     }
 
     private boolean wasGLSMKeyPressed;
+    private boolean wasMainThreadBlocksKeyPressed;
 
     @SubscribeEvent
     public void onKeypress(TickEvent.ClientTickEvent event) {
@@ -158,6 +165,12 @@ public class ClientProxy extends CommonProxy {
             OpenGLDebugging.checkGLSM();
         }
         wasGLSMKeyPressed = isPressed;
+
+        final boolean isDumpPressed = mainThreadBlocksKeyBinding.getKeyCode() != 0 && GameSettings.isKeyDown(mainThreadBlocksKeyBinding);
+        if (isDumpPressed && !wasMainThreadBlocksKeyPressed) {
+            MainThreadBlockTelemetry.dumpToFile();
+        }
+        wasMainThreadBlocksKeyPressed = isDumpPressed;
     }
 
     @Override
@@ -229,6 +242,16 @@ public class ClientProxy extends CommonProxy {
             event.right.add(builder.toString());
         }
 
+        if (GLStateManager.isDeferringState() || GLStateManager.isClientSideMatrices()) {
+            event.right.add("Deferred GL State: " + GLStateManager.getIssuedCallsLastFrame() + " calls (A: " + GLStateManager.getAvoidedCallsLastFrame() + ')');
+        }
+
+        if (AngelicaConfig.optimizeInWorldItemRendering_WIP) {
+            final ItemRenderListManager itemRenders = ItemRenderListManager.INSTANCE;
+            event.right.add("Item Render Cache: " + itemRenders.getSize() + '/' + AngelicaConfig.itemRendererDisplayListCacheSize
+                + " (H: " + itemRenders.getHits() + " M: " + itemRenders.getMisses() + " E: " + itemRenders.getEvictions() + ')');
+        }
+
         if (AngelicaConfig.modernizeF3Screen) {
             boolean hasReplacedXYZ = false;
             for (int i = 0; i < event.left.size() - 3; i++) {
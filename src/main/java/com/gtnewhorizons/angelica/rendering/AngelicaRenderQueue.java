@@ -40,6 +40,26 @@ public class AngelicaRenderQueue {
         return processTasks(Integer.MAX_VALUE);
     }
 
+    /**
+     * Runs queued tasks until the queue is empty or the time budget has been spent, so that requests from many chunk
+     * build workers are served in one batch each frame rather than one at a time. At least one task is always run.
+     * @param budgetNanos The time budget, in nanoseconds
+     */
+    public static int processTasksFor(long budgetNanos) {
+        final long deadline = System.nanoTime() + budgetNanos;
+        int tasksRun = 0;
+
+        do {
+            Runnable r = TASKS.poll();
+            if(r == null)
+                break;
+            r.run();
+            tasksRun++;
+        } while(System.nanoTime() < deadline);
+
+        return tasksRun;
+    }
+
     private static final long WAIT_TIME = TimeUnit.MILLISECONDS.toNanos(50);
 
     public static void managedBlock(BooleanSupplier isDone) {
@@ -0,0 +1,161 @@
+package com.gtnewhorizons.angelica.rendering;
+
+import com.gtnewhorizon.gtnhlib.client.renderer.util.WorldUtil;
+import com.gtnewhorizons.angelica.compat.toremove.RenderLayer;
+import com.gtnewhorizons.angelica.config.AngelicaConfig;
+import cpw.mods.fml.common.registry.GameData;
+import it.unimi.dsi.fastutil.objects.Object2IntMap;
+import net.coderbot.iris.block_rendering.BlockRenderingSettings;
+import net.minecraft.block.Block;
+
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * Per-block properties needed while meshing chunks, flattened into arrays indexed by block ID so that chunk builds only
+ * do a single registry lookup per block. The table is immutable once published; {@link #rebuild()} swaps in a new one
+ * whenever the inputs (block safety registry, shader pack block mappings, graphics settings) may have changed.
+ */
+public final class BlockRenderProperties {
+    public static final int RENDERS_OFF_THREAD = 1;
+    public static final int FLUID = 1 << 1;
+    public static final int OPAQUE_CUBE = 1 << 2;
+    /** The shader pack assigns this block a render layer, given by {@link #LAYER_CUTOUT} and {@link #LAYER_TRANSLUCENT} */
+    public static final int LAYER_OVERRIDDEN = 1 << 3;
+    public static final int LAYER_CUTOUT = 1 << 4;
+    public static final int LAYER_TRANSLUCENT = 1 << 5;
+
+    private static volatile BlockRenderProperties current = new BlockRenderProperties(new byte[0], new short[0]);
+
+    private final byte[] flags;
+    private final short[] materialIds;
+
+    private BlockRenderProperties(byte[] flags, short[] materialIds) {
+        this.flags = flags;
+        this.materialIds = materialIds;
+    }
+
+    public static BlockRenderProperties get() {
+        return current;
+    }
+
+    /**
+     * Recomputes the table for every registered block. Must be called on the main thread, after the block safety
+     * registry has been populated for the current world.
+     */
+    public static void rebuild() {
+        int maxId = -1;
+
+        for (Block block : GameData.getBlockRegistry().typeSafeIterable()) {
+            maxId = Math.max(maxId, Block.getIdFromBlock(block));
+        }
+
+        final byte[] flags = new byte[maxId + 1];
+        final short[] materialIds = new short[maxId + 1];
+        Arrays.fill(materialIds, (short) -1);
+
+        for (Block block : GameData.getBlockRegistry().typeSafeIterable()) {
+            final int id = Block.getIdFromBlock(block);
+
+            if (id >= 0) {
+                flags[id] = (byte) computeFlags(block);
+            }
+        }
+
+        if (AngelicaConfig.enableIris) {
+            final Map<Block, RenderLayer> blockTypeIds = BlockRenderingSettings.INSTANCE.getBlockTypeIds();
+
+            if (blockTypeIds != null) {
+                for (Map.Entry<Block, RenderLayer> entry : blockTypeIds.entrySet()) {
+                    final int id = Block.getIdFromBlock(entry.getKey());
+
+                    if (id >= 0 && id < flags.length) {
+                        flags[id] |= (byte) getLayerFlags(entry.getValue());
+                    }
+                }
+            }
+
+            final Object2IntMap<Block> blockMatches = BlockRenderingSettings.INSTANCE.getBlockMatches();
+
+            if (blockMatches != null) {
+                for (Object2IntMap.Entry<Block> entry : blockMatches.object2IntEntrySet()) {
+                    final int id = Block.getIdFromBlock(entry.getKey());
+
+                    if (id >= 0 && id < materialIds.length) {
+                        materialIds[id] = (short) entry.getIntValue();
+                    }
+                }
+            }
+        }
+
+        current = new BlockRenderProperties(flags, materialIds);
+    }
+
+    /**
+     * @param id The block's registry ID, as returned by {@link Block#getIdFromBlock(Block)}
+     * @return A bit set of the flags defined in this class
+     */
+    public int getFlags(Block block, int id) {
+        if (id >= 0 && id < this.flags.length) {
+            return this.flags[id];
+        }
+
+        // Blocks registered after the table was built, which shouldn't happen outside of odd mod setups
+        int flags = computeFlags(block);
+
+        if (AngelicaConfig.enableIris) {
+            final Map<Block, RenderLayer> blockTypeIds = BlockRenderingSettings.INSTANCE.getBlockTypeIds();
+
+            if (blockTypeIds != null) {
+                flags |= getLayerFlags(blockTypeIds.get(block));
+            }
+        }
+
+        return flags;
+    }
+
+    /**
+     * @return The shader pack material ID of the block, or -1 if it has none
+     */
+    public short getMaterialId(Block block, int id) {
+        if (id >= 0 && id < this.materialIds.length) {
+            return this.materialIds[id];
+        }
+
+        final Object2IntMap<Block> blockMatches = BlockRenderingSettings.INSTANCE.getBlockMatches();
+
+        return blockMatches != null ? (short) blockMatches.getOrDefault(block, -1) : -1;
+    }
+
+    private static int computeFlags(Block block) {
+        int flags = 0;
+
+        final int type = block.getRenderType();
+
+        if ((type < 42 && type != 22 && AngelicaBlockSafetyRegistry.canBlockRenderOffThread(block, false, false)) || AngelicaBlockSafetyRegistry.canBlockRenderOffThread(block, true, false)) {
+            flags |= RENDERS_OFF_THREAD;
+        }
+
+        if (WorldUtil.isFluidBlock(block)) {
+            flags |= FLUID;
+        }
+
+        if (block.isOpaqueCube()) {
+            flags |= OPAQUE_CUBE;
+        }
+
+        return flags;
+    }
+
+    private static int getLayerFlags(RenderLayer layer) {
+        if (layer == null) {
+            return 0;
+        } else if (layer == RenderLayer.cutout()) {
+            return LAYER_OVERRIDDEN | LAYER_CUTOUT;
+        } else if (layer == RenderLayer.translucent()) {
+            return LAYER_OVERRIDDEN | LAYER_TRANSLUCENT;
+        }
+
+        return LAYER_OVERRIDDEN;
+    }
+}
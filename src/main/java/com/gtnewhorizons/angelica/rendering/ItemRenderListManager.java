@@ -25,61 +25,98 @@
 
 package com.gtnewhorizons.angelica.rendering;
 
+import com.gtnewhorizon.gtnhlib.client.renderer.TessellatorManager;
+import com.gtnewhorizon.gtnhlib.client.renderer.vbo.VBOManager;
+import com.gtnewhorizon.gtnhlib.client.renderer.vertex.DefaultVertexFormat;
 import com.gtnewhorizons.angelica.config.AngelicaConfig;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.objects.Object2IntLinkedOpenHashMap;
 import lombok.AccessLevel;
 import lombok.Data;
+import lombok.Getter;
 import lombok.NoArgsConstructor;
-import lombok.val;
 import org.lwjgl.opengl.GL11;
 
-import net.minecraft.client.renderer.GLAllocation;
+import net.minecraft.client.renderer.ItemRenderer;
 import net.minecraft.client.resources.IResourceManager;
 import net.minecraft.client.resources.IResourceManagerReloadListener;
 
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
-
+/**
+ * Caches the geometry of {@link ItemRenderer#renderItemIn2D} in VBOs, keyed by its arguments. The least recently used
+ * entry is evicted once the cache is full, and its VBO id handed to the new entry.
+ */
 @NoArgsConstructor(access = AccessLevel.PRIVATE)
 public class ItemRenderListManager implements IResourceManagerReloadListener {
     public static final ItemRenderListManager INSTANCE = new ItemRenderListManager();
 
-    private final Map<ItemProp, Integer> theMap = new HashMap<>();
-    private final List<ItemProp> propList = new ArrayList<>();
+    // Ordered from least to most recently used, VBO ids are negative so 0 means missing
+    private final Object2IntLinkedOpenHashMap<ItemProp> theMap = new Object2IntLinkedOpenHashMap<>();
+    private final IntArrayList freeLists = new IntArrayList();
     private final ItemProp prop = new ItemProp();
-    private int list = 0;
+    private boolean capturing;
+
+    @Getter
+    private long hits;
+    @Getter
+    private long misses;
+    @Getter
+    private long evictions;
 
+    /**
+     * @return Whether the item was drawn from the cache, in which case the vanilla rendering has to be skipped
+     */
     public boolean pre(float a, float b, float c, float d, int e, int f, float g) {
+        if (capturing) {
+            // This is the call rendering into the capture below
+            return false;
+        }
+
         prop.set(a, b, c, d, e, f, g);
-        if (theMap.containsKey(prop)) {
-            val list = theMap.get(prop);
-            propList.add(propList.remove(propList.indexOf(prop)));
-            GL11.glCallList(list);
-            return true;
+        int list = theMap.getAndMoveToLast(prop);
+
+        if (list != 0) {
+            hits++;
         } else {
-            if (propList.size() >= AngelicaConfig.itemRendererDisplayListCacheSize) {
-                val oldProp = propList.remove(0);
-                GLAllocation.deleteDisplayLists(theMap.remove(oldProp));
+            misses++;
+            list = allocateList();
+            theMap.put(new ItemProp(prop), list);
+
+            capturing = true;
+            TessellatorManager.startCapturing();
+            try {
+                ItemRenderer.renderItemIn2D(TessellatorManager.get(), a, b, c, d, e, f, g);
+            } finally {
+                capturing = false;
+                VBOManager.registerVBO(list, TessellatorManager.stopCapturingToVBO(DefaultVertexFormat.POSITION_TEXTURE_NORMAL));
             }
-            list = GLAllocation.generateDisplayLists(1);
-            val newProp = new ItemProp(prop);
-            theMap.put(newProp, list);
-            propList.add(newProp);
-            GL11.glNewList(list, GL11.GL_COMPILE);
-            return false;
         }
-    }
 
-    public void post() {
-        GL11.glEndList();
         GL11.glCallList(list);
+        return true;
+    }
+
+    private int allocateList() {
+        // The cache size can be lowered at runtime, so this may have to evict more than one entry
+        while (!theMap.isEmpty() && theMap.size() >= AngelicaConfig.itemRendererDisplayListCacheSize) {
+            final int evicted = theMap.removeFirstInt();
+            VBOManager.get(evicted).close();
+            freeLists.add(evicted);
+            evictions++;
+        }
+
+        return freeLists.isEmpty() ? VBOManager.generateDisplayLists(1) : freeLists.popInt();
+    }
+
+    public int getSize() {
+        return theMap.size();
     }
 
     @Override
     public void onResourceManagerReload(IResourceManager p_110549_1_) {
-        propList.clear();
-        theMap.forEach((key, value) -> GLAllocation.deleteDisplayLists(value));
+        for (int list : theMap.values()) {
+            VBOManager.get(list).close();
+            freeLists.add(list);
+        }
         theMap.clear();
     }
 
@@ -0,0 +1,94 @@
+package com.gtnewhorizons.angelica.rendering;
+
+import com.gtnewhorizons.angelica.mixins.interfaces.IRenderingRegistryExt;
+import cpw.mods.fml.client.registry.ISimpleBlockRenderingHandler;
+import cpw.mods.fml.client.registry.RenderingRegistry;
+import cpw.mods.fml.common.registry.GameRegistry;
+import it.unimi.dsi.fastutil.objects.Object2LongMap;
+import it.unimi.dsi.fastutil.objects.Object2LongOpenHashMap;
+import it.unimi.dsi.fastutil.objects.Reference2LongMap;
+import it.unimi.dsi.fastutil.objects.Reference2LongOpenHashMap;
+import net.minecraft.block.Block;
+import org.apache.commons.io.FileUtils;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Counts the blocks which had to be rendered on the main thread during chunk builds, because neither the block nor its
+ * ISBRH is marked as thread safe. The counts can be written to a file, grouped by render type, ISBRH class and mod, to
+ * find out which mods would benefit most from {@link com.gtnewhorizons.angelica.api.ThreadSafeISBRH}.
+ */
+public class MainThreadBlockTelemetry {
+    private static final Logger LOGGER = LogManager.getLogger("Angelica");
+
+    public static final String FILE_NAME = "angelica-main-thread-blocks.txt";
+
+    private static final Reference2LongMap<Block> COUNTS = new Reference2LongOpenHashMap<>();
+    private static long total;
+
+    public static synchronized void record(Block block) {
+        COUNTS.put(block, COUNTS.getLong(block) + 1);
+        total++;
+    }
+
+    public static synchronized List<String> dump() {
+        final Object2LongMap<String> byRenderType = new Object2LongOpenHashMap<>();
+        final Object2LongMap<String> byHandler = new Object2LongOpenHashMap<>();
+        final Object2LongMap<String> byMod = new Object2LongOpenHashMap<>();
+
+        for (Reference2LongMap.Entry<Block> entry : COUNTS.reference2LongEntrySet()) {
+            final Block block = entry.getKey();
+            final long count = entry.getLongValue();
+            final int renderType = block.getRenderType();
+
+            @SuppressWarnings("deprecation")
+            final ISimpleBlockRenderingHandler isbrh = ((IRenderingRegistryExt) RenderingRegistry.instance()).getISBRH(renderType);
+            final GameRegistry.UniqueIdentifier id = GameRegistry.findUniqueIdentifierFor(block);
+
+            final String type = Integer.toString(renderType);
+            byRenderType.put(type, byRenderType.getLong(type) + count);
+
+            final String handler = isbrh != null ? isbrh.getClass().getName() : "none";
+            byHandler.put(handler, byHandler.getLong(handler) + count);
+
+            final String mod = id != null ? id.modId : "unknown";
+            byMod.put(mod, byMod.getLong(mod) + count);
+        }
+
+        final List<String> lines = new ArrayList<>();
+        lines.add("Blocks rendered on the main thread: " + total);
+
+        addSection(lines, "By render type", byRenderType);
+        addSection(lines, "By ISBRH class", byHandler);
+        addSection(lines, "By mod", byMod);
+
+        return lines;
+    }
+
+    private static void addSection(List<String> lines, String title, Object2LongMap<String> counts) {
+        lines.add("");
+        lines.add(title + ":");
+
+        final List<Object2LongMap.Entry<String>> entries = new ArrayList<>(counts.object2LongEntrySet());
+        entries.sort(Comparator.comparingLong(Object2LongMap.Entry<String>::getLongValue).reversed());
+
+        for (Object2LongMap.Entry<String> entry : entries) {
+            lines.add(String.format("  %10d  %s", entry.getLongValue(), entry.getKey()));
+        }
+    }
+
+    public static void dumpToFile() {
+        try {
+            FileUtils.writeLines(new File(FILE_NAME), dump());
+            LOGGER.info("Wrote main thread block telemetry to {}", FILE_NAME);
+        } catch (IOException e) {
+            LOGGER.error("Failed to write main thread block telemetry", e);
+        }
+    }
+}
@@ -103,6 +103,7 @@ public class RedirectorTransformer implements IClassTransformer {
             .add("glClear")
             .add("glClearColor")
             .add("glClearDepth")
+            .add("glClipPlane")
             .add("glColor3b")
             .add("glColor3d")
             .add("glColor3f")
@@ -113,6 +114,7 @@ public class RedirectorTransformer implements IClassTransformer {
             .add("glColor4ub")
             .add("glColorMask")
             .add("glColorMaterial")
+            .add("glDeleteLists")
             .add("glDeleteTextures")
             .add("glDepthFunc")
             .add("glDepthMask")
@@ -181,6 +183,7 @@ public class RedirectorTransformer implements IClassTransformer {
             .add("glTexCoord3f")
             .add("glTexCoord4d")
             .add("glTexCoord4f")
+            .add("glTexGen")
             .add("glTexImage2D")
             .add("glTexParameter")
             .add("glTexParameterf")
@@ -74,6 +74,7 @@ public class ColorizeBlock {
     private static float[][] redstoneColor; // colormap/redstone.png
 
     private static final int blockBlendRadius = MCPatcherForgeConfig.CustomColors.blockBlendRadius;
+    private static final boolean useSectionBlending = MCPatcherForgeConfig.CustomColors.sectionBlending;
 
     public static int blockColor;
     public static boolean isSmooth;
@@ -178,10 +179,14 @@ public class ColorizeBlock {
         if (map == null) {
             return null;
         } else {
-            if (blockBlendRadius > 0) {
-                map = new ColorMapBase.Blended(map, blockBlendRadius);
+            if (blockBlendRadius > 0 && useSectionBlending) {
+                map = new ColorMapBase.SectionBlended(map, blockBlendRadius);
+            } else {
+                if (blockBlendRadius > 0) {
+                    map = new ColorMapBase.Blended(map, blockBlendRadius);
+                }
+                map = new ColorMapBase.Chunked(map);
             }
-            map = new ColorMapBase.Chunked(map);
             map = new ColorMapBase.Outer(map);
             return map;
         }
@@ -42,6 +42,8 @@ public class CITUtils {
 
     static final int MAX_ENCHANTMENTS = 256;
 
+    private static final int RESOLUTION_CACHE_SIZE = 4096;
+
     private static Item itemEnchantedBook;
     static Item itemCompass;
     static Item itemClock;
@@ -55,6 +57,13 @@ public class CITUtils {
     private static final Map<Item, List<Enchantment>> enchantments = new IdentityHashMap<>();
     private static final List<Enchantment> allItemEnchantments = new ArrayList<>();
     private static final Map<Item, List<ArmorOverride>> armors = new IdentityHashMap<>();
+    private static final Map<Item, OverrideIndex<ItemOverride>> itemIndex = new IdentityHashMap<>();
+    private static final Map<Item, OverrideIndex<ArmorOverride>> armorIndex = new IdentityHashMap<>();
+
+    private static final ResolutionCache<ItemOverride> itemCache = new ResolutionCache<>(RESOLUTION_CACHE_SIZE);
+    private static final ResolutionCache<ArmorOverride> armorCache = new ResolutionCache<>(RESOLUTION_CACHE_SIZE);
+    private static final ResolutionCache<EnchantmentList> enchantmentCache = new ResolutionCache<>(
+        RESOLUTION_CACHE_SIZE);
 
     static boolean useGlint;
 
@@ -80,6 +89,11 @@ public class CITUtils {
                 enchantments.clear();
                 allItemEnchantments.clear();
                 armors.clear();
+                itemIndex.clear();
+                armorIndex.clear();
+                itemCache.clear();
+                armorCache.clear();
+                enchantmentCache.clear();
                 lastOrigIcon = null;
                 lastIcon = null;
 
@@ -115,20 +129,26 @@ public class CITUtils {
 
             @Override
             public void afterChange() {
-                for (List<ItemOverride> list : items.values()) {
-                    for (ItemOverride override : list) {
+                for (Map.Entry<Item, List<ItemOverride>> entry : items.entrySet()) {
+                    for (ItemOverride override : entry.getValue()) {
                         override.registerIcon(tileLoader);
                     }
-                    Collections.sort(list);
+                    Collections.sort(entry.getValue());
+                    itemIndex.put(entry.getKey(), new OverrideIndex<>(entry.getValue()));
                 }
                 for (List<Enchantment> list : enchantments.values()) {
                     list.addAll(allItemEnchantments);
                     Collections.sort(list);
                 }
                 Collections.sort(allItemEnchantments);
-                for (List<ArmorOverride> list : armors.values()) {
-                    Collections.sort(list);
+                for (Map.Entry<Item, List<ArmorOverride>> entry : armors.entrySet()) {
+                    Collections.sort(entry.getValue());
+                    armorIndex.put(entry.getKey(), new OverrideIndex<>(entry.getValue()));
                 }
+                // Anything resolved while the overrides were being loaded is stale
+                itemCache.clear();
+                armorCache.clear();
+                enchantmentCache.clear();
             }
 
             @SuppressWarnings("unchecked")
@@ -216,12 +236,16 @@ public class CITUtils {
         return texture;
     }
 
-    private static <T extends OverrideBase> T findMatch(Map<Item, List<T>> overrides, ItemStack itemStack) {
+    private static <T extends OverrideBase> T findMatch(Map<Item, OverrideIndex<T>> overrides, ItemStack itemStack,
+        boolean hasEffect) {
         Item item = itemStack.getItem();
-        List<T> list = overrides.get(item);
-        if (list != null) {
+        OverrideIndex<T> index = overrides.get(item);
+        if (index != null) {
+            List<T> list = index.getCandidates(itemStack.getItemDamage());
+            if (list.isEmpty()) {
+                return null;
+            }
             int[] enchantmentLevels = getEnchantmentLevels(item, itemStack.getTagCompound());
-            boolean hasEffect = itemStack.hasEffect(0);
             for (T override : list) {
                 if (override.match(itemStack, enchantmentLevels, hasEffect)) {
                     return override;
@@ -231,16 +255,30 @@ public class CITUtils {
         return null;
     }
 
+    // Most items have no override at all, those skip the cache and its key copy
     static ItemOverride findItemOverride(ItemStack itemStack) {
-        return findMatch(items, itemStack);
+        if (!itemIndex.containsKey(itemStack.getItem())) {
+            return null;
+        }
+        return itemCache.resolve(itemStack, (stack, hasEffect) -> findMatch(itemIndex, stack, hasEffect));
     }
 
     static ArmorOverride findArmorOverride(ItemStack itemStack) {
-        return findMatch(armors, itemStack);
+        if (!armorIndex.containsKey(itemStack.getItem())) {
+            return null;
+        }
+        return armorCache.resolve(itemStack, (stack, hasEffect) -> findMatch(armorIndex, stack, hasEffect));
     }
 
     static EnchantmentList findEnchantments(ItemStack itemStack) {
-        return new EnchantmentList(enchantments, allItemEnchantments, itemStack);
+        List<Enchantment> candidates = enchantments.get(itemStack.getItem());
+        if (candidates == null ? allItemEnchantments.isEmpty() : candidates.isEmpty()) {
+            return EnchantmentList.EMPTY;
+        }
+        EnchantmentList list = enchantmentCache
+            .resolve(itemStack, (stack, hasEffect) -> new EnchantmentList(enchantments, allItemEnchantments, stack));
+        list.updateIntensities();
+        return list;
     }
 
     public static boolean renderEnchantmentHeld(ItemStack itemStack, int renderPass) {
@@ -22,6 +22,8 @@ final class EnchantmentList {
     private static int limit;
     private static float fade;
 
+    static final EnchantmentList EMPTY = new EnchantmentList();
+
     private final List<Layer> layers = new ArrayList<>();
 
     static void setProperties(PropertiesFile properties) {
@@ -43,6 +45,9 @@ final class EnchantmentList {
         }
     }
 
+    private EnchantmentList() {
+    }
+
     EnchantmentList(Map<Item, List<Enchantment>> enchantments, List<Enchantment> allItemEnchantments,
         ItemStack itemStack) {
         BitSet layersPresent = new BitSet();
@@ -79,6 +84,19 @@ final class EnchantmentList {
         applyMethod.computeIntensities(this);
     }
 
+    /**
+     * Recomputes the intensities of a list that is rendered again, since they can depend on the time.
+     */
+    void updateIntensities() {
+        if (layers.isEmpty()) {
+            return;
+        }
+        for (Layer layer : layers) {
+            layer.intensity = 0.0f;
+        }
+        applyMethod.computeIntensities(this);
+    }
+
     boolean isEmpty() {
         return layers.isEmpty();
     }
@@ -11,6 +11,7 @@ import java.util.Set;
 
 import net.minecraft.item.Item;
 import net.minecraft.item.ItemStack;
+import net.minecraft.nbt.NBTTagCompound;
 import net.minecraft.util.ResourceLocation;
 
 import com.prupe.mcpatcher.MCLogger;
@@ -40,6 +41,7 @@ abstract class OverrideBase implements Comparable<OverrideBase> {
     final BitSet enchantmentIDs;
     final BitSet enchantmentLevels;
     private final List<NBTRule> nbtRules = new ArrayList<>();
+    private final String[] nbtRootTags;
 
     int lastEnchantmentLevel;
 
@@ -157,6 +159,16 @@ abstract class OverrideBase implements Comparable<OverrideBase> {
                 }
             }
         }
+
+        // Most stacks can be ruled out by the top-level tags the rules start from, without walking any of them
+        Set<String> rootTags = new HashSet<>();
+        for (NBTRule rule : nbtRules) {
+            String rootTag = rule.getRootTag();
+            if (rootTag != null) {
+                rootTags.add(rootTag);
+            }
+        }
+        nbtRootTags = rootTags.toArray(new String[0]);
     }
 
     public int compareTo(OverrideBase o) {
@@ -210,7 +222,11 @@ abstract class OverrideBase implements Comparable<OverrideBase> {
     }
 
     private boolean matchDamage(ItemStack itemStack) {
-        return damage == null || damage.get(itemStack.getItemDamage() & damageMask);
+        return matchDamage(itemStack.getItemDamage());
+    }
+
+    boolean matchDamage(int itemDamage) {
+        return damage == null || damage.get(itemDamage & damageMask);
     }
 
     private boolean matchDamagePercent(ItemStack itemStack) {
@@ -279,8 +295,20 @@ abstract class OverrideBase implements Comparable<OverrideBase> {
     }
 
     private boolean matchNBT(ItemStack itemStack) {
+        if (nbtRules.isEmpty()) {
+            return true;
+        }
+        NBTTagCompound nbt = itemStack.getTagCompound();
+        if (nbt == null) {
+            return false;
+        }
+        for (String rootTag : nbtRootTags) {
+            if (!nbt.hasKey(rootTag)) {
+                return false;
+            }
+        }
         for (NBTRule rule : nbtRules) {
-            if (!rule.match(itemStack.getTagCompound())) {
+            if (!rule.match(nbt)) {
                 return false;
             }
         }
@@ -0,0 +1,40 @@
+package com.prupe.mcpatcher.cit;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The sorted overrides of one item, narrowed down by damage value. Damage rules only depend on the damage value, so the
+ * candidates for each value are filtered once, when it is first looked up.
+ */
+final class OverrideIndex<T extends OverrideBase> {
+
+    private final List<T> overrides;
+    private final Map<Integer, List<T>> byDamage = new HashMap<>();
+
+    OverrideIndex(List<T> overrides) {
+        this.overrides = overrides;
+    }
+
+    List<T> getCandidates(int damage) {
+        List<T> candidates = byDamage.get(damage);
+        if (candidates == null) {
+            candidates = new ArrayList<>();
+            for (T override : overrides) {
+                if (override.matchDamage(damage)) {
+                    candidates.add(override);
+                }
+            }
+            if (candidates.size() == overrides.size()) {
+                candidates = overrides;
+            } else if (candidates.isEmpty()) {
+                candidates = Collections.emptyList();
+            }
+            byDamage.put(damage, candidates);
+        }
+        return candidates;
+    }
+}
@@ -0,0 +1,116 @@
+package com.prupe.mcpatcher.cit;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+import net.minecraft.item.Item;
+import net.minecraft.item.ItemStack;
+import net.minecraft.nbt.NBTTagCompound;
+
+/**
+ * Remembers what a kind of override resolved to for recently rendered item stacks. Entries are keyed by the contents of
+ * the stack rather than the stack itself, with a copy of its NBT, so that a stack whose tags change simply misses.
+ */
+final class ResolutionCache<T> {
+
+    private static final Object NONE = new Object();
+
+    private final Map<Key, Object> entries;
+    private final Key lookup = new Key();
+
+    ResolutionCache(final int capacity) {
+        entries = new LinkedHashMap<Key, Object>(16, 0.75f, true) {
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Object> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    @SuppressWarnings("unchecked")
+    synchronized T resolve(ItemStack itemStack, Resolver<T> resolver) {
+        boolean hasEffect = itemStack.hasEffect(0);
+        lookup.set(itemStack, hasEffect);
+
+        Object cached = entries.get(lookup);
+        if (cached != null) {
+            lookup.nbt = null;
+            return cached == NONE ? null : (T) cached;
+        }
+
+        T value = resolver.resolve(itemStack, hasEffect);
+        entries.put(lookup.copy(), value == null ? NONE : value);
+        lookup.nbt = null;
+        return value;
+    }
+
+    synchronized void clear() {
+        entries.clear();
+    }
+
+    interface Resolver<T> {
+
+        T resolve(ItemStack itemStack, boolean hasEffect);
+    }
+
+    private static final class Key {
+
+        private Item item;
+        private int damage;
+        private int stackSize;
+        private boolean hasEffect;
+        private NBTTagCompound nbt;
+        private int hash;
+
+        void set(ItemStack itemStack, boolean hasEffect) {
+            item = itemStack.getItem();
+            damage = itemStack.getItemDamage();
+            stackSize = itemStack.stackSize;
+            this.hasEffect = hasEffect;
+            nbt = itemStack.getTagCompound();
+
+            int result = System.identityHashCode(item);
+            result = 31 * result + damage;
+            result = 31 * result + stackSize;
+            result = 31 * result + (hasEffect ? 1 : 0);
+            result = 31 * result + (nbt == null ? 0 : nbt.hashCode());
+            hash = result;
+        }
+
+        /**
+         * Copies the key for storing, along with the NBT it refers to, which may still be changed by its owner.
+         */
+        Key copy() {
+            Key key = new Key();
+            key.item = item;
+            key.damage = damage;
+            key.stackSize = stackSize;
+            key.hasEffect = hasEffect;
+            key.nbt = nbt == null ? null : (NBTTagCompound) nbt.copy();
+            key.hash = hash;
+            return key;
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key key)) {
+                return false;
+            }
+            return hash == key.hash && item == key.item
+                && damage == key.damage
+                && stackSize == key.stackSize
+                && hasEffect == key.hasEffect
+                && Objects.equals(nbt, key.nbt);
+        }
+    }
+}
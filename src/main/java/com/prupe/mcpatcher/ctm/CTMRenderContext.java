@@ -0,0 +1,49 @@
+package com.prupe.mcpatcher.ctm;
+
+/**
+ * Mutable per-thread state used while resolving connected textures. Chunk build workers own one of these through
+ * their render cache so that CTM lookups never contend with other threads; the iterators are rebound lazily whenever
+ * a resource reload publishes a new {@link CTMUtils.OverrideIndex}.
+ */
+public final class CTMRenderContext {
+
+    private static final ThreadLocal<CTMRenderContext> CURRENT = ThreadLocal.withInitial(CTMRenderContext::new);
+
+    final BlockOrientation renderBlockState = new BlockOrientation();
+
+    private CTMUtils.OverrideIndex index;
+    private TileOverrideIterator.IJK ijkIterator;
+    private TileOverrideIterator.Metadata metadataIterator;
+
+    boolean haveBlockFace;
+
+    static CTMRenderContext current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Makes this context the one used by the calling thread for all subsequent CTM lookups.
+     */
+    public void makeCurrent() {
+        CURRENT.set(this);
+    }
+
+    private void bind(CTMUtils.OverrideIndex index) {
+        if (this.index != index) {
+            this.index = index;
+            this.ijkIterator = new TileOverrideIterator.IJK(index.blockOverrides, index.tileOverrides);
+            this.metadataIterator = new TileOverrideIterator.Metadata(index.blockOverrides, index.tileOverrides);
+            this.renderBlockState.clear();
+        }
+    }
+
+    TileOverrideIterator.IJK ijkIterator(CTMUtils.OverrideIndex index) {
+        bind(index);
+        return ijkIterator;
+    }
+
+    TileOverrideIterator.Metadata metadataIterator(CTMUtils.OverrideIndex index) {
+        bind(index);
+        return metadataIterator;
+    }
+}
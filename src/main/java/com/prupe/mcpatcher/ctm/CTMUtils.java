@@ -36,13 +36,9 @@ public class CTMUtils {
     private static final Map<String, List<TileOverride>> tileOverrides = new HashMap<>();
     private static TileLoader tileLoader;
 
-    private static TileOverride lastOverride;
-
-    private static final TileOverrideIterator.IJK ijkIterator = newIJKIterator();
-    private static final TileOverrideIterator.Metadata metadataIterator = newMetadataIterator();
-
-    private static boolean haveBlockFace;
-    private static final BlockOrientation renderBlockState = new BlockOrientation();
+    // Read-only view of the overrides above, republished once per resource reload. Rendering threads only ever
+    // read from this, so lookups don't need to be synchronized.
+    private static volatile OverrideIndex index = OverrideIndex.EMPTY;
 
     static {
         try {
@@ -66,13 +62,7 @@ public class CTMUtils {
                 } catch (Throwable e) {
                     e.printStackTrace();
                 }
-                renderBlockState.clear();
-                ijkIterator.clear();
-                metadataIterator.clear();
-                allOverrides.clear();
-                blockOverrides.clear();
-                tileOverrides.clear();
-                lastOverride = null;
+                clearOverrides();
                 RenderBlocksUtils.blankIcon = null;
                 tileLoader = new TileLoader("textures/blocks", logger);
                 RenderPassAPI.instance.refreshBlendingOptions();
@@ -90,59 +80,39 @@ public class CTMUtils {
 
             @Override
             public void afterChange() {
-                for (TileOverride override : allOverrides) {
-                    override.registerIcons();
-                }
-                for (Map.Entry<Block, List<BlockStateMatcher>> entry : blockOverrides.entrySet()) {
-                    for (BlockStateMatcher matcher : entry.getValue()) {
-                        TileOverride override = (TileOverride) matcher.getData();
-                        if (override.getRenderPass() >= 0) {
-                            RenderPassAPI.instance.setRenderPassForBlock(entry.getKey(), override.getRenderPass());
-                        }
-                    }
-                }
-                for (List<BlockStateMatcher> overrides : blockOverrides.values()) {
-                    overrides.sort((m1, m2) -> {
-                        TileOverride o1 = (TileOverride) m1.getData();
-                        TileOverride o2 = (TileOverride) m2.getData();
-                        return o1.compareTo(o2);
-                    });
-                }
-                for (List<TileOverride> overrides : tileOverrides.values()) {
-                    Collections.sort(overrides);
-                }
                 setBlankResource();
+                publishOverrides();
             }
         });
     }
 
-    private static void clearBlockFace() {
-        haveBlockFace = false;
-    }
-
-    public static synchronized IIcon getBlockIcon(IIcon icon, Block block, IBlockAccess blockAccess,
-        int x, int y, int z, int face) {
-        lastOverride = null;
+    public static IIcon getBlockIcon(IIcon icon, Block block, IBlockAccess blockAccess, int x, int y, int z,
+        int face) {
+        TileOverride lastOverride = null;
+        final CTMRenderContext context = CTMRenderContext.current();
         if (blockAccess != null && checkFace(face)) {
-            if (!haveBlockFace) {
+            final BlockOrientation renderBlockState = context.renderBlockState;
+            if (!context.haveBlockFace) {
                 renderBlockState.setBlock(block, blockAccess, x, y, z);
                 renderBlockState.setFace(face);
             }
+            final TileOverrideIterator.IJK ijkIterator = context.ijkIterator(index);
             lastOverride = ijkIterator.go(renderBlockState, icon);
             if (lastOverride != null) {
                 icon = ijkIterator.getIcon();
             }
         }
-        clearBlockFace();
+        context.haveBlockFace = false;
         return lastOverride == null && skipDefaultRendering(block) ? RenderBlocksUtils.blankIcon : icon;
     }
 
-    public static synchronized IIcon getBlockIcon(IIcon icon, Block block, int face, int metadata) {
-        lastOverride = null;
+    public static IIcon getBlockIcon(IIcon icon, Block block, int face, int metadata) {
         if (checkFace(face) && checkRenderType(block)) {
+            final CTMRenderContext context = CTMRenderContext.current();
+            final BlockOrientation renderBlockState = context.renderBlockState;
             renderBlockState.setBlockMetadata(block, metadata, face);
-            lastOverride = metadataIterator.go(renderBlockState, icon);
-            if (lastOverride != null) {
+            final TileOverrideIterator.Metadata metadataIterator = context.metadataIterator(index);
+            if (metadataIterator.go(renderBlockState, icon) != null) {
                 icon = metadataIterator.getIcon();
             }
         }
@@ -167,11 +137,11 @@ public class CTMUtils {
         };
     }
 
-    private static synchronized boolean skipDefaultRendering(Block block) {
+    private static boolean skipDefaultRendering(Block block) {
         return RenderPassAPI.instance.skipDefaultRendering(block);
     }
 
-    private static synchronized void registerOverride(TileOverride override) {
+    static synchronized void registerOverride(TileOverride override) {
         if (override != null && !override.isDisabled()) {
             boolean registered = false;
             List<BlockStateMatcher> matchingBlocks = override.getMatchingBlocks();
@@ -202,15 +172,74 @@ public class CTMUtils {
         }
     }
 
+    static synchronized void clearOverrides() {
+        index = OverrideIndex.EMPTY;
+        allOverrides.clear();
+        blockOverrides.clear();
+        tileOverrides.clear();
+    }
+
+    // Registers the icons of every override added since the last clear and publishes them to rendering threads.
+    static synchronized void publishOverrides() {
+        for (TileOverride override : allOverrides) {
+            override.registerIcons();
+        }
+        for (Map.Entry<Block, List<BlockStateMatcher>> entry : blockOverrides.entrySet()) {
+            for (BlockStateMatcher matcher : entry.getValue()) {
+                TileOverride override = (TileOverride) matcher.getData();
+                if (override.getRenderPass() >= 0) {
+                    RenderPassAPI.instance.setRenderPassForBlock(entry.getKey(), override.getRenderPass());
+                }
+            }
+        }
+        for (List<BlockStateMatcher> overrides : blockOverrides.values()) {
+            overrides.sort((m1, m2) -> {
+                TileOverride o1 = (TileOverride) m1.getData();
+                TileOverride o2 = (TileOverride) m2.getData();
+                return o1.compareTo(o2);
+            });
+        }
+        for (List<TileOverride> overrides : tileOverrides.values()) {
+            Collections.sort(overrides);
+        }
+        index = new OverrideIndex(blockOverrides, tileOverrides);
+    }
+
     public static synchronized void setBlankResource() {
         RenderBlocksUtils.blankIcon = tileLoader.getIcon(RenderPassAPI.instance.getBlankResource());
     }
 
     public static TileOverrideIterator.IJK newIJKIterator() {
-        return new TileOverrideIterator.IJK(blockOverrides, tileOverrides);
+        final OverrideIndex current = index;
+        return new TileOverrideIterator.IJK(current.blockOverrides, current.tileOverrides);
     }
 
     public static TileOverrideIterator.Metadata newMetadataIterator() {
-        return new TileOverrideIterator.Metadata(blockOverrides, tileOverrides);
+        final OverrideIndex current = index;
+        return new TileOverrideIterator.Metadata(current.blockOverrides, current.tileOverrides);
+    }
+
+    /**
+     * Immutable snapshot of the registered block and tile overrides.
+     */
+    static final class OverrideIndex {
+
+        static final OverrideIndex EMPTY = new OverrideIndex(Collections.emptyMap(), Collections.emptyMap());
+
+        final Map<Block, List<BlockStateMatcher>> blockOverrides;
+        final Map<String, List<TileOverride>> tileOverrides;
+
+        OverrideIndex(Map<Block, List<BlockStateMatcher>> blockOverrides, Map<String, List<TileOverride>> tileOverrides) {
+            final Map<Block, List<BlockStateMatcher>> blocks = new IdentityHashMap<>(blockOverrides.size());
+            for (Map.Entry<Block, List<BlockStateMatcher>> entry : blockOverrides.entrySet()) {
+                blocks.put(entry.getKey(), Collections.unmodifiableList(new ArrayList<>(entry.getValue())));
+            }
+            final Map<String, List<TileOverride>> tiles = new HashMap<>(tileOverrides.size());
+            for (Map.Entry<String, List<TileOverride>> entry : tileOverrides.entrySet()) {
+                tiles.put(entry.getKey(), Collections.unmodifiableList(new ArrayList<>(entry.getValue())));
+            }
+            this.blockOverrides = Collections.unmodifiableMap(blocks);
+            this.tileOverrides = Collections.unmodifiableMap(tiles);
+        }
     }
 }
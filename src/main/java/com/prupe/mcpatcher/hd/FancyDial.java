@@ -7,9 +7,10 @@ import java.nio.IntBuffer;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.TreeMap;
 
 import javax.imageio.ImageIO;
 
@@ -52,6 +53,8 @@ public class FancyDial {
     private static final boolean enableClock = MCPatcherForgeConfig.ExtendedHD.fancyClock;
     private static final boolean useGL13 = gl13Supported && MCPatcherForgeConfig.ExtendedHD.useGL13;
     private static final boolean useScratchTexture = MCPatcherForgeConfig.ExtendedHD.useScratchTexture;
+    private static final int itemFrameSteps = MCPatcherForgeConfig.ExtendedHD.itemFrameDialSteps;
+    private static final long itemFrameCacheBytes = MCPatcherForgeConfig.ExtendedHD.itemFrameDialCacheKB * 1024L;
     private static final int glAttributes;
     private static boolean initialized;
     private static boolean active;
@@ -71,7 +74,7 @@ public class FancyDial {
     private final FBO[] scratchFBO = new FBO[NUM_SCRATCH_TEXTURES];
     private FBO itemsFBO;
     private int scratchIndex;
-    private Map<Double, ByteBuffer> itemFrames = new TreeMap<>();
+    private FrameCache itemFrames;
     private int outputFrames;
 
     private boolean ok;
@@ -332,17 +335,10 @@ public class FancyDial {
                 lastAngle = angle;
             }
         } else if (itemFrameRenderer) {
-            // look in itemFrames cache first
-            ByteBuffer buffer = itemFrames.get(angle);
-            if (buffer == null) {
-                logger.fine("rendering %s at angle %f for item frame", name, angle);
-                buffer = ByteBuffer.allocateDirect(width * height * 4);
-                renderToItems(angle);
-                itemsFBO.read(buffer);
-                itemFrames.put(angle, buffer);
-            } else {
-                itemsFBO.write(buffer);
+            if (itemFrames == null) {
+                itemFrames = new FrameCache();
             }
+            itemFrames.show(angle);
             lastItemFrameRenderer = true;
         } else if (lastAngle == ANGLE_UNSET) {
             // first time rendering - render all N copies
@@ -475,7 +471,10 @@ public class FancyDial {
             itemsFBO.delete();
             itemsFBO = null;
         }
-        itemFrames.clear();
+        if (itemFrames != null) {
+            itemFrames.delete();
+            itemFrames = null;
+        }
         layers.clear();
         ok = false;
     }
@@ -573,12 +572,67 @@ public class FancyDial {
         }
     }
 
+    /**
+     * Frames rendered for item frames, kept in a texture laid out as a grid of icon-sized slots and copied into the
+     * items atlas on the GPU. Angles are quantized to a fixed number of steps, and once every slot the memory budget
+     * allows is taken, the step shown least recently is evicted.
+     */
+    private class FrameCache {
+
+        private final int columns;
+        private final int capacity;
+        private final FBO fbo;
+        private final Map<Integer, Integer> slots = new LinkedHashMap<>(16, 0.75f, true);
+
+        FrameCache() {
+            int maxSize = GL11.glGetInteger(GL11.GL_MAX_TEXTURE_SIZE);
+            int maxColumns = Math.max(maxSize / width, 1);
+            int maxRows = Math.max(maxSize / height, 1);
+            long frames = Math.max(itemFrameCacheBytes / (4L * width * height), 1);
+            capacity = (int) Math.min(frames, Math.min(itemFrameSteps, (long) maxColumns * maxRows));
+            columns = Math.min(capacity, maxColumns);
+            int rows = (capacity + columns - 1) / columns;
+            fbo = new FBO(blankTexture(columns * width, rows * height), true, 0, 0, width, height);
+            logger.fine("caching up to %d %s frames for item frames", capacity, name);
+        }
+
+        void show(double angle) {
+            int step = (int) (Math.round(angle * itemFrameSteps / 360.0) % itemFrameSteps);
+            if (step < 0) {
+                step += itemFrameSteps;
+            }
+            Integer slot = slots.get(step);
+            if (slot == null) {
+                if (slots.size() < capacity) {
+                    slot = slots.size();
+                } else {
+                    Iterator<Integer> eldest = slots.values()
+                        .iterator();
+                    slot = eldest.next();
+                    eldest.remove();
+                }
+                slots.put(step, slot);
+                fbo.moveTo((slot % columns) * width, (slot / columns) * height);
+                logger.finer("rendering %s at step %d for item frame", name, step);
+                renderToFB(step * 360.0 / itemFrameSteps, fbo);
+            } else {
+                fbo.moveTo((slot % columns) * width, (slot / columns) * height);
+            }
+            fbo.copyTo(itemsFBO);
+        }
+
+        void delete() {
+            fbo.delete();
+            slots.clear();
+        }
+    }
+
     private static class FBO {
 
         private final int texture;
         private final boolean ownTexture;
-        private final int x0;
-        private final int y0;
+        private int x0;
+        private int y0;
         private final int width;
         private final int height;
         private final int frameBuffer;
@@ -697,6 +751,23 @@ public class FancyDial {
                 buffer);
         }
 
+        /**
+         * Moves the region rendered to and copied from within the texture.
+         */
+        void moveTo(int x0, int y0) {
+            this.x0 = x0;
+            this.y0 = y0;
+        }
+
+        /**
+         * Copies the region into the region of another framebuffer's texture, without going through the CPU.
+         */
+        void copyTo(FBO target) {
+            EXTFramebufferObject.glBindFramebufferEXT(EXTFramebufferObject.GL_FRAMEBUFFER_EXT, frameBuffer);
+            GLAPI.glBindTexture(target.texture);
+            GL11.glCopyTexSubImage2D(GL11.GL_TEXTURE_2D, 0, target.x0, target.y0, x0, y0, width, height);
+        }
+
         void delete() {
             if (!deleted) {
                 deleted = true;
@@ -712,11 +783,11 @@ public class FancyDial {
             delete();
             super.finalize();
         }
+    }
 
-        private static int blankTexture(int width, int height) {
-            int texture = GL11.glGenTextures();
-            MipmapHelper.setupTexture(texture, width, height, "scratch");
-            return texture;
-        }
+    private static int blankTexture(int width, int height) {
+        int texture = GL11.glGenTextures();
+        MipmapHelper.setupTexture(texture, width, height, "scratch");
+        return texture;
     }
 }
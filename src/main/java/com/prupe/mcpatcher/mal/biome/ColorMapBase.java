@@ -9,6 +9,8 @@ import java.util.logging.Level;
 import net.minecraft.util.ResourceLocation;
 import net.minecraft.world.IBlockAccess;
 
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+
 import com.prupe.mcpatcher.MCLogger;
 
 abstract public class ColorMapBase {
@@ -137,6 +139,156 @@ abstract public class ColorMapBase {
         }
     }
 
+    /**
+     * Alternative to {@link Blended} with the same output. When queried through an {@link IVersionedBlockAccess}, the
+     * parent colors around the current 16x16 column are sampled at most once each into a grid, and the blend of each
+     * position is computed from that grid the first time it's asked for. Maps which don't depend on height share one
+     * layer for the whole column, others get one layer per height. Other block accesses are blended directly.
+     */
+    public static final class SectionBlended implements IColorMap {
+
+        private static final int I_MASK = ~0xf;
+        private static final int K_MASK = ~0xf;
+
+        // Vertex lookups can land on the far edge of the column, hence 17 rather than 16
+        private static final int COLUMN_SIZE = 17;
+
+        private final IColorMap parent;
+        private final Blended direct;
+        private final int blendRadius;
+        private final int size;
+        private final float[] lastColor = new float[3];
+
+        private final Int2ObjectOpenHashMap<Layer> layers = new Int2ObjectOpenHashMap<>();
+        private final List<Layer> freeLayers = new ArrayList<>();
+        private IBlockAccess lastAccess;
+        private int lastVersion;
+        private int baseI = Integer.MIN_VALUE;
+        private int baseK = Integer.MIN_VALUE;
+
+        public SectionBlended(IColorMap parent, int blendRadius) {
+            this.parent = parent;
+            this.direct = new Blended(parent, blendRadius);
+            this.blendRadius = blendRadius;
+            this.size = COLUMN_SIZE + 2 * blendRadius;
+        }
+
+        @Override
+        public String toString() {
+            return parent.toString();
+        }
+
+        @Override
+        public boolean isHeightDependent() {
+            return parent.isHeightDependent();
+        }
+
+        @Override
+        public int getColorMultiplier() {
+            return parent.getColorMultiplier();
+        }
+
+        @Override
+        public int getColorMultiplier(IBlockAccess blockAccess, int i, int j, int k) {
+            return ColorUtils.float3ToInt(getColorMultiplierF(blockAccess, i, j, k));
+        }
+
+        @Override
+        public float[] getColorMultiplierF(IBlockAccess blockAccess, int i, int j, int k) {
+            if (!(blockAccess instanceof IVersionedBlockAccess versioned)) {
+                return direct.getColorMultiplierF(blockAccess, i, j, k);
+            }
+            int version = versioned.getSnapshotVersion();
+            if (blockAccess != lastAccess || version != lastVersion || i < baseI || i >= baseI + COLUMN_SIZE
+                || k < baseK || k >= baseK + COLUMN_SIZE) {
+                reset(i & I_MASK, k & K_MASK);
+                lastAccess = blockAccess;
+                lastVersion = version;
+            }
+            int layerJ = parent.isHeightDependent() ? j : DEFAULT_HEIGHT;
+            Layer layer = layers.get(layerJ);
+            if (layer == null) {
+                layer = freeLayers.isEmpty() ? new Layer(size) : freeLayers.remove(freeLayers.size() - 1);
+                layers.put(layerJ, layer);
+            }
+            int cell = (k - baseK) * COLUMN_SIZE + (i - baseI);
+            int idx = cell * 3;
+            if (!layer.blended[cell]) {
+                blend(layer, blockAccess, i, layerJ, k, idx);
+                layer.blended[cell] = true;
+            }
+            lastColor[0] = layer.colors[idx];
+            lastColor[1] = layer.colors[idx + 1];
+            lastColor[2] = layer.colors[idx + 2];
+            return lastColor;
+        }
+
+        private void blend(Layer layer, IBlockAccess blockAccess, int i, int j, int k, int idx) {
+            // Same order and precision as Blended, so the result is identical
+            float r = 0.0f;
+            float g = 0.0f;
+            float b = 0.0f;
+            for (int n = 0; n < direct.weight.length; n++) {
+                int[] offset = direct.offset[n];
+                float weight = direct.weight[n];
+                int sample = sample(layer, blockAccess, i + offset[0], j, k + offset[1]);
+                r += layer.samples[sample] * weight;
+                g += layer.samples[sample + 1] * weight;
+                b += layer.samples[sample + 2] * weight;
+            }
+            layer.colors[idx] = r;
+            layer.colors[idx + 1] = g;
+            layer.colors[idx + 2] = b;
+        }
+
+        private int sample(Layer layer, IBlockAccess blockAccess, int i, int j, int k) {
+            int cell = (k - baseK + blendRadius) * size + (i - baseI + blendRadius);
+            int idx = cell * 3;
+            if (!layer.sampled[cell]) {
+                float[] color = parent.getColorMultiplierF(blockAccess, i, j, k);
+                layer.samples[idx] = color[0];
+                layer.samples[idx + 1] = color[1];
+                layer.samples[idx + 2] = color[2];
+                layer.sampled[cell] = true;
+            }
+            return idx;
+        }
+
+        private void reset(int i, int k) {
+            baseI = i;
+            baseK = k;
+            for (Layer layer : layers.values()) {
+                Arrays.fill(layer.sampled, false);
+                Arrays.fill(layer.blended, false);
+                freeLayers.add(layer);
+            }
+            layers.clear();
+        }
+
+        @Override
+        public void claimResources(Collection<ResourceLocation> resources) {
+            parent.claimResources(resources);
+        }
+
+        @Override
+        public IColorMap copy() {
+            return new SectionBlended(parent.copy(), blendRadius);
+        }
+
+        private static final class Layer {
+
+            private final float[] samples;
+            private final boolean[] sampled;
+            private final float[] colors = new float[COLUMN_SIZE * COLUMN_SIZE * 3];
+            private final boolean[] blended = new boolean[COLUMN_SIZE * COLUMN_SIZE];
+
+            private Layer(int size) {
+                samples = new float[size * size * 3];
+                sampled = new boolean[size * size];
+            }
+        }
+    }
+
     public static final class Cached implements IColorMap {
 
         private final IColorMap parent;
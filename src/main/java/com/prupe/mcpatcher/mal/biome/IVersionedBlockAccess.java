@@ -0,0 +1,10 @@
+package com.prupe.mcpatcher.mal.biome;
+
+/**
+ * Implemented by block access snapshots (such as chunk build world slices) whose contents can be swapped out while
+ * the instance itself is re-used. The version must change whenever the captured blocks or biomes change.
+ */
+public interface IVersionedBlockAccess {
+
+    int getSnapshotVersion();
+}
@@ -70,6 +70,13 @@ abstract public class NBTRule {
         }
     }
 
+    /**
+     * @return The top-level tag a compound needs for this rule to match, or null if the rule starts with a wildcard
+     */
+    public final String getRootTag() {
+        return tagName.length > 0 ? tagName[0] : null;
+    }
+
     public final boolean match(NBTTagCompound nbt) {
         return nbt != null && match(nbt, 0);
     }
@@ -28,6 +28,11 @@ public class MCPatcherForgeConfig {
         @Config.RequiresMcRestart
         public static int blockBlendRadius;
 
+        @Config.Comment("Blend block colors from a grid of biome colors sampled once per chunk section build, instead of sampling every blended position separately. The colors are the same")
+        @Config.DefaultBoolean(false)
+        @Config.RequiresMcRestart
+        public static boolean sectionBlending;
+
         @Config.DefaultInt(7)
         @Config.RequiresMcRestart
         public static int fogBlendRadius;
@@ -206,6 +211,18 @@ public class MCPatcherForgeConfig {
         @Config.RequiresMcRestart
         public static boolean useScratchTexture;
 
+        @Config.Comment("Number of angles fancy dials in item frames are rendered at")
+        @Config.DefaultInt(360)
+        @Config.RangeInt(min = 4, max = 3600)
+        @Config.RequiresMcRestart
+        public static int itemFrameDialSteps;
+
+        @Config.Comment("Video memory in KB for keeping fancy dial frames rendered for item frames")
+        @Config.DefaultInt(4096)
+        @Config.RangeInt(min = 64, max = 262144)
+        @Config.RequiresMcRestart
+        public static int itemFrameDialCacheKB;
+
         @Config.DefaultBoolean(true)
         @Config.RequiresMcRestart
         @Config.Name("HDFont")
@@ -27,12 +27,17 @@ public class SodiumDebugScreenHandler {
     }
 
     private static List<String> getChunkRendererDebugStrings() {
-        ChunkRenderBackend<?> backend = SodiumWorldRenderer.getInstance().getChunkRenderer();
+        SodiumWorldRenderer renderer = SodiumWorldRenderer.getInstance();
+        ChunkRenderBackend<?> backend = renderer.getChunkRenderer();
 
         List<String> strings = new ArrayList<>(5);
         strings.add("Chunk Renderer: " + backend.getRendererName());
         strings.add("Block Renderer: " + "Sodium");
         strings.addAll(backend.getDebugStrings());
+        strings.add(renderer.getChunkBuilderDebugString());
+        strings.add(renderer.getChunkUploadsDebugString());
+        strings.add(renderer.getChunkCullingDebugString());
+        strings.add(renderer.getChunkMeshCacheDebugString());
 
         return strings;
     }
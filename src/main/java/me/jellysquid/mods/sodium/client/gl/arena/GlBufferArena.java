@@ -1,6 +1,10 @@
 package me.jellysquid.mods.sodium.client.gl.arena;
 
-import it.unimi.dsi.fastutil.objects.ObjectLinkedOpenHashSet;
+import it.unimi.dsi.fastutil.ints.Int2IntRBTreeMap;
+import it.unimi.dsi.fastutil.ints.Int2IntSortedMap;
+import it.unimi.dsi.fastutil.longs.LongRBTreeSet;
+import it.unimi.dsi.fastutil.longs.LongSortedSet;
+import it.unimi.dsi.fastutil.objects.ReferenceOpenHashSet;
 import me.jellysquid.mods.sodium.client.gl.buffer.GlBuffer;
 import me.jellysquid.mods.sodium.client.gl.buffer.GlBufferTarget;
 import me.jellysquid.mods.sodium.client.gl.buffer.GlBufferUsage;
@@ -8,21 +12,33 @@ import me.jellysquid.mods.sodium.client.gl.buffer.GlMutableBuffer;
 import me.jellysquid.mods.sodium.client.gl.device.CommandList;
 import me.jellysquid.mods.sodium.client.gl.device.RenderDevice;
 
+import java.util.Arrays;
+import java.util.Comparator;
 import java.util.Set;
 
 public class GlBufferArena {
     private static final GlBufferUsage BUFFER_USAGE = GlBufferUsage.GL_DYNAMIC_DRAW;
 
+    // The arena is compacted once free holes make up this fraction of the allocated range...
+    private static final float COMPACTION_THRESHOLD = 0.25f;
+    // ... and there are enough of them for fragmentation to matter
+    private static final int COMPACTION_MIN_FREE_SEGMENTS = 32;
+
     private final RenderDevice device;
     private final int resizeIncrement;
 
-    private final Set<GlBufferSegment> freeRegions = new ObjectLinkedOpenHashSet<>();
+    // Free segments below the current position, as start offset -> length
+    private final Int2IntRBTreeMap freeByOffset = new Int2IntRBTreeMap();
+    // The same free segments ordered by length and then offset, packed as (length << 32 | offset)
+    private final LongRBTreeSet freeBySize = new LongRBTreeSet();
+
+    private final Set<GlBufferSegment> liveSegments = new ReferenceOpenHashSet<>();
 
     private GlMutableBuffer vertexBuffer;
 
     private int position;
     private int capacity;
-    private int allocCount;
+    private int freeBytes;
 
     public GlBufferArena(RenderDevice device, int initialSize, int resizeIncrement) {
         this.device = device;
@@ -69,46 +85,40 @@ public class GlBufferArena {
     }
 
     public void free(GlBufferSegment segment) {
-        if (this.freeRegions.contains(segment)) {
+        if (!this.liveSegments.remove(segment)) {
             throw new IllegalArgumentException("Segment already freed");
         }
 
-        // Attempt merging
-        GlBufferSegment prev = null, next = null;
-        int selfEnd = segment.getEnd();
-        for (GlBufferSegment freeSeg : this.freeRegions) {
-            if (prev != null && next != null)
-                break;
-            if (freeSeg.getStart() == selfEnd) {
-                next = freeSeg;
-            } else if (freeSeg.getEnd() == segment.getStart()) {
-                prev = freeSeg;
-            }
-        }
+        int start = segment.getStart();
+        int end = segment.getEnd();
 
-        if(prev != null || next != null) {
-            int start, end;
+        // Merge with the free segment ending where this one starts, if there is one
+        Int2IntSortedMap before = this.freeByOffset.headMap(start);
 
-            if(prev != null) {
-                this.freeRegions.remove(prev);
-                start = prev.getStart();
-            } else {
-                start = segment.getStart();
-            }
+        if (!before.isEmpty()) {
+            int prevStart = before.lastIntKey();
+            int prevLength = this.freeByOffset.get(prevStart);
 
-            if(next != null) {
-                this.freeRegions.remove(next);
-                end = next.getEnd();
-            } else {
-                end = segment.getEnd();
+            if (prevStart + prevLength == start) {
+                this.removeFree(prevStart, prevLength);
+                start = prevStart;
             }
-
-            segment = new GlBufferSegment(this, start, end - start);
         }
 
-        this.freeRegions.add(segment);
+        // ... and with the one starting where this one ends
+        if (this.freeByOffset.containsKey(end)) {
+            int nextLength = this.freeByOffset.get(end);
 
-        this.allocCount--;
+            this.removeFree(end, nextLength);
+            end += nextLength;
+        }
+
+        if (end == this.position) {
+            // Give space at the end back to the bump allocator rather than tracking it as a hole
+            this.position = start;
+        } else {
+            this.addFree(start, end - start);
+        }
     }
 
     private GlBufferSegment alloc(int len) {
@@ -120,37 +130,119 @@ public class GlBufferArena {
             this.position += len;
         }
 
-        this.allocCount++;
+        this.liveSegments.add(segment);
 
         return segment;
     }
 
     private GlBufferSegment allocReuse(int len) {
-        GlBufferSegment bestSegment = null;
+        // The smallest free segment which fits, preferring lower offsets when several are the same size
+        LongSortedSet candidates = this.freeBySize.tailSet(packFree(0, len));
 
-        for (GlBufferSegment segment : this.freeRegions) {
-            if (segment.getLength() < len) {
-                continue;
-            }
+        if (candidates.isEmpty()) {
+            return null;
+        }
 
-            if (bestSegment == null || bestSegment.getLength() > segment.getLength()) {
-                bestSegment = segment;
-            }
+        long best = candidates.firstLong();
+
+        int start = unpackFreeStart(best);
+        int length = unpackFreeLength(best);
+
+        this.removeFree(start, length);
+
+        if (length > len) {
+            this.addFree(start + len, length - len);
         }
 
-        if (bestSegment == null) {
-            return null;
+        return new GlBufferSegment(this, start, len);
+    }
+
+    private void addFree(int start, int length) {
+        this.freeByOffset.put(start, length);
+        this.freeBySize.add(packFree(start, length));
+        this.freeBytes += length;
+    }
+
+    private void removeFree(int start, int length) {
+        this.freeByOffset.remove(start);
+        this.freeBySize.remove(packFree(start, length));
+        this.freeBytes -= length;
+    }
+
+    private static long packFree(int start, int length) {
+        return ((long) length << 32) | (start & 0xFFFFFFFFL);
+    }
+
+    private static int unpackFreeStart(long packed) {
+        return (int) packed;
+    }
+
+    private static int unpackFreeLength(long packed) {
+        return (int) (packed >>> 32);
+    }
+
+    /**
+     * Compacts the arena if enough of it has been lost to fragmentation. This is meant to be called while the arena
+     * is being uploaded to, so callers must already be prepared for {@link #getBuffer()} to change.
+     *
+     * @return True if the arena was compacted, in which case both the backing buffer and the start of every live
+     *         segment may have changed
+     */
+    public boolean compactIfFragmented(CommandList commandList) {
+        if (this.freeByOffset.size() < COMPACTION_MIN_FREE_SEGMENTS || this.freeBytes < this.position * COMPACTION_THRESHOLD) {
+            return false;
         }
 
-        this.freeRegions.remove(bestSegment);
+        this.compact(commandList);
+
+        return true;
+    }
+
+    private void compact(CommandList commandList) {
+        GlBufferSegment[] segments = this.liveSegments.toArray(new GlBufferSegment[0]);
+        Arrays.sort(segments, Comparator.comparingInt(GlBufferSegment::getStart));
+
+        GlMutableBuffer src = this.vertexBuffer;
+        GlMutableBuffer dst = commandList.createMutableBuffer(BUFFER_USAGE);
+
+        commandList.allocateBuffer(GlBufferTarget.COPY_WRITE_BUFFER, dst, this.capacity);
 
-        int excess = bestSegment.getLength() - len;
+        int position = 0;
 
-        if (excess > 0) {
-            this.freeRegions.add(new GlBufferSegment(this, bestSegment.getStart() + len, excess));
+        // Segments which are already adjacent are moved together with a single copy
+        int runStart = 0;
+        int runDest = 0;
+        int runLength = 0;
+
+        for (GlBufferSegment segment : segments) {
+            if (runStart + runLength != segment.getStart()) {
+                if (runLength > 0) {
+                    commandList.copyBufferSubData(src, dst, runStart, runDest, runLength);
+                }
+
+                runStart = segment.getStart();
+                runDest = position;
+                runLength = 0;
+            }
+
+            runLength += segment.getLength();
+
+            segment.setStart(position);
+            position += segment.getLength();
         }
 
-        return new GlBufferSegment(this, bestSegment.getStart(), len);
+        if (runLength > 0) {
+            commandList.copyBufferSubData(src, dst, runStart, runDest, runLength);
+        }
+
+        commandList.deleteBuffer(src);
+
+        this.vertexBuffer = dst;
+        this.position = position;
+
+        this.freeByOffset.clear();
+        this.freeBySize.clear();
+        this.freeBytes = 0;
     }
 
     public void delete() {
@@ -160,7 +252,7 @@ public class GlBufferArena {
     }
 
     public boolean isEmpty() {
-        return this.allocCount <= 0;
+        return this.liveSegments.isEmpty();
     }
 
     public GlBuffer getBuffer() {
@@ -0,0 +1,145 @@
+package me.jellysquid.mods.sodium.client.gl.buffer;
+
+import me.jellysquid.mods.sodium.client.gl.device.CommandList;
+import me.jellysquid.mods.sodium.client.gl.device.RenderDevice;
+import me.jellysquid.mods.sodium.client.gl.func.GlFunctions;
+import org.lwjgl.opengl.GL30;
+import org.lwjgl.opengl.GL32;
+import org.lwjgl.opengl.GL44;
+import org.lwjgl.opengl.GLSync;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+
+/**
+ * A persistently mapped, coherent buffer used as a ring of staging memory for uploads. Data is written directly into
+ * the mapping and then copied on the GPU to its destination, which avoids re-specifying a buffer's storage for every
+ * upload. Space is handed back once the fence placed after the copies which read it has been signalled.
+ *
+ * Requires {@link GlFunctions#isBufferStorageSupported()}.
+ */
+public class GlStagingRingBuffer extends GlBuffer {
+    private static final int STORAGE_FLAGS = GL30.GL_MAP_WRITE_BIT | GL44.GL_MAP_PERSISTENT_BIT | GL44.GL_MAP_COHERENT_BIT;
+
+    // Keeps every write aligned, regardless of the sizes written before it
+    private static final int ALIGNMENT = 16;
+
+    private final ByteBuffer mapping;
+    private final int capacity;
+
+    private final ArrayDeque<PendingFence> fences = new ArrayDeque<>();
+
+    private int head;
+    private int used;
+    private int unfencedBytes;
+
+    public GlStagingRingBuffer(RenderDevice owner, CommandList commandList, int capacity) {
+        super(owner, GlBufferUsage.GL_STREAM_DRAW);
+
+        this.capacity = capacity;
+
+        commandList.bindBuffer(GlBufferTarget.COPY_READ_BUFFER, this);
+
+        GlFunctions.BUFFER_STORAGE.glBufferStorage(GlBufferTarget.COPY_READ_BUFFER.getTargetParameter(), capacity, STORAGE_FLAGS);
+
+        this.mapping = GL30.glMapBufferRange(GlBufferTarget.COPY_READ_BUFFER.getTargetParameter(), 0, capacity, STORAGE_FLAGS, null);
+
+        if (this.mapping == null) {
+            throw new IllegalStateException("Failed to map staging buffer");
+        }
+    }
+
+    /**
+     * Copies the whole of the given buffer into the ring.
+     *
+     * @return The offset which the data was written at, or -1 if there is currently not enough free space, in which
+     *         case the caller should upload the data some other way rather than wait for the GPU
+     */
+    public int write(ByteBuffer data) {
+        final int length = data.capacity();
+        final int size = (length + ALIGNMENT - 1) & -ALIGNMENT;
+
+        if (size > this.capacity) {
+            return -1;
+        }
+
+        // Writes are never split across the end of the ring, so the tail is skipped if this doesn't fit before it
+        final boolean wrap = this.head + size > this.capacity;
+        final int skipped = wrap ? this.capacity - this.head : 0;
+
+        if (this.used + skipped + size > this.capacity) {
+            this.reclaim();
+
+            if (this.used + skipped + size > this.capacity) {
+                return -1;
+            }
+        }
+
+        if (wrap) {
+            this.head = 0;
+        }
+
+        final int offset = this.head;
+
+        final ByteBuffer src = data.duplicate();
+        src.clear();
+
+        final ByteBuffer dst = this.mapping.duplicate();
+        dst.position(offset);
+        dst.put(src);
+
+        this.head += size;
+        this.used += skipped + size;
+        this.unfencedBytes += skipped + size;
+
+        return offset;
+    }
+
+    /**
+     * Places a fence after all commands issued so far, so that everything written since the last fence can be reused
+     * once the GPU has finished reading it. Should be called once all copies out of the ring have been issued.
+     */
+    public void fence() {
+        if (this.unfencedBytes > 0) {
+            this.fences.add(new PendingFence(GL32.glFenceSync(GL32.GL_SYNC_GPU_COMMANDS_COMPLETE, 0), this.unfencedBytes));
+            this.unfencedBytes = 0;
+        }
+    }
+
+    private void reclaim() {
+        while (!this.fences.isEmpty()) {
+            final PendingFence fence = this.fences.peek();
+            final int status = GL32.glClientWaitSync(fence.sync, 0, 0L);
+
+            if (status != GL32.GL_ALREADY_SIGNALED && status != GL32.GL_CONDITION_SATISFIED) {
+                break;
+            }
+
+            GL32.glDeleteSync(fence.sync);
+
+            this.fences.remove();
+            this.used -= fence.bytes;
+        }
+    }
+
+    public void delete(CommandList commandList) {
+        for (PendingFence fence : this.fences) {
+            GL32.glDeleteSync(fence.sync);
+        }
+
+        this.fences.clear();
+
+        // Deleting the buffer also releases its persistent mapping
+        commandList.deleteBuffer(this);
+    }
+
+    private static class PendingFence {
+        private final GLSync sync;
+        private final int bytes;
+
+        private PendingFence(GLSync sync, int bytes) {
+            this.sync = sync;
+            this.bytes = bytes;
+        }
+    }
+}
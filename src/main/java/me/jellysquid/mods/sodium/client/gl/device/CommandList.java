@@ -17,7 +17,14 @@ public interface CommandList extends AutoCloseable {
 
     GlMutableBuffer createMutableBuffer(GlBufferUsage usage);
 
-    GlTessellation createTessellation(GlPrimitiveType primitiveType, TessellationBinding[] bindings);
+    default GlTessellation createTessellation(GlPrimitiveType primitiveType, TessellationBinding[] bindings) {
+        return this.createTessellation(primitiveType, bindings, null);
+    }
+
+    /**
+     * @param indexBuffer The element buffer to bind alongside the vertex attributes, or null if none is used
+     */
+    GlTessellation createTessellation(GlPrimitiveType primitiveType, TessellationBinding[] bindings, GlBuffer indexBuffer);
 
     void bindVertexArray(GlVertexArray array);
 
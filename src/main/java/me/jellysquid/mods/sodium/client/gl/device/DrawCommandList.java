@@ -9,6 +9,12 @@ public interface DrawCommandList extends AutoCloseable {
     void multiDrawArraysIndirect(ByteBuffer pointer, int count, int stride);
     void multiDrawArraysIndirect(long pointer, int count, int stride);
 
+    /**
+     * Draws using the element buffer of the active tessellation, which must contain {@code GL_UNSIGNED_INT} indices.
+     */
+    void multiDrawElementsIndirect(ByteBuffer pointer, int count, int stride);
+    void multiDrawElementsIndirect(long pointer, int count, int stride);
+
     void endTessellating();
 
     void flush();
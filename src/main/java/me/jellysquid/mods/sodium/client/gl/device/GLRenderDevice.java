@@ -1,5 +1,6 @@
 package me.jellysquid.mods.sodium.client.gl.device;
 
+import com.gtnewhorizons.angelica.glsm.GLStateManager;
 import me.jellysquid.mods.sodium.client.gl.array.GlVertexArray;
 import me.jellysquid.mods.sodium.client.gl.buffer.GlBuffer;
 import me.jellysquid.mods.sodium.client.gl.buffer.GlBufferTarget;
@@ -12,6 +13,7 @@ import me.jellysquid.mods.sodium.client.gl.tessellation.GlPrimitiveType;
 import me.jellysquid.mods.sodium.client.gl.tessellation.GlTessellation;
 import me.jellysquid.mods.sodium.client.gl.tessellation.GlVertexArrayTessellation;
 import me.jellysquid.mods.sodium.client.gl.tessellation.TessellationBinding;
+import org.lwjgl.opengl.GL11;
 import org.lwjgl.opengl.GL14;
 import org.lwjgl.opengl.GL15;
 import org.lwjgl.opengl.GL31;
@@ -174,14 +176,14 @@ public class GLRenderDevice implements RenderDevice {
         }
 
         @Override
-        public GlTessellation createTessellation(GlPrimitiveType primitiveType, TessellationBinding[] bindings) {
+        public GlTessellation createTessellation(GlPrimitiveType primitiveType, TessellationBinding[] bindings, GlBuffer indexBuffer) {
             if (GlVertexArrayTessellation.isSupported()) {
-                final GlVertexArrayTessellation tessellation = new GlVertexArrayTessellation(new GlVertexArray(GLRenderDevice.this), primitiveType, bindings);
+                final GlVertexArrayTessellation tessellation = new GlVertexArrayTessellation(new GlVertexArray(GLRenderDevice.this), primitiveType, bindings, indexBuffer);
                 tessellation.init(this);
 
                 return tessellation;
             } else {
-                return new GlFallbackTessellation(primitiveType, bindings);
+                return new GlFallbackTessellation(primitiveType, bindings, indexBuffer);
             }
         }
     }
@@ -194,21 +196,38 @@ public class GLRenderDevice implements RenderDevice {
         @Override
         public void multiDrawArrays(IntBuffer first, IntBuffer count) {
             final GlPrimitiveType primitiveType = GLRenderDevice.this.activeTessellation.getPrimitiveType();
+            GLStateManager.flushState();
             GL14.glMultiDrawArrays(primitiveType.getId(), first, count);
         }
 
         @Override
         public void multiDrawArraysIndirect(ByteBuffer pointer, int count, int stride) {
             final GlPrimitiveType primitiveType = GLRenderDevice.this.activeTessellation.getPrimitiveType();
+            GLStateManager.flushState();
             GlFunctions.INDIRECT_DRAW.glMultiDrawArraysIndirect(primitiveType.getId(), pointer, count, stride);
         }
 
         @Override
         public void multiDrawArraysIndirect(long pointer, int count, int stride) {
             final GlPrimitiveType primitiveType = GLRenderDevice.this.activeTessellation.getPrimitiveType();
+            GLStateManager.flushState();
             GlFunctions.INDIRECT_DRAW.glMultiDrawArraysIndirect(primitiveType.getId(), pointer, count, stride);
         }
 
+        @Override
+        public void multiDrawElementsIndirect(ByteBuffer pointer, int count, int stride) {
+            final GlPrimitiveType primitiveType = GLRenderDevice.this.activeTessellation.getPrimitiveType();
+            GLStateManager.flushState();
+            GlFunctions.INDIRECT_DRAW.glMultiDrawElementsIndirect(primitiveType.getId(), GL11.GL_UNSIGNED_INT, pointer, count, stride);
+        }
+
+        @Override
+        public void multiDrawElementsIndirect(long pointer, int count, int stride) {
+            final GlPrimitiveType primitiveType = GLRenderDevice.this.activeTessellation.getPrimitiveType();
+            GLStateManager.flushState();
+            GlFunctions.INDIRECT_DRAW.glMultiDrawElementsIndirect(primitiveType.getId(), GL11.GL_UNSIGNED_INT, pointer, count, stride);
+        }
+
         @Override
         public void endTessellating() {
             GLRenderDevice.this.activeTessellation.unbind(GLRenderDevice.this.commandList);
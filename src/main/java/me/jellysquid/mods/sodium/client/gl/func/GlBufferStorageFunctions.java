@@ -0,0 +1,44 @@
+package me.jellysquid.mods.sodium.client.gl.func;
+
+import org.lwjgl.opengl.ARBBufferStorage;
+import org.lwjgl.opengl.ContextCapabilities;
+import org.lwjgl.opengl.GL44;
+
+/**
+ * Requires OpenGL 4.4+ or the ARB_buffer_storage extension. Persistent mappings are also synchronized with fences and
+ * mapped with glMapBufferRange, so OpenGL 3.2+ is required as well.
+ */
+public enum GlBufferStorageFunctions {
+    CORE {
+        @Override
+        public void glBufferStorage(int target, long size, int flags) {
+            GL44.glBufferStorage(target, size, flags);
+        }
+    },
+    ARB {
+        @Override
+        public void glBufferStorage(int target, long size, int flags) {
+            ARBBufferStorage.glBufferStorage(target, size, flags);
+        }
+    },
+    UNSUPPORTED {
+        @Override
+        public void glBufferStorage(int target, long size, int flags) {
+            throw new UnsupportedOperationException();
+        }
+    };
+
+    static GlBufferStorageFunctions load(ContextCapabilities capabilities) {
+        if (!capabilities.OpenGL32) {
+            return GlBufferStorageFunctions.UNSUPPORTED;
+        } else if (capabilities.OpenGL44) {
+            return GlBufferStorageFunctions.CORE;
+        } else if (capabilities.GL_ARB_buffer_storage) {
+            return GlBufferStorageFunctions.ARB;
+        } else {
+            return GlBufferStorageFunctions.UNSUPPORTED;
+        }
+    }
+
+    public abstract void glBufferStorage(int target, long size, int flags);
+}
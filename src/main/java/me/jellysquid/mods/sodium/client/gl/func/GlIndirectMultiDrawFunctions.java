@@ -17,6 +17,16 @@ public enum GlIndirectMultiDrawFunctions {
         public void glMultiDrawArraysIndirect(int mode, long indirect, int primcount, int stride) {
             GL43.glMultiDrawArraysIndirect(mode, indirect, primcount, stride);
         }
+
+        @Override
+        public void glMultiDrawElementsIndirect(int mode, int type, ByteBuffer indirect, int primcount, int stride) {
+            GL43.glMultiDrawElementsIndirect(mode, type, indirect, primcount, stride);
+        }
+
+        @Override
+        public void glMultiDrawElementsIndirect(int mode, int type, long indirect, int primcount, int stride) {
+            GL43.glMultiDrawElementsIndirect(mode, type, indirect, primcount, stride);
+        }
     },
     ARB {
         @Override
@@ -28,6 +38,16 @@ public enum GlIndirectMultiDrawFunctions {
         public void glMultiDrawArraysIndirect(int mode, long indirect, int primcount, int stride) {
             ARBMultiDrawIndirect.glMultiDrawArraysIndirect(mode, indirect, primcount, stride);
         }
+
+        @Override
+        public void glMultiDrawElementsIndirect(int mode, int type, ByteBuffer indirect, int primcount, int stride) {
+            ARBMultiDrawIndirect.glMultiDrawElementsIndirect(mode, type, indirect, primcount, stride);
+        }
+
+        @Override
+        public void glMultiDrawElementsIndirect(int mode, int type, long indirect, int primcount, int stride) {
+            ARBMultiDrawIndirect.glMultiDrawElementsIndirect(mode, type, indirect, primcount, stride);
+        }
     },
     UNSUPPORTED {
         @Override
@@ -39,6 +59,16 @@ public enum GlIndirectMultiDrawFunctions {
         public void glMultiDrawArraysIndirect(int mode, long indirect, int primcount, int stride) {
             throw new UnsupportedOperationException();
         }
+
+        @Override
+        public void glMultiDrawElementsIndirect(int mode, int type, ByteBuffer indirect, int primcount, int stride) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void glMultiDrawElementsIndirect(int mode, int type, long indirect, int primcount, int stride) {
+            throw new UnsupportedOperationException();
+        }
     };
 
     public static GlIndirectMultiDrawFunctions load(ContextCapabilities capabilities) {
@@ -53,5 +83,7 @@ public enum GlIndirectMultiDrawFunctions {
 
     public abstract void glMultiDrawArraysIndirect(int mode, ByteBuffer indirect, int primcount, int stride);
     public abstract void glMultiDrawArraysIndirect(int mode, long indirect, int primcount, int stride);
+    public abstract void glMultiDrawElementsIndirect(int mode, int type, ByteBuffer indirect, int primcount, int stride);
+    public abstract void glMultiDrawElementsIndirect(int mode, int type, long indirect, int primcount, int stride);
 
 }
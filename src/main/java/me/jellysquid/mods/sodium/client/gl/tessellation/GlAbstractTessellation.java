@@ -1,18 +1,22 @@
 package me.jellysquid.mods.sodium.client.gl.tessellation;
 
 import me.jellysquid.mods.sodium.client.gl.attribute.GlVertexAttributeBinding;
+import me.jellysquid.mods.sodium.client.gl.buffer.GlBuffer;
 import me.jellysquid.mods.sodium.client.gl.buffer.GlBufferTarget;
 import me.jellysquid.mods.sodium.client.gl.device.CommandList;
 import me.jellysquid.mods.sodium.client.gl.func.GlFunctions;
+import org.lwjgl.opengl.GL15;
 import org.lwjgl.opengl.GL20;
 
 public abstract class GlAbstractTessellation implements GlTessellation {
     protected final GlPrimitiveType primitiveType;
     protected final TessellationBinding[] bindings;
+    protected final GlBuffer indexBuffer;
 
-    protected GlAbstractTessellation(GlPrimitiveType primitiveType, TessellationBinding[] bindings) {
+    protected GlAbstractTessellation(GlPrimitiveType primitiveType, TessellationBinding[] bindings, GlBuffer indexBuffer) {
         this.primitiveType = primitiveType;
         this.bindings = bindings;
+        this.indexBuffer = indexBuffer;
     }
 
     @Override
@@ -33,5 +37,10 @@ public abstract class GlAbstractTessellation implements GlTessellation {
                 }
             }
         }
+
+        // The element buffer binding is part of vertex array state, so it isn't tracked by the command list
+        if (this.indexBuffer != null) {
+            GL15.glBindBuffer(GL15.GL_ELEMENT_ARRAY_BUFFER, this.indexBuffer.handle());
+        }
     }
 }
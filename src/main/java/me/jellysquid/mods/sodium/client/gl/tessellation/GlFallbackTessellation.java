@@ -1,12 +1,14 @@
 package me.jellysquid.mods.sodium.client.gl.tessellation;
 
 import me.jellysquid.mods.sodium.client.gl.attribute.GlVertexAttributeBinding;
+import me.jellysquid.mods.sodium.client.gl.buffer.GlBuffer;
 import me.jellysquid.mods.sodium.client.gl.device.CommandList;
+import org.lwjgl.opengl.GL15;
 import org.lwjgl.opengl.GL20;
 
 public class GlFallbackTessellation extends GlAbstractTessellation {
-    public GlFallbackTessellation(GlPrimitiveType primitiveType, TessellationBinding[] bindings) {
-        super(primitiveType, bindings);
+    public GlFallbackTessellation(GlPrimitiveType primitiveType, TessellationBinding[] bindings, GlBuffer indexBuffer) {
+        super(primitiveType, bindings, indexBuffer);
     }
 
     @Override
@@ -26,5 +28,9 @@ public class GlFallbackTessellation extends GlAbstractTessellation {
                 GL20.glDisableVertexAttribArray(attrib.getIndex());
             }
         }
+
+        if (this.indexBuffer != null) {
+            GL15.glBindBuffer(GL15.GL_ELEMENT_ARRAY_BUFFER, GlBuffer.NULL_BUFFER_ID);
+        }
     }
 }
@@ -424,6 +424,14 @@ public class SodiumGameOptionPages {
                         .setFlags(OptionFlag.REQUIRES_RENDERER_RELOAD)
                         .build()
                 )
+                .add(OptionImpl.createBuilder(int.class, sodiumOpts)
+                        .setName(I18n.format("sodium.options.chunk_upload_budget.name"))
+                        .setTooltip(I18n.format("sodium.options.chunk_upload_budget.tooltip"))
+                        .setControl(o -> new SliderControl(o, 0, 16, 1, ControlValueFormatter.quantityOrDisabled("sodium.options.milliseconds.value", "options.framerateLimit.max")))
+                        .setImpact(OptionImpact.MEDIUM)
+                        .setBinding((opts, value) -> opts.performance.chunkUploadBudgetMs = value, opts -> opts.performance.chunkUploadBudgetMs)
+                        .build()
+                )
                 .add(OptionImpl.createBuilder(boolean.class, sodiumOpts)
                         .setName(I18n.format("sodium.options.always_defer_chunk_updates.name"))
                         .setTooltip(I18n.format("sodium.options.always_defer_chunk_updates.tooltip"))
@@ -36,11 +36,17 @@ public class SodiumGameOptions {
         public boolean allowDirectMemoryAccess = true;
         public boolean ignoreDriverBlacklist = false;
         public boolean translucencySorting = true;
+        public boolean usePersistentMappedUploads = true;
+        public boolean useIndexedTranslucencySorting = true;
     }
 
     public static class PerformanceSettings {
         public int chunkBuilderThreads = 0;
         public boolean alwaysDeferChunkUpdates = true;
+        public int chunkUploadBudgetMs = 3;
+        public int chunkUploadBudgetKiB = 0;
+        public int chunkMeshCacheMiB = 64;
+        public int mainThreadAssistBudgetUs = 2000;
         public boolean useNoErrorGLContext = true;
     }
 
@@ -1,6 +1,7 @@
 package me.jellysquid.mods.sodium.client.model.light.cache;
 
 import com.gtnewhorizons.angelica.compat.mojang.ChunkSectionPos;
+import com.gtnewhorizons.angelica.dynamiclights.DynamicLightsSnapshot;
 import me.jellysquid.mods.sodium.client.model.light.data.LightDataAccess;
 import me.jellysquid.mods.sodium.client.world.WorldSlice;
 
@@ -24,7 +25,9 @@ public class ArrayLightDataCache extends LightDataAccess {
         this.light = new long[BLOCK_LENGTH * BLOCK_LENGTH * BLOCK_LENGTH];
     }
 
-    public void reset(ChunkSectionPos origin) {
+    public void reset(ChunkSectionPos origin, DynamicLightsSnapshot.SectionLights dynamicLights) {
+        this.dynamicLights = dynamicLights;
+
         this.xOffset = origin.getMinX() - NEIGHBOR_BLOCK_RADIUS;
         this.yOffset = origin.getMinY() - NEIGHBOR_BLOCK_RADIUS;
         this.zOffset = origin.getMinZ() - NEIGHBOR_BLOCK_RADIUS;
@@ -42,7 +45,7 @@ public class ArrayLightDataCache extends LightDataAccess {
 
     @Override
     public long get(int x, int y, int z) {
-        DynamicLightsPos.get().set(x, y, z);
+        this.dynamicLightsPos.set(x, y, z);
         int l = this.index(x, y, z);
 
         long word = this.light[l];
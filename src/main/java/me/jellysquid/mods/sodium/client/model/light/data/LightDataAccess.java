@@ -2,6 +2,7 @@ package me.jellysquid.mods.sodium.client.model.light.data;
 
 import com.gtnewhorizon.gtnhlib.blockpos.BlockPos;
 import com.gtnewhorizons.angelica.dynamiclights.DynamicLights;
+import com.gtnewhorizons.angelica.dynamiclights.DynamicLightsSnapshot;
 import me.jellysquid.mods.sodium.client.util.StateUtil;
 import me.jellysquid.mods.sodium.client.world.WorldSlice;
 import net.minecraft.block.Block;
@@ -23,7 +24,10 @@ import net.minecraftforge.common.util.ForgeDirection;
  * You can use the various static pack/unpack methods to extract these values in a usable format.
  */
 public abstract class LightDataAccess {
-    public static final ThreadLocal<BlockPos> DynamicLightsPos = ThreadLocal.withInitial(BlockPos::new);
+    // The position of the last block queried through get(), used to look up the dynamic light level
+    protected final BlockPos dynamicLightsPos = new BlockPos();
+    // The dynamic light sources near the section being built, or null to query the live light sources instead
+    protected DynamicLightsSnapshot.SectionLights dynamicLights;
     protected WorldSlice world;
 
     public long get(int x, int y, int z, ForgeDirection d1, ForgeDirection d2) {
@@ -120,7 +124,7 @@ public abstract class LightDataAccess {
         return aoi * (1.0f / 4096.0f);
     }
 
-    public static int getLightMap(long originWord) {
+    public int getLightMap(long originWord) {
         if (!DynamicLights.isEnabled()) {
             return unpackLM(originWord);
         }
@@ -128,7 +132,10 @@ public abstract class LightDataAccess {
             return unpackLM(originWord);
         }
 
-        double dynamic = DynamicLights.get().getDynamicLightLevel(DynamicLightsPos.get());
+        final BlockPos pos = this.dynamicLightsPos;
+        final double dynamic = this.dynamicLights != null
+            ? this.dynamicLights.getDynamicLightLevel(pos.x, pos.y, pos.z)
+            : DynamicLights.get().getDynamicLightLevel(pos);
         return DynamicLights.get().getLightmapWithDynamicLight(dynamic, unpackLM(originWord));
 
     }
@@ -6,6 +6,7 @@ import com.gtnewhorizons.angelica.compat.toremove.RenderLayer;
 import com.gtnewhorizons.angelica.config.AngelicaConfig;
 import com.gtnewhorizons.angelica.dynamiclights.DynamicLights;
 import com.gtnewhorizons.angelica.glsm.GLStateManager;
+import com.gtnewhorizons.angelica.rendering.BlockRenderProperties;
 import com.gtnewhorizons.angelica.rendering.RenderingState;
 import it.unimi.dsi.fastutil.objects.ObjectOpenHashSet;
 import jss.notfine.core.SettingsManager;
@@ -19,6 +20,7 @@ import me.jellysquid.mods.sodium.client.render.chunk.ChunkRenderBackend;
 import me.jellysquid.mods.sodium.client.render.chunk.ChunkRenderManager;
 import me.jellysquid.mods.sodium.client.render.chunk.backends.multidraw.MultidrawChunkRenderBackend;
 import me.jellysquid.mods.sodium.client.render.chunk.backends.oneshot.ChunkRenderBackendOneshot;
+import me.jellysquid.mods.sodium.client.render.chunk.compile.ChunkMeshCache;
 import me.jellysquid.mods.sodium.client.render.chunk.data.ChunkRenderData;
 import me.jellysquid.mods.sodium.client.render.chunk.format.DefaultModelVertexFormats;
 import me.jellysquid.mods.sodium.client.render.chunk.map.ChunkTracker;
@@ -307,6 +309,8 @@ public class SodiumWorldRenderer {
 
         this.globalTileEntities.clear();
 
+        BlockRenderProperties.rebuild();
+
         RenderDevice device = RenderDevice.INSTANCE;
 
         this.renderDistance = this.client.gameSettings.renderDistanceChunks;
@@ -453,6 +457,31 @@ public class SodiumWorldRenderer {
         return String.format("C: %s/%s S: %s Q: %s+%si ", this.chunkRenderManager.getVisibleChunkCount(), this.chunkRenderManager.getTotalSections(), this.chunkRenderManager.getSubmitted(), this.chunkRenderManager.getRebuildQueueSize(), this.chunkRenderManager.getImportantRebuildQueueSize());
     }
 
+    public String getChunkUploadsDebugString() {
+        return String.format("Chunk Uploads: %s (%s deferred)", this.chunkRenderManager.getLastUploadCount(), this.chunkRenderManager.getLastDeferredUploadCount());
+    }
+
+    public String getChunkBuilderDebugString() {
+        return String.format("Chunk Builder: %d queued (%d/worker), %.1f ms wait, %.0f%% busy, %d cancelled", this.chunkRenderManager.getQueuedTaskCount(),
+            this.chunkRenderManager.getTaskQueueLimitPerWorker(), this.chunkRenderManager.getAverageTaskWaitTime() / 1_000_000.0D,
+            this.chunkRenderManager.getWorkerUtilisation() * 100.0D, this.chunkRenderManager.getCancelledTaskCount());
+    }
+
+    public String getChunkCullingDebugString() {
+        return String.format("Chunk Culling: %.3f ms (search %.3f ms)", this.chunkRenderManager.getAverageCullingFilterTime() / 1_000_000.0D, this.chunkRenderManager.getAverageCullingSearchTime() / 1_000_000.0D);
+    }
+
+    public String getChunkMeshCacheDebugString() {
+        final ChunkMeshCache cache = this.chunkRenderManager.getMeshCache();
+
+        if (cache == null) {
+            return "Mesh Cache: disabled";
+        }
+
+        return String.format("Mesh Cache: %.1f%% hits, %.1f/%d MiB, %d evictions", cache.getHitRate() * 100.0D,
+            cache.getBytesUsed() / (1024.0D * 1024.0D), cache.getCapacity() / (1024L * 1024L), cache.getEvictions());
+    }
+
     /**
      * Schedules chunk rebuilds for all chunks in the specified block region.
      */
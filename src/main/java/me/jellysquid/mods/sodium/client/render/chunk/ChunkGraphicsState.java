@@ -8,6 +8,7 @@ public abstract class ChunkGraphicsState {
     private final int x, y, z;
 
     private ByteBuffer translucencyData;
+    private float[] translucencyCentroids;
 
     protected ChunkGraphicsState(ChunkRenderContainer<?> container) {
         this.x = container.getRenderX();
@@ -36,4 +37,16 @@ public abstract class ChunkGraphicsState {
     public void setTranslucencyData(ByteBuffer data) {
         this.translucencyData = data;
     }
+
+    /**
+     * @return The quad centroids used to re-sort this state's index buffer, or null if it is sorted by re-uploading
+     *         its vertex data instead
+     */
+    public float[] getTranslucencyCentroids() {
+        return this.translucencyCentroids;
+    }
+
+    public void setTranslucencyCentroids(float[] centroids) {
+        this.translucencyCentroids = centroids;
+    }
 }
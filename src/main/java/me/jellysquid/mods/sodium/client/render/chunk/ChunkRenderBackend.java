@@ -54,6 +54,14 @@ public interface ChunkRenderBackend<T extends ChunkGraphicsState> {
         return this.getClass().getSimpleName();
     }
 
+    /**
+     * @return True if translucent meshes should be drawn through index buffers, which are re-sorted without touching
+     *         the vertex data
+     */
+    default boolean usesIndexedTranslucencySorting() {
+        return false;
+    }
+
     default List<String> getDebugStrings() {
         return Collections.emptyList();
     }
@@ -34,7 +34,8 @@ public class ChunkRenderContainer<T extends ChunkGraphicsState> {
 
     @Getter
     private ChunkRenderData data = ChunkRenderData.ABSENT;
-    private CompletableFuture<Void> rebuildTask = null;
+    private CompletableFuture<?> rebuildTask = null;
+    private CompletableFuture<?> sortTask = null;
 
     private boolean needsRebuild;
     private boolean needsImportantRebuild;
@@ -75,6 +76,31 @@ public class ChunkRenderContainer<T extends ChunkGraphicsState> {
             this.rebuildTask.cancel(false);
             this.rebuildTask = null;
         }
+
+        this.cancelSortTask();
+    }
+
+    /**
+     * Cancels any pending task to sort the chunk, leaving pending rebuilds alone.
+     */
+    public void cancelSortTask() {
+        this.needsSort = false;
+
+        if (this.sortTask != null) {
+            this.sortTask.cancel(false);
+            this.sortTask = null;
+        }
+    }
+
+    /**
+     * Tracks the pending rebuild task of this render, so it can be cancelled once superseded or no longer needed.
+     */
+    public void setRebuildTask(CompletableFuture<?> task) {
+        this.rebuildTask = task;
+    }
+
+    public void setSortTask(CompletableFuture<?> task) {
+        this.sortTask = task;
     }
 
     /**
@@ -22,7 +22,7 @@ import me.jellysquid.mods.sodium.client.render.SodiumWorldRenderer;
 import me.jellysquid.mods.sodium.client.render.chunk.backends.multidraw.MultidrawChunkRenderBackend;
 import me.jellysquid.mods.sodium.client.render.chunk.compile.ChunkBuildResult;
 import me.jellysquid.mods.sodium.client.render.chunk.compile.ChunkBuilder;
-import me.jellysquid.mods.sodium.client.render.chunk.cull.ChunkCuller;
+import me.jellysquid.mods.sodium.client.render.chunk.compile.ChunkMeshCache;
 import me.jellysquid.mods.sodium.client.render.chunk.cull.ChunkFaceFlags;
 import me.jellysquid.mods.sodium.client.render.chunk.cull.graph.ChunkGraphCuller;
 import me.jellysquid.mods.sodium.client.render.chunk.data.ChunkRenderBounds;
@@ -90,7 +90,7 @@ public class ChunkRenderManager<T extends ChunkGraphicsState> implements ChunkSt
     private final SodiumWorldRenderer renderer;
     private final WorldClient world;
 
-    private final ChunkCuller culler;
+    private final ChunkGraphCuller culler;
     private final boolean useBlockFaceCulling;
 
     private float cameraX, cameraY, cameraZ;
@@ -111,6 +111,9 @@ public class ChunkRenderManager<T extends ChunkGraphicsState> implements ChunkSt
 
     private boolean alwaysDeferChunkUpdates;
 
+    // Set once a shadow pass has been rendered, which can see sections that aren't visible to the camera
+    private boolean hasShadowPass;
+
     // Iris
 
     private ChunkRenderList<T>[] chunkRenderListsSwap;
@@ -166,6 +169,10 @@ public class ChunkRenderManager<T extends ChunkGraphicsState> implements ChunkSt
     }
 
     public void update(Camera camera, FrustumExtended frustum, int frame, boolean spectator) {
+        if (AngelicaConfig.enableIris && ShadowRenderingState.areShadowsCurrentlyBeingRendered()) {
+            this.hasShadowPass = true;
+        }
+
         this.reset();
         this.unloadPending();
 
@@ -457,6 +464,7 @@ public class ChunkRenderManager<T extends ChunkGraphicsState> implements ChunkSt
             }
 
             this.culler.onSectionUnloaded(x, y, z);
+            this.builder.onSectionUnloaded(x, y, z);
         }
     }
 
@@ -540,6 +548,9 @@ public class ChunkRenderManager<T extends ChunkGraphicsState> implements ChunkSt
         if (AngelicaConfig.enableIris && ShadowRenderingState.areShadowsCurrentlyBeingRendered()) return;
         this.builder.cleanupSectionCache();
 
+        // Out of view sections can be rebuilt once they come back into view, unless a shadow pass still needs them
+        this.builder.updateQueuedTasks(this::getUploadPriority, !this.hasShadowPass);
+
         Deque<CompletableFuture<ChunkBuildResult<T>>> futures = new ArrayDeque<>();
 
         int budget = this.builder.getSchedulingBudget();
@@ -601,7 +612,7 @@ public class ChunkRenderManager<T extends ChunkGraphicsState> implements ChunkSt
         this.dirty |= submitted > 0;
 
         // Try to complete some other work on the main thread while we wait for rebuilds to complete
-        this.dirty |= this.builder.performPendingUploads();
+        this.dirty |= this.builder.performPendingUploads(this::getUploadPriority);
 
         // See if there are failed builds
         this.builder.handleFailures();
@@ -686,6 +697,58 @@ public class ChunkRenderManager<T extends ChunkGraphicsState> implements ChunkSt
         this.builder.onChunkDataChanged(x, y, z);
     }
 
+    private int getUploadPriority(ChunkRenderContainer<T> render) {
+        if (this.getRender(render.getChunkX(), render.getChunkY(), render.getChunkZ()) != render) {
+            return ChunkBuilder.UPLOAD_DISCARD;
+        } else if (this.isChunkPrioritized(render)) {
+            return ChunkBuilder.UPLOAD_PRIORITIZED;
+        } else if (this.isChunkVisible(render.getChunkX(), render.getChunkY(), render.getChunkZ())) {
+            return ChunkBuilder.UPLOAD_VISIBLE;
+        }
+
+        return ChunkBuilder.UPLOAD_DEFAULT;
+    }
+
+    public int getQueuedTaskCount() {
+        return this.builder.getQueuedTaskCount();
+    }
+
+    public int getTaskQueueLimitPerWorker() {
+        return this.builder.getQueueLimitPerWorker();
+    }
+
+    public double getAverageTaskWaitTime() {
+        return this.builder.getAverageTaskWaitTime();
+    }
+
+    public double getWorkerUtilisation() {
+        return this.builder.getWorkerUtilisation();
+    }
+
+    public long getCancelledTaskCount() {
+        return this.builder.getCancelledTaskCount();
+    }
+
+    public int getLastUploadCount() {
+        return this.builder.getLastUploadCount();
+    }
+
+    public int getLastDeferredUploadCount() {
+        return this.builder.getLastDeferredUploadCount();
+    }
+
+    public ChunkMeshCache getMeshCache() {
+        return this.builder.getMeshCache();
+    }
+
+    public double getAverageCullingSearchTime() {
+        return this.culler.getAverageSearchTime();
+    }
+
+    public double getAverageCullingFilterTime() {
+        return this.culler.getAverageFilterTime();
+    }
+
     public boolean isChunkPrioritized(ChunkRenderContainer<T> render) {
         return render != null ? render.getSquaredDistance(this.cameraX, this.cameraY, this.cameraZ) <= NEARBY_CHUNK_DISTANCE : false;
     }
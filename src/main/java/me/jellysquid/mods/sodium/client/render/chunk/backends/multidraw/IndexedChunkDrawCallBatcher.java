@@ -0,0 +1,74 @@
+package me.jellysquid.mods.sodium.client.render.chunk.backends.multidraw;
+
+import com.gtnewhorizons.angelica.compat.mojang.CompatMathHelper;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+
+/**
+ * Provides a fixed-size buffer which can be used to batch indexed chunk section draw calls, laid out as
+ * {@code DrawElementsIndirectCommand} structures.
+ */
+public class IndexedChunkDrawCallBatcher extends StructBuffer {
+    protected final int capacity;
+
+    protected boolean isBuilding;
+    protected int count;
+
+    protected int arrayLength;
+
+    public IndexedChunkDrawCallBatcher(int capacity) {
+        super(CompatMathHelper.smallestEncompassingPowerOfTwo(capacity), 20);
+
+        this.capacity = capacity;
+    }
+
+    public void begin() {
+        this.isBuilding = true;
+        this.count = 0;
+        this.arrayLength = 0;
+
+        this.buffer.limit(this.buffer.capacity());
+    }
+
+    public void end() {
+        this.isBuilding = false;
+
+        this.arrayLength = this.count * this.stride;
+        this.buffer.limit(this.arrayLength);
+        this.buffer.position(0);
+    }
+
+    public boolean isBuilding() {
+        return this.isBuilding;
+    }
+
+    public void addIndirectDrawCall(int firstIndex, int count, int baseVertex, int baseInstance, int instanceCount) {
+        if (this.count >= this.capacity) {
+            throw new BufferUnderflowException();
+        }
+
+        final ByteBuffer buf = this.buffer;
+        final int offset = this.count * this.stride;
+
+        buf.putInt(offset     , count);         // Index Count
+        buf.putInt(offset +  4, instanceCount); // Instance Count
+        buf.putInt(offset +  8, firstIndex);    // Index Start
+        buf.putInt(offset + 12, baseVertex);    // Base Vertex
+        buf.putInt(offset + 16, baseInstance);  // Base Instance
+
+        this.count++;
+    }
+
+    public int getCount() {
+        return this.count;
+    }
+
+    public boolean isEmpty() {
+        return this.count <= 0;
+    }
+
+    public int getArrayLength() {
+        return this.arrayLength;
+    }
+}
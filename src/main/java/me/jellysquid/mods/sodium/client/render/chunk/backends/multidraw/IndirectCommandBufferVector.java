@@ -31,6 +31,16 @@ public class IndirectCommandBufferVector extends StructBuffer {
         this.buffer.put(batcher.getBuffer());
     }
 
+    public void pushCommandBuffer(IndexedChunkDrawCallBatcher batcher) {
+        int len = batcher.getArrayLength();
+
+        if (this.buffer.remaining() < len) {
+            this.growBuffer(len);
+        }
+
+        this.buffer.put(batcher.getBuffer());
+    }
+
     protected void growBuffer(int n) {
         this.buffer = memRealloc(this.buffer, Math.max(this.buffer.capacity() * 2, this.buffer.capacity() + n));
     }
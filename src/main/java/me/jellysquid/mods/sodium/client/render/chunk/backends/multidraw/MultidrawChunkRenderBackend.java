@@ -5,6 +5,7 @@ import com.gtnewhorizons.angelica.config.AngelicaConfig;
 import it.unimi.dsi.fastutil.objects.ObjectArrayFIFOQueue;
 import it.unimi.dsi.fastutil.objects.ObjectArrayList;
 import lombok.Setter;
+import me.jellysquid.mods.sodium.client.SodiumClientMod;
 import me.jellysquid.mods.sodium.client.gl.arena.GlBufferArena;
 import me.jellysquid.mods.sodium.client.gl.arena.GlBufferSegment;
 import me.jellysquid.mods.sodium.client.gl.attribute.GlVertexAttribute;
@@ -14,6 +15,7 @@ import me.jellysquid.mods.sodium.client.gl.buffer.GlBuffer;
 import me.jellysquid.mods.sodium.client.gl.buffer.GlBufferTarget;
 import me.jellysquid.mods.sodium.client.gl.buffer.GlBufferUsage;
 import me.jellysquid.mods.sodium.client.gl.buffer.GlMutableBuffer;
+import me.jellysquid.mods.sodium.client.gl.buffer.GlStagingRingBuffer;
 import me.jellysquid.mods.sodium.client.gl.buffer.VertexData;
 import me.jellysquid.mods.sodium.client.gl.device.CommandList;
 import me.jellysquid.mods.sodium.client.gl.device.DrawCommandList;
@@ -89,18 +91,23 @@ import java.util.regex.Pattern;
  * reduced up to a factor of ~32x.
  */
 public class MultidrawChunkRenderBackend extends ChunkRenderShaderBackend<MultidrawGraphicsState> {
+    private static final int STAGING_BUFFER_SIZE = 16 * 1024 * 1024;
+
     private final ChunkRegionManager<MultidrawGraphicsState> bufferManager;
 
     private final ObjectArrayList<ChunkRegion<MultidrawGraphicsState>> pendingBatches = new ObjectArrayList<>();
     private final ObjectArrayFIFOQueue<ChunkRegion<MultidrawGraphicsState>> pendingUploads = new ObjectArrayFIFOQueue<>();
 
     private final GlMutableBuffer uploadBuffer;
+    private final GlStagingRingBuffer stagingBuffer;
     private final GlMutableBuffer uniformBuffer;
     private final GlMutableBuffer commandBuffer;
 
     private final ChunkDrawParamsVector uniformBufferBuilder;
     private final IndirectCommandBufferVector commandClientBufferBuilder;
 
+    private final boolean indexedTranslucencySorting;
+
     public MultidrawChunkRenderBackend(RenderDevice device, ChunkVertexType vertexType) {
         super(vertexType);
 
@@ -110,10 +117,19 @@ public class MultidrawChunkRenderBackend extends ChunkRenderShaderBackend<Multid
             this.uploadBuffer = commands.createMutableBuffer(GlBufferUsage.GL_STREAM_DRAW);
             this.uniformBuffer = commands.createMutableBuffer(GlBufferUsage.GL_STATIC_DRAW);
             this.commandBuffer = isWindowsIntelDriver() ? null : commands.createMutableBuffer(GlBufferUsage.GL_STREAM_DRAW);
+            this.stagingBuffer = GlFunctions.isBufferStorageSupported() && SodiumClientMod.options().advanced.usePersistentMappedUploads
+                ? new GlStagingRingBuffer(device, commands, STAGING_BUFFER_SIZE) : null;
         }
 
         this.uniformBufferBuilder = ChunkDrawParamsVector.create(2048);
         this.commandClientBufferBuilder = IndirectCommandBufferVector.create(2048);
+
+        this.indexedTranslucencySorting = SodiumClientMod.options().advanced.useIndexedTranslucencySorting;
+    }
+
+    @Override
+    public boolean usesIndexedTranslucencySorting() {
+        return this.indexedTranslucencySorting;
     }
 
     @Override
@@ -130,6 +146,13 @@ public class MultidrawChunkRenderBackend extends ChunkRenderShaderBackend<Multid
             final GlBufferArena arena = region.getBufferArena();
             final GlBuffer buffer = arena.getBuffer();
 
+            final GlBufferArena indexArena = region.getIndexArena();
+            final GlBuffer indexBuffer = indexArena.getBuffer();
+
+            // Compacting replaces the arena's buffer, which is picked up below along with any resize
+            arena.compactIfFragmented(commandList);
+            indexArena.compactIfFragmented(commandList);
+
             final ObjectArrayList<ChunkBuildResult<MultidrawGraphicsState>> uploadQueue = region.getUploadQueue();
             arena.prepareBuffer(commandList, getUploadQueuePayloadSize(uploadQueue));
 
@@ -139,6 +162,18 @@ public class MultidrawChunkRenderBackend extends ChunkRenderShaderBackend<Multid
 
                 for (BlockRenderPass pass : result.passesToUpload) {
                     final MultidrawGraphicsState graphics = render.getGraphicsState(pass);
+                    final ChunkMeshData meshData = data.getMesh(pass);
+
+                    if (!meshData.hasVertexData() && meshData.hasIndexData()) {
+                        // A re-sort only replaces the draw order, as long as it was computed for the current vertex data
+                        final ByteBuffer indices = meshData.takeIndexData();
+
+                        if (graphics != null && graphics.getTranslucencyCentroids() == meshData.getQuadCentroids()) {
+                            graphics.setIndexSegment(this.uploadSegment(commandList, indexArena, indices));
+                        }
+
+                        continue;
+                    }
 
                     // De-allocate the existing buffer arena for this render
                     // This will allow it to be cheaply re-allocated just below
@@ -146,17 +181,16 @@ public class MultidrawChunkRenderBackend extends ChunkRenderShaderBackend<Multid
                         graphics.delete(commandList);
                     }
 
-                    final ChunkMeshData meshData = data.getMesh(pass);
-
                     if (meshData.hasVertexData()) {
                         final VertexData upload = meshData.takeVertexData();
-
-                        commandList.uploadData(this.uploadBuffer, upload.buffer);
-
-                        final GlBufferSegment segment = arena.uploadBuffer(commandList, this.uploadBuffer, 0, upload.buffer.capacity());
+                        final GlBufferSegment segment = this.uploadSegment(commandList, arena, upload.buffer);
 
                         final MultidrawGraphicsState graphicsState = new MultidrawGraphicsState(render, region, segment, meshData, this.vertexFormat);
-                        if(pass.isTranslucent()) {
+                        if (meshData.hasIndexData()) {
+                            // Only the centroids are needed to re-sort, so the vertex data isn't kept around
+                            graphicsState.setIndexSegment(this.uploadSegment(commandList, indexArena, meshData.takeIndexData()));
+                            graphicsState.setTranslucencyCentroids(meshData.getQuadCentroids());
+                        } else if(pass.isTranslucent()) {
                             upload.buffer.limit(upload.buffer.capacity());
                             upload.buffer.position(0);
 
@@ -178,22 +212,47 @@ public class MultidrawChunkRenderBackend extends ChunkRenderShaderBackend<Multid
                     commandList.deleteTessellation(region.getTessellation());
                 }
 
-                region.setTessellation(this.createRegionTessellation(commandList, arena.getBuffer()));
+                region.setTessellation(this.createRegionTessellation(commandList, arena.getBuffer(), null));
+            }
+
+            if (this.indexedTranslucencySorting && (region.getIndexedTessellation() == null || buffer != arena.getBuffer() || indexBuffer != indexArena.getBuffer())) {
+                if (region.getIndexedTessellation() != null) {
+                    commandList.deleteTessellation(region.getIndexedTessellation());
+                }
+
+                region.setIndexedTessellation(this.createRegionTessellation(commandList, arena.getBuffer(), indexArena.getBuffer()));
             }
 
             uploadQueue.clear();
         }
 
+        if (this.stagingBuffer != null) {
+            this.stagingBuffer.fence();
+        }
+
         commandList.invalidateBuffer(this.uploadBuffer);
     }
 
-    private GlTessellation createRegionTessellation(CommandList commandList, GlBuffer buffer) {
+    private GlBufferSegment uploadSegment(CommandList commandList, GlBufferArena arena, ByteBuffer data) {
+        final int stagingOffset = this.stagingBuffer != null ? this.stagingBuffer.write(data) : -1;
+
+        if (stagingOffset >= 0) {
+            return arena.uploadBuffer(commandList, this.stagingBuffer, stagingOffset, data.capacity());
+        }
+
+        // No persistent mapping, or the ring is still full of data the GPU hasn't copied out yet
+        commandList.uploadData(this.uploadBuffer, data);
+
+        return arena.uploadBuffer(commandList, this.uploadBuffer, 0, data.capacity());
+    }
+
+    private GlTessellation createRegionTessellation(CommandList commandList, GlBuffer buffer, GlBuffer indexBuffer) {
         return commandList.createTessellation(GlPrimitiveType.QUADS, new TessellationBinding[] {
                 new TessellationBinding(buffer,getBindings(), false),
                 new TessellationBinding(this.uniformBuffer, new GlVertexAttributeBinding[] {
                         new GlVertexAttributeBinding(ChunkShaderBindingPoints.MODEL_OFFSET, new GlVertexAttribute(GlVertexAttributeFormat.FLOAT, 4, false, 0, 0))
                 }, true)
-        });
+        }, indexBuffer);
     }
 
     private GlVertexAttributeBinding[] getBindings() {
@@ -267,6 +326,24 @@ public class MultidrawChunkRenderBackend extends ChunkRenderShaderBackend<Multid
             } else {
                 pointerBuffer.position(pointerBuffer.position() + batch.getArrayLength());
             }
+
+            final IndexedChunkDrawCallBatcher indexedBatch = region.getIndexedDrawBatcher();
+
+            if (!indexedBatch.isEmpty()) {
+                try (DrawCommandList drawCommandList = commandList.beginTessellating(region.getIndexedTessellation())) {
+                    if(pointerBuffer == null) {
+                        drawCommandList.multiDrawElementsIndirect(pointer, indexedBatch.getCount(), 0 /* tightly packed */);
+                    } else {
+                        drawCommandList.multiDrawElementsIndirect(pointerBuffer, indexedBatch.getCount(), 0 /* tightly packed */);
+                    }
+                }
+            }
+
+            if(pointerBuffer == null) {
+                pointer += indexedBatch.getArrayLength();
+            } else {
+                pointerBuffer.position(pointerBuffer.position() + indexedBatch.getArrayLength());
+            }
         }
 
         if (pointerBuffer != null)
@@ -297,6 +374,12 @@ public class MultidrawChunkRenderBackend extends ChunkRenderShaderBackend<Multid
             batcher.end();
 
             this.commandClientBufferBuilder.pushCommandBuffer(batcher);
+
+            // Indexed draws follow the region's array draws in the command buffer
+            final IndexedChunkDrawCallBatcher indexedBatcher = region.getIndexedDrawBatcher();
+            indexedBatcher.end();
+
+            this.commandClientBufferBuilder.pushCommandBuffer(indexedBatcher);
         }
 
         this.commandClientBufferBuilder.end();
@@ -355,10 +438,21 @@ public class MultidrawChunkRenderBackend extends ChunkRenderShaderBackend<Multid
 
             if (!batch.isBuilding()) {
                 batch.begin();
+                region.getIndexedDrawBatcher().begin();
 
                 this.pendingBatches.add(region);
             }
 
+            if (state.isIndexed()) {
+                // Sorted translucent geometry can't be split by facing without breaking the draw order
+                if (visible != 0) {
+                    region.getIndexedDrawBatcher().addIndirectDrawCall(state.getFirstIndex(), state.getIndexCount(), state.getBaseVertex(), index, 1);
+                }
+
+                it.advance();
+                continue;
+            }
+
             int mask = 0b1;
 
             for (int i = 0; i < ModelQuadFacing.COUNT; i++) {
@@ -398,6 +492,10 @@ public class MultidrawChunkRenderBackend extends ChunkRenderShaderBackend<Multid
             if (this.commandBuffer != null) {
                 commands.deleteBuffer(this.commandBuffer);
             }
+
+            if (this.stagingBuffer != null) {
+                this.stagingBuffer.delete(commands);
+            }
         }
 
         this.bufferManager.delete();
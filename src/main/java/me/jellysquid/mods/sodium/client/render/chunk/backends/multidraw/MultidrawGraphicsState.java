@@ -17,6 +17,13 @@ public class MultidrawGraphicsState extends ChunkGraphicsState {
 
     private final GlBufferSegment segment;
     private final long[] parts;
+    private final int stride;
+
+    // The segment start which the parts were computed against, this changes if the arena is compacted
+    private int partsBase;
+
+    // The sorted quad indices in the region's index arena, if this state is drawn with indexed translucency sorting
+    private GlBufferSegment indexSegment;
 
     public MultidrawGraphicsState(ChunkRenderContainer<?> container, ChunkRegion<MultidrawGraphicsState> region, GlBufferSegment segment, ChunkMeshData meshData, GlVertexFormat<?> vertexFormat) {
         super(container);
@@ -25,6 +32,8 @@ public class MultidrawGraphicsState extends ChunkGraphicsState {
         this.segment = segment;
 
         this.parts = new long[ModelQuadFacing.COUNT];
+        this.stride = vertexFormat.getStride();
+        this.partsBase = segment.getStart();
 
         for (Map.Entry<ModelQuadFacing, BufferSlice> entry : meshData.getSlices()) {
             ModelQuadFacing facing = entry.getKey();
@@ -40,6 +49,38 @@ public class MultidrawGraphicsState extends ChunkGraphicsState {
     @Override
     public void delete(CommandList commandList) {
         this.segment.delete();
+
+        if (this.indexSegment != null) {
+            this.indexSegment.delete();
+            this.indexSegment = null;
+        }
+    }
+
+    /**
+     * Replaces the index buffer segment used to draw this state, freeing the previous one.
+     */
+    public void setIndexSegment(GlBufferSegment indexSegment) {
+        if (this.indexSegment != null) {
+            this.indexSegment.delete();
+        }
+
+        this.indexSegment = indexSegment;
+    }
+
+    public boolean isIndexed() {
+        return this.indexSegment != null;
+    }
+
+    public int getFirstIndex() {
+        return this.indexSegment.getStart() / 4;
+    }
+
+    public int getIndexCount() {
+        return this.indexSegment.getLength() / 4;
+    }
+
+    public int getBaseVertex() {
+        return this.segment.getStart() / this.stride;
     }
 
     public ChunkRegion<MultidrawGraphicsState> getRegion() {
@@ -47,7 +88,25 @@ public class MultidrawGraphicsState extends ChunkGraphicsState {
     }
 
     public long getModelPart(int facing) {
+        if (this.segment.getStart() != this.partsBase) {
+            this.rebaseParts();
+        }
+
         return this.parts[facing];
     }
 
+    private void rebaseParts() {
+        int delta = (this.segment.getStart() - this.partsBase) / this.stride;
+
+        for (int i = 0; i < this.parts.length; i++) {
+            long part = this.parts[i];
+
+            if (BufferSlice.unpackLength(part) > 0) {
+                this.parts[i] = BufferSlice.pack(BufferSlice.unpackStart(part) + delta, BufferSlice.unpackLength(part));
+            }
+        }
+
+        this.partsBase = this.segment.getStart();
+    }
+
 }
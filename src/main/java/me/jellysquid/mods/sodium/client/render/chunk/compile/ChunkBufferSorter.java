@@ -1,21 +1,42 @@
 package me.jellysquid.mods.sodium.client.render.chunk.compile;
 
-import com.google.common.primitives.Floats;
-import it.unimi.dsi.fastutil.ints.IntArrays;
 import me.jellysquid.mods.sodium.client.model.vertex.type.ChunkVertexType;
 import me.jellysquid.mods.sodium.client.render.chunk.format.hfp.HFPModelVertexType;
 import me.jellysquid.mods.sodium.client.render.chunk.format.sfp.SFPModelVertexType;
 import net.coderbot.iris.sodium.vertex_format.terrain_xhfp.XHFPModelVertexType;
+import org.lwjgl.BufferUtils;
 
 import java.nio.Buffer;
 import java.nio.ByteBuffer;
 import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
 import java.nio.ShortBuffer;
+import java.util.Arrays;
 import java.util.BitSet;
 
 public class ChunkBufferSorter {
 
     public static void sortStandardFormat(ChunkVertexType vertexType, ByteBuffer buffer, int bufferLen, float x, float y, float z) {
+        final float[] centroids = getQuadCentroids(vertexType, buffer, bufferLen);
+
+        if (centroids == null) {
+            return; // ignore unsupported vertex types to avoid corruption
+        }
+
+        // Quad stride by Float size
+        int quadStride = vertexType.getBufferVertexFormat().getStride();
+
+        int quadStart = ((Buffer)buffer).position();
+
+        rearrangeQuads(buffer, sortQuads(centroids, x, y, z), quadStride, quadStart);
+    }
+
+    /**
+     * Computes the center of every quad in the buffer, packed as consecutive x, y, z triplets. This is all the
+     * information needed to re-sort the quads later, and is much smaller than the vertex data itself.
+     * @return The centroids, or null if the vertex type isn't supported
+     */
+    public static float[] getQuadCentroids(ChunkVertexType vertexType, ByteBuffer buffer, int bufferLen) {
         boolean isCompact;
 
         if(vertexType.getClass() == HFPModelVertexType.class || vertexType.getClass() == XHFPModelVertexType.class) {
@@ -23,7 +44,7 @@ public class ChunkBufferSorter {
         } else if(vertexType.getClass() == SFPModelVertexType.class) {
             isCompact = false;
         } else
-            return; // ignore unsupported vertex types to avoid corruption
+            return null;
 
         // Quad stride by Float size
         int quadStride = vertexType.getBufferVertexFormat().getStride();
@@ -31,28 +52,110 @@ public class ChunkBufferSorter {
         int quadStart = ((Buffer)buffer).position();
         int quadCount = bufferLen/quadStride/4;
 
-        float[] distanceArray = new float[quadCount];
-        int[] indicesArray = new int[quadCount];
+        float[] centroids = new float[quadCount * 3];
 
         if(isCompact) {
             ShortBuffer shortBuffer = buffer.asShortBuffer();
             int vertexSizeShort = quadStride / 2;
             for (int quadIdx = 0; quadIdx < quadCount; ++quadIdx) {
-                distanceArray[quadIdx] = getDistanceSqHFP(shortBuffer, x, y, z, vertexSizeShort, quadStart + (quadIdx * quadStride * 2));
-                indicesArray[quadIdx] = quadIdx;
+                getCentroidHFP(shortBuffer, centroids, quadIdx, vertexSizeShort, quadStart + (quadIdx * quadStride * 2));
             }
         } else {
             FloatBuffer floatBuffer = buffer.asFloatBuffer();
             int vertexSizeInteger = quadStride / 4;
             for (int quadIdx = 0; quadIdx < quadCount; ++quadIdx) {
-                distanceArray[quadIdx] = getDistanceSqSFP(floatBuffer, x, y, z, vertexSizeInteger, quadStart + (quadIdx * quadStride));
-                indicesArray[quadIdx] = quadIdx;
+                getCentroidSFP(floatBuffer, centroids, quadIdx, vertexSizeInteger, quadStart + (quadIdx * quadStride));
             }
         }
 
-        IntArrays.mergeSort(indicesArray, (a, b) -> Floats.compare(distanceArray[b], distanceArray[a]));
+        return centroids;
+    }
+
+    /**
+     * Sorts quads by their centroids and writes the resulting draw order as {@code GL_UNSIGNED_INT} indices, four per
+     * quad, for drawing the unmodified vertex data as {@code GL_QUADS}.
+     */
+    public static ByteBuffer createSortedIndexBuffer(float[] centroids, float x, float y, float z) {
+        final int[] order = sortQuads(centroids, x, y, z);
+        final ByteBuffer indices = BufferUtils.createByteBuffer(order.length * 4 * 4);
+        final IntBuffer intBuffer = indices.asIntBuffer();
+
+        for (int quadIdx : order) {
+            final int vertex = quadIdx * 4;
+
+            intBuffer.put(vertex);
+            intBuffer.put(vertex + 1);
+            intBuffer.put(vertex + 2);
+            intBuffer.put(vertex + 3);
+        }
+
+        return indices;
+    }
+
+    /**
+     * @return The quad indices ordered from furthest to nearest
+     */
+    private static int[] sortQuads(float[] centroids, float x, float y, float z) {
+        final int quadCount = centroids.length / 3;
+        final int[] keys = new int[quadCount];
+
+        for (int quadIdx = 0; quadIdx < quadCount; ++quadIdx) {
+            final float xDist = centroids[quadIdx * 3] - x;
+            final float yDist = centroids[quadIdx * 3 + 1] - y;
+            final float zDist = centroids[quadIdx * 3 + 2] - z;
+
+            // The bits of a non-negative float sort the same as its value, so drop the lowest mantissa bits and invert
+            // the rest to get a 24-bit key which sorts furthest first
+            keys[quadIdx] = ~(Float.floatToRawIntBits((xDist * xDist) + (yDist * yDist) + (zDist * zDist)) >>> RADIX_DROPPED_BITS) & RADIX_KEY_MASK;
+        }
+
+        return radixSort(keys);
+    }
+
+    private static final int RADIX_BITS = 8;
+    private static final int RADIX_PASSES = 3;
+    private static final int RADIX_DROPPED_BITS = 32 - (RADIX_BITS * RADIX_PASSES);
+    private static final int RADIX_KEY_MASK = (1 << (RADIX_BITS * RADIX_PASSES)) - 1;
+
+    /**
+     * Stable least-significant-digit radix sort, returning the indices of the keys in ascending order.
+     */
+    private static int[] radixSort(int[] keys) {
+        int[] order = new int[keys.length];
+        int[] next = new int[keys.length];
+        final int[] offsets = new int[1 << RADIX_BITS];
+
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+
+        for (int pass = 0; pass < RADIX_PASSES; pass++) {
+            final int shift = pass * RADIX_BITS;
+
+            Arrays.fill(offsets, 0);
+
+            for (int key : keys) {
+                offsets[(key >>> shift) & 0xFF]++;
+            }
+
+            int sum = 0;
+
+            for (int bucket = 0; bucket < offsets.length; bucket++) {
+                final int count = offsets[bucket];
+                offsets[bucket] = sum;
+                sum += count;
+            }
 
-        rearrangeQuads(buffer, indicesArray, quadStride, quadStart);
+            for (int idx : order) {
+                next[offsets[(keys[idx] >>> shift) & 0xFF]++] = idx;
+            }
+
+            final int[] tmp = order;
+            order = next;
+            next = tmp;
+        }
+
+        return order;
     }
 
     private static void rearrangeQuads(ByteBuffer quadBuffer, int[] indicesArray, int quadStride, int quadStart) {
@@ -99,75 +202,35 @@ public class ChunkBufferSorter {
         ((Buffer)floatBuffer).position(base);
     }
 
-    private static float getDistanceSqSFP(FloatBuffer buffer, float xCenter, float yCenter, float zCenter, int stride, int start) {
-        int vertexBase = start;
-        float x1 = buffer.get(vertexBase);
-        float y1 = buffer.get(vertexBase + 1);
-        float z1 = buffer.get(vertexBase + 2);
-
-        //System.out.println("camera: " + xCenter + "," + yCenter + "," + zCenter);
-        //System.out.println("buffer1: " + x1 + "," + y1 + "," + z1);
-
-        vertexBase += stride;
-        float x2 = buffer.get(vertexBase);
-        float y2 = buffer.get(vertexBase + 1);
-        float z2 = buffer.get(vertexBase + 2);
-        //System.out.println("buffer2: " + x2 + "," + y2 + "," + z2);
-
-        vertexBase += stride;
-        float x3 = buffer.get(vertexBase);
-        float y3 = buffer.get(vertexBase + 1);
-        float z3 = buffer.get(vertexBase + 2);
-        //System.out.println("buffer3: " + x3 + "," + y3 + "," + z3);
-
-        vertexBase += stride;
-        float x4 = buffer.get(vertexBase);
-        float y4 = buffer.get(vertexBase + 1);
-        float z4 = buffer.get(vertexBase + 2);
-        //System.out.println("buffer4: " + x4 + "," + y4 + "," + z4);
-
-        float xDist = ((x1 + x2 + x3 + x4) * 0.25F) - xCenter;
-        float yDist = ((y1 + y2 + y3 + y4) * 0.25F) - yCenter;
-        float zDist = ((z1 + z2 + z3 + z4) * 0.25F) - zCenter;
-
-        return (xDist * xDist) + (yDist * yDist) + (zDist * zDist);
+    private static void getCentroidSFP(FloatBuffer buffer, float[] centroids, int quadIdx, int stride, int start) {
+        float x = 0, y = 0, z = 0;
+
+        for (int vertex = 0, vertexBase = start; vertex < 4; vertex++, vertexBase += stride) {
+            x += buffer.get(vertexBase);
+            y += buffer.get(vertexBase + 1);
+            z += buffer.get(vertexBase + 2);
+        }
+
+        centroids[quadIdx * 3] = x * 0.25F;
+        centroids[quadIdx * 3 + 1] = y * 0.25F;
+        centroids[quadIdx * 3 + 2] = z * 0.25F;
     }
 
     private static float normalizeShort(short s) {
         return (float)Short.toUnsignedInt(s) / 2048.0f;
     }
 
-    private static float getDistanceSqHFP(ShortBuffer buffer, float xCenter, float yCenter, float zCenter, int stride, int start) {
-        int vertexBase = start;
-        float x1 = normalizeShort(buffer.get(vertexBase));
-        float y1 = normalizeShort(buffer.get(vertexBase + 1));
-        float z1 = normalizeShort(buffer.get(vertexBase + 2));
-
-        //System.out.println("camera: " + xCenter + "," + yCenter + "," + zCenter);
-        //System.out.println("buffer1: " + x1 + "," + y1 + "," + z1);
-
-        vertexBase += stride;
-        float x2 = normalizeShort(buffer.get(vertexBase));
-        float y2 = normalizeShort(buffer.get(vertexBase + 1));
-        float z2 = normalizeShort(buffer.get(vertexBase + 2));
-        //System.out.println("buffer2: " + x2 + "," + y2 + "," + z2);
-
-        vertexBase += stride;
-        float x3 = normalizeShort(buffer.get(vertexBase));
-        float y3 = normalizeShort(buffer.get(vertexBase + 1));
-        float z3 = normalizeShort(buffer.get(vertexBase + 2));
-        //System.out.println("buffer3: " + x3 + "," + y3 + "," + z3);
-
-        vertexBase += stride;
-        float x4 = normalizeShort(buffer.get(vertexBase));
-        float y4 = normalizeShort(buffer.get(vertexBase + 1));
-        float z4 = normalizeShort(buffer.get(vertexBase + 2));
-        //System.out.println("buffer4: " + x4 + "," + y4 + "," + z4);
-
-        float xDist = ((x1 + x2 + x3 + x4) * 0.25F) - xCenter;
-        float yDist = ((y1 + y2 + y3 + y4) * 0.25F) - yCenter;
-        float zDist = ((z1 + z2 + z3 + z4) * 0.25F) - zCenter;
-
-        return (xDist * xDist) + (yDist * yDist) + (zDist * zDist);
+    private static void getCentroidHFP(ShortBuffer buffer, float[] centroids, int quadIdx, int stride, int start) {
+        float x = 0, y = 0, z = 0;
+
+        for (int vertex = 0, vertexBase = start; vertex < 4; vertex++, vertexBase += stride) {
+            x += normalizeShort(buffer.get(vertexBase));
+            y += normalizeShort(buffer.get(vertexBase + 1));
+            z += normalizeShort(buffer.get(vertexBase + 2));
+        }
+
+        centroids[quadIdx * 3] = x * 0.25F;
+        centroids[quadIdx * 3 + 1] = y * 0.25F;
+        centroids[quadIdx * 3 + 2] = z * 0.25F;
     }
 }
@@ -40,10 +40,14 @@ public class ChunkBuildBuffers implements ChunkBuildBuffersExt {
 
     private final ChunkModelOffset offset;
 
+    // Whether translucent meshes are sorted through an index buffer rather than by reordering their vertices
+    private final boolean indexedSorting;
+
     private BlockContextHolder iris$contextHolder;
 
-    public ChunkBuildBuffers(ChunkVertexType vertexType) {
+    public ChunkBuildBuffers(ChunkVertexType vertexType, boolean indexedSorting) {
         this.vertexType = vertexType;
+        this.indexedSorting = indexedSorting;
 
         this.delegates = new ChunkModelBuffers[BlockRenderPass.COUNT];
         this.buffersByLayer = new VertexBufferBuilder[BlockRenderPass.COUNT][ModelQuadFacing.COUNT];
@@ -140,8 +144,34 @@ public class ChunkBuildBuffers implements ChunkBuildBuffersExt {
 
         buffer.flip();
 
+        return this.finishMesh(pass, meshData, buffer, bufferLen, x, y, z, sortTranslucent);
+    }
+
+    /**
+     * Creates a chunk mesh from vertex data which was built previously, such as a mesh restored from the
+     * {@link ChunkMeshCache}. Translucent meshes are sorted again for the given camera position.
+     * @param buffer The vertex data, which is owned by the returned mesh afterwards
+     * @param slices The slice of the vertex data used by each facing
+     */
+    public ChunkMeshData createMesh(BlockRenderPass pass, ByteBuffer buffer, Map<ModelQuadFacing, BufferSlice> slices, float x, float y, float z, boolean sortTranslucent) {
+        final ChunkMeshData meshData = new ChunkMeshData();
+
+        for (Map.Entry<ModelQuadFacing, BufferSlice> entry : slices.entrySet()) {
+            meshData.setModelSlice(entry.getKey(), entry.getValue());
+        }
+
+        return this.finishMesh(pass, meshData, buffer, buffer.remaining(), x, y, z, sortTranslucent);
+    }
+
+    private ChunkMeshData finishMesh(BlockRenderPass pass, ChunkMeshData meshData, ByteBuffer buffer, int bufferLen, float x, float y, float z, boolean sortTranslucent) {
         if (sortTranslucent && pass.isTranslucent()) {
-            ChunkBufferSorter.sortStandardFormat(vertexType, buffer, bufferLen, x, y, z);
+            final float[] centroids = this.indexedSorting ? ChunkBufferSorter.getQuadCentroids(this.vertexType, buffer, bufferLen) : null;
+
+            if (centroids != null) {
+                meshData.setIndexData(ChunkBufferSorter.createSortedIndexBuffer(centroids, x, y, z), centroids);
+            } else {
+                ChunkBufferSorter.sortStandardFormat(vertexType, buffer, bufferLen, x, y, z);
+            }
             meshData.clearSlices();
             meshData.setModelSlice(ModelQuadFacing.UNASSIGNED, new BufferSlice(0, bufferLen));
         }
@@ -166,6 +196,11 @@ public class ChunkBuildBuffers implements ChunkBuildBuffersExt {
         this.iris$contextHolder.set(block, renderType);
     }
 
+    public void iris$setMaterialId(short blockId, short renderType) {
+        if(!AngelicaConfig.enableIris) return;
+        this.iris$contextHolder.set(blockId, renderType);
+    }
+
     public void iris$resetBlockContext() {
         if(!AngelicaConfig.enableIris) return;
         this.iris$contextHolder.reset();
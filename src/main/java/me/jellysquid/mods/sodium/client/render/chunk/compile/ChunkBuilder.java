@@ -1,10 +1,16 @@
 package me.jellysquid.mods.sodium.client.render.chunk.compile;
 
+import com.gtnewhorizons.angelica.compat.mojang.ChunkSectionPos;
 import com.gtnewhorizons.angelica.glsm.GLStateManager;
 import com.gtnewhorizons.angelica.rendering.AngelicaRenderQueue;
+import it.unimi.dsi.fastutil.Arrays;
+import it.unimi.dsi.fastutil.objects.ObjectArrayList;
 import it.unimi.dsi.fastutil.objects.Reference2ReferenceLinkedOpenHashMap;
+import lombok.Getter;
 import me.jellysquid.mods.sodium.client.SodiumClientMod;
+import me.jellysquid.mods.sodium.client.gl.device.CommandList;
 import me.jellysquid.mods.sodium.client.gl.device.RenderDevice;
+import me.jellysquid.mods.sodium.client.gui.SodiumGameOptions;
 import me.jellysquid.mods.sodium.client.model.vertex.type.ChunkVertexType;
 import me.jellysquid.mods.sodium.client.render.chunk.ChunkGraphicsState;
 import me.jellysquid.mods.sodium.client.render.chunk.ChunkRenderBackend;
@@ -28,34 +34,108 @@ import org.joml.Vector3d;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.Deque;
 import java.util.Iterator;
 import java.util.List;
+import java.util.PriorityQueue;
 import java.util.concurrent.CancellationException;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.locks.LockSupport;
+import java.util.function.ToIntFunction;
 
 public class ChunkBuilder<T extends ChunkGraphicsState> {
     /**
-     * The maximum number of jobs that can be queued for a given worker thread.
+     * The minimum and maximum number of jobs that can be queued for a given worker thread. The limit in use adapts
+     * between the two depending on how busy the workers have been kept.
      */
     private static final int TASK_QUEUE_LIMIT_PER_WORKER = 2;
+    private static final int MAX_TASK_QUEUE_LIMIT_PER_WORKER = 8;
+
+    /**
+     * The interval at which worker utilisation is measured and the queue limit adjusted, in nanoseconds.
+     */
+    private static final long UTILISATION_WINDOW = TimeUnit.MILLISECONDS.toNanos(250);
+
+    /**
+     * The worker utilisation below which the workers are considered to be starved of work.
+     */
+    private static final double TARGET_UTILISATION = 0.85D;
+
+    /**
+     * Queued jobs run by priority, with rebuilds before sorts, and then from nearest to furthest from the camera.
+     */
+    private static final Comparator<WrappedTask<?>> TASK_ORDER = Comparator.<WrappedTask<?>>comparingInt(job -> job.priority)
+        .thenComparingInt(job -> job.sort ? 1 : 0)
+        .thenComparingDouble(job -> job.distance);
+
+    /**
+     * The number of build results handed to the backend at once when uploads are limited by a per-frame budget. The
+     * budget is only checked between groups, so this bounds how far a single frame can overshoot it.
+     */
+    private static final int UPLOAD_GROUP_SIZE = 8;
+
+    /**
+     * Upload priorities returned by the callback given to {@link #performPendingUploads(ToIntFunction)}. Lower values
+     * are uploaded first, and prioritized results are never deferred by the budget.
+     */
+    public static final int UPLOAD_PRIORITIZED = 0;
+    public static final int UPLOAD_VISIBLE = 1;
+    public static final int UPLOAD_DEFAULT = 2;
+    public static final int UPLOAD_DISCARD = -1;
 
     private static final Logger LOGGER = LogManager.getLogger("ChunkBuilder");
 
-    private final Deque<WrappedTask<T>> buildQueue = new ConcurrentLinkedDeque<>();
+    // One queue per worker, which other workers steal from once their own runs dry
+    private final TaskQueue[] taskQueues;
+    private final AtomicInteger queuedTaskCount = new AtomicInteger();
+
     private final Deque<ChunkBuildResult<T>> uploadQueue = new ConcurrentLinkedDeque<>();
     private final Deque<Throwable> failureQueue = new ConcurrentLinkedDeque<>();
 
+    // Results which didn't fit in a previous frame's upload budget, only accessed from the main thread
+    private final ObjectArrayList<ChunkBuildResult<T>> deferredUploads = new ObjectArrayList<>();
+
+    @Getter
+    private int lastUploadCount;
+    @Getter
+    private int lastDeferredUploadCount;
+
     private final Object jobNotifier = new Object();
 
+    // Only accessed from the main thread
+    private ToIntFunction<ChunkRenderContainer<T>> taskPriorities = render -> UPLOAD_DEFAULT;
+    private int queueLimitPerWorker = TASK_QUEUE_LIMIT_PER_WORKER;
+    private int lastSchedulingBudget;
+    private int scheduledSinceUpdate;
+    private boolean starvedInWindow;
+    private long windowStart = System.nanoTime();
+
+    // Accumulated by the workers over the current utilisation window
+    private final AtomicLong busyTime = new AtomicLong();
+    private final AtomicLong waitTime = new AtomicLong();
+    private final AtomicLong startedTaskCount = new AtomicLong();
+    private final AtomicLong cancelledTaskCount = new AtomicLong();
+
+    @Getter
+    private double workerUtilisation;
+    @Getter
+    private double averageTaskWaitTime;
+
     private final AtomicBoolean running = new AtomicBoolean(false);
     private final List<Thread> threads = new ArrayList<>();
 
     private ClonedChunkSectionCache sectionCache;
 
+    // Null if disabled in the options
+    @Getter
+    private ChunkMeshCache meshCache;
+
     private WorldClient world;
     private Vector3d cameraPosition = new Vector3d();
 
@@ -63,10 +143,17 @@ public class ChunkBuilder<T extends ChunkGraphicsState> {
     private final ChunkVertexType vertexType;
     private final ChunkRenderBackend<T> backend;
 
+    @SuppressWarnings("unchecked")
     public ChunkBuilder(ChunkVertexType vertexType, ChunkRenderBackend<T> backend) {
         this.vertexType = vertexType;
         this.backend = backend;
         this.limitThreads = getThreadCount();
+
+        this.taskQueues = new ChunkBuilder.TaskQueue[this.limitThreads];
+
+        for (int i = 0; i < this.limitThreads; i++) {
+            this.taskQueues[i] = new TaskQueue();
+        }
     }
 
     /**
@@ -74,7 +161,86 @@ public class ChunkBuilder<T extends ChunkGraphicsState> {
      * spawn more tasks than the budget allows, it will block until resources become available.
      */
     public int getSchedulingBudget() {
-        return Math.max(0, (this.limitThreads * TASK_QUEUE_LIMIT_PER_WORKER) - this.buildQueue.size());
+        this.lastSchedulingBudget = Math.max(0, (this.limitThreads * this.queueLimitPerWorker) - this.queuedTaskCount.get());
+        this.scheduledSinceUpdate = 0;
+
+        return this.lastSchedulingBudget;
+    }
+
+    /**
+     * Re-scores every queued job for the current camera and visibility, and drops jobs whose results are no longer
+     * needed. This also adapts the scheduling budget to how busy the workers have been. Should be called once per frame
+     * before scheduling new tasks.
+     * @param priorities Returns one of the {@code UPLOAD_*} priorities for a render. Jobs for renders which should be
+     *                   discarded are cancelled.
+     * @param cancelHidden True if queued jobs for renders which are neither visible nor nearby should be cancelled. Their
+     *                     renders are marked as needing a rebuild again, so they get rescheduled once back in view.
+     */
+    public void updateQueuedTasks(ToIntFunction<ChunkRenderContainer<T>> priorities, boolean cancelHidden) {
+        this.taskPriorities = priorities;
+
+        if (this.lastSchedulingBudget > 0 && this.scheduledSinceUpdate >= this.lastSchedulingBudget) {
+            this.starvedInWindow = true;
+        }
+
+        this.scheduledSinceUpdate = 0;
+        this.lastSchedulingBudget = 0;
+
+        final ObjectArrayList<WrappedTask<T>> hidden = new ObjectArrayList<>();
+
+        for (TaskQueue queue : this.taskQueues) {
+            queue.update(priorities, cancelHidden, hidden);
+        }
+
+        for (WrappedTask<T> job : hidden) {
+            job.render.scheduleRebuild(job.important);
+        }
+
+        this.updateUtilisation();
+    }
+
+    private void updateUtilisation() {
+        final long now = System.nanoTime();
+        final long elapsed = now - this.windowStart;
+
+        if (elapsed < UTILISATION_WINDOW) {
+            return;
+        }
+
+        final long started = this.startedTaskCount.getAndSet(0);
+
+        this.workerUtilisation = Math.min(1.0D, (double) this.busyTime.getAndSet(0) / ((double) elapsed * this.limitThreads));
+        this.averageTaskWaitTime = started > 0 ? (double) this.waitTime.getAndSet(0) / started : 0.0D;
+
+        if (this.workerUtilisation < TARGET_UTILISATION && this.starvedInWindow) {
+            // The workers ran out of work while more was waiting to be scheduled, so let more of it queue up
+            this.queueLimitPerWorker = Math.min(this.queueLimitPerWorker + 1, MAX_TASK_QUEUE_LIMIT_PER_WORKER);
+        } else if (this.queueLimitPerWorker > TASK_QUEUE_LIMIT_PER_WORKER) {
+            // Shorter queues keep the order of jobs closer to what the camera currently needs
+            this.queueLimitPerWorker--;
+        }
+
+        this.starvedInWindow = false;
+        this.windowStart = now;
+    }
+
+    /**
+     * @return The number of jobs which are queued and haven't been started yet
+     */
+    public int getQueuedTaskCount() {
+        return this.queuedTaskCount.get();
+    }
+
+    /**
+     * @return The number of jobs which have been dropped since the builder was created, either because they were
+     * superseded by a newer job for the same render or because the render went out of view or was unloaded
+     */
+    public long getCancelledTaskCount() {
+        return this.cancelledTaskCount.get();
+    }
+
+    public int getQueueLimitPerWorker() {
+        return this.queueLimitPerWorker;
     }
 
     /**
@@ -93,10 +259,10 @@ public class ChunkBuilder<T extends ChunkGraphicsState> {
         Minecraft client = Minecraft.getMinecraft();
 
         for (int i = 0; i < this.limitThreads; i++) {
-            ChunkBuildBuffers buffers = new ChunkBuildBuffers(this.vertexType);
+            ChunkBuildBuffers buffers = new ChunkBuildBuffers(this.vertexType, this.backend.usesIndexedTranslucencySorting());
             ChunkRenderCacheLocal pipeline = new ChunkRenderCacheLocal(client, this.world);
 
-            WorkerRunnable worker = new WorkerRunnable(buffers, pipeline);
+            WorkerRunnable worker = new WorkerRunnable(i, buffers, pipeline);
 
             Thread thread = new Thread(worker, "Chunk Render Task Executor #" + i);
             thread.setPriority(Math.max(0, Thread.NORM_PRIORITY - 2));
@@ -153,16 +319,20 @@ public class ChunkBuilder<T extends ChunkGraphicsState> {
 
         // Drop any pending work queues and cancel futures
         this.uploadQueue.clear();
+        this.deferredUploads.clear();
         this.failureQueue.clear();
 
-        for (WrappedTask<?> job : this.buildQueue) {
-            job.future.cancel(true);
+        for (TaskQueue queue : this.taskQueues) {
+            queue.cancelAll();
         }
 
-        this.buildQueue.clear();
+        if (this.meshCache != null) {
+            this.meshCache.clear();
+        }
 
         this.world = null;
         this.sectionCache = null;
+        this.meshCache = null;
     }
 
     public void cleanupSectionCache() {
@@ -193,17 +363,97 @@ public class ChunkBuilder<T extends ChunkGraphicsState> {
     }
 
     /**
-     * Processes all pending build task uploads using the chunk render backend.
+     * Processes pending build task uploads using the chunk render backend, ordered by the priority returned from
+     * {@code priorities} and then by distance to the camera. Once the per-frame time or size budget is spent, the
+     * remaining results are kept for the next frame, where newer results for the same section still replace them.
+     * @param priorities Returns one of the {@code UPLOAD_*} priorities for a render
+     * @return True if any results were uploaded
      */
-    // TODO: Limit the amount of time this can take per frame
-    public boolean performPendingUploads() {
-        if (this.uploadQueue.isEmpty()) {
+    public boolean performPendingUploads(ToIntFunction<ChunkRenderContainer<T>> priorities) {
+        if (this.uploadQueue.isEmpty() && this.deferredUploads.isEmpty()) {
+            this.lastUploadCount = 0;
+            this.lastDeferredUploadCount = 0;
+
             return false;
         }
 
-        this.backend.upload(RenderDevice.INSTANCE.createCommandList(), filterChunkBuilds(new DequeDrain<>(this.uploadQueue)));
+        // Deferred results go first so that the filter lets newer results for the same section replace them
+        final ObjectArrayList<ChunkBuildResult<T>> pending = new ObjectArrayList<>(this.deferredUploads);
+        new DequeDrain<>(this.uploadQueue).forEachRemaining(pending::add);
+        this.deferredUploads.clear();
+
+        final ObjectArrayList<ChunkBuildResult<T>> uploads = new ObjectArrayList<>(pending.size());
+        final Iterator<ChunkBuildResult<T>> it = this.filterChunkBuilds(pending.iterator());
+
+        final double x = this.cameraPosition.x;
+        final double y = this.cameraPosition.y;
+        final double z = this.cameraPosition.z;
+
+        // The sort keys of each upload, computed once up front and kept in step with the list while it's sorted
+        final int[] uploadPriorities = new int[pending.size()];
+        final double[] uploadDistances = new double[pending.size()];
+
+        while (it.hasNext()) {
+            final ChunkBuildResult<T> result = it.next();
+            final int priority = priorities.applyAsInt(result.render);
+
+            // Sections which were unloaded while their result was waiting have nothing left to upload into
+            if (priority != UPLOAD_DISCARD) {
+                uploadPriorities[uploads.size()] = priority;
+                uploadDistances[uploads.size()] = result.render.getSquaredDistance(x, y, z);
+                uploads.add(result);
+            }
+        }
+
+        final int count = uploads.size();
+
+        Arrays.mergeSort(0, count, (a, b) -> {
+            final int order = Integer.compare(uploadPriorities[a], uploadPriorities[b]);
+            return order != 0 ? order : Double.compare(uploadDistances[a], uploadDistances[b]);
+        }, (a, b) -> {
+            uploads.set(a, uploads.set(b, uploads.get(a)));
+
+            final int priority = uploadPriorities[a];
+            uploadPriorities[a] = uploadPriorities[b];
+            uploadPriorities[b] = priority;
+
+            final double distance = uploadDistances[a];
+            uploadDistances[a] = uploadDistances[b];
+            uploadDistances[b] = distance;
+        });
+
+        final SodiumGameOptions.PerformanceSettings settings = SodiumClientMod.options().performance;
+        final long deadline = settings.chunkUploadBudgetMs > 0 ? System.nanoTime() + settings.chunkUploadBudgetMs * 1_000_000L : Long.MAX_VALUE;
+        final long byteBudget = settings.chunkUploadBudgetKiB > 0 ? settings.chunkUploadBudgetKiB * 1024L : Long.MAX_VALUE;
+
+        final CommandList commandList = RenderDevice.INSTANCE.createCommandList();
+
+        int index = 0;
+        long bytes = 0;
+
+        while (index < count) {
+            // Always make progress, and never leave a hole next to the player because of the budget
+            if (index > 0 && uploadPriorities[index] != UPLOAD_PRIORITIZED
+                && (bytes >= byteBudget || System.nanoTime() >= deadline)) {
+                break;
+            }
+
+            final int end = Math.min(index + UPLOAD_GROUP_SIZE, count);
+
+            for (int i = index; i < end; i++) {
+                bytes += uploads.get(i).data.getMeshSize();
+            }
+
+            this.backend.upload(commandList, uploads.subList(index, end).iterator());
+            index = end;
+        }
+
+        this.deferredUploads.addAll(uploads.subList(index, count));
+
+        this.lastUploadCount = index;
+        this.lastDeferredUploadCount = count - index;
 
-        return true;
+        return index > 0;
     }
 
     public void handleFailures() {
@@ -222,14 +472,30 @@ public class ChunkBuilder<T extends ChunkGraphicsState> {
         }
     }
 
-    public CompletableFuture<ChunkBuildResult<T>> schedule(ChunkRenderBuildTask<T> task) {
+    /**
+     * Queues a task on the worker with the fewest queued jobs.
+     * @param render The render the task builds for, used to prioritize the task
+     * @param sort True if the task only sorts existing data, which is run after rebuilds of the same priority
+     * @param important True if the task is for an important rebuild
+     */
+    public CompletableFuture<ChunkBuildResult<T>> schedule(ChunkRenderContainer<T> render, ChunkRenderBuildTask<T> task, boolean sort, boolean important) {
         if (!this.running.get()) {
             throw new IllegalStateException("Executor is stopped");
         }
 
-        WrappedTask<T> job = new WrappedTask<>(task);
+        WrappedTask<T> job = new WrappedTask<>(render, task, sort, important);
+        job.score(this.taskPriorities.applyAsInt(render), this.cameraPosition);
 
-        this.buildQueue.add(job);
+        TaskQueue target = this.taskQueues[0];
+
+        for (TaskQueue queue : this.taskQueues) {
+            if (queue.size() < target.size()) {
+                target = queue;
+            }
+        }
+
+        target.add(job);
+        this.scheduledSinceUpdate++;
 
         synchronized (this.jobNotifier) {
             this.jobNotifier.notify();
@@ -256,7 +522,7 @@ public class ChunkBuilder<T extends ChunkGraphicsState> {
      * @return True if the build queue is empty
      */
     public boolean isBuildQueueEmpty() {
-        return this.buildQueue.isEmpty();
+        return this.queuedTaskCount.get() == 0;
     }
 
     /**
@@ -275,6 +541,9 @@ public class ChunkBuilder<T extends ChunkGraphicsState> {
         this.world = world;
         this.sectionCache = new ClonedChunkSectionCache(this.world);
 
+        final int meshCacheSize = SodiumClientMod.options().performance.chunkMeshCacheMiB;
+        this.meshCache = meshCacheSize > 0 ? new ChunkMeshCache(meshCacheSize * 1024L * 1024L) : null;
+
         this.startWorkers();
     }
 
@@ -300,7 +569,9 @@ public class ChunkBuilder<T extends ChunkGraphicsState> {
      */
     public void handleCompletion(CompletableFuture<ChunkBuildResult<T>> future) {
         future.whenComplete((res, ex) -> {
-            if (ex != null) {
+            if (ex instanceof CancellationException) {
+                // Superseded or no longer needed, see updateQueuedTasks
+            } else if (ex != null) {
                 this.failureQueue.add(ex);
             } else if (res != null) {
                 this.enqueueUpload(res);
@@ -335,10 +606,14 @@ public class ChunkBuilder<T extends ChunkGraphicsState> {
      */
     @Nullable
     public CompletableFuture<ChunkBuildResult<T>> scheduleRebuildTaskAsync(ChunkRenderContainer<T> render) {
+        final boolean important = render.needsImportantRebuild();
         ChunkRenderBuildTask<T> task = this.createRebuildTask(render);
 
         if(task != null) {
-            return this.schedule(task);
+            final CompletableFuture<ChunkBuildResult<T>> future = this.schedule(render, task, false, important);
+            render.setRebuildTask(future);
+
+            return future;
         } else {
             return null;
         }
@@ -349,7 +624,10 @@ public class ChunkBuilder<T extends ChunkGraphicsState> {
      * @param render The render to rebuild
      */
     public CompletableFuture<ChunkBuildResult<T>> scheduleSortTaskAsync(ChunkRenderContainer<T> render) {
-        return this.schedule(this.createSortTask(render));
+        final CompletableFuture<ChunkBuildResult<T>> future = this.schedule(render, this.createSortTask(render), true, false);
+        render.setSortTask(future);
+
+        return future;
     }
 
     /**
@@ -364,12 +642,15 @@ public class ChunkBuilder<T extends ChunkGraphicsState> {
         if (context == null) {
             return null;
         } else {
-            return new ChunkRenderRebuildTask<>(render, context, render.getRenderOrigin()).withCameraPosition(this.cameraPosition);
+            return new ChunkRenderRebuildTask<>(render, context, render.getRenderOrigin())
+                .withCameraPosition(this.cameraPosition)
+                .withMeshCache(this.meshCache);
         }
     }
 
     private ChunkRenderBuildTask<T> createSortTask(ChunkRenderContainer<T> render) {
-        render.cancelRebuildTask();
+        // A pending rebuild still has to run, and will sort its own result anyway
+        render.cancelSortTask();
 
         return new ChunkRenderTranslucencySortTask<>(render, render.getRenderOrigin(), this.cameraPosition);
     }
@@ -378,9 +659,17 @@ public class ChunkBuilder<T extends ChunkGraphicsState> {
         this.sectionCache.invalidate(x, y, z);
     }
 
+    public void onSectionUnloaded(int x, int y, int z) {
+        if (this.meshCache != null) {
+            this.meshCache.touch(ChunkSectionPos.asLong(x, y, z));
+        }
+    }
+
     private class WorkerRunnable implements Runnable {
         private final AtomicBoolean running = ChunkBuilder.this.running;
 
+        private final int index;
+
         // The re-useable build buffers used by this worker for building chunk meshes
         private final ChunkBuildBuffers bufferCache;
 
@@ -388,22 +677,43 @@ public class ChunkBuilder<T extends ChunkGraphicsState> {
         // caches between different CPU cores
         private final ChunkRenderCacheLocal cache;
 
-        public WorkerRunnable(ChunkBuildBuffers bufferCache, ChunkRenderCacheLocal cache) {
+        public WorkerRunnable(int index, ChunkBuildBuffers bufferCache, ChunkRenderCacheLocal cache) {
+            this.index = index;
             this.bufferCache = bufferCache;
             this.cache = cache;
         }
 
         @Override
         public void run() {
+            try {
+                this.processJobs();
+            } finally {
+                if (ChunkBuilder.this.meshCache != null) {
+                    ChunkBuilder.this.meshCache.releaseScratch();
+                }
+            }
+        }
+
+        private void processJobs() {
             // Run until the chunk builder shuts down
             while (this.running.get()) {
                 WrappedTask<T> job = this.getNextJob();
 
                 // If the job is null or no longer valid, keep searching for a task
-                if (job == null || job.isCancelled()) {
+                if (job == null) {
+                    continue;
+                }
+
+                if (job.isCancelled()) {
+                    ChunkBuilder.this.cancelledTaskCount.incrementAndGet();
+                    job.task.releaseResources();
                     continue;
                 }
 
+                final long start = System.nanoTime();
+                ChunkBuilder.this.waitTime.addAndGet(start - job.queuedTime);
+                ChunkBuilder.this.startedTaskCount.incrementAndGet();
+
                 ChunkBuildResult<T> result;
 
                 try {
@@ -415,6 +725,7 @@ public class ChunkBuilder<T extends ChunkGraphicsState> {
                     continue;
                 } finally {
                     job.task.releaseResources();
+                    ChunkBuilder.this.busyTime.addAndGet(System.nanoTime() - start);
                 }
 
                 // The result can be null if the task is cancelled
@@ -426,36 +737,162 @@ public class ChunkBuilder<T extends ChunkGraphicsState> {
                 } else if (!job.isCancelled()) {
                     // If the job wasn't cancelled and no result was produced, we've hit a bug
                     job.future.completeExceptionally(new RuntimeException("No result was produced by the task " + job.task.getClass() + ": " + job.task));
+                } else {
+                    ChunkBuilder.this.cancelledTaskCount.incrementAndGet();
                 }
             }
         }
 
         /**
-         * Returns the next task which this worker can work on or blocks until one becomes available. If no tasks are
-         * currently available, it will wait on {@link ChunkBuilder#jobNotifier} field until notified.
+         * Returns the next task which this worker can work on or blocks until one becomes available. The worker's own
+         * queue is tried first, and otherwise the best job of the longest other queue is stolen. If no tasks are
+         * currently available, the meshes of unloaded sections are compressed one at a time, and once there are none
+         * left it will wait on {@link ChunkBuilder#jobNotifier} field until notified.
          */
         private WrappedTask<T> getNextJob() {
-            WrappedTask<T> job = ChunkBuilder.this.buildQueue.poll();
+            WrappedTask<T> job = this.pollOrSteal();
 
             if (job == null) {
+                final ChunkMeshCache meshCache = ChunkBuilder.this.meshCache;
+
+                if (meshCache != null && meshCache.compressPending()) {
+                    return null;
+                }
+
                 synchronized (ChunkBuilder.this.jobNotifier) {
-                    try {
-                        ChunkBuilder.this.jobNotifier.wait();
-                    } catch (InterruptedException ignored) {
+                    // Check again while holding the lock, as jobs are always queued before the notification is sent
+                    if (ChunkBuilder.this.queuedTaskCount.get() == 0 && this.running.get()) {
+                        try {
+                            ChunkBuilder.this.jobNotifier.wait();
+                        } catch (InterruptedException ignored) {
+                        }
                     }
                 }
             }
 
             return job;
         }
+
+        private WrappedTask<T> pollOrSteal() {
+            final TaskQueue[] queues = ChunkBuilder.this.taskQueues;
+            final WrappedTask<T> job = queues[this.index].poll();
+
+            if (job != null) {
+                return job;
+            }
+
+            TaskQueue victim = null;
+
+            for (TaskQueue queue : queues) {
+                if (queue.size() > 0 && (victim == null || queue.size() > victim.size())) {
+                    victim = queue;
+                }
+            }
+
+            return victim != null ? victim.poll() : null;
+        }
+    }
+
+    /**
+     * A worker's queue of jobs, ordered by {@link #TASK_ORDER}.
+     */
+    private class TaskQueue {
+        private final PriorityQueue<WrappedTask<T>> jobs = new PriorityQueue<>(TASK_ORDER);
+
+        // Read without the lock to pick which queue to add to or steal from
+        private volatile int size;
+
+        public synchronized void add(WrappedTask<T> job) {
+            this.jobs.add(job);
+            this.size = this.jobs.size();
+
+            ChunkBuilder.this.queuedTaskCount.incrementAndGet();
+        }
+
+        public synchronized WrappedTask<T> poll() {
+            final WrappedTask<T> job = this.jobs.poll();
+
+            if (job != null) {
+                this.size = this.jobs.size();
+
+                ChunkBuilder.this.queuedTaskCount.decrementAndGet();
+            }
+
+            return job;
+        }
+
+        public int size() {
+            return this.size;
+        }
+
+        /**
+         * Re-scores all jobs, removing the ones which were cancelled or are no longer needed.
+         * @param hidden Collects the rebuild jobs which were cancelled for being out of view
+         */
+        public synchronized void update(ToIntFunction<ChunkRenderContainer<T>> priorities, boolean cancelHidden, List<WrappedTask<T>> hidden) {
+            if (this.jobs.isEmpty()) {
+                return;
+            }
+
+            final Vector3d camera = ChunkBuilder.this.cameraPosition;
+            final ObjectArrayList<WrappedTask<T>> retained = new ObjectArrayList<>(this.jobs.size());
+
+            for (WrappedTask<T> job : this.jobs) {
+                final int priority = job.isCancelled() ? UPLOAD_DISCARD : priorities.applyAsInt(job.render);
+
+                if (priority == UPLOAD_DISCARD || (cancelHidden && priority == UPLOAD_DEFAULT)) {
+                    if (!job.isCancelled() && priority == UPLOAD_DEFAULT && !job.sort) {
+                        hidden.add(job);
+                    }
+
+                    job.future.cancel(false);
+                    job.task.releaseResources();
+
+                    ChunkBuilder.this.cancelledTaskCount.incrementAndGet();
+                } else {
+                    job.score(priority, camera);
+                    retained.add(job);
+                }
+            }
+
+            // Scores changed in place, so the heap has to be rebuilt
+            this.jobs.clear();
+            this.jobs.addAll(retained);
+
+            ChunkBuilder.this.queuedTaskCount.addAndGet(retained.size() - this.size);
+            this.size = retained.size();
+        }
+
+        public synchronized void cancelAll() {
+            for (WrappedTask<T> job : this.jobs) {
+                job.future.cancel(true);
+            }
+
+            ChunkBuilder.this.queuedTaskCount.addAndGet(-this.size);
+
+            this.jobs.clear();
+            this.size = 0;
+        }
     }
 
     private static class WrappedTask<T extends ChunkGraphicsState> implements CancellationSource {
+        private final ChunkRenderContainer<T> render;
         private final ChunkRenderBuildTask<T> task;
         private final CompletableFuture<ChunkBuildResult<T>> future;
 
-        private WrappedTask(ChunkRenderBuildTask<T> task) {
+        private final boolean sort;
+        private final boolean important;
+        private final long queuedTime = System.nanoTime();
+
+        // Only modified while the job is held by a queue's lock
+        private int priority;
+        private double distance;
+
+        private WrappedTask(ChunkRenderContainer<T> render, ChunkRenderBuildTask<T> task, boolean sort, boolean important) {
+            this.render = render;
             this.task = task;
+            this.sort = sort;
+            this.important = important;
             this.future = new CompletableFuture<>();
             this.future.exceptionally(e -> {
                 if (!(e instanceof CancellationException)) {
@@ -466,6 +903,11 @@ public class ChunkBuilder<T extends ChunkGraphicsState> {
             });
         }
 
+        private void score(int priority, Vector3d camera) {
+            this.priority = priority;
+            this.distance = this.render.getSquaredDistance(camera.x, camera.y, camera.z);
+        }
+
         @Override
         public boolean isCancelled() {
             return this.future.isCancelled();
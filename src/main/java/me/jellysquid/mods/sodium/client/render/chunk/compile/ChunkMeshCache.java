@@ -0,0 +1,477 @@
+package me.jellysquid.mods.sodium.client.render.chunk.compile;
+
+import com.gtnewhorizon.gtnhlib.client.renderer.quad.properties.ModelQuadFacing;
+import com.gtnewhorizons.angelica.compat.mojang.ChunkOcclusionData;
+import it.unimi.dsi.fastutil.longs.Long2ObjectLinkedOpenHashMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongArrayFIFOQueue;
+import me.jellysquid.mods.sodium.client.gl.buffer.VertexData;
+import me.jellysquid.mods.sodium.client.gl.util.BufferSlice;
+import me.jellysquid.mods.sodium.client.render.chunk.data.ChunkMeshData;
+import me.jellysquid.mods.sodium.client.render.chunk.data.ChunkRenderBounds;
+import me.jellysquid.mods.sodium.client.render.chunk.data.ChunkRenderData;
+import me.jellysquid.mods.sodium.client.render.chunk.passes.BlockRenderPass;
+import net.minecraft.client.renderer.texture.TextureAtlasSprite;
+import org.lwjgl.BufferUtils;
+
+import java.nio.ByteBuffer;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+import static com.gtnewhorizon.gtnhlib.bytebuf.MemoryUtilities.memAlloc;
+import static com.gtnewhorizon.gtnhlib.bytebuf.MemoryUtilities.memFree;
+
+/**
+ * A bounded least-recently-used cache of compressed chunk meshes, kept in native memory. Entries are keyed by section
+ * position and tagged with a hash of the world data the mesh was built from (see
+ * {@link me.jellysquid.mods.sodium.client.world.cloned.ChunkRenderContext#getContentHash()}), so a section which comes
+ * back into view unchanged can skip meshing entirely.
+ *
+ * While a section is loaded, the cache only keeps a reference to the vertex data of its latest build, which is neither
+ * copied nor counted towards the capacity. Once the section unloads, its meshes are moved to the back of the eviction
+ * order and compressed by whichever worker runs out of chunks to build first (see {@link #compressPending()}), so that
+ * meshing never waits on the cache.
+ */
+public class ChunkMeshCache {
+    private final long capacity; /* number of bytes */
+
+    private final Long2ObjectOpenHashMap<Entry> loaded = new Long2ObjectOpenHashMap<>();
+    private final Long2ObjectLinkedOpenHashMap<Entry> entries = new Long2ObjectLinkedOpenHashMap<>();
+    private final LongArrayFIFOQueue pendingCompression = new LongArrayFIFOQueue(); /* may hold stale positions */
+    private final ThreadLocal<Scratch> scratch = new ThreadLocal<>();
+
+    private long bytesUsed;
+
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    public ChunkMeshCache(long capacity) {
+        this.capacity = capacity;
+    }
+
+    /**
+     * Restores the render data of a section if its cached meshes were built from the same world data.
+     * @param buffers The worker's build buffers, used to create the meshes and sort translucent ones for the camera
+     * @return The restored render data, or null if there is no matching entry
+     */
+    public ChunkRenderData get(long pos, long contentHash, ChunkBuildBuffers buffers, float x, float y, float z, boolean sortTranslucent) {
+        final Scratch scratch = this.getScratch();
+        final Entry entry;
+        final int compressedLength;
+        final ByteBuffer[] vertexBuffers;
+
+        synchronized (this) {
+            Entry match = this.loaded.get(pos);
+
+            if (match == null) {
+                match = this.entries.getAndMoveToLast(pos);
+            }
+
+            if (match == null || match.contentHash != contentHash) {
+                this.misses++;
+
+                return null;
+            }
+
+            this.hits++;
+            entry = match;
+
+            // The native copy may be freed as soon as the lock is released
+            compressedLength = entry.data != null ? entry.data.capacity() : 0;
+            vertexBuffers = entry.vertexBuffers;
+
+            if (compressedLength > 0) {
+                scratch.ensureInput(compressedLength);
+                entry.data.duplicate().get(scratch.input, 0, compressedLength);
+            }
+        }
+
+        if (compressedLength > 0) {
+            scratch.inflate(compressedLength, entry.uncompressedLength);
+        } else if (vertexBuffers != null) {
+            scratch.ensureOutput(entry.uncompressedLength);
+            entry.copyVertexData(vertexBuffers, scratch.output);
+        }
+
+        final ChunkRenderData.Builder renderData = new ChunkRenderData.Builder();
+
+        for (BlockRenderPass pass : BlockRenderPass.VALUES) {
+            final Map<ModelQuadFacing, BufferSlice> slices = entry.slices[pass.ordinal()];
+
+            if (slices == null) {
+                continue;
+            }
+
+            final int length = entry.lengths[pass.ordinal()];
+            final ByteBuffer buffer = BufferUtils.createByteBuffer(length);
+            buffer.put(scratch.output, entry.offsets[pass.ordinal()], length);
+            buffer.flip();
+
+            renderData.setMesh(pass, buffers.createMesh(pass, buffer, slices, x, y, z, sortTranslucent));
+        }
+
+        for (TextureAtlasSprite sprite : entry.animatedSprites) {
+            renderData.addSprite(sprite);
+        }
+
+        renderData.setOcclusionData(entry.occlusionData);
+        renderData.setBounds(entry.bounds);
+
+        return renderData.build();
+    }
+
+    /**
+     * Keeps a reference to the meshes of freshly built render data until the section unloads, replacing any previous
+     * entry for the section. This must be called before the meshes are handed over for uploading, which takes their
+     * vertex data but never writes to it.
+     */
+    public void put(long pos, long contentHash, ChunkRenderData data) {
+        final int[] offsets = new int[BlockRenderPass.COUNT];
+        final int[] lengths = new int[BlockRenderPass.COUNT];
+        final ByteBuffer[] vertexBuffers = new ByteBuffer[BlockRenderPass.COUNT];
+        @SuppressWarnings("unchecked")
+        final Map<ModelQuadFacing, BufferSlice>[] slices = new Map[BlockRenderPass.COUNT];
+
+        int uncompressedLength = 0;
+
+        for (BlockRenderPass pass : BlockRenderPass.VALUES) {
+            final VertexData vertexData = data.getMesh(pass).getVertexData();
+
+            if (vertexData == null) {
+                continue;
+            }
+
+            final int length = vertexData.buffer.remaining();
+
+            // The position and limit of the original are changed once it's uploaded
+            vertexBuffers[pass.ordinal()] = vertexData.buffer.duplicate();
+            offsets[pass.ordinal()] = uncompressedLength;
+            lengths[pass.ordinal()] = length;
+            slices[pass.ordinal()] = copySlices(data.getMesh(pass));
+
+            uncompressedLength += length;
+        }
+
+        final Entry entry = new Entry(contentHash, vertexBuffers, uncompressedLength, offsets, lengths, slices,
+            data.getOcclusionData(), data.getBounds(), data.getAnimatedSprites());
+
+        synchronized (this) {
+            this.loaded.put(pos, entry);
+
+            // Superseded by the new build
+            this.free(this.entries.remove(pos));
+        }
+    }
+
+    /**
+     * Compresses the meshes of one unloaded section. Workers call this when they have nothing else to do.
+     * @return Whether there was anything left to compress
+     */
+    public boolean compressPending() {
+        final Scratch scratch = this.getScratch();
+        final long pos;
+        final Entry entry;
+        final ByteBuffer[] vertexBuffers;
+
+        synchronized (this) {
+            if (this.pendingCompression.isEmpty()) {
+                return false;
+            }
+
+            pos = this.pendingCompression.dequeueLong();
+            entry = this.entries.get(pos);
+
+            if (entry == null || entry.vertexBuffers == null) {
+                return true;
+            }
+
+            vertexBuffers = entry.vertexBuffers;
+        }
+
+        // The retained vertex data is never written to, so it can be read without holding the lock
+        scratch.ensureInput(entry.uncompressedLength);
+        entry.copyVertexData(vertexBuffers, scratch.input);
+
+        final int compressedLength = scratch.deflate(entry.uncompressedLength);
+
+        synchronized (this) {
+            // The section may have been loaded again or evicted in the meantime
+            if (this.entries.get(pos) != entry) {
+                return true;
+            }
+
+            final ByteBuffer buffer = memAlloc(compressedLength);
+            buffer.put(scratch.output, 0, compressedLength);
+            buffer.flip();
+
+            this.bytesUsed -= entry.getSize();
+
+            entry.data = buffer;
+            entry.vertexBuffers = null;
+            this.bytesUsed += entry.getSize();
+        }
+
+        return true;
+    }
+
+    /**
+     * Moves the meshes of a section which was just unloaded into the cache, as the last to be evicted, and queues them
+     * for compression.
+     */
+    public synchronized void touch(long pos) {
+        final Entry entry = this.loaded.remove(pos);
+
+        if (entry == null) {
+            this.entries.getAndMoveToLast(pos);
+
+            return;
+        }
+
+        // Entries larger than the whole cache would only flush everything else out
+        if (entry.uncompressedLength > this.capacity) {
+            this.free(this.entries.remove(pos));
+
+            return;
+        }
+
+        this.free(this.entries.putAndMoveToLast(pos, entry));
+        this.bytesUsed += entry.getSize();
+
+        if (entry.uncompressedLength > 0) {
+            this.pendingCompression.enqueue(pos);
+        }
+
+        while (this.bytesUsed > this.capacity && !this.entries.isEmpty()) {
+            this.free(this.entries.removeFirst());
+            this.evictions++;
+        }
+    }
+
+    public synchronized void remove(long pos) {
+        this.loaded.remove(pos);
+        this.free(this.entries.remove(pos));
+    }
+
+    /**
+     * Frees all cached meshes. The cache can still be used afterwards.
+     */
+    public synchronized void clear() {
+        for (Entry entry : this.entries.values()) {
+            this.free(entry);
+        }
+
+        this.loaded.clear();
+        this.entries.clear();
+        this.pendingCompression.clear();
+    }
+
+    /**
+     * Frees the compression state of the calling thread. Workers call this before they exit.
+     */
+    public void releaseScratch() {
+        final Scratch scratch = this.scratch.get();
+
+        if (scratch != null) {
+            scratch.end();
+            this.scratch.remove();
+        }
+    }
+
+    private Scratch getScratch() {
+        Scratch scratch = this.scratch.get();
+
+        if (scratch == null) {
+            this.scratch.set(scratch = new Scratch());
+        }
+
+        return scratch;
+    }
+
+    private void free(Entry entry) {
+        if (entry == null) {
+            return;
+        }
+
+        this.bytesUsed -= entry.getSize();
+
+        if (entry.data != null) {
+            memFree(entry.data);
+            entry.data = null;
+        }
+    }
+
+    private static Map<ModelQuadFacing, BufferSlice> copySlices(ChunkMeshData mesh) {
+        final Map<ModelQuadFacing, BufferSlice> slices = new EnumMap<>(ModelQuadFacing.class);
+
+        for (Map.Entry<ModelQuadFacing, BufferSlice> entry : mesh.getSlices()) {
+            slices.put(entry.getKey(), entry.getValue());
+        }
+
+        return slices;
+    }
+
+    /**
+     * @return The number of bytes taken up by the meshes of unloaded sections
+     */
+    public synchronized long getBytesUsed() {
+        return this.bytesUsed;
+    }
+
+    public long getCapacity() {
+        return this.capacity;
+    }
+
+    public synchronized long getEvictions() {
+        return this.evictions;
+    }
+
+    /**
+     * @return The fraction of lookups which found a matching entry, or zero if there haven't been any
+     */
+    public synchronized double getHitRate() {
+        final long lookups = this.hits + this.misses;
+
+        return lookups > 0 ? (double) this.hits / lookups : 0.0D;
+    }
+
+    private static class Entry {
+        private final long contentHash;
+
+        // The vertex data of every pass as it was built, until it's replaced by all of it compressed back to back
+        private ByteBuffer[] vertexBuffers; /* null for passes without a mesh */
+        private ByteBuffer data;
+        private final int uncompressedLength;
+
+        private final int[] offsets;
+        private final int[] lengths;
+        private final Map<ModelQuadFacing, BufferSlice>[] slices; /* null for passes without a mesh */
+
+        private final ChunkOcclusionData occlusionData;
+        private final ChunkRenderBounds bounds;
+        private final List<TextureAtlasSprite> animatedSprites;
+
+        private Entry(long contentHash, ByteBuffer[] vertexBuffers, int uncompressedLength, int[] offsets, int[] lengths,
+                      Map<ModelQuadFacing, BufferSlice>[] slices, ChunkOcclusionData occlusionData,
+                      ChunkRenderBounds bounds, List<TextureAtlasSprite> animatedSprites) {
+            this.contentHash = contentHash;
+            this.vertexBuffers = vertexBuffers;
+            this.uncompressedLength = uncompressedLength;
+            this.offsets = offsets;
+            this.lengths = lengths;
+            this.slices = slices;
+            this.occlusionData = occlusionData;
+            this.bounds = bounds;
+            this.animatedSprites = animatedSprites;
+        }
+
+        /**
+         * Copies retained vertex data into an array, at the same offsets the compressed data inflates to.
+         * @param vertexBuffers The retained vertex data, read while holding the cache's lock
+         */
+        private void copyVertexData(ByteBuffer[] vertexBuffers, byte[] target) {
+            for (int i = 0; i < vertexBuffers.length; i++) {
+                if (vertexBuffers[i] != null) {
+                    vertexBuffers[i].duplicate().get(target, this.offsets[i], this.lengths[i]);
+                }
+            }
+        }
+
+        private long getSize() {
+            if (this.data != null) {
+                return this.data.capacity();
+            }
+
+            return this.vertexBuffers != null ? this.uncompressedLength : 0;
+        }
+    }
+
+    /**
+     * The compression state and scratch arrays of a worker thread. The arrays only ever grow.
+     */
+    private static class Scratch {
+        private final Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        private final Inflater inflater = new Inflater();
+
+        private byte[] input = new byte[0];
+        private byte[] output = new byte[0];
+
+        private void ensureInput(int length) {
+            if (this.input.length < length) {
+                final byte[] input = new byte[Math.max(length, this.input.length * 2)];
+                System.arraycopy(this.input, 0, input, 0, this.input.length);
+
+                this.input = input;
+            }
+        }
+
+        private void ensureOutput(int length) {
+            if (this.output.length < length) {
+                this.output = new byte[Math.max(length, this.output.length * 2)];
+            }
+        }
+
+        private void end() {
+            this.deflater.end();
+            this.inflater.end();
+        }
+
+        /**
+         * Compresses the first {@code length} bytes of the input array into the output array.
+         * @return The compressed length
+         */
+        private int deflate(int length) {
+            // Incompressible data can grow slightly, so leave room for the stored block headers
+            this.ensureOutput(length + (length >> 8) + 64);
+
+            this.deflater.reset();
+            this.deflater.setInput(this.input, 0, length);
+            this.deflater.finish();
+
+            int compressed = 0;
+
+            while (!this.deflater.finished()) {
+                if (compressed == this.output.length) {
+                    final byte[] output = new byte[this.output.length * 2];
+                    System.arraycopy(this.output, 0, output, 0, compressed);
+
+                    this.output = output;
+                }
+
+                compressed += this.deflater.deflate(this.output, compressed, this.output.length - compressed);
+            }
+
+            return compressed;
+        }
+
+        /**
+         * Decompresses the first {@code length} bytes of the input array into the output array.
+         */
+        private void inflate(int length, int uncompressedLength) {
+            this.ensureOutput(uncompressedLength);
+
+            this.inflater.reset();
+            this.inflater.setInput(this.input, 0, length);
+
+            try {
+                int inflated = 0;
+
+                while (inflated < uncompressedLength) {
+                    final int count = this.inflater.inflate(this.output, inflated, uncompressedLength - inflated);
+
+                    if (count == 0 && (this.inflater.finished() || this.inflater.needsInput())) {
+                        throw new IllegalStateException("Cached chunk mesh is truncated");
+                    }
+
+                    inflated += count;
+                }
+            } catch (DataFormatException e) {
+                throw new IllegalStateException("Cached chunk mesh is corrupt", e);
+            }
+        }
+    }
+}
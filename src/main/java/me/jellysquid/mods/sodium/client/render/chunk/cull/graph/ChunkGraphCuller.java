@@ -5,216 +5,572 @@ import com.gtnewhorizons.angelica.compat.mojang.Camera;
 import com.gtnewhorizons.angelica.compat.mojang.ChunkOcclusionData;
 import com.gtnewhorizons.angelica.compat.mojang.ChunkSectionPos;
 import it.unimi.dsi.fastutil.ints.IntArrayList;
-import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
-import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.Long2IntMap;
+import it.unimi.dsi.fastutil.longs.Long2IntOpenHashMap;
+import it.unimi.dsi.fastutil.longs.Long2LongMap;
+import it.unimi.dsi.fastutil.longs.Long2LongOpenHashMap;
 import me.jellysquid.mods.sodium.client.render.chunk.cull.ChunkCuller;
+import me.jellysquid.mods.sodium.client.render.chunk.data.ChunkRenderData;
+import me.jellysquid.mods.sodium.client.render.chunk.region.ChunkRegionManager;
 import me.jellysquid.mods.sodium.client.util.math.FrustumExtended;
 import net.minecraft.block.Block;
 import net.minecraft.util.MathHelper;
 import net.minecraft.world.World;
 import net.minecraftforge.common.util.ForgeDirection;
 
-import java.util.ArrayList;
-import java.util.Comparator;
-import java.util.List;
-
+import java.util.Arrays;
+
+/**
+ * Computes the visible set of chunk sections with a breadth-first search over the section graph, starting from the
+ * camera and flowing only through faces which the occlusion data says can be seen through.
+ *
+ * The part of the graph within render distance is stored in flat arrays covering a window of (2r + 1) x 16 x (2r + 1)
+ * sections around the camera. The window wraps around in X and Z, so when the camera moves only the columns which
+ * scrolled into view need to be refilled. The search itself doesn't depend on the view direction, which means its
+ * result can be kept until the camera enters another section or the graph changes; every other frame only filters the
+ * previous result against the frustum.
+ *
+ * Frustum culling is hierarchical: sections are grouped the same way as {@link ChunkRegionManager} groups them into
+ * regions, and each region's bounds are tested once per frame. Sections in regions which are entirely outside or
+ * inside the frustum are rejected or accepted without any further tests, and sections in the remaining regions are
+ * only tested against the planes which their region intersects.
+ */
 public class ChunkGraphCuller implements ChunkCuller {
-    private final Long2ObjectMap<ChunkGraphNode> nodes = new Long2ObjectOpenHashMap<>();
+    private static final long DEFAULT_VISIBILITY_DATA = calculateVisibilityData(ChunkRenderData.EMPTY.getOcclusionData());
+    private static final float FRUSTUM_EPSILON = 1.0f /* block model margin */ + 0.125f /* epsilon */;
+
+    private static final int HEIGHT = 16;
+
+    private static final int REGION_WIDTH_SH = Integer.bitCount(ChunkRegionManager.BUFFER_WIDTH - 1);
+    private static final int REGION_HEIGHT_SH = Integer.bitCount(ChunkRegionManager.BUFFER_HEIGHT - 1);
+    private static final int REGION_LENGTH_SH = Integer.bitCount(ChunkRegionManager.BUFFER_LENGTH - 1);
+
+    // The weight of the newest sample in the averaged culling times
+    private static final double TIMING_WEIGHT = 0.05D;
+
+    private static final int DIRECTION_COUNT = ForgeDirection.VALID_DIRECTIONS.length;
+    private static final int[] OFFSET_X = new int[DIRECTION_COUNT];
+    private static final int[] OFFSET_Y = new int[DIRECTION_COUNT];
+    private static final int[] OFFSET_Z = new int[DIRECTION_COUNT];
+    private static final int[] OPPOSITE = new int[DIRECTION_COUNT];
+
+    static {
+        for (ForgeDirection dir : ForgeDirection.VALID_DIRECTIONS) {
+            OFFSET_X[dir.ordinal()] = dir.offsetX;
+            OFFSET_Y[dir.ordinal()] = dir.offsetY;
+            OFFSET_Z[dir.ordinal()] = dir.offsetZ;
+            OPPOSITE[dir.ordinal()] = dir.getOpposite().ordinal();
+        }
+    }
 
-    private final ChunkGraphIterationQueue visible = new ChunkGraphIterationQueue();
     private final World world;
     private final int renderDistance;
 
-    private FrustumExtended frustum;
-    private boolean useOcclusionCulling;
+    // Every loaded section, including those outside the window, so that columns can be refilled as it moves
+    private final Long2IntMap sectionIds = new Long2IntOpenHashMap();
+    private final Long2LongMap sectionVisibility = new Long2LongOpenHashMap();
+
+    // The width of the window in sections along the X and Z axes
+    private final int size;
+
+    // The world column currently stored in each column of the window
+    private final int[] columnX, columnZ;
+
+    // Per-section state of the window, indexed by slot (see getSlot)
+    private final int[] ids;
+    private final long[] visibility;
+    private final short[] cullingState;
+    private final int[] lastSearch;
+    private final int[] lastVisibleFrame;
+
+    // The frustum test result of each region touching the window, valid when the stamp matches the current filter pass
+    private final int regionsX, regionsZ;
+    private final int[] regionPlaneMask;
+    private final int[] regionStamp;
+    private int filterStamp;
+
+    // The result of the last search, as slots in traversal order
+    private int[] searchResult;
+    private int searchResultCount;
+
+    private final IntArrayList visible = new IntArrayList();
+
+    private boolean searchDirty = true;
+    private int searchId;
+    private int searchChunkX, searchChunkY, searchChunkZ;
+    private boolean searchUsedOcclusionCulling;
 
     private int activeFrame = 0;
     private int centerChunkX, centerChunkZ;
 
+    private double averageSearchTime, averageFilterTime;
+
     public ChunkGraphCuller(World world, int renderDistance) {
         this.world = world;
         this.renderDistance = renderDistance;
+
+        this.sectionIds.defaultReturnValue(-1);
+        this.sectionVisibility.defaultReturnValue(DEFAULT_VISIBILITY_DATA);
+
+        this.size = (renderDistance * 2) + 1;
+
+        this.columnX = new int[this.size * this.size];
+        this.columnZ = new int[this.size * this.size];
+        Arrays.fill(this.columnX, Integer.MIN_VALUE);
+
+        final int count = this.size * this.size * HEIGHT;
+
+        this.ids = new int[count];
+        this.visibility = new long[count];
+        this.cullingState = new short[count];
+        this.lastSearch = new int[count];
+        this.lastVisibleFrame = new int[count];
+        this.searchResult = new int[Math.min(count, 4096)];
+
+        this.regionsX = (this.size >> REGION_WIDTH_SH) + 2;
+        this.regionsZ = (this.size >> REGION_LENGTH_SH) + 2;
+
+        final int regionCount = this.regionsX * this.regionsZ * (HEIGHT >> REGION_HEIGHT_SH);
+
+        this.regionPlaneMask = new int[regionCount];
+        this.regionStamp = new int[regionCount];
+
+        Arrays.fill(this.ids, -1);
+        Arrays.fill(this.lastVisibleFrame, -1);
     }
 
     @Override
     public IntArrayList computeVisible(Camera camera, FrustumExtended frustum, int frame, boolean spectator) {
-        this.initSearch(camera, frustum, frame, spectator);
+        return this.computeVisible(camera.getBlockPos(), frustum, frame, spectator);
+    }
 
-        ChunkGraphIterationQueue queue = this.visible;
+    public IntArrayList computeVisible(BlockPos origin, FrustumExtended frustum, int frame, boolean spectator) {
+        final int chunkX = origin.getX() >> 4;
+        final int chunkY = origin.getY() >> 4;
+        final int chunkZ = origin.getZ() >> 4;
 
-        for (int i = 0; i < queue.size(); i++) {
-            ChunkGraphNode node = queue.getNode(i);
-            short cullData = node.computeQueuePop();
+        this.activeFrame = frame;
+        this.moveWindow(chunkX, chunkZ);
 
-            for (ForgeDirection dir : ForgeDirection.VALID_DIRECTIONS) {
-                if (useOcclusionCulling && (cullData & (1 << dir.ordinal())) == 0) {
-                    continue;
-                }
+        boolean useOcclusionCulling = true;
 
-                ChunkGraphNode adj = node.getConnectedNode(dir);
+        if (spectator && this.getId(chunkX, chunkY, chunkZ) >= 0) {
+            final Block block = this.world.getBlock(origin.getX(), origin.getY(), origin.getZ());
 
-                if (adj != null && this.isWithinRenderDistance(adj)) {
-                    this.bfsEnqueue(node, adj, dir.getOpposite(), cullData);
-                }
+            if (block.isOpaqueCube()) {
+                useOcclusionCulling = false;
             }
         }
 
-        return this.visible.getOrderedIdList();
-    }
+        if (this.searchDirty || chunkX != this.searchChunkX || chunkY != this.searchChunkY || chunkZ != this.searchChunkZ ||
+                useOcclusionCulling != this.searchUsedOcclusionCulling) {
+            final long start = System.nanoTime();
+            this.search(origin, chunkX, chunkY, chunkZ, useOcclusionCulling);
+            this.averageSearchTime = average(this.averageSearchTime, System.nanoTime() - start);
+        }
 
-    private boolean isWithinRenderDistance(ChunkGraphNode adj) {
-        int x = Math.abs(adj.getChunkX() - this.centerChunkX);
-        int z = Math.abs(adj.getChunkZ() - this.centerChunkZ);
+        final long start = System.nanoTime();
+        final IntArrayList visible = this.filterVisible(frustum, frame);
+        this.averageFilterTime = average(this.averageFilterTime, System.nanoTime() - start);
 
-        return x <= this.renderDistance && z <= this.renderDistance;
+        return visible;
     }
 
-    private void initSearch(Camera camera, FrustumExtended frustum, int frame, boolean spectator) {
-        this.activeFrame = frame;
-        this.frustum = frustum;
-        this.useOcclusionCulling = true;
+    private IntArrayList filterVisible(FrustumExtended frustum, int frame) {
+        final IntArrayList visible = this.visible;
+        visible.clear();
 
-        this.visible.clear();
+        final int stamp = ++this.filterStamp;
+        final int regionMinX = (this.centerChunkX - this.renderDistance) >> REGION_WIDTH_SH;
+        final int regionMinZ = (this.centerChunkZ - this.renderDistance) >> REGION_LENGTH_SH;
 
-        final BlockPos origin = camera.getBlockPos();
+        final int[] result = this.searchResult;
+        final int columns = this.size * this.size;
 
-        final int chunkX = origin.getX() >> 4;
-        int chunkY = origin.getY() >> 4;
-        final int chunkZ = origin.getZ() >> 4;
+        for (int i = 0; i < this.searchResultCount; i++) {
+            final int slot = result[i];
+            final int column = slot % columns;
 
-        this.centerChunkX = chunkX;
-        this.centerChunkZ = chunkZ;
+            final int x = this.columnX[column];
+            final int y = slot / columns;
+            final int z = this.columnZ[column];
+
+            // The section the camera is in is always visible
+            if (i != 0 || !this.isRootSlot(slot)) {
+                final int regionX = x >> REGION_WIDTH_SH;
+                final int regionY = y >> REGION_HEIGHT_SH;
+                final int regionZ = z >> REGION_LENGTH_SH;
+
+                final int region = (((regionY * this.regionsZ) + (regionZ - regionMinZ)) * this.regionsX) + (regionX - regionMinX);
+
+                if (this.regionStamp[region] != stamp) {
+                    this.regionStamp[region] = stamp;
+                    this.regionPlaneMask[region] = intersectRegion(frustum, regionX, regionY, regionZ);
+                }
 
-        final ChunkGraphNode rootNode = this.getNode(chunkX, chunkY, chunkZ);
+                final int planeMask = this.regionPlaneMask[region];
 
-        if (rootNode != null) {
-            rootNode.resetCullingState();
-            rootNode.setLastVisibleFrame(frame);
+                if (planeMask == FrustumExtended.OUTSIDE) {
+                    continue;
+                }
 
-            if (spectator) {
-                final Block block = this.world.getBlock(origin.getX(), origin.getY(), origin.getZ());
-                if(block.isOpaqueCube()) {
-                    this.useOcclusionCulling = false;
+                if (planeMask != 0 && intersectSection(frustum, x, y, z, planeMask) == FrustumExtended.OUTSIDE) {
+                    continue;
                 }
             }
 
-            this.visible.add(rootNode);
-        } else {
-            chunkY = MathHelper.clamp_int(origin.getY() >> 4, 0, 15);
+            this.lastVisibleFrame[slot] = frame;
+
+            visible.add(this.ids[slot]);
+        }
+
+        return visible;
+    }
+
+    private boolean isRootSlot(int slot) {
+        return this.searchChunkY >= 0 && this.searchChunkY < HEIGHT && slot == this.getSlot(this.searchChunkX, this.searchChunkY, this.searchChunkZ);
+    }
+
+    private void search(BlockPos origin, int chunkX, int chunkY, int chunkZ, boolean useOcclusionCulling) {
+        this.searchDirty = false;
+        this.searchChunkX = chunkX;
+        this.searchChunkY = chunkY;
+        this.searchChunkZ = chunkZ;
+        this.searchUsedOcclusionCulling = useOcclusionCulling;
+
+        final int search = ++this.searchId;
+
+        this.searchResultCount = 0;
 
-            final List<ChunkGraphNode> bestNodes = new ArrayList<>();
+        final int rootSlot = this.getId(chunkX, chunkY, chunkZ) >= 0 ? this.getSlot(chunkX, chunkY, chunkZ) : -1;
 
-            for (int x2 = -this.renderDistance; x2 <= this.renderDistance; ++x2) {
-                for (int z2 = -this.renderDistance; z2 <= this.renderDistance; ++z2) {
-                    final ChunkGraphNode node = this.getNode(chunkX + x2, chunkY, chunkZ + z2);
+        if (rootSlot >= 0) {
+            this.cullingState[rootSlot] = -1;
+            this.lastSearch[rootSlot] = search;
 
-                    if (node == null || node.isCulledByFrustum(frustum)) {
+            this.enqueue(rootSlot);
+        } else {
+            final int y = MathHelper.clamp_int(chunkY, 0, HEIGHT - 1);
+
+            for (int x = chunkX - this.renderDistance; x <= chunkX + this.renderDistance; ++x) {
+                for (int z = chunkZ - this.renderDistance; z <= chunkZ + this.renderDistance; ++z) {
+                    final int slot = this.getSlot(x, y, z);
+
+                    if (this.ids[slot] < 0) {
                         continue;
                     }
 
-                    node.resetCullingState();
-                    node.setLastVisibleFrame(frame);
+                    this.cullingState[slot] = -1;
+                    this.lastSearch[slot] = search;
 
-                    bestNodes.add(node);
+                    this.enqueue(slot);
                 }
             }
 
-            bestNodes.sort(Comparator.comparingDouble(node -> node.getSquaredDistance(origin)));
+            this.sortByDistance(origin, this.searchResultCount);
+        }
+
+        final int columns = this.size * this.size;
 
-            for (ChunkGraphNode node : bestNodes) {
-                this.visible.add(node);
+        for (int i = 0; i < this.searchResultCount; i++) {
+            final int slot = this.searchResult[i];
+            final int column = slot % columns;
+
+            final int x = this.columnX[column];
+            final int y = slot / columns;
+            final int z = this.columnZ[column];
+
+            final short cullData = this.computeQueuePop(slot);
+
+            for (int dir = 0; dir < DIRECTION_COUNT; dir++) {
+                if (useOcclusionCulling && (cullData & (1 << dir)) == 0) {
+                    continue;
+                }
+
+                final int adjX = x + OFFSET_X[dir];
+                final int adjY = y + OFFSET_Y[dir];
+                final int adjZ = z + OFFSET_Z[dir];
+
+                if (adjY < 0 || adjY >= HEIGHT || !this.isWithinRenderDistance(adjX, adjZ)) {
+                    continue;
+                }
+
+                final int adj = this.getSlot(adjX, adjY, adjZ);
+
+                if (this.ids[adj] >= 0) {
+                    this.bfsEnqueue(adj, OPPOSITE[dir], cullData, search);
+                }
             }
         }
     }
 
-
-    private void bfsEnqueue(ChunkGraphNode parent, ChunkGraphNode node, ForgeDirection flow, short parentalData) {
-        if (node.getLastVisibleFrame() == this.activeFrame) {
-            node.updateCullingState(flow, parentalData);
+    private void bfsEnqueue(int slot, int flow, short parentalData, int search) {
+        if (this.lastSearch[slot] == search) {
+            this.updateCullingState(slot, flow, parentalData);
             return;
         }
-        node.setLastVisibleFrame(this.activeFrame);
 
-        if (node.isCulledByFrustum(this.frustum)) {
-            return;
+        this.lastSearch[slot] = search;
+
+        this.setCullingState(slot, parentalData);
+        this.updateCullingState(slot, flow, parentalData);
+
+        this.enqueue(slot);
+    }
+
+    private void enqueue(int slot) {
+        if (this.searchResultCount == this.searchResult.length) {
+            this.searchResult = Arrays.copyOf(this.searchResult, this.searchResult.length * 2);
         }
 
-        node.setCullingState(parentalData);
-        node.updateCullingState(flow, parentalData);
+        this.searchResult[this.searchResultCount++] = slot;
+    }
+
+    private void sortByDistance(BlockPos origin, int count) {
+        final int columns = this.size * this.size;
+        final long[] keyed = new long[count];
+
+        for (int i = 0; i < count; i++) {
+            final int slot = this.searchResult[i];
+            final int column = slot % columns;
+
+            final double dx = origin.getX() + 0.5D - ((this.columnX[column] << 4) + 8.0D);
+            final double dy = origin.getY() + 0.5D - (((slot / columns) << 4) + 8.0D);
+            final double dz = origin.getZ() + 0.5D - ((this.columnZ[column] << 4) + 8.0D);
+
+            // Non-negative floats sort the same way as their bits, which leaves the low half free for the slot
+            keyed[i] = ((long) Float.floatToRawIntBits((float) (dx * dx + dy * dy + dz * dz)) << 32) | slot;
+        }
 
-        this.visible.add(node);
+        Arrays.sort(keyed);
+
+        for (int i = 0; i < count; i++) {
+            this.searchResult[i] = (int) keyed[i];
+        }
     }
 
-    private void connectNeighborNodes(ChunkGraphNode node) {
-        for (ForgeDirection dir : ForgeDirection.VALID_DIRECTIONS) {
-            final ChunkGraphNode adj = this.findAdjacentNode(node, dir);
+    //The way this works now is that the culling state contains 2 inner states
+    // visited directions mask, and visitable direction mask
+    //On graph start, the root node(s) have the visit and visitable masks set to all visible
+    // when a chunk section is popped off the queue, the visited direction mask is anded with the
+    // visitable direction mask to return a bitfield containing what directions the graph can flow too
+    //When a chunk is visited in the graph the inbound direction is masked off from the visited direction mask
+    // and the visitable direction mask is updated (ored) with the visibilityData of the inbound direction
+    //When a chunk hasnt been visited before, it uses the parents data as the initial visited direction mask
+
+    private short computeQueuePop(int slot) {
+        final short cullingState = this.cullingState[slot];
+        this.cullingState[slot] = 0;
+
+        return (short) (cullingState & (((cullingState >> 8) & 0xFF) | 0xFF00));
+    }
+
+    private void updateCullingState(int slot, int inbound, short parent) {
+        int cullingState = this.cullingState[slot];
+        cullingState |= (this.visibility[slot] >> (inbound << 3)) & 0xFF;
+        cullingState &= ~(1 << (inbound + 8));
+        //NOTE: this isnt strictly needed, due to the properties provided from the bfs search (never backtracking),
+        // but just incase/better readability/understandability
+        cullingState &= parent | 0x00FF;
+
+        this.cullingState[slot] = (short) cullingState;
+    }
+
+    private void setCullingState(int slot, short parent) {
+        this.cullingState[slot] = (short) (parent & 0xFF00);
+    }
+
+    private static int intersectSection(FrustumExtended frustum, int chunkX, int chunkY, int chunkZ, int planeMask) {
+        final float x = chunkX << 4;
+        final float y = chunkY << 4;
+        final float z = chunkZ << 4;
+
+        return frustum.intersectAabb(x - FRUSTUM_EPSILON, y - FRUSTUM_EPSILON, z - FRUSTUM_EPSILON,
+                x + 16.0f + FRUSTUM_EPSILON, y + 16.0f + FRUSTUM_EPSILON, z + 16.0f + FRUSTUM_EPSILON, planeMask);
+    }
+
+    private static int intersectRegion(FrustumExtended frustum, int regionX, int regionY, int regionZ) {
+        final float x = regionX << (REGION_WIDTH_SH + 4);
+        final float y = regionY << (REGION_HEIGHT_SH + 4);
+        final float z = regionZ << (REGION_LENGTH_SH + 4);
+
+        return frustum.intersectAabb(x - FRUSTUM_EPSILON, y - FRUSTUM_EPSILON, z - FRUSTUM_EPSILON,
+                x + (ChunkRegionManager.BUFFER_WIDTH * 16.0f) + FRUSTUM_EPSILON,
+                y + (ChunkRegionManager.BUFFER_HEIGHT * 16.0f) + FRUSTUM_EPSILON,
+                z + (ChunkRegionManager.BUFFER_LENGTH * 16.0f) + FRUSTUM_EPSILON, FrustumExtended.ALL_PLANES);
+    }
+
+    private static double average(double average, long sample) {
+        return average + ((sample - average) * TIMING_WEIGHT);
+    }
+
+    /**
+     * @return The average time in nanoseconds spent re-running the visibility search, over the frames where it ran
+     */
+    public double getAverageSearchTime() {
+        return this.averageSearchTime;
+    }
+
+    /**
+     * @return The average time in nanoseconds spent testing the search result against the frustum each frame
+     */
+    public double getAverageFilterTime() {
+        return this.averageFilterTime;
+    }
+
+    /**
+     * Re-centers the window on the given chunk, refilling every column which now maps to a different part of the world.
+     */
+    private void moveWindow(int chunkX, int chunkZ) {
+        if (chunkX == this.centerChunkX && chunkZ == this.centerChunkZ && this.columnX[0] != Integer.MIN_VALUE) {
+            return;
+        }
+
+        this.centerChunkX = chunkX;
+        this.centerChunkZ = chunkZ;
+
+        for (int x = chunkX - this.renderDistance; x <= chunkX + this.renderDistance; x++) {
+            for (int z = chunkZ - this.renderDistance; z <= chunkZ + this.renderDistance; z++) {
+                final int column = this.getColumn(x, z);
 
-            if (adj != null) {
-                adj.setAdjacentNode(dir.getOpposite(), node);
+                if (this.columnX[column] != x || this.columnZ[column] != z) {
+                    this.fillColumn(column, x, z);
+                }
             }
+        }
+
+        this.searchDirty = true;
+    }
+
+    private void fillColumn(int column, int x, int z) {
+        this.columnX[column] = x;
+        this.columnZ[column] = z;
+
+        final int columns = this.size * this.size;
 
-            node.setAdjacentNode(dir, adj);
+        for (int y = 0; y < HEIGHT; y++) {
+            final int slot = column + (y * columns);
+            final long key = ChunkSectionPos.asLong(x, y, z);
+
+            this.ids[slot] = this.sectionIds.get(key);
+            this.visibility[slot] = this.sectionVisibility.get(key);
+            this.lastVisibleFrame[slot] = -1;
         }
     }
 
-    private void disconnectNeighborNodes(ChunkGraphNode node) {
-        for (ForgeDirection dir : ForgeDirection.VALID_DIRECTIONS) {
-            final ChunkGraphNode adj = node.getConnectedNode(dir);
+    private boolean isWithinRenderDistance(int x, int z) {
+        return Math.abs(x - this.centerChunkX) <= this.renderDistance && Math.abs(z - this.centerChunkZ) <= this.renderDistance;
+    }
 
-            if (adj != null) {
-                adj.setAdjacentNode(dir.getOpposite(), null);
-            }
+    private int getColumn(int x, int z) {
+        return (Math.floorMod(z, this.size) * this.size) + Math.floorMod(x, this.size);
+    }
+
+    private int getSlot(int x, int y, int z) {
+        return (y * this.size * this.size) + this.getColumn(x, z);
+    }
 
-            node.setAdjacentNode(dir, null);
+    /**
+     * @return The slot holding the given section, or -1 if it is outside the window
+     */
+    private int findSlot(int x, int y, int z) {
+        if (y < 0 || y >= HEIGHT) {
+            return -1;
         }
+
+        final int column = this.getColumn(x, z);
+
+        if (this.columnX[column] != x || this.columnZ[column] != z) {
+            return -1;
+        }
+
+        return (y * this.size * this.size) + column;
     }
 
-    private ChunkGraphNode findAdjacentNode(ChunkGraphNode node, ForgeDirection dir) {
-        return this.getNode(node.getChunkX() + dir.offsetX, node.getChunkY() + dir.offsetY, node.getChunkZ() + dir.offsetZ);
+    private int getId(int x, int y, int z) {
+        final int slot = this.findSlot(x, y, z);
+
+        return slot >= 0 ? this.ids[slot] : -1;
     }
 
-    private ChunkGraphNode getNode(int x, int y, int z) {
-        return this.nodes.get(ChunkSectionPos.asLong(x, y, z));
+    private static long calculateVisibilityData(ChunkOcclusionData occlusionData) {
+        long visibilityData = 0;
+
+        for (ForgeDirection from : ForgeDirection.VALID_DIRECTIONS) {
+            for (ForgeDirection to : ForgeDirection.VALID_DIRECTIONS) {
+                if (occlusionData == null || occlusionData.isVisibleThrough(from, to)) {
+                    visibilityData |= (1L << ((from.ordinal() << 3) + to.ordinal()));
+                }
+            }
+        }
+
+        return visibilityData;
     }
 
     @Override
     public void onSectionStateChanged(int x, int y, int z, ChunkOcclusionData occlusionData) {
-        ChunkGraphNode node = this.getNode(x, y, z);
+        final long key = ChunkSectionPos.asLong(x, y, z);
 
-        if (node != null) {
-            node.setOcclusionData(occlusionData);
+        if (!this.sectionIds.containsKey(key)) {
+            return;
+        }
+
+        final long visibilityData = calculateVisibilityData(occlusionData);
+
+        if (this.sectionVisibility.put(key, visibilityData) == visibilityData) {
+            return;
+        }
+
+        final int slot = this.findSlot(x, y, z);
+
+        if (slot >= 0) {
+            this.visibility[slot] = visibilityData;
+            this.searchDirty = true;
         }
     }
 
     @Override
     public void onSectionLoaded(int x, int y, int z, int id) {
-        final ChunkGraphNode node = new ChunkGraphNode(x, y, z, id);
-        final ChunkGraphNode prev;
+        final long key = ChunkSectionPos.asLong(x, y, z);
 
-        if ((prev = this.nodes.put(ChunkSectionPos.asLong(x, y, z), node)) != null) {
-            this.disconnectNeighborNodes(prev);
-        }
+        this.sectionIds.put(key, id);
+        this.sectionVisibility.remove(key);
 
-        this.connectNeighborNodes(node);
+        final int slot = this.findSlot(x, y, z);
+
+        if (slot >= 0) {
+            this.ids[slot] = id;
+            this.visibility[slot] = DEFAULT_VISIBILITY_DATA;
+            this.lastVisibleFrame[slot] = -1;
+            this.searchDirty = true;
+        }
     }
 
     @Override
     public void onSectionUnloaded(int x, int y, int z) {
-        final ChunkGraphNode node = this.nodes.remove(ChunkSectionPos.asLong(x, y, z));
+        final long key = ChunkSectionPos.asLong(x, y, z);
+
+        this.sectionIds.remove(key);
+        this.sectionVisibility.remove(key);
+
+        final int slot = this.findSlot(x, y, z);
 
-        if (node != null) {
-            this.disconnectNeighborNodes(node);
+        if (slot >= 0) {
+            this.ids[slot] = -1;
+            this.visibility[slot] = DEFAULT_VISIBILITY_DATA;
+            this.lastVisibleFrame[slot] = -1;
+            this.searchDirty = true;
         }
     }
 
     @Override
     public boolean isSectionVisible(int x, int y, int z) {
-        final ChunkGraphNode render = this.getNode(x, y, z);
+        final int slot = this.findSlot(x, y, z);
 
-        if (render == null) {
+        if (slot < 0 || this.ids[slot] < 0) {
             return false;
         }
 
-        return render.getLastVisibleFrame() == this.activeFrame;
+        return this.lastVisibleFrame[slot] == this.activeFrame;
     }
 }
@@ -4,6 +4,7 @@ import com.gtnewhorizon.gtnhlib.client.renderer.quad.properties.ModelQuadFacing;
 import me.jellysquid.mods.sodium.client.gl.buffer.VertexData;
 import me.jellysquid.mods.sodium.client.gl.util.BufferSlice;
 
+import java.nio.ByteBuffer;
 import java.util.EnumMap;
 import java.util.Map;
 
@@ -13,6 +14,10 @@ public class ChunkMeshData {
     private final EnumMap<ModelQuadFacing, BufferSlice> parts = new EnumMap<>(ModelQuadFacing.class);
     private VertexData vertexData;
 
+    // Quad draw order for meshes sorted through an index buffer, along with the centroids it was computed from
+    private ByteBuffer indexData;
+    private float[] quadCentroids;
+
     public void setVertexData(VertexData vertexData) {
         this.vertexData = vertexData;
     }
@@ -37,10 +42,50 @@ public class ChunkMeshData {
         return data;
     }
 
+    /**
+     * @return The pending vertex data of this mesh without taking it, or null if it has already been uploaded
+     */
+    public VertexData getVertexData() {
+        return this.vertexData;
+    }
+
     public boolean hasVertexData() {
         return this.vertexData != null;
     }
 
+    public void setIndexData(ByteBuffer indexData, float[] quadCentroids) {
+        this.indexData = indexData;
+        this.quadCentroids = quadCentroids;
+    }
+
+    public ByteBuffer takeIndexData() {
+        ByteBuffer data = this.indexData;
+
+        if (data == null) {
+            throw new NullPointerException("No pending index data to upload");
+        }
+
+        this.indexData = null;
+
+        return data;
+    }
+
+    public boolean hasIndexData() {
+        return this.indexData != null;
+    }
+
+    public int getIndexDataSize() {
+        if (this.indexData != null) {
+            return this.indexData.capacity();
+        }
+
+        return 0;
+    }
+
+    public float[] getQuadCentroids() {
+        return this.quadCentroids;
+    }
+
     public int getVertexDataSize() {
         if (this.vertexData != null) {
             return this.vertexData.buffer.capacity();
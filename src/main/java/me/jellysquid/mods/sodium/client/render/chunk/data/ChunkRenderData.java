@@ -100,7 +100,7 @@ public class ChunkRenderData {
         int size = 0;
 
         for (ChunkMeshData meshData : this.meshes.values()) {
-            size += meshData.getVertexDataSize();
+            size += meshData.getVertexDataSize() + meshData.getIndexDataSize();
 
             for (Map.Entry<ModelQuadFacing, BufferSlice> entry : meshData.getSlices()) {
                 facesWithData |= 1 << entry.getKey().ordinal();
@@ -174,7 +174,7 @@ public class ChunkRenderData {
             int size = 0;
 
             for (ChunkMeshData meshData : this.meshes.values()) {
-                size += meshData.getVertexDataSize();
+                size += meshData.getVertexDataSize() + meshData.getIndexDataSize();
 
                 for (Map.Entry<ModelQuadFacing, BufferSlice> entry : meshData.getSlices()) {
                     facesWithData |= 1 << entry.getKey().ordinal();
@@ -8,18 +8,25 @@ import me.jellysquid.mods.sodium.client.gl.device.RenderDevice;
 import me.jellysquid.mods.sodium.client.gl.tessellation.GlTessellation;
 import me.jellysquid.mods.sodium.client.render.chunk.ChunkGraphicsState;
 import me.jellysquid.mods.sodium.client.render.chunk.backends.multidraw.ChunkDrawCallBatcher;
+import me.jellysquid.mods.sodium.client.render.chunk.backends.multidraw.IndexedChunkDrawCallBatcher;
 import me.jellysquid.mods.sodium.client.render.chunk.compile.ChunkBuildResult;
 
 public class ChunkRegion<T extends ChunkGraphicsState> {
     private static final int EXPECTED_CHUNK_SIZE = 4 * 1024;
+    private static final int EXPECTED_CHUNK_INDEX_SIZE = 256;
 
     private final GlBufferArena arena;
     private final ChunkDrawCallBatcher batch;
+
+    // Sorted quad indices for translucent sections, only used by the indexed translucency sorting mode
+    private final GlBufferArena indexArena;
+    private final IndexedChunkDrawCallBatcher indexedBatch;
     private final RenderDevice device;
 
     private final ObjectArrayList<ChunkBuildResult<T>> uploadQueue;
 
     private GlTessellation tessellation;
+    private GlTessellation indexedTessellation;
 
     private final int x, y, z;
 
@@ -34,6 +41,11 @@ public class ChunkRegion<T extends ChunkGraphicsState> {
 
         this.batch = ChunkDrawCallBatcher.create(size * ModelQuadFacing.COUNT);
 
+        int indexArenaSize = EXPECTED_CHUNK_INDEX_SIZE * size;
+
+        this.indexArena = new GlBufferArena(device, indexArenaSize, indexArenaSize);
+        this.indexedBatch = new IndexedChunkDrawCallBatcher(size);
+
         this.x = x;
         this.y = y;
         this.z = z;
@@ -55,21 +67,33 @@ public class ChunkRegion<T extends ChunkGraphicsState> {
         return this.arena;
     }
 
+    public GlBufferArena getIndexArena() {
+        return this.indexArena;
+    }
+
     public boolean isArenaEmpty() {
-        return this.arena.isEmpty();
+        return this.arena.isEmpty() && this.indexArena.isEmpty();
     }
 
     public void deleteResources() {
-        if (this.tessellation != null) {
-            try (CommandList commands = this.device.createCommandList()) {
+        try (CommandList commands = this.device.createCommandList()) {
+            if (this.tessellation != null) {
                 commands.deleteTessellation(this.tessellation);
             }
 
-            this.tessellation = null;
+            if (this.indexedTessellation != null) {
+                commands.deleteTessellation(this.indexedTessellation);
+            }
         }
 
+        this.tessellation = null;
+        this.indexedTessellation = null;
+
         this.arena.delete();
         this.batch.delete();
+
+        this.indexArena.delete();
+        this.indexedBatch.delete();
     }
 
     public ObjectArrayList<ChunkBuildResult<T>> getUploadQueue() {
@@ -80,6 +104,10 @@ public class ChunkRegion<T extends ChunkGraphicsState> {
         return this.batch;
     }
 
+    public IndexedChunkDrawCallBatcher getIndexedDrawBatcher() {
+        return this.indexedBatch;
+    }
+
     public GlTessellation getTessellation() {
         return this.tessellation;
     }
@@ -87,4 +115,12 @@ public class ChunkRegion<T extends ChunkGraphicsState> {
     public void setTessellation(GlTessellation tessellation) {
         this.tessellation = tessellation;
     }
+
+    public GlTessellation getIndexedTessellation() {
+        return this.indexedTessellation;
+    }
+
+    public void setIndexedTessellation(GlTessellation tessellation) {
+        this.indexedTessellation = tessellation;
+    }
 }
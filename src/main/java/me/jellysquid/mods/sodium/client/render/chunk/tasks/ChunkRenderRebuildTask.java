@@ -1,13 +1,14 @@
 package me.jellysquid.mods.sodium.client.render.chunk.tasks;
 
 import com.gtnewhorizon.gtnhlib.blockpos.BlockPos;
-import com.gtnewhorizon.gtnhlib.client.renderer.util.WorldUtil;
 import com.gtnewhorizons.angelica.compat.mojang.ChunkOcclusionDataBuilder;
-import com.gtnewhorizons.angelica.compat.toremove.RenderLayer;
 import com.gtnewhorizons.angelica.config.AngelicaConfig;
+import com.gtnewhorizons.angelica.dynamiclights.DynamicLights;
+import com.gtnewhorizons.angelica.dynamiclights.DynamicLightsSnapshot;
 import com.gtnewhorizons.angelica.mixins.interfaces.ITexturesCache;
-import com.gtnewhorizons.angelica.rendering.AngelicaBlockSafetyRegistry;
 import com.gtnewhorizons.angelica.rendering.AngelicaRenderQueue;
+import com.gtnewhorizons.angelica.rendering.BlockRenderProperties;
+import com.gtnewhorizons.angelica.rendering.MainThreadBlockTelemetry;
 import com.gtnewhorizons.angelica.utils.AnimationsRenderUtils;
 import it.unimi.dsi.fastutil.longs.LongArrayFIFOQueue;
 import me.jellysquid.mods.sodium.client.SodiumClientMod;
@@ -16,6 +17,7 @@ import me.jellysquid.mods.sodium.client.render.chunk.ChunkRenderContainer;
 import me.jellysquid.mods.sodium.client.render.chunk.ChunkRenderManager;
 import me.jellysquid.mods.sodium.client.render.chunk.compile.ChunkBuildBuffers;
 import me.jellysquid.mods.sodium.client.render.chunk.compile.ChunkBuildResult;
+import me.jellysquid.mods.sodium.client.render.chunk.compile.ChunkMeshCache;
 import me.jellysquid.mods.sodium.client.render.chunk.data.ChunkMeshData;
 import me.jellysquid.mods.sodium.client.render.chunk.data.ChunkRenderBounds;
 import me.jellysquid.mods.sodium.client.render.chunk.data.ChunkRenderData;
@@ -25,7 +27,6 @@ import me.jellysquid.mods.sodium.client.util.MathUtil;
 import me.jellysquid.mods.sodium.client.util.task.CancellationSource;
 import me.jellysquid.mods.sodium.client.world.WorldSlice;
 import me.jellysquid.mods.sodium.client.world.cloned.ChunkRenderContext;
-import net.coderbot.iris.block_rendering.BlockRenderingSettings;
 import net.coderbot.iris.vertices.ExtendedDataHelper;
 import net.minecraft.block.Block;
 import net.minecraft.block.material.Material;
@@ -38,7 +39,6 @@ import net.minecraft.util.AxisAlignedBB;
 import net.minecraft.util.IIcon;
 import org.joml.Vector3d;
 
-import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
 
@@ -60,6 +60,8 @@ public class ChunkRenderRebuildTask<T extends ChunkGraphicsState> extends ChunkR
 
     private final boolean translucencySorting;
 
+    private ChunkMeshCache meshCache;
+
     public ChunkRenderRebuildTask(ChunkRenderContainer<T> render, ChunkRenderContext context, BlockPos offset) {
         this.render = render;
         this.offset = offset;
@@ -74,6 +76,11 @@ public class ChunkRenderRebuildTask<T extends ChunkGraphicsState> extends ChunkR
         return this;
     }
 
+    public ChunkRenderRebuildTask<T> withMeshCache(ChunkMeshCache meshCache) {
+        this.meshCache = meshCache;
+        return this;
+    }
+
     private boolean rendersOutsideBoundingBox(TileEntity entity, int baseX, int baseY, int baseZ) {
         AxisAlignedBB box = entity.getRenderBoundingBox();
 
@@ -93,9 +100,8 @@ public class ChunkRenderRebuildTask<T extends ChunkGraphicsState> extends ChunkR
         return false;
     }
 
-    private boolean rendersOffThread(Block block) {
-        final int type = block.getRenderType();
-        return (type < 42 && type != 22 && AngelicaBlockSafetyRegistry.canBlockRenderOffThread(block, false, false)) || AngelicaBlockSafetyRegistry.canBlockRenderOffThread(block, true, false);
+    private static boolean rendersOffThread(int flags) {
+        return (flags & BlockRenderProperties.RENDERS_OFF_THREAD) != 0;
     }
 
     private void handleRenderBlocksTextures(RenderBlocks rb, ChunkRenderData.Builder builder) {
@@ -108,14 +114,13 @@ public class ChunkRenderRebuildTask<T extends ChunkGraphicsState> extends ChunkR
         }
     }
 
-    private boolean canRenderInPass(Block block, BlockRenderPass pass) {
+    private static boolean canRenderInPass(Block block, int flags, BlockRenderPass pass) {
+        // Always ask the block, as some mods rely on this call to track the current pass
         boolean canRender = block.canRenderInPass(pass.ordinal());
-        Map<Block, RenderLayer> blockTypeIds = BlockRenderingSettings.INSTANCE.getBlockTypeIds();
-        RenderLayer renderLayer;
-        if (blockTypeIds != null && (renderLayer = blockTypeIds.get(block)) != null) {
+        if ((flags & BlockRenderProperties.LAYER_OVERRIDDEN) != 0) {
             canRender = switch (pass) {
-                case CUTOUT_MIPPED -> renderLayer == RenderLayer.cutout();
-                case TRANSLUCENT -> renderLayer == RenderLayer.translucent();
+                case CUTOUT_MIPPED -> (flags & BlockRenderProperties.LAYER_CUTOUT) != 0;
+                case TRANSLUCENT -> (flags & BlockRenderProperties.LAYER_TRANSLUCENT) != 0;
             };
         }
         return canRender;
@@ -129,7 +134,30 @@ public class ChunkRenderRebuildTask<T extends ChunkGraphicsState> extends ChunkR
 
         buffers.init(renderData);
 
-        cache.init(this.context);
+        final DynamicLightsSnapshot.SectionLights dynamicLights = DynamicLights.get().getSnapshot().getSectionLights(this.context.getOrigin());
+
+        // The mesh cache can't see tile entity state or dynamic lights, so sections affected by either are always built
+        final boolean cacheable = this.meshCache != null && dynamicLights.isEmpty() && !this.context.hasTileEntities();
+        final long contentHash = cacheable ? this.context.getContentHash() : 0L;
+
+        if (cacheable) {
+            final ChunkRenderData cached = this.meshCache.get(this.context.getOrigin().asLong(), contentHash, buffers,
+                (float) camera.x - offset.getX(), (float) camera.y - offset.getY(), (float) camera.z - offset.getZ(), this.translucencySorting);
+
+            if (cached != null) {
+                render.setRebuildForTranslucents(false);
+
+                for (BlockRenderPass pass : BlockRenderPass.VALUES) {
+                    if (this.translucencySorting && pass.isTranslucent() && cached.getMesh(pass) != ChunkMeshData.EMPTY) {
+                        render.setRebuildForTranslucents(true);
+                    }
+                }
+
+                return new ChunkBuildResult<>(this.render, cached);
+            }
+        }
+
+        cache.init(this.context, dynamicLights);
 
         final WorldSlice slice = cache.getWorldSlice();
         final RenderBlocks renderBlocks = new RenderBlocks(slice);
@@ -148,6 +176,8 @@ public class ChunkRenderRebuildTask<T extends ChunkGraphicsState> extends ChunkR
         final LongArrayFIFOQueue mainThreadBlocks = new LongArrayFIFOQueue();
         boolean hasMainThreadBlocks = false;
 
+        final BlockRenderProperties properties = BlockRenderProperties.get();
+
         for (int relY = 0; relY < 16; relY++) {
             if (cancellationSource.isCancelled()) {
                 return null;
@@ -164,19 +194,22 @@ public class ChunkRenderRebuildTask<T extends ChunkGraphicsState> extends ChunkR
                     }
 
                     final int meta = slice.getBlockMetadataRelative(relX + 16, relY + 16, relZ + 16);
+                    final int blockId = Block.getIdFromBlock(block);
+                    final int flags = properties.getFlags(block, blockId);
+                    final boolean sodiumFluid = shouldUseSodiumFluidRendering(flags);
 
                     pos.set(baseX + relX, baseY + relY, baseZ + relZ);
                     buffers.setRenderOffset(pos.x - renderOffset.getX(), pos.y - renderOffset.getY(), pos.z - renderOffset.getZ());
 
                     if(AngelicaConfig.enableIris) buffers.iris$setLocalPos(relX, relY, relZ);
 
-                    if (rendersOffThread(block)) {
+                    if (rendersOffThread(flags)) {
                         // Do regular block rendering
                         for (BlockRenderPass pass : BlockRenderPass.VALUES) {
-                            if (canRenderInPass(block, pass) && !shouldUseSodiumFluidRendering(block)) {
+                            if (canRenderInPass(block, flags, pass) && !sodiumFluid) {
                                 ChunkRenderManager.setWorldRenderPass(pass);
                                 final long seed = MathUtil.hashPos(pos.x, pos.y, pos.z);
-                                if(AngelicaConfig.enableIris) buffers.iris$setMaterialId(block, ExtendedDataHelper.BLOCK_RENDER_TYPE);
+                                if(AngelicaConfig.enableIris) buffers.iris$setMaterialId(properties.getMaterialId(block, blockId), ExtendedDataHelper.BLOCK_RENDER_TYPE);
 
                                 if (cache.getBlockRenderer().renderModel(cache.getWorldSlice(), renderBlocks, block, meta, pos, buffers.get(pass), true, seed)) {
                                     bounds.addBlock(relX, relY, relZ);
@@ -189,11 +222,11 @@ public class ChunkRenderRebuildTask<T extends ChunkGraphicsState> extends ChunkR
                     }
 
                     // Do fluid rendering without RenderBlocks
-                    if (shouldUseSodiumFluidRendering(block)) {
+                    if (sodiumFluid) {
                         for (BlockRenderPass pass : BlockRenderPass.VALUES) {
-                            if (canRenderInPass(block, pass)) {
+                            if (canRenderInPass(block, flags, pass)) {
                                 ChunkRenderManager.setWorldRenderPass(pass);
-                                if(AngelicaConfig.enableIris)  buffers.iris$setMaterialId(block, ExtendedDataHelper.FLUID_RENDER_TYPE);
+                                if(AngelicaConfig.enableIris)  buffers.iris$setMaterialId(properties.getMaterialId(block, blockId), ExtendedDataHelper.FLUID_RENDER_TYPE);
 
                                 if (cache.getFluidRenderer().render(slice, cache.getWorldSlice(), block, pos, buffers.get(pass))) {
                                     bounds.addBlock(relX, relY, relZ);
@@ -214,7 +247,7 @@ public class ChunkRenderRebuildTask<T extends ChunkGraphicsState> extends ChunkR
                         }
                     }
 
-                    if (block.isOpaqueCube()) {
+                    if ((flags & BlockRenderProperties.OPAQUE_CUBE) != 0) {
                         occluder.markClosed(pos);
                     }
                 }
@@ -228,13 +261,14 @@ public class ChunkRenderRebuildTask<T extends ChunkGraphicsState> extends ChunkR
         handleRenderBlocksTextures(renderBlocks, renderData);
 
         if(hasMainThreadBlocks) {
-            // Render the other blocks on the main thread
+            // Render the other blocks on the main thread, which serves the requests of all workers in one batch per frame
             var future = CompletableFuture.runAsync(() -> this.performMainBuild(cache, buffers, cancellationSource, bounds, renderData, mainThreadBlocks), AngelicaRenderQueue.executor());
-            while(!future.isDone() && !cancellationSource.isCancelled()) {
+            // Always wait for the main thread to be done with our buffers, it stops early once cancelled
+            while(!future.isDone()) {
                 try {
                     future.get();
                 } catch(InterruptedException e) {
-                    // go around and check cancellation
+                    // go around and check again
                 } catch(ExecutionException e) {
                     throw new RuntimeException(e);
                 }
@@ -257,7 +291,17 @@ public class ChunkRenderRebuildTask<T extends ChunkGraphicsState> extends ChunkR
         renderData.setOcclusionData(occluder.build());
         renderData.setBounds(bounds.build(this.render.getChunkPos()));
 
-        return new ChunkBuildResult<>(this.render, renderData.build());
+        final ChunkRenderData data = renderData.build();
+
+        // Sections with main thread blocks may render differently depending on state outside of the cloned data
+        if (cacheable && !hasMainThreadBlocks) {
+            this.meshCache.put(this.context.getOrigin().asLong(), contentHash, data);
+        } else if (this.meshCache != null) {
+            // Don't hold on to an older build which would otherwise be cached once the section unloads
+            this.meshCache.remove(this.context.getOrigin().asLong());
+        }
+
+        return new ChunkBuildResult<>(this.render, data);
     }
 
     /**
@@ -271,6 +315,7 @@ public class ChunkRenderRebuildTask<T extends ChunkGraphicsState> extends ChunkR
         final int baseZ = this.render.getOriginZ();
         final BlockPos renderOffset = this.offset;
         final RenderBlocks rb = new RenderBlocks(slice.getWorld());
+        final BlockRenderProperties properties = BlockRenderProperties.get();
         if(rb instanceof ITexturesCache textureCache) {
             textureCache.enableTextureTracking();
             AnimationsRenderUtils.pushCache(textureCache);
@@ -285,13 +330,15 @@ public class ChunkRenderRebuildTask<T extends ChunkGraphicsState> extends ChunkR
             final int relY = pos.getY() - baseY;
             final int relZ = pos.getZ() - baseZ;
             final Block block = slice.getBlockRelative(relX + 16, relY + 16, relZ + 16);
+            final int blockId = Block.getIdFromBlock(block);
+            final int flags = properties.getFlags(block, blockId);
 
             // Only render blocks that need main thread assistance
-            if (block.getMaterial() == Material.air || rendersOffThread(block)) {
+            if (block.getMaterial() == Material.air || rendersOffThread(flags)) {
                 continue;
             }
 
-            // TODO: Collect data on which render types are hitting this code path most often so mods can be updated slowly
+            MainThreadBlockTelemetry.record(block);
 
             final int meta = slice.getBlockMetadataRelative(relX + 16, relY + 16, relZ + 16);
 
@@ -300,10 +347,10 @@ public class ChunkRenderRebuildTask<T extends ChunkGraphicsState> extends ChunkR
 
             // Do regular block rendering
             for (BlockRenderPass pass : BlockRenderPass.VALUES) {
-                if (canRenderInPass(block, pass) && !shouldUseSodiumFluidRendering(block)) {
+                if (canRenderInPass(block, flags, pass) && !shouldUseSodiumFluidRendering(flags)) {
                     ChunkRenderManager.setWorldRenderPass(pass);
                     final long seed = MathUtil.hashPos(pos.x, pos.y, pos.z);
-                    if(AngelicaConfig.enableIris) buffers.iris$setMaterialId(block, ExtendedDataHelper.BLOCK_RENDER_TYPE);
+                    if(AngelicaConfig.enableIris) buffers.iris$setMaterialId(properties.getMaterialId(block, blockId), ExtendedDataHelper.BLOCK_RENDER_TYPE);
 
                     if (cache.getBlockRenderer().renderModel(slice.getWorld(), rb, block, meta, pos, buffers.get(pass), true, seed)) {
                         bounds.addBlock(relX, relY, relZ);
@@ -338,7 +385,7 @@ public class ChunkRenderRebuildTask<T extends ChunkGraphicsState> extends ChunkR
             + '}';
     }
 
-    private static boolean shouldUseSodiumFluidRendering(Block block) {
-        return AngelicaConfig.enableSodiumFluidRendering && WorldUtil.isFluidBlock(block);
+    private static boolean shouldUseSodiumFluidRendering(int flags) {
+        return AngelicaConfig.enableSodiumFluidRendering && (flags & BlockRenderProperties.FLUID) != 0;
     }
 }
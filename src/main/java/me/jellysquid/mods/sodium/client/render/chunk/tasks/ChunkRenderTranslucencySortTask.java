@@ -54,13 +54,26 @@ public class ChunkRenderTranslucencySortTask<T extends ChunkGraphicsState> exten
                 final ChunkGraphicsState state = this.render.getGraphicsState(pass);
                 if(state == null)
                     continue;
-                final ByteBuffer translucencyData = state.getTranslucencyData();
-                if(translucencyData == null)
-                    continue;
                 final ChunkMeshData translucentMesh = data.getMesh(pass);
                 if(translucentMesh == null)
                     continue;
 
+                final float[] centroids = state.getTranslucencyCentroids();
+                if(centroids != null) {
+                    // Only the draw order changes, so just build a new index buffer and leave the vertex data alone
+                    final ChunkMeshData newMesh = new ChunkMeshData();
+                    newMesh.setIndexData(ChunkBufferSorter.createSortedIndexBuffer(centroids, (float) camera.x - offset.getX(), (float) camera.y - offset.getY(), (float) camera.z - offset.getZ()), centroids);
+                    for(Map.Entry<ModelQuadFacing, BufferSlice> entry : translucentMesh.getSlices()) {
+                        newMesh.setModelSlice(entry.getKey(), entry.getValue());
+                    }
+                    replacementMeshes.put(pass, newMesh);
+                    continue;
+                }
+
+                final ByteBuffer translucencyData = state.getTranslucencyData();
+                if(translucencyData == null)
+                    continue;
+
                 // Make a snapshot of the translucency data to sort
                 final ByteBuffer sortedData = BufferUtils.createByteBuffer(translucencyData.capacity());
                 synchronized (translucencyData) {
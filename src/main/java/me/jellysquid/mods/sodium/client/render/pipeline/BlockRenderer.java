@@ -33,12 +33,28 @@ import net.minecraft.client.renderer.texture.TextureAtlasSprite;
 import net.minecraft.world.IBlockAccess;
 import net.minecraftforge.common.util.ForgeDirection;
 
+import java.util.Arrays;
 import java.util.List;
 import java.util.Random;
 
 public class BlockRenderer {
     private static final BlockPos POS_ZERO = new BlockPos(0, 0, 0);
 
+    // Maps a quad's cull face (by ForgeDirection ordinal) to the ModelQuadFacing bucket it is written to
+    private static final int[] FACING_BY_DIRECTION = new int[ForgeDirection.values().length];
+
+    static {
+        Arrays.fill(FACING_BY_DIRECTION, -1);
+
+        for (ModelQuadFacing facing : ModelQuadFacing.VALUES) {
+            final ForgeDirection dir = ModelQuadFacing.toDirection(facing);
+
+            if (dir != null) {
+                FACING_BY_DIRECTION[dir.ordinal()] = facing.ordinal();
+            }
+        }
+    }
+
     private final Random random = new XoRoShiRoRandom();
 
     private final QuadLightData cachedQuadLightData = new QuadLightData();
@@ -51,6 +67,10 @@ public class BlockRenderer {
     private final BlockOcclusionCache occlusionCache;
 
     private final ObjectPooler<QuadView> quadPool = new ObjectPooler<>(Quad::new);
+
+    // Re-usable per-facing lists of indices into the captured quad list, filled in a single pass over the quads
+    private final int[][] facingBuckets = new int[ModelQuadFacing.COUNT][16];
+    private final int[] facingBucketSizes = new int[ModelQuadFacing.COUNT];
     // TODO: Use modern model API, and store them here
 
 
@@ -105,10 +125,8 @@ public class BlockRenderer {
                 final List<QuadView> quads = TessellatorManager.stopCapturingToPooledQuads();
                 tess.resetOffset();
 
-                for (ModelQuadFacing facing : ModelQuadFacing.VALUES) {
-                    this.random.setSeed(seed);
-                    this.renderQuadList(pos, lighter, buffers, quads, facing, (this.useAmbientOcclusion && this.useSodiumAO));
-                }
+                this.random.setSeed(seed);
+                this.renderCapturedQuads(pos, lighter, buffers, quads, (this.useAmbientOcclusion && this.useSodiumAO));
 
                 if (!quads.isEmpty()) rendered = true;
             } finally {
@@ -119,6 +137,67 @@ public class BlockRenderer {
         return rendered;
     }
 
+    /**
+     * Partitions the captured quads by their facing in one pass, then writes each non-empty bucket to its sink.
+     */
+    private void renderCapturedQuads(BlockPos pos, LightPipeline lighter, ChunkModelBuffers buffers, List<QuadView> quads, boolean useSodiumLight) {
+        final int[][] buckets = this.facingBuckets;
+        final int[] sizes = this.facingBucketSizes;
+
+        Arrays.fill(sizes, 0);
+
+        // noinspection ForLoopReplaceableByForEach
+        for (int i = 0, quadsSize = quads.size(); i < quadsSize; i++) {
+            final ForgeDirection face = quads.get(i).getFace();
+
+            if (face == null) {
+                continue;
+            }
+
+            final int facing = FACING_BY_DIRECTION[face.ordinal()];
+
+            if (facing < 0) {
+                continue;
+            }
+
+            int[] bucket = buckets[facing];
+
+            if (sizes[facing] == bucket.length) {
+                bucket = buckets[facing] = Arrays.copyOf(bucket, bucket.length * 2);
+            }
+
+            bucket[sizes[facing]++] = i;
+        }
+
+        final ChunkRenderData.Builder renderData = buffers.getRenderData();
+        final QuadLightData light = this.cachedQuadLightData;
+
+        for (ModelQuadFacing facing : ModelQuadFacing.VALUES) {
+            final int count = sizes[facing.ordinal()];
+
+            if (count == 0) {
+                continue;
+            }
+
+            final int[] bucket = buckets[facing.ordinal()];
+            final ForgeDirection cullFace = ModelQuadFacing.toDirection(facing);
+
+            final ModelVertexSink sink = buffers.getSink(facing);
+            sink.ensureCapacity(count * 4);
+
+            for (int i = 0; i < count; i++) {
+                final QuadView quad = quads.get(bucket[i]);
+
+                if (useSodiumLight || this.useSeparateAo)
+                    lighter.calculate(quad, pos, light, cullFace, quad.getLightFace(), quad.isShade());
+
+                this.renderQuad(sink, quad, light, renderData, useSodiumLight);
+            }
+
+            sink.flush();
+        }
+    }
+
     private void renderQuadList(BlockPos pos, LightPipeline lighter, ChunkModelBuffers buffers, List<QuadView> quads, ModelQuadFacing facing, boolean useSodiumLight) {
         final ForgeDirection cullFace = ModelQuadFacing.toDirection(facing);
 
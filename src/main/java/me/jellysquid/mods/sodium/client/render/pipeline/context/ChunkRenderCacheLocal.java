@@ -1,5 +1,9 @@
 package me.jellysquid.mods.sodium.client.render.pipeline.context;
 
+import com.gtnewhorizons.angelica.config.AngelicaConfig;
+import com.gtnewhorizons.angelica.dynamiclights.DynamicLightsSnapshot;
+import com.prupe.mcpatcher.ctm.CTMRenderContext;
+import jss.notfine.config.MCPatcherForgeConfig;
 import lombok.Getter;
 import me.jellysquid.mods.sodium.client.model.light.LightPipelineProvider;
 import me.jellysquid.mods.sodium.client.model.light.cache.ArrayLightDataCache;
@@ -21,6 +25,9 @@ public class ChunkRenderCacheLocal extends ChunkRenderCache {
     @Getter
     private final WorldSlice worldSlice;
 
+    // Connected-texture lookup state owned by this worker, so that CTM resolution doesn't serialize across builders
+    private final CTMRenderContext ctmContext;
+
     public ChunkRenderCacheLocal(Minecraft client, WorldClient world) {
         this.worldSlice = new WorldSlice(world);
         this.lightDataCache = new ArrayLightDataCache(this.worldSlice);
@@ -30,11 +37,20 @@ public class ChunkRenderCacheLocal extends ChunkRenderCache {
         this.blockRenderer = new BlockRenderer(lightPipelineProvider);
         this.fluidRenderer = new FluidRenderer(lightPipelineProvider);
 
+        this.ctmContext = AngelicaConfig.enableMCPatcherForgeFeatures && MCPatcherForgeConfig.ConnectedTextures.enabled ? new CTMRenderContext() : null;
     }
 
-    public void init(ChunkRenderContext context) {
-        this.lightDataCache.reset(context.getOrigin());
-        this.worldSlice.copyData(context);
+    /**
+     * @param dynamicLights The dynamic lights near the section, grabbed once so light lookups during the build don't
+     *                      need to lock
+     */
+    public void init(ChunkRenderContext context, DynamicLightsSnapshot.SectionLights dynamicLights) {
+        this.lightDataCache.reset(context.getOrigin(), dynamicLights);
+        this.worldSlice.copyData(context, dynamicLights);
+
+        if (this.ctmContext != null) {
+            this.ctmContext.makeCurrent();
+        }
     }
 
 }
@@ -1,5 +1,32 @@
 package me.jellysquid.mods.sodium.client.util.math;
 
 public interface FrustumExtended {
+    /**
+     * Returned by {@link #intersectAabb} when the box is entirely outside the frustum.
+     */
+    int OUTSIDE = -1;
+
+    /**
+     * A plane mask which includes all six planes of the frustum.
+     */
+    int ALL_PLANES = 0b111111;
+
     boolean fastAabbTest(float minX, float minY, float minZ, float maxX, float maxY, float maxZ);
+
+    /**
+     * Tests a box against the planes of the frustum which are included in the given mask. Planes which the box lies
+     * entirely inside of are removed from the returned mask, so that anything contained by the box only needs to be
+     * tested against the planes which remain. A result of zero means the box is fully inside the frustum.
+     *
+     * Implementations which can't test planes individually treat every plane as intersecting.
+     *
+     * @return The mask of planes which intersect the box, or {@link #OUTSIDE}
+     */
+    default int intersectAabb(float minX, float minY, float minZ, float maxX, float maxY, float maxZ, int planeMask) {
+        if (planeMask == 0) {
+            return 0;
+        }
+
+        return this.fastAabbTest(minX, minY, minZ, maxX, maxY, maxZ) ? planeMask : OUTSIDE;
+    }
 }
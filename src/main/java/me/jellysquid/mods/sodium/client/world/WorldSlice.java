@@ -5,6 +5,8 @@ import java.util.Arrays;
 import com.gtnewhorizons.angelica.compat.mojang.ChunkSectionPos;
 import com.gtnewhorizons.angelica.compat.mojang.CompatMathHelper;
 import com.gtnewhorizons.angelica.dynamiclights.DynamicLights;
+import com.gtnewhorizons.angelica.dynamiclights.DynamicLightsSnapshot;
+import com.prupe.mcpatcher.mal.biome.IVersionedBlockAccess;
 import lombok.Getter;
 import me.jellysquid.mods.sodium.client.world.cloned.ChunkRenderContext;
 import me.jellysquid.mods.sodium.client.world.cloned.ClonedChunkSection;
@@ -34,7 +36,7 @@ import net.minecraftforge.common.util.ForgeDirection;
  *
  * Object pooling should be used to avoid huge allocations as this class contains many large arrays.
  */
-public class WorldSlice implements IBlockAccess {
+public class WorldSlice implements IBlockAccess, IVersionedBlockAccess {
     private static final EnumSkyBlock[] LIGHT_TYPES = EnumSkyBlock.values();
 
     // The number of blocks on each axis in a section.
@@ -89,6 +91,12 @@ public class WorldSlice implements IBlockAccess {
     @Getter
     private ChunkSectionPos origin;
 
+    // The dynamic light sources near this slice, captured when the build started
+    private DynamicLightsSnapshot.SectionLights dynamicLights = DynamicLightsSnapshot.SectionLights.EMPTY;
+
+    // Incremented every time new data is copied in, so per-slice caches (such as biome blending) know to rebuild
+    private int snapshotVersion;
+
     StructureBoundingBox volume;
 
     public static ChunkRenderContext prepare(World world, ChunkSectionPos origin, ClonedChunkSectionCache sectionCache) {
@@ -156,7 +164,9 @@ public class WorldSlice implements IBlockAccess {
         }
     }
 
-    public void copyData(ChunkRenderContext context) {
+    public void copyData(ChunkRenderContext context, DynamicLightsSnapshot.SectionLights dynamicLights) {
+        this.snapshotVersion++;
+        this.dynamicLights = dynamicLights;
         this.origin = context.getOrigin();
         this.sections = context.getSections();
         this.volume = context.getVolume();
@@ -183,6 +193,11 @@ public class WorldSlice implements IBlockAccess {
         }
     }
 
+    @Override
+    public int getSnapshotVersion() {
+        return this.snapshotVersion;
+    }
+
     @Override
     public int getLightBrightnessForSkyBlocks(int x, int y, int z, int min) {
         if (y < 0 || y >= 256 || x < -30_000_000 || z < -30_000_000 || x >= 30_000_000 || z >= 30_000_000) {
@@ -197,8 +212,8 @@ public class WorldSlice implements IBlockAccess {
             blockBrightness = min;
         }
 
-        if (DynamicLights.isEnabled() && !getBlock(x, y, z).isOpaqueCube()) {
-            return DynamicLights.get().getLightmapWithDynamicLight(x, y, z, (skyBrightness << 20 | blockBrightness << 4));
+        if (DynamicLights.isEnabled() && !this.dynamicLights.isEmpty() && !getBlock(x, y, z).isOpaqueCube()) {
+            return DynamicLights.get().getLightmapWithDynamicLight(this.dynamicLights.getDynamicLightLevel(x, y, z), (skyBrightness << 20 | blockBrightness << 4));
         }
 
         return skyBrightness << 20 | blockBrightness << 4;
@@ -1,6 +1,7 @@
 package me.jellysquid.mods.sodium.client.world.cloned;
 
 import com.gtnewhorizons.angelica.compat.mojang.ChunkSectionPos;
+import it.unimi.dsi.fastutil.HashCommon;
 import net.minecraft.world.gen.structure.StructureBoundingBox;
 
 public class ChunkRenderContext {
@@ -26,6 +27,36 @@ public class ChunkRenderContext {
         return this.volume;
     }
 
+    /**
+     * @return True if any of the copied sections contain tile entities, whose state can change how blocks render
+     */
+    public boolean hasTileEntities() {
+        for (ClonedChunkSection section : this.sections) {
+            if (section != null && section.hasTileEntities()) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * @return A hash of the contents of every copied section, see {@link ClonedChunkSection#getContentHash()}
+     */
+    public long getContentHash() {
+        long hash = 0L;
+
+        for (int i = 0; i < this.sections.length; i++) {
+            final ClonedChunkSection section = this.sections[i];
+
+            if (section != null) {
+                hash = HashCommon.mix(hash ^ section.getContentHash()) + i;
+            }
+        }
+
+        return hash;
+    }
+
     public void releaseResources() {
         for (ClonedChunkSection section : sections) {
             if (section != null) {
@@ -4,6 +4,7 @@ import com.falsepattern.endlessids.mixin.helpers.ChunkBiomeHook;
 import com.gtnewhorizons.angelica.compat.ExtendedBlockStorageExt;
 import com.gtnewhorizons.angelica.compat.ModStatus;
 import com.gtnewhorizons.angelica.compat.mojang.ChunkSectionPos;
+import it.unimi.dsi.fastutil.HashCommon;
 import it.unimi.dsi.fastutil.shorts.Short2ObjectMap;
 import it.unimi.dsi.fastutil.shorts.Short2ObjectOpenHashMap;
 import lombok.Getter;
@@ -31,19 +32,28 @@ public class ClonedChunkSection {
     private final World world;
 
     private ChunkSectionPos pos;
+    private long version;
 
     @Getter
     private BiomeGenBase[] biomeData;
 
     private long lastUsedTimestamp = Long.MAX_VALUE;
 
+    // Computed lazily by whichever worker needs it first, and reset whenever the section is re-used for another copy
+    private volatile boolean hasContentHash;
+    private long contentHash;
+
     ClonedChunkSection(ClonedChunkSectionCache backingCache, World world) {
         this.backingCache = backingCache;
         this.world = world;
         this.tileEntities = new Short2ObjectOpenHashMap<>();
     }
 
-    public void init(ChunkSectionPos pos) {
+    /**
+     * Copies the given section out of the world, re-using the storage of any data this section held previously.
+     * @param version The modification version of the section being copied
+     */
+    public void init(ChunkSectionPos pos, long version) {
         final Chunk chunk = world.getChunkFromChunkCoords(pos.x, pos.z);
 
         if (chunk == null) {
@@ -57,7 +67,14 @@ public class ClonedChunkSection {
         }
 
         this.pos = pos;
-        this.data = new ExtendedBlockStorageExt(chunk, section);
+        this.version = version;
+        this.hasContentHash = false;
+
+        if (this.data == null) {
+            this.data = new ExtendedBlockStorageExt(chunk, section);
+        } else {
+            this.data.copyFrom(chunk, section);
+        }
 
         int bArrLength;
         if (ModStatus.isEIDBiomeLoaded) {
@@ -65,25 +82,29 @@ public class ClonedChunkSection {
         } else {
             bArrLength = chunk.getBiomeArray().length;
         }
-        this.biomeData = new BiomeGenBase[bArrLength];
+        if (this.biomeData == null || this.biomeData.length != bArrLength) {
+            this.biomeData = new BiomeGenBase[bArrLength];
+        }
 
         this.tileEntities.clear();
 
-        // Check for tile entities
-        for(int y = pos.getMinY(); y <= pos.getMaxY(); y++) {
-            for(int z = pos.getMinZ(); z <= pos.getMaxZ(); z++) {
-                for(int x = pos.getMinX(); x <= pos.getMaxX(); x++) {
-                    int lX = x & 15, lY = y & 15, lZ = z & 15;
-                    // We have to use this insanity because in 1.7 the tile entity isn't guaranteed to be created
-                    // when the chunk gets scheduled for rendering. So we might have to create it.
-                    // Cloning is done on the main thread so this will not introduce threading issues
-                    Block block = data.getBlockByExtId(lX, lY, lZ);
-                    if(block.hasTileEntity(data.getExtBlockMetadata(lX, lY, lZ))) {
-                        TileEntity tileentity = chunk.func_150806_e(x & 15, y, z & 15);
-
-                        if (tileentity != null)
-                        {
-                            this.tileEntities.put(ChunkSectionPos.packLocal(tileentity.xCoord & 15, tileentity.yCoord & 15, tileentity.zCoord & 15), tileentity);
+        // Check for tile entities, of which there can't be any if the section has no blocks at all
+        if (!section.isEmpty()) {
+            for(int y = pos.getMinY(); y <= pos.getMaxY(); y++) {
+                for(int z = pos.getMinZ(); z <= pos.getMaxZ(); z++) {
+                    for(int x = pos.getMinX(); x <= pos.getMaxX(); x++) {
+                        int lX = x & 15, lY = y & 15, lZ = z & 15;
+                        // We have to use this insanity because in 1.7 the tile entity isn't guaranteed to be created
+                        // when the chunk gets scheduled for rendering. So we might have to create it.
+                        // Cloning is done on the main thread so this will not introduce threading issues
+                        Block block = data.getBlockByExtId(lX, lY, lZ);
+                        if(block.hasTileEntity(data.getExtBlockMetadata(lX, lY, lZ))) {
+                            TileEntity tileentity = chunk.func_150806_e(x & 15, y, z & 15);
+
+                            if (tileentity != null)
+                            {
+                                this.tileEntities.put(ChunkSectionPos.packLocal(tileentity.xCoord & 15, tileentity.yCoord & 15, tileentity.zCoord & 15), tileentity);
+                            }
                         }
                     }
                 }
@@ -122,6 +143,72 @@ public class ClonedChunkSection {
         return this.tileEntities.get(packLocal(x, y, z));
     }
 
+    public boolean hasTileEntities() {
+        return !this.tileEntities.isEmpty();
+    }
+
+    /**
+     * @return A hash of the blocks, metadata, light and biomes copied into this section. Tile entities are not
+     * included, so sections which contain any must not be identified by this.
+     */
+    public long getContentHash() {
+        if (!this.hasContentHash) {
+            this.contentHash = this.computeContentHash();
+            this.hasContentHash = true;
+        }
+
+        return this.contentHash;
+    }
+
+    private long computeContentHash() {
+        long hash = 0x9E3779B97F4A7C15L;
+
+        // Go through the accessors for blocks, since mods may store them in arrays of their own
+        for (int y = 0; y < 16; y++) {
+            for (int z = 0; z < 16; z++) {
+                for (int x = 0; x < 16; x++) {
+                    final int id = Block.getIdFromBlock(this.data.getBlockByExtId(x, y, z));
+                    final int meta = this.data.getExtBlockMetadata(x, y, z);
+
+                    hash = mixHash(hash, ((long) id << 32) | (meta & 0xffffffffL));
+                }
+            }
+        }
+
+        hash = hashNibbles(hash, this.data.getBlocklightArray());
+        hash = hashNibbles(hash, this.data.hasSky ? this.data.getSkylightArray() : null);
+
+        for (BiomeGenBase biome : this.biomeData) {
+            hash = mixHash(hash, biome != null ? biome.biomeID : -1);
+        }
+
+        return hash;
+    }
+
+    private static long hashNibbles(long hash, NibbleArray array) {
+        if (array == null) {
+            return mixHash(hash, -1L);
+        }
+
+        final byte[] data = array.data;
+
+        for (int i = 0; i + 8 <= data.length; i += 8) {
+            long value = 0L;
+
+            for (int j = 0; j < 8; j++) {
+                value = (value << 8) | (data[i + j] & 0xffL);
+            }
+
+            hash = mixHash(hash, value);
+        }
+
+        return hash;
+    }
+
+    private static long mixHash(long hash, long value) {
+        return HashCommon.mix(hash ^ value);
+    }
+
     public ChunkSectionPos getPosition() {
         return this.pos;
     }
@@ -138,8 +225,33 @@ public class ClonedChunkSection {
         return null;
     }
 
-    public void acquireReference() {
-        this.referenceCount.incrementAndGet();
+    /**
+     * @return True if this section is the given copy of a section, and can be shared instead of being cloned again
+     */
+    public boolean matches(long pos, long version) {
+        return this.pos != null && this.pos.asLong() == pos && this.version == version;
+    }
+
+    public void resetReferences() {
+        this.referenceCount.set(1);
+    }
+
+    /**
+     * Takes a reference to this section unless it has already been released by everything holding one, in which case
+     * it may be recycled at any moment and must not be used.
+     */
+    public boolean tryAcquireReference() {
+        int count;
+
+        do {
+            count = this.referenceCount.get();
+
+            if (count <= 0) {
+                return false;
+            }
+        } while (!this.referenceCount.compareAndSet(count, count + 1));
+
+        return true;
     }
 
     public boolean releaseReference() {
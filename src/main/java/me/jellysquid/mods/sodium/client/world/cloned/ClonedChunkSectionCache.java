@@ -1,70 +1,130 @@
 package me.jellysquid.mods.sodium.client.world.cloned;
 
 import com.gtnewhorizons.angelica.compat.mojang.ChunkSectionPos;
-import it.unimi.dsi.fastutil.longs.Long2ReferenceLinkedOpenHashMap;
+import com.gtnewhorizons.angelica.mixins.interfaces.IChunkSectionVersions;
+import it.unimi.dsi.fastutil.HashCommon;
 import net.minecraft.world.World;
 
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.TimeUnit;
-
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A direct-mapped cache of cloned chunk sections. Each entry is tagged with the modification version of the section
+ * it was copied from (see {@link IChunkSectionVersions}), so an unchanged section is handed out to any number of
+ * rebuild contexts without being copied again, while a modified one simply misses. Lookups don't take any locks.
+ *
+ * Sections are reference counted, with the cache holding one reference for as long as a section is in its slot. Once a
+ * section has been evicted and every context using it has been released, it is returned to a pool so that its storage
+ * can be re-used by the next clone.
+ */
 public class ClonedChunkSectionCache {
-    private static final int MAX_CACHE_SIZE = 512; /* number of entries */
+    private static final int CACHE_SIZE = 1024; /* number of slots, must be a power of two */
+    private static final int MAX_POOL_SIZE = 256; /* number of entries */
     private static final long MAX_CACHE_DURATION = TimeUnit.SECONDS.toNanos(5); /* number of nanoseconds */
 
     private final World world;
 
-    private final Long2ReferenceLinkedOpenHashMap<ClonedChunkSection> byPosition = new Long2ReferenceLinkedOpenHashMap<>();
-    private long time; // updated once per frame to be the elapsed time since application start
+    private final AtomicReferenceArray<ClonedChunkSection> slots = new AtomicReferenceArray<>(CACHE_SIZE);
+
+    private final ConcurrentLinkedQueue<ClonedChunkSection> pool = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pooledCount = new AtomicInteger();
+
+    private volatile long time; // updated once per frame to be the elapsed time since application start
 
     public ClonedChunkSectionCache(World world) {
         this.world = world;
         this.time = getMonotonicTimeSource();
     }
 
-    public synchronized void cleanup() {
-        this.time = getMonotonicTimeSource();
-        this.byPosition.values().removeIf(entry -> this.time > (entry.getLastUsedTimestamp() + MAX_CACHE_DURATION));
-    }
+    public void cleanup() {
+        final long time = getMonotonicTimeSource();
+        this.time = time;
 
-    public synchronized ClonedChunkSection acquire(int x, int y, int z) {
-        long key = ChunkSectionPos.asLong(x, y, z);
-        ClonedChunkSection section = this.byPosition.get(key);
+        for (int i = 0; i < CACHE_SIZE; i++) {
+            final ClonedChunkSection section = this.slots.get(i);
 
-        if (section == null) {
-            while (this.byPosition.size() >= MAX_CACHE_SIZE) {
-                this.byPosition.removeFirst();
+            if (section != null && time > (section.getLastUsedTimestamp() + MAX_CACHE_DURATION)) {
+                this.evict(i, section);
             }
-
-            section = this.createSection(x, y, z);
         }
+    }
 
-        section.setLastUsedTimestamp(this.time);
+    public ClonedChunkSection acquire(int x, int y, int z) {
+        final long key = ChunkSectionPos.asLong(x, y, z);
+        final long version = ((IChunkSectionVersions) this.world.getChunkFromChunkCoords(x, z)).angelica$getSectionVersion(y);
 
-        return section;
-    }
+        final int slot = getSlot(key);
+        final ClonedChunkSection cached = this.slots.get(slot);
+
+        if (cached != null && cached.matches(key, version) && cached.tryAcquireReference()) {
+            cached.setLastUsedTimestamp(this.time);
 
-    private ClonedChunkSection createSection(int x, int y, int z) {
-        ClonedChunkSection section = this.allocate();
+            return cached;
+        }
+
+        final ClonedChunkSection section = this.allocate();
+        section.init(ChunkSectionPos.from(x, y, z), version);
+        section.setLastUsedTimestamp(this.time);
 
-        ChunkSectionPos pos = ChunkSectionPos.from(x, y, z);
-        section.init(pos);
+        // One reference for the cache and one for the caller
+        section.resetReferences();
+        section.tryAcquireReference();
 
-        this.byPosition.putAndMoveToLast(pos.asLong(), section);
+        if (this.slots.compareAndSet(slot, cached, section)) {
+            if (cached != null) {
+                this.release(cached);
+            }
+        } else {
+            // Someone else replaced the slot first, so this copy belongs to the caller alone
+            this.release(section);
+        }
 
         return section;
     }
 
-    public synchronized void invalidate(int x, int y, int z) {
-        this.byPosition.remove(ChunkSectionPos.asLong(x, y, z));
+    public void invalidate(int x, int y, int z) {
+        final long key = ChunkSectionPos.asLong(x, y, z);
+        final int slot = getSlot(key);
+
+        final ClonedChunkSection section = this.slots.get(slot);
+
+        // The section would no longer match anyways, but dropping it now lets it be recycled sooner
+        if (section != null && section.getPosition().asLong() == key) {
+            this.evict(slot, section);
+        }
     }
 
     public void release(ClonedChunkSection section) {
+        if (section.releaseReference() && this.pooledCount.get() < MAX_POOL_SIZE) {
+            this.pooledCount.incrementAndGet();
+            this.pool.offer(section);
+        }
+    }
 
+    private void evict(int slot, ClonedChunkSection section) {
+        if (this.slots.compareAndSet(slot, section, null)) {
+            this.release(section);
+        }
     }
 
     private ClonedChunkSection allocate() {
+        final ClonedChunkSection section = this.pool.poll();
+
+        if (section != null) {
+            this.pooledCount.decrementAndGet();
+
+            return section;
+        }
+
         return new ClonedChunkSection(this, this.world);
     }
 
+    private static int getSlot(long key) {
+        return (int) HashCommon.mix(key) & (CACHE_SIZE - 1);
+    }
+
     private static long getMonotonicTimeSource() {
         // Should be monotonic in JDK 17 on sane platforms...
         return System.nanoTime();
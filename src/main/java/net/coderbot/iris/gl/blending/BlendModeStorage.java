@@ -39,6 +39,9 @@ public class BlendModeStorage {
             originalBlend.set(GLStateManager.getBlendState());
 		}
 
+		// The per-buffer state is set directly, so a pending global blend change must not be issued over it later
+		GLStateManager.flushState();
+
 		if (override == null) {
 			RenderSystem.disableBufferBlend(index);
 		} else {
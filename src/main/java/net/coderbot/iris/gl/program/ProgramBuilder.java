@@ -5,10 +5,12 @@ import com.gtnewhorizons.angelica.glsm.RenderSystem;
 import net.coderbot.iris.gl.image.ImageHolder;
 import net.coderbot.iris.gl.sampler.SamplerHolder;
 import net.coderbot.iris.gl.shader.GlShader;
+import net.coderbot.iris.gl.shader.ProgramBinaryCache;
 import net.coderbot.iris.gl.shader.ProgramCreator;
 import net.coderbot.iris.gl.shader.ShaderType;
 import net.coderbot.iris.gl.state.ValueUpdateNotifier;
 import net.coderbot.iris.gl.texture.InternalTextureFormat;
+import net.coderbot.iris.shaderpack.loading.ShaderLoadTimings;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.function.IntSupplier;
@@ -32,6 +34,18 @@ public class ProgramBuilder extends ProgramUniforms.Builder implements SamplerHo
 
 	public static ProgramBuilder begin(String name, @Nullable String vertexSource, @Nullable String geometrySource,
 									   @Nullable String fragmentSource, ImmutableSet<Integer> reservedTextureUnits) {
+		long compileStart = System.nanoTime();
+		final String binaryKey = ProgramBinaryCache.getKey("program", vertexSource, geometrySource, fragmentSource);
+
+		if (binaryKey != null) {
+			final int cachedProgram = ProgramBinaryCache.load(name, binaryKey);
+
+			if (cachedProgram != 0) {
+				ShaderLoadTimings.record(ShaderLoadTimings.Stage.COMPILE, compileStart);
+				return new ProgramBuilder(name, cachedProgram, reservedTextureUnits);
+			}
+		}
+
 		GlShader vertex;
 		GlShader geometry;
 		GlShader fragment;
@@ -62,6 +76,12 @@ public class ProgramBuilder extends ProgramUniforms.Builder implements SamplerHo
 
 		fragment.destroy();
 
+		if (binaryKey != null) {
+			ProgramBinaryCache.store(programId, binaryKey);
+		}
+
+		ShaderLoadTimings.record(ShaderLoadTimings.Stage.COMPILE, compileStart);
+
 		return new ProgramBuilder(name, programId, reservedTextureUnits);
 	}
 
@@ -0,0 +1,107 @@
+package net.coderbot.iris.gl.shader;
+
+import com.gtnewhorizons.angelica.config.AngelicaConfig;
+import com.gtnewhorizons.angelica.glsm.GLStateManager;
+import net.coderbot.iris.pipeline.transform.ShaderDiskCache;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.lwjgl.BufferUtils;
+import org.lwjgl.opengl.ARBGetProgramBinary;
+import org.lwjgl.opengl.GL11;
+import org.lwjgl.opengl.GL20;
+
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+
+/**
+ * Stores linked program binaries in the on-disk shader cache when GL_ARB_get_program_binary is available, so that
+ * programs whose sources haven't changed can skip compilation and linking entirely.
+ */
+public class ProgramBinaryCache {
+	private static final Logger LOGGER = LogManager.getLogger(ProgramBinaryCache.class);
+
+	private static ShaderDiskCache cache;
+
+	public static boolean isEnabled() {
+		if (!AngelicaConfig.enableShaderDiskCache) {
+			return false;
+		}
+
+		try {
+			return GLStateManager.capabilities.GL_ARB_get_program_binary;
+		} catch (Exception ignored) {
+			return false;
+		}
+	}
+
+	private static ShaderDiskCache getCache() {
+		if (cache == null) {
+			cache = new ShaderDiskCache("programs", AngelicaConfig.shaderDiskCacheSizeMB * 1024L * 1024L);
+		}
+
+		return cache;
+	}
+
+	/**
+	 * Returns the cache key for a program built from the given sources, or null if binaries can't be cached.
+	 */
+	public static String getKey(String... sources) {
+		return isEnabled() ? ShaderDiskCache.hash(sources) : null;
+	}
+
+	/**
+	 * Creates a program from a cached binary, or returns 0 if there is no usable binary for the key. Drivers may
+	 * reject binaries after an update, in which case the stale entry is simply overwritten once the program is
+	 * linked from source again.
+	 */
+	public static int load(String name, String key) {
+		final byte[] data = getCache().get(key);
+
+		if (data == null || data.length <= 4) {
+			return 0;
+		}
+
+		final ByteBuffer buffer = BufferUtils.createByteBuffer(data.length);
+		buffer.put(data).flip();
+
+		final int format = buffer.getInt();
+		final int program = GL20.glCreateProgram();
+
+		ARBGetProgramBinary.glProgramBinary(program, format, buffer);
+
+		if (GL20.glGetProgrami(program, GL20.GL_LINK_STATUS) != GL11.GL_TRUE) {
+			LOGGER.debug("Cached binary for program {} was rejected by the driver", name);
+			GL20.glDeleteProgram(program);
+			return 0;
+		}
+
+		return program;
+	}
+
+	/**
+	 * Marks a program as retrievable. Must be called before the program is linked.
+	 */
+	public static void prepare(int program) {
+		ARBGetProgramBinary.glProgramParameteri(program, ARBGetProgramBinary.GL_PROGRAM_BINARY_RETRIEVABLE_HINT, GL11.GL_TRUE);
+	}
+
+	public static void store(int program, String key) {
+		final int length = GL20.glGetProgrami(program, ARBGetProgramBinary.GL_PROGRAM_BINARY_LENGTH);
+
+		if (length <= 0) {
+			return;
+		}
+
+		final IntBuffer written = BufferUtils.createIntBuffer(1);
+		final IntBuffer format = BufferUtils.createIntBuffer(1);
+		final ByteBuffer binary = BufferUtils.createByteBuffer(length);
+
+		ARBGetProgramBinary.glGetProgramBinary(program, written, format, binary);
+
+		final byte[] data = new byte[4 + written.get(0)];
+		ByteBuffer.wrap(data).putInt(format.get(0));
+		binary.get(data, 4, written.get(0));
+
+		getCache().put(key, data);
+	}
+}
@@ -16,6 +16,10 @@ public class ProgramCreator {
 	public static int create(String name, GlShader... shaders) {
 		int program = GL20.glCreateProgram();
 
+		if (ProgramBinaryCache.isEnabled()) {
+			ProgramBinaryCache.prepare(program);
+		}
+
 		// TODO: This is *really* hardcoded, we need to refactor this to support external calls to glBindAttribLocation
 		RenderSystem.bindAttributeLocation(program, 11, "mc_Entity");
 		RenderSystem.bindAttributeLocation(program, 12, "mc_midTexCoord");
@@ -0,0 +1,168 @@
+package net.coderbot.iris.gl.uniform;
+
+import net.coderbot.iris.uniforms.SystemTimeUniforms;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.BooleanSupplier;
+import java.util.function.IntSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Values of {@link UniformUpdateFrequency#PER_FRAME} uniforms, shared between the programs of a pipeline. Every
+ * program still uploads the values itself, since uniforms are program state, but the supplier registered for a name
+ * is only evaluated by the first program that is updated in a frame. The other programs read what it left behind,
+ * instead of recomputing the same camera, matrix and common uniforms once per program.
+ *
+ * Only used on the main thread.
+ */
+public final class FrameUniformSnapshot {
+	private static final Map<String, Object> values = new HashMap<>();
+
+	private FrameUniformSnapshot() {
+	}
+
+	/**
+	 * Forgets the shared values. Must be called whenever another pipeline becomes active, since the suppliers of one
+	 * pipeline may depend on its shader pack directives. Programs which were already built keep their values.
+	 */
+	public static void clear() {
+		values.clear();
+	}
+
+	static FloatSupplier shareFloat(UniformUpdateFrequency updateFrequency, String name, FloatSupplier value) {
+		if (updateFrequency != UniformUpdateFrequency.PER_FRAME) {
+			return value;
+		}
+
+		return values.computeIfAbsent(name, key -> new SharedFloat(value)) instanceof SharedFloat shared ? shared : value;
+	}
+
+	static IntSupplier shareInt(UniformUpdateFrequency updateFrequency, String name, IntSupplier value) {
+		if (updateFrequency != UniformUpdateFrequency.PER_FRAME) {
+			return value;
+		}
+
+		return values.computeIfAbsent(name, key -> new SharedInt(value)) instanceof SharedInt shared ? shared : value;
+	}
+
+	static BooleanSupplier shareBoolean(UniformUpdateFrequency updateFrequency, String name, BooleanSupplier value) {
+		if (updateFrequency != UniformUpdateFrequency.PER_FRAME) {
+			return value;
+		}
+
+		return values.computeIfAbsent(name, key -> new SharedBoolean(value)) instanceof SharedBoolean shared ? shared : value;
+	}
+
+	/**
+	 * The returned object is handed out as is, uniforms copy it into their own cached value before uploading.
+	 */
+	@SuppressWarnings("unchecked")
+	static <T> Supplier<T> shareObject(UniformUpdateFrequency updateFrequency, String name, Class<T> type, Supplier<T> value) {
+		if (updateFrequency != UniformUpdateFrequency.PER_FRAME) {
+			return value;
+		}
+
+		final Object shared = values.computeIfAbsent(name, key -> new SharedObject<>(type, value));
+
+		if (shared instanceof SharedObject<?> object && object.type == type) {
+			return (SharedObject<T>) object;
+		}
+
+		return value;
+	}
+
+	private static int currentFrame() {
+		return SystemTimeUniforms.COUNTER.getAsInt();
+	}
+
+	private static final class SharedFloat implements FloatSupplier {
+		private final FloatSupplier source;
+		private int frame = -1;
+		private float value;
+
+		private SharedFloat(FloatSupplier source) {
+			this.source = source;
+		}
+
+		@Override
+		public float getAsFloat() {
+			final int currentFrame = currentFrame();
+
+			if (frame != currentFrame) {
+				frame = currentFrame;
+				value = source.getAsFloat();
+			}
+
+			return value;
+		}
+	}
+
+	private static final class SharedInt implements IntSupplier {
+		private final IntSupplier source;
+		private int frame = -1;
+		private int value;
+
+		private SharedInt(IntSupplier source) {
+			this.source = source;
+		}
+
+		@Override
+		public int getAsInt() {
+			final int currentFrame = currentFrame();
+
+			if (frame != currentFrame) {
+				frame = currentFrame;
+				value = source.getAsInt();
+			}
+
+			return value;
+		}
+	}
+
+	private static final class SharedBoolean implements BooleanSupplier {
+		private final BooleanSupplier source;
+		private int frame = -1;
+		private boolean value;
+
+		private SharedBoolean(BooleanSupplier source) {
+			this.source = source;
+		}
+
+		@Override
+		public boolean getAsBoolean() {
+			final int currentFrame = currentFrame();
+
+			if (frame != currentFrame) {
+				frame = currentFrame;
+				value = source.getAsBoolean();
+			}
+
+			return value;
+		}
+	}
+
+	private static final class SharedObject<T> implements Supplier<T> {
+		private final Class<T> type;
+		private final Supplier<T> source;
+		private int frame = -1;
+		private T value;
+
+		private SharedObject(Class<T> type, Supplier<T> source) {
+			this.type = type;
+			this.source = source;
+		}
+
+		@Override
+		public T get() {
+			final int currentFrame = currentFrame();
+
+			if (frame != currentFrame) {
+				frame = currentFrame;
+				value = source.get();
+			}
+
+			return value;
+		}
+	}
+}
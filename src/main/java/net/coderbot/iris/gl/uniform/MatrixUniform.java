@@ -9,13 +9,14 @@ import java.util.function.Supplier;
 
 public class MatrixUniform extends Uniform {
 	private final FloatBuffer buffer = BufferUtils.createFloatBuffer(16);
-	private Matrix4f cachedValue;
+	private final Matrix4f cachedValue;
+	private boolean uploaded;
 	private final Supplier<Matrix4f> value;
 
 	MatrixUniform(int location, Supplier<Matrix4f> value) {
 		super(location);
 
-		this.cachedValue = null;
+		this.cachedValue = new Matrix4f();
 		this.value = value;
 	}
 
@@ -25,8 +26,9 @@ public class MatrixUniform extends Uniform {
         if( newValue == null ){
             throw new RuntimeException("MatrixUniform value is null");
         }
-        if (!newValue.equals(cachedValue)) {
-            cachedValue = new Matrix4f(newValue);
+        if (!uploaded || !cachedValue.equals(newValue, 0.0f)) {
+            cachedValue.set(newValue);
+            uploaded = true;
 
             cachedValue.get(buffer);
             buffer.rewind();
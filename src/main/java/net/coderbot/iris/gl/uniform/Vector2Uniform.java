@@ -6,13 +6,14 @@ import org.joml.Vector2f;
 import java.util.function.Supplier;
 
 public class Vector2Uniform extends Uniform {
-	private Vector2f cachedValue;
+	private final Vector2f cachedValue;
+	private boolean uploaded;
 	private final Supplier<Vector2f> value;
 
 	Vector2Uniform(int location, Supplier<Vector2f> value) {
 		super(location);
 
-		this.cachedValue = null;
+		this.cachedValue = new Vector2f();
 		this.value = value;
 
 	}
@@ -21,8 +22,10 @@ public class Vector2Uniform extends Uniform {
 	public void update() {
 		Vector2f newValue = value.get();
 
-		if (cachedValue == null || !newValue.equals(cachedValue)) {
-			cachedValue = newValue;
+		// Copied, since suppliers may hand out the same vector every time
+		if (!uploaded || !newValue.equals(cachedValue)) {
+			cachedValue.set(newValue);
+			uploaded = true;
 			RenderSystem.uniform2f(this.location, newValue.x, newValue.y);
 		}
 	}
@@ -48,6 +48,7 @@ import net.coderbot.iris.shaderpack.ProgramFallbackResolver;
 import net.coderbot.iris.shaderpack.ProgramSet;
 import net.coderbot.iris.shaderpack.ProgramSource;
 import net.coderbot.iris.shaderpack.loading.ProgramId;
+import net.coderbot.iris.shaderpack.loading.ShaderLoadTimings;
 import net.coderbot.iris.shaderpack.texture.TextureStage;
 import net.coderbot.iris.shadows.ShadowRenderTargets;
 import net.coderbot.iris.texture.format.TextureFormat;
@@ -156,6 +157,9 @@ public class DeferredWorldRenderingPipeline implements WorldRenderingPipeline, R
 	public DeferredWorldRenderingPipeline(ProgramSet programs) {
 		Objects.requireNonNull(programs);
 
+		long loadStart = System.nanoTime();
+		ShaderLoadTimings.reset(ShaderLoadTimings.Stage.TRANSFORM, ShaderLoadTimings.Stage.COMPILE);
+
 		this.cloudSetting = programs.getPackDirectives().getCloudSetting();
 		this.shouldRenderUnderwaterOverlay = programs.getPackDirectives().underwaterOverlay();
 		this.shouldRenderVignette = programs.getPackDirectives().vignette();
@@ -232,29 +236,6 @@ public class DeferredWorldRenderingPipeline implements WorldRenderingPipeline, R
 
 		PatchedShaderPrinter.resetPrintState();
 
-		this.prepareRenderer = new CompositeRenderer(programs.getPackDirectives(), programs.getPrepare(), programs.getPrepareCompute(), renderTargets,
-				customTextureManager.getNoiseTexture(), updateNotifier, centerDepthSampler, flipper, shadowTargetsSupplier,
-				customTextureManager.getCustomTextureIdMap(TextureStage.PREPARE),
-				programs.getPackDirectives().getExplicitFlips("prepare_pre"));
-
-		flippedAfterPrepare = flipper.snapshot();
-
-		this.deferredRenderer = new CompositeRenderer(programs.getPackDirectives(), programs.getDeferred(), programs.getDeferredCompute(), renderTargets,
-				customTextureManager.getNoiseTexture(), updateNotifier, centerDepthSampler, flipper, shadowTargetsSupplier,
-				customTextureManager.getCustomTextureIdMap(TextureStage.DEFERRED),
-				programs.getPackDirectives().getExplicitFlips("deferred_pre"));
-
-		flippedAfterTranslucent = flipper.snapshot();
-
-		this.compositeRenderer = new CompositeRenderer(programs.getPackDirectives(), programs.getComposite(), programs.getCompositeCompute(), renderTargets,
-				customTextureManager.getNoiseTexture(), updateNotifier, centerDepthSampler, flipper, shadowTargetsSupplier,
-				customTextureManager.getCustomTextureIdMap(TextureStage.COMPOSITE_AND_FINAL),
-				programs.getPackDirectives().getExplicitFlips("composite_pre"));
-		this.finalPassRenderer = new FinalPassRenderer(programs, renderTargets, customTextureManager.getNoiseTexture(), updateNotifier, flipper.snapshot(),
-				centerDepthSampler, shadowTargetsSupplier,
-				customTextureManager.getCustomTextureIdMap(TextureStage.COMPOSITE_AND_FINAL),
-				this.compositeRenderer.getFlippedAtLeastOnceFinal());
-
 		// [(textured=false,lightmap=false), (textured=true,lightmap=false), (textured=true,lightmap=true)]
 		ProgramId[] ids = new ProgramId[] {
 				ProgramId.Basic, ProgramId.Textured, ProgramId.TexturedLit,
@@ -283,30 +264,48 @@ public class DeferredWorldRenderingPipeline implements WorldRenderingPipeline, R
 
 		ProgramFallbackResolver resolver = new ProgramFallbackResolver(programs);
 
-		Map<Pair<ProgramId, InputAvailability>, Pass> cachedPasses = new HashMap<>();
+		// Transform every program's sources in parallel up front, the passes created below then only need to look up
+		// the results and compile them on this thread
+		TransformPatcher.Batch transforms = new TransformPatcher.Batch();
+		queueCompositeTransforms(transforms, programs.getPrepare());
+		queueCompositeTransforms(transforms, programs.getDeferred());
+		queueCompositeTransforms(transforms, programs.getComposite());
+		programs.getCompositeFinal().ifPresent(source -> queueCompositeTransforms(transforms, source));
+		queueGbufferTransforms(transforms, ids, resolver, shadowDirectives.isShadowEnabled().orElse(shadowRenderTargets != null));
+		SodiumTerrainPipeline.queueTransforms(transforms, programs);
+		transforms.run();
 
-		this.shadowComputes = createShadowComputes(programs.getShadowCompute(), programs);
+		this.prepareRenderer = new CompositeRenderer(programs.getPackDirectives(), programs.getPrepare(), programs.getPrepareCompute(), renderTargets,
+				customTextureManager.getNoiseTexture(), updateNotifier, centerDepthSampler, flipper, shadowTargetsSupplier,
+				customTextureManager.getCustomTextureIdMap(TextureStage.PREPARE),
+				programs.getPackDirectives().getExplicitFlips("prepare_pre"));
 
-		this.table = new ProgramTable<>((condition, availability) -> {
-			int idx;
+		flippedAfterPrepare = flipper.snapshot();
 
-			if (availability.texture && availability.lightmap) {
-				idx = 2;
-			} else if (availability.texture) {
-				idx = 1;
-			} else {
-				idx = 0;
-			}
+		this.deferredRenderer = new CompositeRenderer(programs.getPackDirectives(), programs.getDeferred(), programs.getDeferredCompute(), renderTargets,
+				customTextureManager.getNoiseTexture(), updateNotifier, centerDepthSampler, flipper, shadowTargetsSupplier,
+				customTextureManager.getCustomTextureIdMap(TextureStage.DEFERRED),
+				programs.getPackDirectives().getExplicitFlips("deferred_pre"));
 
-			ProgramId id = ids[condition.ordinal() * 3 + idx];
+		flippedAfterTranslucent = flipper.snapshot();
 
-			if (id == null) {
-				id = ids[idx];
-			}
+		this.compositeRenderer = new CompositeRenderer(programs.getPackDirectives(), programs.getComposite(), programs.getCompositeCompute(), renderTargets,
+				customTextureManager.getNoiseTexture(), updateNotifier, centerDepthSampler, flipper, shadowTargetsSupplier,
+				customTextureManager.getCustomTextureIdMap(TextureStage.COMPOSITE_AND_FINAL),
+				programs.getPackDirectives().getExplicitFlips("composite_pre"));
+		this.finalPassRenderer = new FinalPassRenderer(programs, renderTargets, customTextureManager.getNoiseTexture(), updateNotifier, flipper.snapshot(),
+				centerDepthSampler, shadowTargetsSupplier,
+				customTextureManager.getCustomTextureIdMap(TextureStage.COMPOSITE_AND_FINAL),
+				this.compositeRenderer.getFlippedAtLeastOnceFinal());
 
-			ProgramId finalId = id;
+		Map<Pair<ProgramId, InputAvailability>, Pass> cachedPasses = new HashMap<>();
+
+		this.shadowComputes = createShadowComputes(programs.getShadowCompute(), programs);
+
+		this.table = new ProgramTable<>((condition, availability) -> {
+			ProgramId finalId = getProgramId(ids, condition, availability);
 
-			return cachedPasses.computeIfAbsent(Pair.of(id, availability), p -> {
+			return cachedPasses.computeIfAbsent(Pair.of(finalId, availability), p -> {
 				ProgramSource source = resolver.resolveNullable(p.getLeft());
 
 				if (condition == RenderCondition.SHADOW) {
@@ -419,6 +418,8 @@ public class DeferredWorldRenderingPipeline implements WorldRenderingPipeline, R
         this.sodiumTerrainPipeline = new SodiumTerrainPipeline(this, programs, createTerrainSamplers,
 			shadowRenderer == null ? null : createShadowTerrainSamplers, createTerrainImages,
 			shadowRenderer == null ? null : createShadowTerrainImages);
+
+		ShaderLoadTimings.log("Created shader pipeline", loadStart, ShaderLoadTimings.Stage.TRANSFORM, ShaderLoadTimings.Stage.COMPILE);
 	}
 
 	private RenderTargets getRenderTargets() {
@@ -582,6 +583,54 @@ public class DeferredWorldRenderingPipeline implements WorldRenderingPipeline, R
 			null, Collections.emptyList(), false);
 	}
 
+	private static ProgramId getProgramId(ProgramId[] ids, RenderCondition condition, InputAvailability availability) {
+		int idx;
+
+		if (availability.texture && availability.lightmap) {
+			idx = 2;
+		} else if (availability.texture) {
+			idx = 1;
+		} else {
+			idx = 0;
+		}
+
+		ProgramId id = ids[condition.ordinal() * 3 + idx];
+
+		if (id == null) {
+			id = ids[idx];
+		}
+
+		return id;
+	}
+
+	private static void queueGbufferTransforms(TransformPatcher.Batch transforms, ProgramId[] ids, ProgramFallbackResolver resolver,
+											   boolean shadowEnabled) {
+		for (RenderCondition condition : RenderCondition.values()) {
+			if (condition == RenderCondition.SHADOW && !shadowEnabled) {
+				continue;
+			}
+
+			for (int packedAvailability = 0; packedAvailability < InputAvailability.NUM_VALUES; packedAvailability++) {
+				InputAvailability availability = InputAvailability.unpack(packedAvailability);
+				ProgramSource source = resolver.resolveNullable(getProgramId(ids, condition, availability));
+
+				if (source != null) {
+					transforms.addAttributes(source.getVertexSource().orElse(null), source.getGeometrySource().orElse(null),
+						source.getFragmentSource().orElse(null), availability);
+				}
+			}
+		}
+	}
+
+	private static void queueCompositeTransforms(TransformPatcher.Batch transforms, ProgramSource... sources) {
+		for (ProgramSource source : sources) {
+			if (source != null && source.isValid()) {
+				transforms.addComposite(source.getVertexSource().orElse(null), source.getGeometrySource().orElse(null),
+					source.getFragmentSource().orElse(null));
+			}
+		}
+	}
+
 	private Pass createPass(ProgramSource source, InputAvailability availability, boolean shadow, ProgramId id) {
 		// TODO: Properly handle empty shaders?
 		Map<PatchShaderType, String> transformed = TransformPatcher.patchAttributes(
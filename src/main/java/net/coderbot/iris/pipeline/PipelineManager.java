@@ -4,6 +4,7 @@ import com.gtnewhorizons.angelica.glsm.GLStateManager;
 import lombok.Getter;
 import net.coderbot.iris.Iris;
 import net.coderbot.iris.block_rendering.BlockRenderingSettings;
+import net.coderbot.iris.gl.uniform.FrameUniformSnapshot;
 import net.coderbot.iris.shaderpack.DimensionId;
 import net.coderbot.iris.uniforms.SystemTimeUniforms;
 import net.minecraft.client.Minecraft;
@@ -29,7 +30,10 @@ public class PipelineManager {
 	}
 
 	public WorldRenderingPipeline preparePipeline(DimensionId currentDimension) {
+		final WorldRenderingPipeline previous = pipeline;
+
 		if (!pipelinesPerDimension.containsKey(currentDimension)) {
+			FrameUniformSnapshot.clear();
 			SystemTimeUniforms.COUNTER.reset();
 			SystemTimeUniforms.TIMER.reset();
 
@@ -46,6 +50,11 @@ public class PipelineManager {
 			}
 		} else {
 			pipeline = pipelinesPerDimension.get(currentDimension);
+
+			// Programs created later on belong to this pipeline, don't let them share values with another one
+			if (pipeline != previous) {
+				FrameUniformSnapshot.clear();
+			}
 		}
 
 		return pipeline;
@@ -81,6 +90,7 @@ public class PipelineManager {
 
 		pipelinesPerDimension.clear();
 		pipeline = null;
+		FrameUniformSnapshot.clear();
 		versionCounterForSodiumShaderReload++;
 	}
 
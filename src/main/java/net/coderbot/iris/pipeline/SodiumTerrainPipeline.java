@@ -10,6 +10,7 @@ import net.coderbot.iris.shaderpack.ProgramSource;
 import net.coderbot.iris.uniforms.CommonUniforms;
 import net.coderbot.iris.uniforms.builtin.BuiltinReplacementUniforms;
 
+import java.util.Arrays;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
@@ -43,8 +44,8 @@ public class SodiumTerrainPipeline {
 								 IntFunction<ProgramImages> createShadowImages) {
 		this.parent = Objects.requireNonNull(parent);
 
-		Optional<ProgramSource> terrainSource = first(programSet.getGbuffersTerrain(), programSet.getGbuffersTexturedLit(), programSet.getGbuffersTextured(), programSet.getGbuffersBasic());
-		Optional<ProgramSource> translucentSource = first(programSet.getGbuffersWater(), terrainSource);
+		Optional<ProgramSource> terrainSource = getTerrainSource(programSet);
+		Optional<ProgramSource> translucentSource = getTranslucentSource(programSet);
 		Optional<ProgramSource> shadowSource = programSet.getShadow();
 
 		this.programSet = programSet;
@@ -168,6 +169,24 @@ public class SodiumTerrainPipeline {
 	}*/
 
 	@SafeVarargs
+	private static Optional<ProgramSource> getTerrainSource(ProgramSet programSet) {
+		return first(programSet.getGbuffersTerrain(), programSet.getGbuffersTexturedLit(), programSet.getGbuffersTextured(), programSet.getGbuffersBasic());
+	}
+
+	private static Optional<ProgramSource> getTranslucentSource(ProgramSet programSet) {
+		return first(programSet.getGbuffersWater(), getTerrainSource(programSet));
+	}
+
+	/**
+	 * Queues the transformations which the constructor will request, so that they can be run ahead of time.
+	 */
+	public static void queueTransforms(TransformPatcher.Batch transforms, ProgramSet programSet) {
+		for (Optional<ProgramSource> source : Arrays.asList(getTerrainSource(programSet), getTranslucentSource(programSet), programSet.getShadow())) {
+			source.ifPresent(sources -> transforms.addSodiumTerrain(sources.getVertexSource().orElse(null),
+				sources.getGeometrySource().orElse(null), sources.getFragmentSource().orElse(null)));
+		}
+	}
+
 	private static <T> Optional<T> first(Optional<T>... candidates) {
 		for (Optional<T> candidate : candidates) {
 			if (candidate.isPresent()) {
@@ -0,0 +1,208 @@
+package net.coderbot.iris.pipeline.transform;
+
+import com.gtnewhorizons.angelica.Tags;
+import net.coderbot.iris.Iris;
+import net.minecraft.client.Minecraft;
+import org.lwjgl.opengl.GL11;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * A size-bounded, least-recently-used cache of shader data stored on disk, so that work such as GLSL transformation
+ * and program linking can be skipped across launches. Entries are keyed by a SHA-256 hash over the caller's inputs,
+ * the Angelica version and the GL vendor/renderer/version; anything which changes the output must be part of the key.
+ */
+public final class ShaderDiskCache {
+    private static final String FORMAT_VERSION = "1";
+
+    private static String environmentKey;
+
+    private final Path directory;
+    private final long maxBytes;
+
+    // Known entries in least- to most-recently-used order, with their sizes in bytes
+    private LinkedHashMap<String, Long> entries;
+    private long totalBytes;
+    private boolean disabled;
+
+    public ShaderDiskCache(String name, long maxBytes) {
+        this.directory = Minecraft.getMinecraft().mcDataDir.toPath().resolve("cache").resolve("angelica").resolve(name);
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Captures the GL driver identification used in every cache key. Must be called from the render thread before
+     * the first key is computed.
+     */
+    public static synchronized String getEnvironmentKey() {
+        if (environmentKey == null) {
+            environmentKey = FORMAT_VERSION + '\0' + Tags.VERSION + '\0' + GL11.glGetString(GL11.GL_VENDOR) + '\0'
+                + GL11.glGetString(GL11.GL_RENDERER) + '\0' + GL11.glGetString(GL11.GL_VERSION);
+        }
+
+        return environmentKey;
+    }
+
+    /**
+     * Hashes the environment key followed by each of the given parts into a hex string usable as a cache key.
+     * Null parts are hashed distinctly from empty strings.
+     */
+    public static String hash(String... parts) {
+        final MessageDigest digest;
+
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+
+        digest.update(getEnvironmentKey().getBytes(StandardCharsets.UTF_8));
+
+        for (String part : parts) {
+            digest.update((byte) 0);
+
+            if (part == null) {
+                digest.update((byte) 1);
+            } else {
+                digest.update((byte) 2);
+                digest.update(part.getBytes(StandardCharsets.UTF_8));
+            }
+        }
+
+        final StringBuilder builder = new StringBuilder(64);
+
+        for (byte b : digest.digest()) {
+            builder.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+
+        return builder.toString();
+    }
+
+    public synchronized byte[] get(String key) {
+        if (!this.loadIndex() || !this.entries.containsKey(key)) {
+            return null;
+        }
+
+        final Path file = this.directory.resolve(key);
+
+        try {
+            final byte[] data = Files.readAllBytes(file);
+
+            // Touch the entry so that it survives eviction across launches too
+            Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis()));
+            this.entries.put(key, this.entries.remove(key));
+
+            return data;
+        } catch (IOException e) {
+            Iris.logger.warn("Failed to read shader cache entry {}", file, e);
+            this.remove(key);
+            return null;
+        }
+    }
+
+    public synchronized void put(String key, byte[] data) {
+        if (data.length > this.maxBytes || !this.loadIndex()) {
+            return;
+        }
+
+        final Path file = this.directory.resolve(key);
+
+        try {
+            final Path temp = this.directory.resolve(key + ".tmp");
+            Files.write(temp, data);
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            Iris.logger.warn("Failed to write shader cache entry {}", file, e);
+            return;
+        }
+
+        final Long previous = this.entries.remove(key);
+
+        if (previous != null) {
+            this.totalBytes -= previous;
+        }
+
+        this.entries.put(key, (long) data.length);
+        this.totalBytes += data.length;
+
+        while (this.totalBytes > this.maxBytes && !this.entries.isEmpty()) {
+            this.remove(this.entries.keySet().iterator().next());
+        }
+    }
+
+    private void remove(String key) {
+        final Long size = this.entries.remove(key);
+
+        if (size != null) {
+            this.totalBytes -= size;
+        }
+
+        try {
+            Files.deleteIfExists(this.directory.resolve(key));
+        } catch (IOException e) {
+            Iris.logger.warn("Failed to delete shader cache entry {}", key, e);
+        }
+    }
+
+    private boolean loadIndex() {
+        if (this.entries != null) {
+            return true;
+        } else if (this.disabled) {
+            return false;
+        }
+
+        final List<Path> files = new ArrayList<>();
+
+        try {
+            Files.createDirectories(this.directory);
+
+            try (Stream<Path> stream = Files.list(this.directory)) {
+                stream.filter(Files::isRegularFile).forEach(files::add);
+            }
+
+            final Map<Path, FileTime> times = new LinkedHashMap<>();
+
+            for (Path file : files) {
+                times.put(file, Files.getLastModifiedTime(file));
+            }
+
+            files.sort(Comparator.comparing(times::get));
+
+            this.entries = new LinkedHashMap<>();
+            this.totalBytes = 0;
+
+            for (Path file : files) {
+                final String name = file.getFileName().toString();
+
+                if (name.endsWith(".tmp")) {
+                    Files.deleteIfExists(file);
+                    continue;
+                }
+
+                final long size = Files.size(file);
+                this.entries.put(name, size);
+                this.totalBytes += size;
+            }
+        } catch (IOException e) {
+            Iris.logger.warn("Failed to open shader cache at {}, disk caching will be disabled", this.directory, e);
+            this.entries = null;
+            this.disabled = true;
+            return false;
+        }
+
+        return true;
+    }
+}
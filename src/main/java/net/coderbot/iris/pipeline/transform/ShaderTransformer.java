@@ -1,6 +1,7 @@
 package net.coderbot.iris.pipeline.transform;
 
 import com.google.common.base.Stopwatch;
+import com.gtnewhorizons.angelica.config.AngelicaConfig;
 import it.unimi.dsi.fastutil.objects.Object2ObjectLinkedOpenHashMap;
 import net.coderbot.iris.Iris;
 import net.coderbot.iris.gl.shader.ShaderType;
@@ -19,6 +20,13 @@ import org.taumc.glsl.Util;
 import org.taumc.glsl.grammar.GLSLLexer;
 import org.taumc.glsl.grammar.GLSLParser;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.EnumMap;
@@ -28,10 +36,10 @@ import java.util.Map;
 import java.util.Objects;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
 
 public class ShaderTransformer {
-    static String tab = "";
-
     private static final Pattern versionPattern = Pattern.compile("#version\\s+(\\d+)(?:\\s+(\\w+))?");
     private static final Pattern inOutVaryingPattern = Pattern.compile("(?m)^\\s*(in|out)(\\s+)");
 
@@ -39,6 +47,8 @@ public class ShaderTransformer {
     private static final Object2ObjectLinkedOpenHashMap<TransformKey<?>, Map<PatchShaderType, String>> shaderTransformationCache = new Object2ObjectLinkedOpenHashMap<>();
     private static final boolean useCache = true;
 
+    private static ShaderDiskCache diskCache;
+
     /**
      * These are words which need to be renamed by iris if a shader uses them, regardless o the GLSL version.
      * The words will get caught and renamed to iris_renamed_$WORD
@@ -109,21 +119,87 @@ public class ShaderTransformer {
 
             var key = new TransformKey<>(patchType, inputs, parameters);
 
-            result = shaderTransformationCache.getAndMoveToFirst(key);
+            // Transformations may run concurrently while a shader pack is loading, so the cache is only touched under its
+            // lock and never while transforming
+            synchronized (shaderTransformationCache) {
+                result = shaderTransformationCache.getAndMoveToFirst(key);
+            }
             if(result == null || !useCache) {
-                result = transformInternal(inputs, patchType, parameters);
-                // Clear this, we don't want whatever random type was last transformed being considered for the key
-                parameters.type = null;
-                if(shaderTransformationCache.size() >= CACHE_SIZE) {
-                    shaderTransformationCache.removeLast();
+                final ShaderDiskCache disk = getDiskCache();
+                final String diskKey = disk != null ? ShaderDiskCache.hash("transform", parameters.getCacheKey(), vertex, geometry, fragment) : null;
+
+                result = diskKey != null ? readCachedResult(disk.get(diskKey)) : null;
+
+                if (result == null) {
+                    result = transformInternal(inputs, patchType, parameters);
+                    // Clear this, we don't want whatever random type was last transformed being considered for the key
+                    parameters.type = null;
+
+                    if (diskKey != null) {
+                        disk.put(diskKey, writeCachedResult(result));
+                    }
+                }
+                synchronized (shaderTransformationCache) {
+                    if(shaderTransformationCache.size() >= CACHE_SIZE) {
+                        shaderTransformationCache.removeLast();
+                    }
+                    shaderTransformationCache.putAndMoveToLast(key, result);
                 }
-                shaderTransformationCache.putAndMoveToLast(key, result);
             }
 
             return result;
         }
     }
 
+    private static synchronized ShaderDiskCache getDiskCache() {
+        if (!AngelicaConfig.enableShaderDiskCache) {
+            return null;
+        }
+        if (diskCache == null) {
+            diskCache = new ShaderDiskCache("transformed", AngelicaConfig.shaderDiskCacheSizeMB * 1024L * 1024L);
+        }
+        return diskCache;
+    }
+
+    private static byte[] writeCachedResult(Map<PatchShaderType, String> result) {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+        try (DataOutputStream out = new DataOutputStream(new GZIPOutputStream(bytes))) {
+            out.writeInt(result.size());
+            for (var entry : result.entrySet()) {
+                final byte[] source = entry.getValue().getBytes(StandardCharsets.UTF_8);
+                out.writeUTF(entry.getKey().name());
+                out.writeInt(source.length);
+                out.write(source);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        return bytes.toByteArray();
+    }
+
+    private static Map<PatchShaderType, String> readCachedResult(byte[] data) {
+        if (data == null) {
+            return null;
+        }
+
+        try (DataInputStream in = new DataInputStream(new GZIPInputStream(new ByteArrayInputStream(data)))) {
+            final EnumMap<PatchShaderType, String> result = new EnumMap<>(PatchShaderType.class);
+            final int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                final PatchShaderType type = PatchShaderType.valueOf(in.readUTF());
+                final byte[] source = new byte[in.readInt()];
+                in.readFully(source);
+                result.put(type, new String(source, StandardCharsets.UTF_8));
+            }
+            return result;
+        } catch (IOException | IllegalArgumentException e) {
+            Iris.logger.warn("Discarding unreadable shader cache entry", e);
+            return null;
+        }
+    }
+
     private static void configureNoError(Parser parser) {
         parser.setErrorHandler(new BailErrorStrategy());
         parser.removeErrorListeners();
@@ -334,19 +410,20 @@ public class ShaderTransformer {
 
     public static String getFormattedShader(ParseTree tree, String string) {
         StringBuilder sb = new StringBuilder(string + "\n");
-        getFormattedShader(tree, sb);
+        getFormattedShader(tree, sb, "");
         return sb.toString();
     }
 
-    private static void getFormattedShader(ParseTree tree, StringBuilder stringBuilder) {
+    // Returns the indentation to use after this subtree; kept out of static state since shaders are formatted in parallel
+    private static String getFormattedShader(ParseTree tree, StringBuilder stringBuilder, String tab) {
         if (tree instanceof TerminalNode) {
             String text = tree.getText();
             if (text.equals("<EOF>")) {
-                return;
+                return tab;
             }
             if (text.equals("#")) {
                 stringBuilder.append("\n#");
-                return;
+                return tab;
             }
             stringBuilder.append(text);
             if (text.equals("{")) {
@@ -361,10 +438,11 @@ public class ShaderTransformer {
             stringBuilder.append(text.equals(";") ? " \n" + tab : " ");
         } else {
             for(int i = 0; i < tree.getChildCount(); ++i) {
-                getFormattedShader(tree.getChild(i), stringBuilder);
+                tab = getFormattedShader(tree.getChild(i), stringBuilder, tab);
             }
         }
 
+        return tab;
     }
 
 }
@@ -3,9 +3,13 @@ package net.coderbot.iris.pipeline.transform;
 import net.coderbot.iris.gbuffer_overrides.matching.InputAvailability;
 import net.coderbot.iris.pipeline.transform.parameter.AttributeParameters;
 import net.coderbot.iris.pipeline.transform.parameter.Parameters;
+import net.coderbot.iris.shaderpack.loading.ShaderLoadTimings;
+import net.coderbot.iris.shaderpack.loading.ShaderLoadingPool;
 
 import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.Map;
+import java.util.Set;
 
 public class TransformPatcher {
 
@@ -77,20 +81,24 @@ public class TransformPatcher {
         }
 
         // check if this has been cached
-        TransformPatcher.CacheKey key;
+        TransformPatcher.CacheKey key = null;
         Map<PatchShaderType, String> result = null;
         if (useCache) {
             key = new TransformPatcher.CacheKey(parameters, vertex, geometry, fragment);
-            if (cache.containsKey(key)) {
+            synchronized (cache) {
                 result = cache.get(key);
             }
         }
 
         // if there is no cache result, transform the shaders
         if (result == null) {
+            long start = System.nanoTime();
             result = ShaderTransformer.transform(vertex, geometry, fragment, parameters);
+            ShaderLoadTimings.record(ShaderLoadTimings.Stage.TRANSFORM, start);
             if (useCache) {
-                cache.put(key, result);
+                synchronized (cache) {
+                    cache.put(key, result);
+                }
             }
         }
 
@@ -108,4 +116,42 @@ public class TransformPatcher {
     public static Map<PatchShaderType, String> patchComposite(String vertex, String geometry, String fragment) {
         return transform(vertex, geometry, fragment, new Parameters(Patch.COMPOSITE));
     }
+
+    /**
+     * Collects transformations which will be requested later while building a pipeline, and runs them ahead of time on
+     * the {@link ShaderLoadingPool} so that the render thread only has to look the results up before compiling.
+     * Failures are ignored here; the same transformation is simply retried, and reported, when it is requested.
+     */
+    public static class Batch {
+        private final Set<CacheKey> keys = new LinkedHashSet<>();
+
+        public void addAttributes(String vertex, String geometry, String fragment, InputAvailability inputs) {
+            add(vertex, geometry, fragment, new AttributeParameters(Patch.ATTRIBUTES, geometry != null, inputs));
+        }
+
+        public void addSodiumTerrain(String vertex, String geometry, String fragment) {
+            add(vertex, geometry, fragment, new Parameters(Patch.SODIUM_TERRAIN));
+        }
+
+        public void addComposite(String vertex, String geometry, String fragment) {
+            add(vertex, geometry, fragment, new Parameters(Patch.COMPOSITE));
+        }
+
+        private void add(String vertex, String geometry, String fragment, Parameters parameters) {
+            if (vertex != null || geometry != null || fragment != null) {
+                keys.add(new CacheKey(parameters, vertex, geometry, fragment));
+            }
+        }
+
+        public void run() {
+            if (!useCache || keys.isEmpty()) {
+                return;
+            }
+
+            // The disk cache key includes GL driver strings, which can only be queried from the render thread
+            ShaderDiskCache.getEnvironmentKey();
+
+            ShaderLoadingPool.computeAll(keys, key -> transform(key.vertex, key.geometry, key.fragment, key.parameters));
+        }
+    }
 }
@@ -13,6 +13,11 @@ public class AttributeParameters extends Parameters {
         this.inputs = inputs;
     }
 
+    @Override
+    public String getCacheKey() {
+        return super.getCacheKey() + ";hasGeometry=" + hasGeometry + ";inputs=" + inputs;
+    }
+
     @Override
     public int hashCode() {
         final int prime = 31;
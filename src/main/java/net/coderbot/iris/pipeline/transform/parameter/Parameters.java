@@ -15,6 +15,14 @@ public class Parameters implements JobParameters {
         this.patch = patch;
     }
 
+    /**
+     * Returns a string which is stable across launches and uniquely identifies these parameters, for use in the
+     * on-disk shader cache. Must cover the same fields as hashCode and equals.
+     */
+    public String getCacheKey() {
+        return String.valueOf(patch);
+    }
+
     @Override
     public int hashCode() {
         final int prime = 31;
@@ -8,6 +8,7 @@ import it.unimi.dsi.fastutil.objects.Object2ObjectOpenHashMap;
 import lombok.Getter;
 import net.coderbot.iris.Iris;
 import net.coderbot.iris.gl.texture.TextureScaleOverride;
+import net.coderbot.iris.uniforms.custom.CustomUniforms;
 import org.joml.Vector2i;
 
 import java.util.Set;
@@ -45,6 +46,8 @@ public class PackDirectives {
     private boolean prepareBeforeShadow;
 	private Object2ObjectMap<String, Object2BooleanMap<String>> explicitFlips = new Object2ObjectOpenHashMap<>();
 	private Object2ObjectMap<String, TextureScaleOverride> scaleOverrides = new Object2ObjectOpenHashMap<>();
+	@Getter
+	private CustomUniforms.Builder customUniforms = new CustomUniforms.Builder();
 
 	@Getter
     private final PackRenderTargetDirectives renderTargetDirectives;
@@ -76,6 +79,7 @@ public class PackDirectives {
 		concurrentCompute = properties.getConcurrentCompute().orElse(false);
 		oldHandLight = properties.getOldHandLight().orElse(true);
 		explicitFlips = properties.getExplicitFlips();
+		customUniforms = properties.getCustomUniforms();
 		scaleOverrides = properties.getTextureScaleOverrides();
 		particlesBeforeDeferred = properties.getParticlesBeforeDeferred().orElse(false);
 		prepareBeforeShadow = properties.getPrepareBeforeShadow().orElse(false);
@@ -88,6 +92,7 @@ public class PackDirectives {
 		oldLighting = directives.oldLighting;
 		concurrentCompute = directives.concurrentCompute;
 		explicitFlips = directives.explicitFlips;
+		customUniforms = directives.customUniforms;
 		scaleOverrides = directives.scaleOverrides;
 		particlesBeforeDeferred = directives.particlesBeforeDeferred;
 		prepareBeforeShadow = directives.prepareBeforeShadow;
@@ -14,6 +14,8 @@ import net.coderbot.iris.shaderpack.include.AbsolutePackPath;
 import net.coderbot.iris.shaderpack.include.IncludeGraph;
 import net.coderbot.iris.shaderpack.include.IncludeProcessor;
 import net.coderbot.iris.shaderpack.include.ShaderPackSourceNames;
+import net.coderbot.iris.shaderpack.loading.ShaderLoadTimings;
+import net.coderbot.iris.shaderpack.loading.ShaderLoadingPool;
 import net.coderbot.iris.shaderpack.option.ProfileSet;
 import net.coderbot.iris.shaderpack.option.ShaderPackOptions;
 import net.coderbot.iris.shaderpack.option.menu.OptionMenuContainer;
@@ -84,6 +86,9 @@ public class ShaderPack {
 		// A null path is not allowed.
 		Objects.requireNonNull(root);
 
+		long loadStart = System.nanoTime();
+		ShaderLoadTimings.reset(ShaderLoadTimings.Stage.INCLUDE, ShaderLoadTimings.Stage.PREPROCESS);
+
 
 		ImmutableList.Builder<AbsolutePackPath> starts = ImmutableList.builder();
 		ImmutableList<String> potentialFileNames = ShaderPackSourceNames.POTENTIAL_STARTS;
@@ -101,7 +106,8 @@ public class ShaderPack {
 				AbsolutePackPath.fromAbsolutePath("/world1"), potentialFileNames);
 
 		// Read all files and included files recursively
-		IncludeGraph graph = new IncludeGraph(root, starts.build());
+		ImmutableList<AbsolutePackPath> startPaths = starts.build();
+		IncludeGraph graph = new IncludeGraph(root, startPaths);
 
 		if (!graph.getFailures().isEmpty()) {
 			graph.getFailures().forEach((path, error) -> {
@@ -177,7 +183,7 @@ public class ShaderPack {
 
 		// Set up our source provider for creating ProgramSets
 		Iterable<StringPair> finalEnvironmentDefines1 = environmentDefines;
-		Function<AbsolutePackPath, String> sourceProvider = (path) -> {
+		Function<AbsolutePackPath, String> preprocessor = (path) -> {
 			String pathString = path.getPathString();
 			// Removes the first "/" in the path if present, and the file
 			// extension in order to represent the path as its program name
@@ -188,7 +194,9 @@ public class ShaderPack {
 				return null;
 			}
 
+			long includeStart = System.nanoTime();
 			ImmutableList<String> lines = includeProcessor.getIncludedFile(path);
+			ShaderLoadTimings.record(ShaderLoadTimings.Stage.INCLUDE, includeStart);
 
 			if (lines == null) {
 				return null;
@@ -207,12 +215,20 @@ public class ShaderPack {
 			// #define statements in the actual source - instead, we tell the preprocessor about them
 			// directly. This removes one obstacle to accurate reporting of line numbers for errors,
 			// though there exist many more (such as relocating all #extension directives and similar things)
+			long preprocessStart = System.nanoTime();
 			String source = builder.toString();
 			source = JcppProcessor.glslPreprocessSource(source, finalEnvironmentDefines1);
+			ShaderLoadTimings.record(ShaderLoadTimings.Stage.PREPROCESS, preprocessStart);
 
 			return source;
 		};
 
+		// Every program is independent, so preprocess all of the present sources in parallel up front. Paths which
+		// aren't in the map (missing files, or ones which failed) go through the preprocessor again on this thread.
+		Map<AbsolutePackPath, String> preprocessed = ShaderLoadingPool.computeAll(startPaths, preprocessor);
+		Function<AbsolutePackPath, String> sourceProvider = (path) ->
+				preprocessed.containsKey(path) ? preprocessed.get(path) : preprocessor.apply(path);
+
 		this.base = new ProgramSet(AbsolutePackPath.fromAbsolutePath("/"), sourceProvider, shaderProperties, this);
 
 		this.overworld = loadOverrides(hasWorld0, AbsolutePackPath.fromAbsolutePath("/world0"), sourceProvider, shaderProperties, this);
@@ -243,6 +259,8 @@ public class ShaderPack {
 
 			customTextureDataMap.put(textureStage, innerCustomTextureDataMap);
 		});
+
+		ShaderLoadTimings.log("Loaded shader pack sources", loadStart, ShaderLoadTimings.Stage.INCLUDE, ShaderLoadTimings.Stage.PREPROCESS);
 	}
 
 	private String getCurrentProfileName() {
@@ -21,6 +21,7 @@ import net.coderbot.iris.gl.texture.TextureScaleOverride;
 import net.coderbot.iris.shaderpack.option.ShaderPackOptions;
 import net.coderbot.iris.shaderpack.preprocessor.PropertiesPreprocessor;
 import net.coderbot.iris.shaderpack.texture.TextureStage;
+import net.coderbot.iris.uniforms.custom.CustomUniforms;
 
 import java.io.IOException;
 import java.io.StringReader;
@@ -75,7 +76,7 @@ public class ShaderProperties {
 	private Integer mainScreenColumnCount = null;
 	@Getter private final Map<String, Integer> subScreenColumnCount = new HashMap<>();
 	// TODO: private Map<String, String> optifineVersionRequirements;
-	// TODO: Parse custom uniforms / variables
+	@Getter private final CustomUniforms.Builder customUniforms = new CustomUniforms.Builder();
 	@Getter private final Object2ObjectMap<String, AlphaTestOverride> alphaTestOverrides = new Object2ObjectOpenHashMap<>();
 	@Getter private final Object2FloatMap<String> viewportScaleOverrides = new Object2FloatOpenHashMap<>();
 	@Getter private final Object2ObjectMap<String, TextureScaleOverride> textureScaleOverrides = new Object2ObjectOpenHashMap<>();
@@ -151,8 +152,10 @@ public class ShaderProperties {
 			handleBooleanDirective(key, value, "particles.before.deferred", bool -> particlesBeforeDeferred = bool);
 			handleBooleanDirective(key, value, "prepareBeforeShadow", bool -> prepareBeforeShadow = bool);
 
+			handleCustomUniformDirective("uniform.", key, value, true);
+			handleCustomUniformDirective("variable.", key, value, false);
+
 			// TODO: Min optifine versions, shader options layout / appearance / profiles
-			// TODO: Custom uniforms
 
 			handlePassDirective("scale.", key, value, pass -> {
                 final float scale;
@@ -436,6 +439,24 @@ public class ShaderProperties {
 		}
 	}
 
+	/**
+	 * {@code uniform.<type>.<name>=<expression>} and {@code variable.<type>.<name>=<expression>}
+	 */
+	private void handleCustomUniformDirective(String prefix, String key, String value, boolean uniform) {
+		if (!key.startsWith(prefix)) {
+			return;
+		}
+
+		final int endOfTypeIndex = key.indexOf('.', prefix.length());
+
+		if (endOfTypeIndex == -1 || endOfTypeIndex == key.length() - 1) {
+			Iris.logger.error("Custom " + (uniform ? "uniform" : "variable") + " directive is missing a type or name: " + key);
+			return;
+		}
+
+		customUniforms.add(key.substring(prefix.length(), endOfTypeIndex), key.substring(endOfTypeIndex + 1), value, uniform);
+	}
+
 	private static void handleTwoArgDirective(String prefix, String key, String value, BiConsumer<String, String> handler) {
 		if (key.startsWith(prefix)) {
             final int endOfPassIndex = key.indexOf(".", prefix.length());
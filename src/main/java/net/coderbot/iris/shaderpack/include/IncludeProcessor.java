@@ -3,9 +3,9 @@ package net.coderbot.iris.shaderpack.include;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 
-import java.util.HashMap;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
 
 // TODO: Write tests for this code
 public class IncludeProcessor {
@@ -14,7 +14,8 @@ public class IncludeProcessor {
 
 	public IncludeProcessor(IncludeGraph graph) {
 		this.graph = graph;
-		this.cache = new HashMap<>();
+		// Shader pack loading expands includes from several threads at once
+		this.cache = new ConcurrentHashMap<>();
 	}
 
 	// TODO: Actual error handling
@@ -24,7 +25,11 @@ public class IncludeProcessor {
 
 		if (lines == null) {
 			lines = process(path);
-			cache.put(path, lines);
+
+			// Missing files aren't cached, ConcurrentHashMap doesn't allow null values
+			if (lines != null) {
+				cache.putIfAbsent(path, lines);
+			}
 		}
 
 		return lines;
@@ -0,0 +1,59 @@
+package net.coderbot.iris.shaderpack.loading;
+
+import net.coderbot.iris.Iris;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Accumulates how long each stage of shader pack loading took, so that the cost of a reload can be broken down in
+ * the log. Stages which run on the {@link ShaderLoadingPool} are summed across threads, so they can exceed the wall
+ * time of the load itself.
+ */
+public final class ShaderLoadTimings {
+	public enum Stage {
+		INCLUDE("include"),
+		PREPROCESS("preprocess"),
+		TRANSFORM("transform"),
+		COMPILE("compile/link");
+
+		private final String name;
+		private final LongAdder nanos = new LongAdder();
+		private final LongAdder count = new LongAdder();
+
+		Stage(String name) {
+			this.name = name;
+		}
+	}
+
+	private ShaderLoadTimings() {
+	}
+
+	public static void reset(Stage... stages) {
+		for (Stage stage : stages) {
+			stage.nanos.reset();
+			stage.count.reset();
+		}
+	}
+
+	/**
+	 * Records one run of the given stage which started at {@code startNanos}, as returned by {@link System#nanoTime()}.
+	 */
+	public static void record(Stage stage, long startNanos) {
+		stage.nanos.add(System.nanoTime() - startNanos);
+		stage.count.increment();
+	}
+
+	public static void log(String what, long startNanos, Stage... stages) {
+		StringBuilder builder = new StringBuilder();
+
+		for (Stage stage : stages) {
+			builder.append(builder.length() == 0 ? "" : ", ")
+				.append(stage.name).append(": ")
+				.append(TimeUnit.NANOSECONDS.toMillis(stage.nanos.sum())).append(" ms / ")
+				.append(stage.count.sum());
+		}
+
+		Iris.logger.info("{} in {} ms ({})", what, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos), builder);
+	}
+}
@@ -0,0 +1,63 @@
+package net.coderbot.iris.shaderpack.loading;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+
+/**
+ * A small fork-join pool for the CPU-bound parts of shader pack loading (include expansion, preprocessing and GLSL
+ * transformation). Nothing submitted here may touch OpenGL; compiling and linking stays on the render thread.
+ */
+public final class ShaderLoadingPool {
+	// Leave a core for the render thread, and don't spin up more threads than a shader pack can realistically use
+	private static final int PARALLELISM = Math.max(1, Math.min(Runtime.getRuntime().availableProcessors() - 1, 8));
+
+	private static final ForkJoinPool POOL = new ForkJoinPool(PARALLELISM, pool -> {
+		ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+		thread.setName("Iris Shader Loader #" + thread.getPoolIndex());
+		thread.setContextClassLoader(ShaderLoadingPool.class.getClassLoader());
+		thread.setDaemon(true);
+		return thread;
+	}, null, false);
+
+	private ShaderLoadingPool() {
+	}
+
+	/**
+	 * Applies the function to every key in parallel and waits for all of them to finish. Keys whose computation
+	 * throws are left out of the result, so that the caller can redo them on its own thread and report the error
+	 * with the usual context.
+	 */
+	public static <K, V> Map<K, V> computeAll(Collection<K> keys, Function<K, V> function) {
+		List<K> list = new ArrayList<>(keys);
+		List<Callable<V>> tasks = new ArrayList<>(list.size());
+
+		for (K key : list) {
+			tasks.add(() -> function.apply(key));
+		}
+
+		List<Future<V>> futures = POOL.invokeAll(tasks);
+		Map<K, V> results = new HashMap<>();
+
+		for (int i = 0; i < list.size(); i++) {
+			try {
+				results.put(list.get(i), futures.get(i).get());
+			} catch (ExecutionException ignored) {
+				// Will be retried and reported by the caller
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				break;
+			}
+		}
+
+		return results;
+	}
+}
@@ -37,6 +37,11 @@ public class BlockContextHolder {
 		this.renderType = renderType;
 	}
 
+	public void set(short blockId, short renderType) {
+		this.blockId = blockId;
+		this.renderType = renderType;
+	}
+
 	public void reset() {
 		this.blockId = -1;
 		this.renderType = -1;
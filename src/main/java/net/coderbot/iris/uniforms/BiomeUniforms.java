@@ -0,0 +1,162 @@
+package net.coderbot.iris.uniforms;
+
+import static net.coderbot.iris.gl.uniform.UniformUpdateFrequency.PER_TICK;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import net.coderbot.iris.gl.uniform.UniformHolder;
+import net.minecraft.client.Minecraft;
+import net.minecraft.entity.EntityLivingBase;
+import net.minecraft.util.MathHelper;
+import net.minecraft.world.World;
+import net.minecraft.world.biome.BiomeGenBase;
+import net.minecraftforge.common.BiomeDictionary;
+
+/**
+ * The biome parameters OptiFine offers to custom uniforms, for the biome the camera is in. The {@code BIOME_*},
+ * {@code CAT_*} and {@code PPT_*} names they are compared against are available as constants in custom uniform
+ * expressions, see {@link #getConstants()}.
+ */
+public final class BiomeUniforms {
+	public static final int CATEGORY_SWAMP = Category.SWAMP.ordinal();
+
+	public static final int PRECIPITATION_NONE = 0;
+	public static final int PRECIPITATION_RAIN = 1;
+	public static final int PRECIPITATION_SNOW = 2;
+
+	// The names packs written for newer versions use for the vanilla biomes, by id
+	private static final String[] MODERN_NAMES = {
+		"ocean", "plains", "desert", "mountains", "forest", "taiga", "swamp", "river", "nether", "the_end",
+		"frozen_ocean", "frozen_river", "snowy_tundra", "snowy_mountains", "mushroom_fields", "mushroom_field_shore",
+		"beach", "desert_hills", "wooded_hills", "taiga_hills", "mountain_edge", "jungle", "jungle_hills",
+		"jungle_edge", "deep_ocean", "stone_shore", "snowy_beach", "birch_forest", "birch_forest_hills", "dark_forest",
+		"snowy_taiga", "snowy_taiga_hills", "giant_tree_taiga", "giant_tree_taiga_hills", "wooded_mountains", "savanna",
+		"savanna_plateau", "badlands", "wooded_badlands_plateau", "badlands_plateau"
+	};
+
+	private static Map<String, Float> constants;
+
+	private BiomeUniforms() {
+	}
+
+	public static void addBiomeUniforms(UniformHolder uniforms) {
+		uniforms
+			.uniform1i(PER_TICK, "biome", () -> {
+				final BiomeGenBase biome = getBiome();
+				return biome == null ? 0 : biome.biomeID;
+			})
+			.uniform1i(PER_TICK, "biome_category", BiomeUniforms::getBiomeCategory)
+			.uniform1i(PER_TICK, "biome_precipitation", BiomeUniforms::getBiomePrecipitation)
+			.uniform1f(PER_TICK, "temperature", BiomeUniforms::getTemperature)
+			.uniform1f(PER_TICK, "rainfall", () -> {
+				final BiomeGenBase biome = getBiome();
+				return biome == null ? 0.0f : biome.getFloatRainfall();
+			});
+	}
+
+	/**
+	 * Built when first asked for, after every mod had the chance to register its biomes.
+	 */
+	public static Map<String, Float> getConstants() {
+		if (constants == null) {
+			final Map<String, Float> map = new HashMap<>();
+
+			for (BiomeGenBase biome : BiomeGenBase.getBiomeGenArray()) {
+				if (biome != null && biome.biomeName != null) {
+					map.putIfAbsent("BIOME_" + toConstantName(biome.biomeName), (float) biome.biomeID);
+				}
+			}
+			for (int id = 0; id < MODERN_NAMES.length; id++) {
+				map.putIfAbsent("BIOME_" + toConstantName(MODERN_NAMES[id]), (float) id);
+			}
+			for (Category category : Category.values()) {
+				map.put("CAT_" + category.name(), (float) category.ordinal());
+			}
+			map.put("PPT_NONE", (float) PRECIPITATION_NONE);
+			map.put("PPT_RAIN", (float) PRECIPITATION_RAIN);
+			map.put("PPT_SNOW", (float) PRECIPITATION_SNOW);
+
+			constants = map;
+		}
+
+		return constants;
+	}
+
+	public static int getBiomeCategory() {
+		return getCategory(getBiome()).ordinal();
+	}
+
+	private static Category getCategory(BiomeGenBase biome) {
+		if (biome == null) {
+			return Category.NONE;
+		}
+
+		// Most specific types first, a beach or mesa is also sandy
+		if (BiomeDictionary.isBiomeOfType(biome, BiomeDictionary.Type.NETHER)) return Category.NETHER;
+		if (BiomeDictionary.isBiomeOfType(biome, BiomeDictionary.Type.END)) return Category.THE_END;
+		if (BiomeDictionary.isBiomeOfType(biome, BiomeDictionary.Type.MUSHROOM)) return Category.MUSHROOM;
+		if (BiomeDictionary.isBiomeOfType(biome, BiomeDictionary.Type.SWAMP)) return Category.SWAMP;
+		if (BiomeDictionary.isBiomeOfType(biome, BiomeDictionary.Type.RIVER)) return Category.RIVER;
+		if (BiomeDictionary.isBiomeOfType(biome, BiomeDictionary.Type.OCEAN)) return Category.OCEAN;
+		if (BiomeDictionary.isBiomeOfType(biome, BiomeDictionary.Type.BEACH)) return Category.BEACH;
+		if (BiomeDictionary.isBiomeOfType(biome, BiomeDictionary.Type.MESA)) return Category.MESA;
+		if (BiomeDictionary.isBiomeOfType(biome, BiomeDictionary.Type.JUNGLE)) return Category.JUNGLE;
+		if (BiomeDictionary.isBiomeOfType(biome, BiomeDictionary.Type.SAVANNA)) return Category.SAVANNA;
+		if (BiomeDictionary.isBiomeOfType(biome, BiomeDictionary.Type.SANDY)) return Category.DESERT;
+		if (BiomeDictionary.isBiomeOfType(biome, BiomeDictionary.Type.CONIFEROUS)) return Category.TAIGA;
+		if (BiomeDictionary.isBiomeOfType(biome, BiomeDictionary.Type.SNOWY)) return Category.ICY;
+		if (BiomeDictionary.isBiomeOfType(biome, BiomeDictionary.Type.MOUNTAIN)) return Category.EXTREME_HILLS;
+		if (BiomeDictionary.isBiomeOfType(biome, BiomeDictionary.Type.FOREST)) return Category.FOREST;
+		if (BiomeDictionary.isBiomeOfType(biome, BiomeDictionary.Type.PLAINS)) return Category.PLAINS;
+
+		return Category.NONE;
+	}
+
+	public static int getBiomePrecipitation() {
+		final BiomeGenBase biome = getBiome();
+
+		if (biome == null || (!biome.getEnableSnow() && !biome.canSpawnLightningBolt())) {
+			return PRECIPITATION_NONE;
+		}
+
+		// Same check as the weather renderer uses to pick between rain and snow
+		final EntityLivingBase camera = Minecraft.getMinecraft().renderViewEntity;
+		return biome.getFloatTemperature(MathHelper.floor_double(camera.posX), MathHelper.floor_double(camera.posY),
+			MathHelper.floor_double(camera.posZ)) < 0.15f ? PRECIPITATION_SNOW : PRECIPITATION_RAIN;
+	}
+
+	public static float getTemperature() {
+		final BiomeGenBase biome = getBiome();
+
+		if (biome == null) {
+			return 0.0f;
+		}
+
+		final EntityLivingBase camera = Minecraft.getMinecraft().renderViewEntity;
+		return biome.getFloatTemperature(MathHelper.floor_double(camera.posX), MathHelper.floor_double(camera.posY),
+			MathHelper.floor_double(camera.posZ));
+	}
+
+	private static BiomeGenBase getBiome() {
+		final Minecraft client = Minecraft.getMinecraft();
+		final World world = client.theWorld;
+		final EntityLivingBase camera = client.renderViewEntity;
+
+		if (world == null || camera == null) {
+			return null;
+		}
+
+		return world.getBiomeGenForCoords(MathHelper.floor_double(camera.posX), MathHelper.floor_double(camera.posZ));
+	}
+
+	private static String toConstantName(String name) {
+		return name.trim().replaceAll("[^A-Za-z0-9]+", "_").toUpperCase(Locale.ROOT);
+	}
+
+	// In the same order as OptiFine, which uses the ordinal
+	private enum Category {
+		NONE, TAIGA, EXTREME_HILLS, JUNGLE, MESA, PLAINS, SAVANNA, ICY, THE_END, BEACH, FOREST, OCEAN, DESERT, RIVER,
+		SWAMP, MUSHROOM, NETHER
+	}
+}
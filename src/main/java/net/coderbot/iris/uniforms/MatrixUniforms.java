@@ -39,6 +39,7 @@ public final class MatrixUniforms {
 
 	private static class Inverted implements Supplier<Matrix4f> {
 		private final Supplier<Matrix4f> parent;
+		private final Matrix4f inverted = new Matrix4f();
 
 		Inverted(Supplier<Matrix4f> parent) {
 			this.parent = parent;
@@ -46,12 +47,8 @@ public final class MatrixUniforms {
 
 		@Override
 		public Matrix4f get() {
-			// PERF: Don't copy + allocate this matrix every time?
-            final Matrix4f copy = new Matrix4f(parent.get());
-
-			copy.invert();
-
-			return copy;
+			// MatrixUniform copies the value it uploads, so the same matrix can be reused
+			return parent.get().invert(inverted);
 		}
 	}
 
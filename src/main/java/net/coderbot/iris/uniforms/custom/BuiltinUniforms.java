@@ -0,0 +1,237 @@
+package net.coderbot.iris.uniforms.custom;
+
+import net.coderbot.iris.gl.state.ValueUpdateNotifier;
+import net.coderbot.iris.gl.uniform.DynamicUniformHolder;
+import net.coderbot.iris.gl.uniform.FloatSupplier;
+import net.coderbot.iris.gl.uniform.UniformType;
+import net.coderbot.iris.gl.uniform.UniformUpdateFrequency;
+import net.coderbot.iris.shaderpack.IdMap;
+import net.coderbot.iris.shaderpack.PackDirectives;
+import net.coderbot.iris.uniforms.BiomeUniforms;
+import net.coderbot.iris.uniforms.CommonUniforms;
+import net.coderbot.iris.uniforms.FrameUpdateNotifier;
+import net.minecraft.util.Vec3;
+import org.joml.Matrix4f;
+import org.joml.Vector2f;
+import org.joml.Vector2i;
+import org.joml.Vector3d;
+import org.joml.Vector3f;
+import org.joml.Vector4f;
+import org.joml.Vector4i;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.BooleanSupplier;
+import java.util.function.DoubleSupplier;
+import java.util.function.IntSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Collects the suppliers of the regular uniforms by name, so that custom uniforms can refer to them. Only values which
+ * are updated at most once per frame are collected, dynamic uniforms depend on the draw and matrices can't be used in
+ * expressions. Also holds the named constants expressions can use, such as the biome ids.
+ */
+public class BuiltinUniforms implements DynamicUniformHolder {
+	private final Map<String, Builtin> builtins = new HashMap<>();
+	private final Map<String, Float> constants = new HashMap<>();
+
+	/**
+	 * Collects the common uniforms, with their own copy of any smoothing or tracking state, driven by the notifier of the
+	 * pipeline they are used in.
+	 */
+	public static BuiltinUniforms collect(IdMap idMap, PackDirectives directives, FrameUpdateNotifier updateNotifier) {
+		final BuiltinUniforms builtins = new BuiltinUniforms();
+
+		CommonUniforms.addBuiltinUniforms(builtins, idMap, directives, updateNotifier);
+		builtins.constants.putAll(BiomeUniforms.getConstants());
+
+		return builtins;
+	}
+
+	Builtin get(String name) {
+		return builtins.get(name);
+	}
+
+	Map<String, Float> getConstants() {
+		return constants;
+	}
+
+	BuiltinUniforms constant(String name, float value) {
+		constants.put(name, value);
+
+		return this;
+	}
+
+	private BuiltinUniforms add(String name, VariableType type, Writer writer) {
+		// Like programs, the first uniform registered under a name wins
+		builtins.putIfAbsent(name, new Builtin(type, writer));
+
+		return this;
+	}
+
+	@Override
+	public BuiltinUniforms uniform1f(UniformUpdateFrequency updateFrequency, String name, FloatSupplier value) {
+		return add(name, VariableType.FLOAT, (values, offset) -> values[offset] = value.getAsFloat());
+	}
+
+	@Override
+	public BuiltinUniforms uniform1f(UniformUpdateFrequency updateFrequency, String name, IntSupplier value) {
+		return add(name, VariableType.FLOAT, (values, offset) -> values[offset] = value.getAsInt());
+	}
+
+	@Override
+	public BuiltinUniforms uniform1f(UniformUpdateFrequency updateFrequency, String name, DoubleSupplier value) {
+		return add(name, VariableType.FLOAT, (values, offset) -> values[offset] = (float) value.getAsDouble());
+	}
+
+	@Override
+	public BuiltinUniforms uniform1i(UniformUpdateFrequency updateFrequency, String name, IntSupplier value) {
+		return add(name, VariableType.INT, (values, offset) -> values[offset] = value.getAsInt());
+	}
+
+	@Override
+	public BuiltinUniforms uniform1b(UniformUpdateFrequency updateFrequency, String name, BooleanSupplier value) {
+		return add(name, VariableType.BOOL, (values, offset) -> values[offset] = value.getAsBoolean() ? 1.0f : 0.0f);
+	}
+
+	@Override
+	public BuiltinUniforms uniform2f(UniformUpdateFrequency updateFrequency, String name, Supplier<Vector2f> value) {
+		return add(name, VariableType.VEC2, (values, offset) -> {
+			final Vector2f vector = value.get();
+
+			values[offset] = vector.x;
+			values[offset + 1] = vector.y;
+		});
+	}
+
+	@Override
+	public BuiltinUniforms uniform2i(UniformUpdateFrequency updateFrequency, String name, Supplier<Vector2i> value) {
+		return add(name, VariableType.VEC2, (values, offset) -> {
+			final Vector2i vector = value.get();
+
+			values[offset] = vector.x;
+			values[offset + 1] = vector.y;
+		});
+	}
+
+	@Override
+	public BuiltinUniforms uniform3f(UniformUpdateFrequency updateFrequency, String name, Supplier<Vector3f> value) {
+		return add(name, VariableType.VEC3, (values, offset) -> {
+			final Vector3f vector = value.get();
+
+			values[offset] = vector.x;
+			values[offset + 1] = vector.y;
+			values[offset + 2] = vector.z;
+		});
+	}
+
+	@Override
+	public BuiltinUniforms uniformVanilla3f(UniformUpdateFrequency updateFrequency, String name, Supplier<Vec3> value) {
+		return add(name, VariableType.VEC3, (values, offset) -> {
+			final Vec3 vector = value.get();
+
+			values[offset] = (float) vector.xCoord;
+			values[offset + 1] = (float) vector.yCoord;
+			values[offset + 2] = (float) vector.zCoord;
+		});
+	}
+
+	@Override
+	public BuiltinUniforms uniformTruncated3f(UniformUpdateFrequency updateFrequency, String name, Supplier<Vector4f> value) {
+		return add(name, VariableType.VEC3, (values, offset) -> {
+			final Vector4f vector = value.get();
+
+			values[offset] = vector.x;
+			values[offset + 1] = vector.y;
+			values[offset + 2] = vector.z;
+		});
+	}
+
+	@Override
+	public BuiltinUniforms uniform3d(UniformUpdateFrequency updateFrequency, String name, Supplier<Vector3d> value) {
+		return add(name, VariableType.VEC3, (values, offset) -> {
+			final Vector3d vector = value.get();
+
+			values[offset] = (float) vector.x;
+			values[offset + 1] = (float) vector.y;
+			values[offset + 2] = (float) vector.z;
+		});
+	}
+
+	@Override
+	public BuiltinUniforms uniform4f(UniformUpdateFrequency updateFrequency, String name, Supplier<Vector4f> value) {
+		return add(name, VariableType.VEC4, (values, offset) -> {
+			final Vector4f vector = value.get();
+
+			values[offset] = vector.x;
+			values[offset + 1] = vector.y;
+			values[offset + 2] = vector.z;
+			values[offset + 3] = vector.w;
+		});
+	}
+
+	@Override
+	public BuiltinUniforms uniformMatrix(UniformUpdateFrequency updateFrequency, String name, Supplier<Matrix4f> value) {
+		return this;
+	}
+
+	@Override
+	public BuiltinUniforms uniformMatrixFromArray(UniformUpdateFrequency updateFrequency, String name, Supplier<float[]> value) {
+		return this;
+	}
+
+	@Override
+	public BuiltinUniforms externallyManagedUniform(String name, UniformType type) {
+		return this;
+	}
+
+	@Override
+	public BuiltinUniforms uniform1f(String name, FloatSupplier value, ValueUpdateNotifier notifier) {
+		return this;
+	}
+
+	@Override
+	public BuiltinUniforms uniform1f(String name, IntSupplier value, ValueUpdateNotifier notifier) {
+		return this;
+	}
+
+	@Override
+	public BuiltinUniforms uniform1f(String name, DoubleSupplier value, ValueUpdateNotifier notifier) {
+		return this;
+	}
+
+	@Override
+	public BuiltinUniforms uniform1i(String name, IntSupplier value, ValueUpdateNotifier notifier) {
+		return this;
+	}
+
+	@Override
+	public BuiltinUniforms uniform2i(String name, Supplier<Vector2i> value, ValueUpdateNotifier notifier) {
+		return this;
+	}
+
+	@Override
+	public BuiltinUniforms uniform4f(String name, Supplier<Vector4f> value, ValueUpdateNotifier notifier) {
+		return this;
+	}
+
+	@Override
+	public BuiltinUniforms uniform4i(String name, Supplier<Vector4i> value, ValueUpdateNotifier notifier) {
+		return this;
+	}
+
+	@FunctionalInterface
+	interface Writer {
+		void write(float[] values, int offset);
+	}
+
+	static final class Builtin {
+		final VariableType type;
+		final Writer writer;
+
+		private Builtin(VariableType type, Writer writer) {
+			this.type = type;
+			this.writer = writer;
+		}
+	}
+}
@@ -0,0 +1,327 @@
+package net.coderbot.iris.uniforms.custom;
+
+import kroppeb.stareval.element.ExpressionElement;
+import kroppeb.stareval.exception.ParseException;
+import kroppeb.stareval.parser.Parser;
+import net.coderbot.iris.Iris;
+import net.coderbot.iris.gl.uniform.FloatSupplier;
+import net.coderbot.iris.gl.uniform.UniformHolder;
+import net.coderbot.iris.shaderpack.IdMap;
+import net.coderbot.iris.shaderpack.PackDirectives;
+import net.coderbot.iris.uniforms.FrameUpdateNotifier;
+import net.coderbot.iris.uniforms.SystemTimeUniforms;
+import org.joml.Vector2f;
+import org.joml.Vector3f;
+import org.joml.Vector4f;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.function.BooleanSupplier;
+import java.util.function.IntSupplier;
+import java.util.function.Supplier;
+
+import static net.coderbot.iris.gl.uniform.UniformUpdateFrequency.PER_FRAME;
+
+/**
+ * The {@code uniform.<type>.<name>} and {@code variable.<type>.<name>} definitions of a shader pack, compiled for one
+ * pipeline. All of them are evaluated together once per frame, in dependency order, into a single array of values that
+ * the uniforms of every program read from.
+ */
+public class CustomUniforms {
+	private final float[] values;
+	private final Runnable[] steps;
+	private final List<Definition> uniforms;
+	private final Map<String, ExpressionCompiler.Variable> variables;
+	private int lastFrame = -1;
+
+	private CustomUniforms(float[] values, Runnable[] steps, List<Definition> uniforms, Map<String, ExpressionCompiler.Variable> variables) {
+		this.values = values;
+		this.steps = steps;
+		this.uniforms = uniforms;
+		this.variables = variables;
+	}
+
+	/**
+	 * Reads the builtin uniforms that are referred to and evaluates every definition.
+	 */
+	public void update() {
+		for (Runnable step : steps) {
+			step.run();
+		}
+	}
+
+	private void updateOncePerFrame() {
+		final int frame = SystemTimeUniforms.COUNTER.getAsInt();
+
+		if (frame != lastFrame) {
+			lastFrame = frame;
+			update();
+		}
+	}
+
+	/**
+	 * Adds the custom uniforms, but not the variables, to a program.
+	 */
+	public void assignTo(UniformHolder holder) {
+		for (Definition uniform : uniforms) {
+			final int offset = variables.get(uniform.name).offset;
+
+			switch (uniform.type) {
+				case FLOAT -> {
+					final FloatSupplier value = () -> {
+						updateOncePerFrame();
+						return values[offset];
+					};
+
+					holder.uniform1f(PER_FRAME, uniform.name, value);
+				}
+				case INT -> {
+					final IntSupplier value = () -> {
+						updateOncePerFrame();
+						return (int) values[offset];
+					};
+
+					holder.uniform1i(PER_FRAME, uniform.name, value);
+				}
+				case BOOL -> {
+					final BooleanSupplier value = () -> {
+						updateOncePerFrame();
+						return values[offset] != 0.0f;
+					};
+
+					holder.uniform1b(PER_FRAME, uniform.name, value);
+				}
+				case VEC2 -> {
+					final Vector2f held = new Vector2f();
+					final Supplier<Vector2f> value = () -> {
+						updateOncePerFrame();
+						return held.set(values[offset], values[offset + 1]);
+					};
+
+					holder.uniform2f(PER_FRAME, uniform.name, value);
+				}
+				case VEC3 -> {
+					final Vector3f held = new Vector3f();
+					final Supplier<Vector3f> value = () -> {
+						updateOncePerFrame();
+						return held.set(values[offset], values[offset + 1], values[offset + 2]);
+					};
+
+					holder.uniform3f(PER_FRAME, uniform.name, value);
+				}
+				case VEC4 -> {
+					final Vector4f held = new Vector4f();
+					final Supplier<Vector4f> value = () -> {
+						updateOncePerFrame();
+						return held.set(values[offset], values[offset + 1], values[offset + 2], values[offset + 3]);
+					};
+
+					holder.uniform4f(PER_FRAME, uniform.name, value);
+				}
+			}
+		}
+	}
+
+	/**
+	 * @return The current value of a component of a definition, or NaN if there is no such definition
+	 */
+	float getValue(String name, int component) {
+		final ExpressionCompiler.Variable variable = variables.get(name);
+
+		return variable == null ? Float.NaN : values[variable.offset + component];
+	}
+
+	private static final class Definition {
+		final VariableType type;
+		final String name;
+		final ExpressionElement expression;
+		final boolean uniform;
+
+		private Definition(VariableType type, String name, ExpressionElement expression, boolean uniform) {
+			this.type = type;
+			this.name = name;
+			this.expression = expression;
+			this.uniform = uniform;
+		}
+	}
+
+	/**
+	 * The parsed definitions of a shader pack. They are compiled once per pipeline, which is identified by its frame
+	 * notifier since that is what every program of the pipeline receives.
+	 */
+	public static class Builder {
+		private final Map<String, Definition> definitions = new LinkedHashMap<>();
+		private final Map<FrameUpdateNotifier, CustomUniforms> compiled = new WeakHashMap<>();
+
+		public void add(String typeName, String name, String expression, boolean uniform) {
+			final VariableType type = VariableType.fromString(typeName).orElse(null);
+
+			if (type == null) {
+				Iris.logger.error("Unknown type " + typeName + " of custom " + (uniform ? "uniform " : "variable ") + name);
+				return;
+			}
+
+			final ExpressionElement parsed;
+
+			try {
+				parsed = Parser.parse(expression, ExpressionCompiler.OPTIONS);
+			} catch (ParseException | RuntimeException e) {
+				Iris.logger.error("Unable to parse custom " + (uniform ? "uniform " : "variable ") + name + ": " + expression, e);
+				return;
+			}
+
+			if (definitions.remove(name) != null) {
+				Iris.logger.warn("Custom uniform or variable " + name + " is defined more than once, using the last definition");
+			}
+
+			definitions.put(name, new Definition(type, name, parsed, uniform));
+		}
+
+		public boolean isEmpty() {
+			return definitions.isEmpty();
+		}
+
+		public CustomUniforms build(IdMap idMap, PackDirectives directives, FrameUpdateNotifier updateNotifier) {
+			return compiled.computeIfAbsent(updateNotifier, notifier -> build(BuiltinUniforms.collect(idMap, directives, notifier)));
+		}
+
+		public CustomUniforms build(BuiltinUniforms builtins) {
+			final Map<String, Set<String>> dependencies = new HashMap<>();
+
+			for (Definition definition : definitions.values()) {
+				final Set<String> names = new HashSet<>();
+
+				ExpressionCompiler.collectVariables(definition.expression, names);
+				dependencies.put(definition.name, names);
+			}
+
+			// Definitions may refer to the ones below them, so they are evaluated in dependency order
+			final Set<String> ordered = new LinkedHashSet<>();
+			final Set<String> visiting = new HashSet<>();
+			final Set<String> cyclic = new HashSet<>();
+
+			for (String name : definitions.keySet()) {
+				order(name, dependencies, ordered, visiting, cyclic);
+			}
+
+			// Left without a value, so that whatever depends on them fails to compile
+			ordered.removeAll(cyclic);
+
+			final Map<String, ExpressionCompiler.Variable> variables = new HashMap<>();
+			final Map<String, BuiltinUniforms.Builtin> usedBuiltins = new LinkedHashMap<>();
+			int size = 0;
+
+			for (String name : ordered) {
+				for (String dependency : dependencies.get(name)) {
+					final BuiltinUniforms.Builtin builtin = definitions.containsKey(dependency) ? null : builtins.get(dependency);
+
+					if (builtin != null && !variables.containsKey(dependency)) {
+						usedBuiltins.put(dependency, builtin);
+						variables.put(dependency, new ExpressionCompiler.Variable(builtin.type, size));
+						size += builtin.type.size;
+					}
+				}
+
+				final Definition definition = definitions.get(name);
+
+				variables.put(name, new ExpressionCompiler.Variable(definition.type, size));
+				size += definition.type.size;
+			}
+
+			final float[] values = new float[size];
+			final ExpressionCompiler compiler = new ExpressionCompiler(values, variables::get, builtins.getConstants());
+			final List<Runnable> steps = new ArrayList<>();
+			final List<Definition> uniforms = new ArrayList<>();
+
+			for (Entry<String, BuiltinUniforms.Builtin> entry : usedBuiltins.entrySet()) {
+				final BuiltinUniforms.Writer writer = entry.getValue().writer;
+				final int offset = variables.get(entry.getKey()).offset;
+
+				steps.add(() -> writer.write(values, offset));
+			}
+
+			for (String name : ordered) {
+				final Definition definition = definitions.get(name);
+
+				try {
+					steps.add(compile(compiler, definition, values, variables.get(name).offset));
+				} catch (IllegalArgumentException e) {
+					Iris.logger.error("Unable to compile custom " + (definition.uniform ? "uniform " : "variable ") + name + ": " + e.getMessage());
+
+					// Anything depending on it fails to compile as well
+					variables.remove(name);
+					continue;
+				}
+
+				if (definition.uniform) {
+					uniforms.add(definition);
+				}
+			}
+
+			final CustomUniforms customUniforms = new CustomUniforms(values, steps.toArray(new Runnable[0]), uniforms, variables);
+
+			// Start out with sensible values, for programs which are used before the first frame
+			customUniforms.update();
+
+			return customUniforms;
+		}
+
+		private void order(String name, Map<String, Set<String>> dependencies, Set<String> ordered, Set<String> visiting, Set<String> cyclic) {
+			if (ordered.contains(name)) {
+				return;
+			}
+
+			if (!visiting.add(name)) {
+				Iris.logger.error("Custom uniform or variable " + name + " depends on itself");
+				cyclic.add(name);
+				return;
+			}
+
+			for (String dependency : dependencies.get(name)) {
+				if (definitions.containsKey(dependency)) {
+					order(dependency, dependencies, ordered, visiting, cyclic);
+				}
+			}
+
+			visiting.remove(name);
+			ordered.add(name);
+		}
+
+		private static Runnable compile(ExpressionCompiler compiler, Definition definition, float[] values, int offset) {
+			switch (definition.type) {
+				case FLOAT -> {
+					final ExpressionCompiler.FloatExpression expression = compiler.compileFloat(definition.expression);
+
+					return () -> values[offset] = expression.evaluate();
+				}
+				case INT -> {
+					final ExpressionCompiler.FloatExpression expression = compiler.compileFloat(definition.expression);
+
+					return () -> values[offset] = (int) expression.evaluate();
+				}
+				case BOOL -> {
+					final ExpressionCompiler.BooleanExpression expression = compiler.compileBoolean(definition.expression);
+
+					return () -> values[offset] = expression.evaluate() ? 1.0f : 0.0f;
+				}
+				default -> {
+					final ExpressionCompiler.FloatExpression[] components = compiler.compileVector(definition.expression, definition.type);
+
+					return () -> {
+						for (int i = 0; i < components.length; i++) {
+							values[offset + i] = components[i].evaluate();
+						}
+					};
+				}
+			}
+		}
+	}
+}
@@ -0,0 +1,618 @@
+package net.coderbot.iris.uniforms.custom;
+
+import kroppeb.stareval.element.ExpressionElement;
+import kroppeb.stareval.element.token.IdToken;
+import kroppeb.stareval.element.token.NumberToken;
+import kroppeb.stareval.element.tree.AccessExpressionElement;
+import kroppeb.stareval.element.tree.BinaryExpressionElement;
+import kroppeb.stareval.element.tree.FunctionCall;
+import kroppeb.stareval.element.tree.UnaryExpressionElement;
+import kroppeb.stareval.parser.BinaryOp;
+import kroppeb.stareval.parser.ParserOptions;
+import kroppeb.stareval.parser.UnaryOp;
+import net.coderbot.iris.uniforms.SystemTimeUniforms;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.DoubleBinaryOperator;
+import java.util.function.DoubleUnaryOperator;
+import java.util.function.Function;
+
+/**
+ * Compiles the expressions of custom uniforms into trees of closures working on primitives. Variables are read from a
+ * shared array of values, which is filled in dependency order before the expressions reading them are evaluated.
+ *
+ * Expressions follow OptiFine: every value is either a float or a boolean, int variables hold a truncated float, and
+ * vector variables can only be read one component at a time.
+ */
+final class ExpressionCompiler {
+	private static final BinaryOp OR = new BinaryOp("or", 0);
+	private static final BinaryOp AND = new BinaryOp("and", 1);
+	private static final BinaryOp EQUAL = new BinaryOp("equal", 2);
+	private static final BinaryOp NOT_EQUAL = new BinaryOp("notEqual", 2);
+	private static final BinaryOp LESS = new BinaryOp("less", 3);
+	private static final BinaryOp LESS_OR_EQUAL = new BinaryOp("lessOrEqual", 3);
+	private static final BinaryOp GREATER = new BinaryOp("greater", 3);
+	private static final BinaryOp GREATER_OR_EQUAL = new BinaryOp("greaterOrEqual", 3);
+	private static final BinaryOp ADD = new BinaryOp("add", 4);
+	private static final BinaryOp SUBTRACT = new BinaryOp("subtract", 4);
+	private static final BinaryOp MULTIPLY = new BinaryOp("multiply", 5);
+	private static final BinaryOp DIVIDE = new BinaryOp("divide", 5);
+	private static final BinaryOp REMAINDER = new BinaryOp("remainder", 5);
+
+	private static final UnaryOp NEGATE = new UnaryOp("negate");
+	private static final UnaryOp NOT = new UnaryOp("not");
+
+	static final ParserOptions OPTIONS;
+
+	static {
+		final ParserOptions.Builder builder = new ParserOptions.Builder();
+
+		builder.addBinaryOp("||", OR);
+		builder.addBinaryOp("&&", AND);
+		builder.addBinaryOp("==", EQUAL);
+		builder.addBinaryOp("!=", NOT_EQUAL);
+		builder.addBinaryOp("<", LESS);
+		builder.addBinaryOp("<=", LESS_OR_EQUAL);
+		builder.addBinaryOp(">", GREATER);
+		builder.addBinaryOp(">=", GREATER_OR_EQUAL);
+		builder.addBinaryOp("+", ADD);
+		builder.addBinaryOp("-", SUBTRACT);
+		builder.addBinaryOp("*", MULTIPLY);
+		builder.addBinaryOp("/", DIVIDE);
+		builder.addBinaryOp("%", REMAINDER);
+
+		builder.addUnaryOp("-", NEGATE);
+		builder.addUnaryOp("!", NOT);
+
+		OPTIONS = builder.build();
+	}
+
+	@FunctionalInterface
+	interface FloatExpression {
+		float evaluate();
+	}
+
+	@FunctionalInterface
+	interface BooleanExpression {
+		boolean evaluate();
+	}
+
+	/**
+	 * Where the value of a variable is stored.
+	 */
+	static final class Variable {
+		final VariableType type;
+		final int offset;
+
+		Variable(VariableType type, int offset) {
+			this.type = type;
+			this.offset = offset;
+		}
+	}
+
+	private final float[] values;
+	private final Function<String, Variable> variables;
+	private final Map<String, Float> constants;
+
+	ExpressionCompiler(float[] values, Function<String, Variable> variables, Map<String, Float> constants) {
+		this.values = values;
+		this.variables = variables;
+		this.constants = constants;
+	}
+
+	/**
+	 * Adds the names of the variables an expression reads to the given set. Named constants other than the built in
+	 * ones are included, since definitions and builtins take precedence over them.
+	 */
+	static void collectVariables(ExpressionElement element, Set<String> names) {
+		if (element instanceof IdToken id) {
+			if (!isConstant(id.getId())) {
+				names.add(id.getId());
+			}
+		} else if (element instanceof AccessExpressionElement access) {
+			collectVariables(access.getBase(), names);
+		} else if (element instanceof UnaryExpressionElement unary) {
+			collectVariables(unary.getInner(), names);
+		} else if (element instanceof BinaryExpressionElement binary) {
+			collectVariables(binary.getLeft(), names);
+			collectVariables(binary.getRight(), names);
+		} else if (element instanceof FunctionCall call) {
+			for (ExpressionElement argument : call.getArgs()) {
+				collectVariables(argument, names);
+			}
+		}
+	}
+
+	private static boolean isConstant(String name) {
+		return "pi".equals(name) || "true".equals(name) || "false".equals(name);
+	}
+
+	/**
+	 * Vectors are either built from their components with {@code vecN(...)}, or copied from another vector variable.
+	 */
+	FloatExpression[] compileVector(ExpressionElement element, VariableType type) {
+		final FloatExpression[] components = new FloatExpression[type.size];
+
+		if (element instanceof FunctionCall call && call.getId().equals(type.toString())) {
+			requireArguments(call, type.size, type.size);
+
+			for (int i = 0; i < type.size; i++) {
+				components[i] = compileFloat(call.getArgs().get(i));
+			}
+		} else if (element instanceof IdToken id) {
+			final Variable variable = resolve(id.getId());
+
+			if (variable.type != type) {
+				throw new IllegalArgumentException("Expected a " + type + " but " + id.getId() + " is a " + variable.type);
+			}
+
+			for (int i = 0; i < type.size; i++) {
+				final int offset = variable.offset + i;
+
+				components[i] = () -> values[offset];
+			}
+		} else {
+			throw new IllegalArgumentException("Expected " + type + "(...) or a " + type + " variable");
+		}
+
+		return components;
+	}
+
+	FloatExpression compileFloat(ExpressionElement element) {
+		if (isBoolean(element)) {
+			final BooleanExpression condition = compileBoolean(element);
+
+			return () -> condition.evaluate() ? 1.0f : 0.0f;
+		}
+
+		if (element instanceof NumberToken number) {
+			final float value;
+
+			try {
+				value = Float.parseFloat(number.getNumber());
+			} catch (NumberFormatException e) {
+				throw new IllegalArgumentException("Invalid number: " + number.getNumber());
+			}
+
+			return () -> value;
+		} else if (element instanceof IdToken id) {
+			if ("pi".equals(id.getId())) {
+				return () -> (float) Math.PI;
+			}
+
+			final Variable variable = variables.apply(id.getId());
+
+			if (variable == null) {
+				final Float constant = constants.get(id.getId());
+
+				if (constant == null) {
+					throw new IllegalArgumentException("Unknown variable " + id.getId());
+				}
+
+				final float value = constant;
+
+				return () -> value;
+			}
+
+			if (variable.type.isVector()) {
+				throw new IllegalArgumentException("Can't use the " + variable.type + " " + id.getId() + " as a number, access one of its components instead");
+			}
+
+			final int offset = variable.offset;
+
+			return () -> values[offset];
+		} else if (element instanceof AccessExpressionElement access) {
+			return compileAccess(access);
+		} else if (element instanceof UnaryExpressionElement unary && unary.getOp() == NEGATE) {
+			final FloatExpression inner = compileFloat(unary.getInner());
+
+			return () -> -inner.evaluate();
+		} else if (element instanceof BinaryExpressionElement binary) {
+			final FloatExpression left = compileFloat(binary.getLeft());
+			final FloatExpression right = compileFloat(binary.getRight());
+			final BinaryOp op = binary.getOp();
+
+			if (op == ADD) {
+				return () -> left.evaluate() + right.evaluate();
+			} else if (op == SUBTRACT) {
+				return () -> left.evaluate() - right.evaluate();
+			} else if (op == MULTIPLY) {
+				return () -> left.evaluate() * right.evaluate();
+			} else if (op == DIVIDE) {
+				return () -> left.evaluate() / right.evaluate();
+			} else if (op == REMAINDER) {
+				return () -> left.evaluate() % right.evaluate();
+			}
+		} else if (element instanceof FunctionCall call) {
+			return compileFunction(call);
+		}
+
+		throw new IllegalArgumentException("Unsupported expression: " + element);
+	}
+
+	BooleanExpression compileBoolean(ExpressionElement element) {
+		if (!isBoolean(element)) {
+			final FloatExpression value = compileFloat(element);
+
+			return () -> value.evaluate() != 0.0f;
+		}
+
+		if (element instanceof IdToken id) {
+			if ("true".equals(id.getId())) {
+				return () -> true;
+			} else if ("false".equals(id.getId())) {
+				return () -> false;
+			}
+
+			final int offset = resolve(id.getId()).offset;
+
+			return () -> values[offset] != 0.0f;
+		} else if (element instanceof UnaryExpressionElement unary) {
+			final BooleanExpression inner = compileBoolean(unary.getInner());
+
+			return () -> !inner.evaluate();
+		} else if (element instanceof BinaryExpressionElement binary) {
+			return compileComparison(binary);
+		} else if (element instanceof FunctionCall call) {
+			switch (call.getId()) {
+				case "between" -> {
+					requireArguments(call, 3, 3);
+
+					final FloatExpression value = compileFloat(call.getArgs().get(0));
+					final FloatExpression min = compileFloat(call.getArgs().get(1));
+					final FloatExpression max = compileFloat(call.getArgs().get(2));
+
+					return () -> {
+						final float x = value.evaluate();
+
+						return x >= min.evaluate() && x <= max.evaluate();
+					};
+				}
+				case "equals" -> {
+					requireArguments(call, 3, 3);
+
+					final FloatExpression left = compileFloat(call.getArgs().get(0));
+					final FloatExpression right = compileFloat(call.getArgs().get(1));
+					final FloatExpression epsilon = compileFloat(call.getArgs().get(2));
+
+					return () -> Math.abs(left.evaluate() - right.evaluate()) <= epsilon.evaluate();
+				}
+				case "in" -> {
+					requireArguments(call, 2, Integer.MAX_VALUE);
+
+					final FloatExpression value = compileFloat(call.getArgs().get(0));
+					final FloatExpression[] candidates = compileArguments(call, 1);
+
+					return () -> {
+						final float x = value.evaluate();
+
+						for (FloatExpression candidate : candidates) {
+							if (x == candidate.evaluate()) {
+								return true;
+							}
+						}
+
+						return false;
+					};
+				}
+				case "if" -> {
+					return compileBooleanIf(call);
+				}
+			}
+		}
+
+		throw new IllegalArgumentException("Unsupported expression: " + element);
+	}
+
+	private boolean isBoolean(ExpressionElement element) {
+		if (element instanceof IdToken id) {
+			final String name = id.getId();
+
+			if ("true".equals(name) || "false".equals(name)) {
+				return true;
+			}
+
+			// Unknown names and named constants are numbers, compileFloat() reports the unknown ones
+			final Variable variable = isConstant(name) ? null : variables.apply(name);
+
+			return variable != null && variable.type == VariableType.BOOL;
+		} else if (element instanceof UnaryExpressionElement unary) {
+			return unary.getOp() == NOT;
+		} else if (element instanceof BinaryExpressionElement binary) {
+			final BinaryOp op = binary.getOp();
+
+			return op == OR || op == AND || op == EQUAL || op == NOT_EQUAL
+				|| op == LESS || op == LESS_OR_EQUAL || op == GREATER || op == GREATER_OR_EQUAL;
+		} else if (element instanceof FunctionCall call) {
+			return switch (call.getId()) {
+				case "between", "equals", "in" -> true;
+				case "if" -> call.getArgs().size() >= 2 && isBoolean(call.getArgs().get(1));
+				default -> false;
+			};
+		}
+
+		return false;
+	}
+
+	private BooleanExpression compileComparison(BinaryExpressionElement binary) {
+		final BinaryOp op = binary.getOp();
+
+		if (op == OR || op == AND) {
+			final BooleanExpression left = compileBoolean(binary.getLeft());
+			final BooleanExpression right = compileBoolean(binary.getRight());
+
+			return op == OR ? () -> left.evaluate() || right.evaluate() : () -> left.evaluate() && right.evaluate();
+		}
+
+		if ((op == EQUAL || op == NOT_EQUAL) && isBoolean(binary.getLeft()) && isBoolean(binary.getRight())) {
+			final BooleanExpression left = compileBoolean(binary.getLeft());
+			final BooleanExpression right = compileBoolean(binary.getRight());
+
+			return op == EQUAL ? () -> left.evaluate() == right.evaluate() : () -> left.evaluate() != right.evaluate();
+		}
+
+		final FloatExpression left = compileFloat(binary.getLeft());
+		final FloatExpression right = compileFloat(binary.getRight());
+
+		if (op == EQUAL) {
+			return () -> left.evaluate() == right.evaluate();
+		} else if (op == NOT_EQUAL) {
+			return () -> left.evaluate() != right.evaluate();
+		} else if (op == LESS) {
+			return () -> left.evaluate() < right.evaluate();
+		} else if (op == LESS_OR_EQUAL) {
+			return () -> left.evaluate() <= right.evaluate();
+		} else if (op == GREATER) {
+			return () -> left.evaluate() > right.evaluate();
+		} else {
+			return () -> left.evaluate() >= right.evaluate();
+		}
+	}
+
+	private FloatExpression compileAccess(AccessExpressionElement access) {
+		if (!(access.getBase() instanceof IdToken id)) {
+			throw new IllegalArgumentException("Only the components of variables can be accessed: " + access);
+		}
+
+		final Variable variable = resolve(id.getId());
+		final int component = switch (access.getIndex()) {
+			case "x", "r", "0" -> 0;
+			case "y", "g", "1" -> 1;
+			case "z", "b", "2" -> 2;
+			case "w", "a", "3" -> 3;
+			default -> throw new IllegalArgumentException("Unknown component " + access.getIndex() + " of " + id.getId());
+		};
+
+		if (component >= variable.type.size) {
+			throw new IllegalArgumentException(id.getId() + " is a " + variable.type + " and has no component " + access.getIndex());
+		}
+
+		final int offset = variable.offset + component;
+
+		return () -> values[offset];
+	}
+
+	private FloatExpression compileFunction(FunctionCall call) {
+		return switch (call.getId()) {
+			case "sin" -> call1(call, Math::sin);
+			case "cos" -> call1(call, Math::cos);
+			case "tan" -> call1(call, Math::tan);
+			case "asin" -> call1(call, Math::asin);
+			case "acos" -> call1(call, Math::acos);
+			case "atan" -> call1(call, Math::atan);
+			case "torad" -> call1(call, Math::toRadians);
+			case "todeg" -> call1(call, Math::toDegrees);
+			case "abs" -> call1(call, Math::abs);
+			case "floor" -> call1(call, Math::floor);
+			case "ceil" -> call1(call, Math::ceil);
+			case "round" -> call1(call, x -> (double) Math.round(x));
+			case "frac" -> call1(call, x -> x - Math.floor(x));
+			case "signum" -> call1(call, Math::signum);
+			case "sqrt" -> call1(call, Math::sqrt);
+			case "exp" -> call1(call, Math::exp);
+			case "exp2" -> call1(call, x -> Math.pow(2.0, x));
+			case "log" -> call1(call, Math::log);
+			case "log2" -> call1(call, x -> Math.log(x) / Math.log(2.0));
+			case "atan2" -> call2(call, Math::atan2);
+			case "pow" -> call2(call, Math::pow);
+			case "fmod" -> call2(call, (x, y) -> x % y);
+			case "min" -> {
+				requireArguments(call, 2, Integer.MAX_VALUE);
+
+				final FloatExpression[] arguments = compileArguments(call, 0);
+
+				yield () -> {
+					float min = arguments[0].evaluate();
+
+					for (int i = 1; i < arguments.length; i++) {
+						min = Math.min(min, arguments[i].evaluate());
+					}
+
+					return min;
+				};
+			}
+			case "max" -> {
+				requireArguments(call, 2, Integer.MAX_VALUE);
+
+				final FloatExpression[] arguments = compileArguments(call, 0);
+
+				yield () -> {
+					float max = arguments[0].evaluate();
+
+					for (int i = 1; i < arguments.length; i++) {
+						max = Math.max(max, arguments[i].evaluate());
+					}
+
+					return max;
+				};
+			}
+			case "clamp" -> {
+				requireArguments(call, 3, 3);
+
+				final FloatExpression value = compileFloat(call.getArgs().get(0));
+				final FloatExpression min = compileFloat(call.getArgs().get(1));
+				final FloatExpression max = compileFloat(call.getArgs().get(2));
+
+				yield () -> Math.max(min.evaluate(), Math.min(max.evaluate(), value.evaluate()));
+			}
+			case "random" -> {
+				requireArguments(call, 0, 0);
+
+				yield () -> (float) Math.random();
+			}
+			case "if" -> compileFloatIf(call);
+			case "smooth" -> compileSmooth(call);
+			default -> throw new IllegalArgumentException("Unknown function " + call.getId() + " with " + call.getArgs().size() + " arguments");
+		};
+	}
+
+	private FloatExpression call1(FunctionCall call, DoubleUnaryOperator function) {
+		requireArguments(call, 1, 1);
+
+		final FloatExpression x = compileFloat(call.getArgs().get(0));
+
+		return () -> (float) function.applyAsDouble(x.evaluate());
+	}
+
+	private FloatExpression call2(FunctionCall call, DoubleBinaryOperator function) {
+		requireArguments(call, 2, 2);
+
+		final FloatExpression x = compileFloat(call.getArgs().get(0));
+		final FloatExpression y = compileFloat(call.getArgs().get(1));
+
+		return () -> (float) function.applyAsDouble(x.evaluate(), y.evaluate());
+	}
+
+	/**
+	 * {@code if(condition, value, [condition, value, ...], else)}
+	 */
+	private FloatExpression compileFloatIf(FunctionCall call) {
+		final List<? extends ExpressionElement> arguments = requireIfArguments(call);
+		FloatExpression result = compileFloat(arguments.get(arguments.size() - 1));
+
+		for (int i = arguments.size() - 3; i >= 0; i -= 2) {
+			final BooleanExpression condition = compileBoolean(arguments.get(i));
+			final FloatExpression value = compileFloat(arguments.get(i + 1));
+			final FloatExpression otherwise = result;
+
+			result = () -> condition.evaluate() ? value.evaluate() : otherwise.evaluate();
+		}
+
+		return result;
+	}
+
+	private BooleanExpression compileBooleanIf(FunctionCall call) {
+		final List<? extends ExpressionElement> arguments = requireIfArguments(call);
+		BooleanExpression result = compileBoolean(arguments.get(arguments.size() - 1));
+
+		for (int i = arguments.size() - 3; i >= 0; i -= 2) {
+			final BooleanExpression condition = compileBoolean(arguments.get(i));
+			final BooleanExpression value = compileBoolean(arguments.get(i + 1));
+			final BooleanExpression otherwise = result;
+
+			result = () -> condition.evaluate() ? value.evaluate() : otherwise.evaluate();
+		}
+
+		return result;
+	}
+
+	private static List<? extends ExpressionElement> requireIfArguments(FunctionCall call) {
+		final List<? extends ExpressionElement> arguments = call.getArgs();
+
+		if (arguments.size() < 3 || arguments.size() % 2 == 0) {
+			throw new IllegalArgumentException("if() takes pairs of conditions and values followed by an else value, got " + arguments.size() + " arguments");
+		}
+
+		return arguments;
+	}
+
+	/**
+	 * {@code smooth([id], value, [halfLifeUp, [halfLifeDown]])}, with the same half life units as {@link
+	 * net.coderbot.iris.uniforms.transforms.SmoothedFloat}. The id is only there for compatibility, every call is
+	 * smoothed separately.
+	 */
+	private FloatExpression compileSmooth(FunctionCall call) {
+		requireArguments(call, 1, 4);
+
+		final List<? extends ExpressionElement> arguments = call.getArgs();
+		final int first = arguments.size() == 4 ? 1 : 0;
+
+		final FloatExpression value = compileFloat(arguments.get(first));
+		final FloatExpression halfLifeUp = arguments.size() > first + 1 ? compileFloat(arguments.get(first + 1)) : () -> 1.0f;
+		final FloatExpression halfLifeDown = arguments.size() > first + 2 ? compileFloat(arguments.get(first + 2)) : halfLifeUp;
+
+		return new Smooth(value, halfLifeUp, halfLifeDown);
+	}
+
+	private FloatExpression[] compileArguments(FunctionCall call, int first) {
+		final List<? extends ExpressionElement> arguments = call.getArgs();
+		final FloatExpression[] compiled = new FloatExpression[arguments.size() - first];
+
+		for (int i = first; i < arguments.size(); i++) {
+			compiled[i - first] = compileFloat(arguments.get(i));
+		}
+
+		return compiled;
+	}
+
+	private static void requireArguments(FunctionCall call, int min, int max) {
+		final int count = call.getArgs().size();
+
+		if (count < min || count > max) {
+			throw new IllegalArgumentException("Wrong number of arguments for " + call.getId() + ": " + count);
+		}
+	}
+
+	private Variable resolve(String name) {
+		final Variable variable = variables.apply(name);
+
+		if (variable == null) {
+			throw new IllegalArgumentException("Unknown variable " + name);
+		}
+
+		return variable;
+	}
+
+	/**
+	 * Exponential smoothing of a value, advanced each time it is evaluated, so once per frame.
+	 */
+	private static final class Smooth implements FloatExpression {
+		private static final double LN_OF_2 = Math.log(2.0);
+
+		private final FloatExpression value;
+		private final FloatExpression halfLifeUp;
+		private final FloatExpression halfLifeDown;
+		private float accumulator;
+		private boolean hasInitialValue;
+
+		private Smooth(FloatExpression value, FloatExpression halfLifeUp, FloatExpression halfLifeDown) {
+			this.value = value;
+			this.halfLifeUp = halfLifeUp;
+			this.halfLifeDown = halfLifeDown;
+		}
+
+		@Override
+		public float evaluate() {
+			final float newValue = value.evaluate();
+
+			if (!hasInitialValue) {
+				accumulator = newValue;
+				hasInitialValue = true;
+
+				return accumulator;
+			}
+
+			// Half lives are in deciseconds
+			final float halfLife = (newValue > accumulator ? halfLifeUp : halfLifeDown).evaluate() * 0.1f;
+			final float smoothingFactor = halfLife > 0.0f
+				? 1.0f - (float) Math.exp(-(LN_OF_2 / halfLife) * SystemTimeUniforms.TIMER.getLastFrameTime())
+				: 1.0f;
+
+			accumulator += (newValue - accumulator) * smoothingFactor;
+
+			return accumulator;
+		}
+	}
+}
@@ -0,0 +1,43 @@
+package net.coderbot.iris.uniforms.custom;
+
+import java.util.Optional;
+
+/**
+ * The types a custom uniform or variable can be declared with. Every value is stored as floats, one per component,
+ * with booleans being 0 or 1.
+ */
+enum VariableType {
+	FLOAT("float", 1),
+	INT("int", 1),
+	BOOL("bool", 1),
+	VEC2("vec2", 2),
+	VEC3("vec3", 3),
+	VEC4("vec4", 4);
+
+	private final String name;
+	final int size;
+
+	VariableType(String name, int size) {
+		this.name = name;
+		this.size = size;
+	}
+
+	boolean isVector() {
+		return size > 1;
+	}
+
+	static Optional<VariableType> fromString(String name) {
+		for (VariableType type : values()) {
+			if (type.name.equals(name)) {
+				return Optional.of(type);
+			}
+		}
+
+		return Optional.empty();
+	}
+
+	@Override
+	public String toString() {
+		return name;
+	}
+}
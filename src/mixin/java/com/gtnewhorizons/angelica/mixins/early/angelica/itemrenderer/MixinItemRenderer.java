@@ -50,13 +50,6 @@ public abstract class MixinItemRenderer {
         }
     }
 
-    @Inject(method = "renderItemIn2D",
-        at = @At("RETURN"),
-        require = 1)
-    private static void leFunnyRenderListEnd(Tessellator tess, float a, float b, float c, float d, int e, int f, float g, CallbackInfo ci) {
-        ItemRenderListManager.INSTANCE.post();
-    }
-
     @Redirect(method = "renderItemIn2D",
         slice = @Slice(from = @At(value = "INVOKE",
             target = "Lnet/minecraft/client/renderer/Tessellator;draw()I",
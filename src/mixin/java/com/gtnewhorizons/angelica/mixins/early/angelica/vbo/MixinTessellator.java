@@ -0,0 +1,23 @@
+package com.gtnewhorizons.angelica.mixins.early.angelica.vbo;
+
+import com.gtnewhorizons.angelica.glsm.displaylist.DisplayListCompiler;
+import net.minecraft.client.renderer.Tessellator;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
+
+@Mixin(Tessellator.class)
+public class MixinTessellator {
+    @Inject(method = "draw", at = @At("HEAD"), cancellable = true)
+    private void angelica$captureDisplayListDraw(CallbackInfoReturnable<Integer> cir) {
+        final Tessellator tessellator = (Tessellator) (Object) this;
+
+        if (tessellator.isDrawing && DisplayListCompiler.isRecording() && DisplayListCompiler.recordDraw(tessellator)) {
+            final int bytes = tessellator.rawBufferIndex * 4;
+            tessellator.isDrawing = false;
+            tessellator.reset();
+            cir.setReturnValue(bytes);
+        }
+    }
+}
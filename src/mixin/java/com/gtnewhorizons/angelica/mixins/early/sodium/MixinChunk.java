@@ -1,6 +1,8 @@
 package com.gtnewhorizons.angelica.mixins.early.sodium;
 
+import net.minecraft.block.Block;
 import net.minecraft.client.Minecraft;
+import net.minecraft.world.EnumSkyBlock;
 import net.minecraft.world.World;
 import net.minecraft.world.biome.BiomeGenBase;
 import net.minecraft.world.biome.WorldChunkManager;
@@ -8,15 +10,30 @@ import net.minecraft.world.chunk.Chunk;
 
 import com.gtnewhorizons.angelica.compat.ModStatus;
 import com.gtnewhorizons.angelica.compat.endlessids.EndlessIDsCompat;
+import com.gtnewhorizons.angelica.mixins.interfaces.IChunkSectionVersions;
 import org.spongepowered.asm.mixin.Final;
 import org.spongepowered.asm.mixin.Mixin;
 import org.spongepowered.asm.mixin.Shadow;
+import org.spongepowered.asm.mixin.Unique;
 import org.spongepowered.asm.mixin.injection.At;
 import org.spongepowered.asm.mixin.injection.Inject;
 import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
+
+import java.util.concurrent.atomic.AtomicLong;
 
 @Mixin(Chunk.class)
-public abstract class MixinChunk {
+public abstract class MixinChunk implements IChunkSectionVersions {
+    // Versions are drawn from a global counter so that a chunk which is unloaded and loaded again never repeats one
+    @Unique
+    private static final AtomicLong angelica$versionCounter = new AtomicLong();
+
+    @Unique
+    private final long[] angelica$sectionVersions = new long[16];
+
+    @Unique
+    private long angelica$outOfBoundsVersion;
+
     @Shadow
     public World worldObj;
 
@@ -49,4 +66,57 @@ public abstract class MixinChunk {
             }
         }
     }
+
+    @Inject(method = "fillChunk", at = @At("RETURN"))
+    private void angelica$markAllSectionsModified(CallbackInfo ci) {
+        for (int y = 0; y < this.angelica$sectionVersions.length; y++) {
+            this.angelica$markSectionModified(y);
+        }
+
+        this.angelica$outOfBoundsVersion = angelica$versionCounter.incrementAndGet();
+    }
+
+    @Inject(method = "func_150807_a", at = @At("RETURN"))
+    private void angelica$onBlockChanged(int x, int y, int z, Block block, int meta, CallbackInfoReturnable<Boolean> cir) {
+        if (cir.getReturnValueZ()) {
+            this.angelica$markSectionModified(y >> 4);
+        }
+    }
+
+    @Inject(method = "setBlockMetadata", at = @At("RETURN"))
+    private void angelica$onMetadataChanged(int x, int y, int z, int meta, CallbackInfoReturnable<Boolean> cir) {
+        if (cir.getReturnValueZ()) {
+            this.angelica$markSectionModified(y >> 4);
+        }
+    }
+
+    @Inject(method = "setLightValue", at = @At("RETURN"))
+    private void angelica$onLightChanged(EnumSkyBlock type, int x, int y, int z, int value, CallbackInfo ci) {
+        this.angelica$markSectionModified(y >> 4);
+    }
+
+    @Override
+    public long angelica$getSectionVersion(int sectionY) {
+        if (sectionY < 0 || sectionY >= this.angelica$sectionVersions.length) {
+            if (this.angelica$outOfBoundsVersion == 0) {
+                this.angelica$outOfBoundsVersion = angelica$versionCounter.incrementAndGet();
+            }
+
+            return this.angelica$outOfBoundsVersion;
+        }
+
+        if (this.angelica$sectionVersions[sectionY] == 0) {
+            this.angelica$sectionVersions[sectionY] = angelica$versionCounter.incrementAndGet();
+        }
+
+        return this.angelica$sectionVersions[sectionY];
+    }
+
+    @Override
+    public void angelica$markSectionModified(int sectionY) {
+        // Only client chunks are ever cloned for rendering
+        if (this.worldObj.isRemote && sectionY >= 0 && sectionY < this.angelica$sectionVersions.length) {
+            this.angelica$sectionVersions[sectionY] = angelica$versionCounter.incrementAndGet();
+        }
+    }
 }
@@ -1,12 +1,25 @@
 package com.gtnewhorizons.angelica.mixins.early.sodium;
 
 import me.jellysquid.mods.sodium.client.util.math.FrustumExtended;
+import net.minecraft.client.renderer.culling.ClippingHelper;
 import net.minecraft.client.renderer.culling.Frustrum;
 import org.spongepowered.asm.mixin.Mixin;
 import org.spongepowered.asm.mixin.Shadow;
 
 @Mixin(Frustrum.class)
 public abstract class MixinFrustrum implements FrustumExtended {
+    @Shadow
+    private ClippingHelper clippingHelper;
+
+    @Shadow
+    private double xPosition;
+
+    @Shadow
+    private double yPosition;
+
+    @Shadow
+    private double zPosition;
+
     @Shadow
     public abstract boolean isBoxInFrustum(double p_78548_1_, double p_78548_3_, double p_78548_5_, double p_78548_7_, double p_78548_9_, double p_78548_11_);
 
@@ -14,4 +27,42 @@ public abstract class MixinFrustrum implements FrustumExtended {
     public boolean fastAabbTest(float minX, float minY, float minZ, float maxX, float maxY, float maxZ) {
         return isBoxInFrustum(minX, minY, minZ, maxX, maxY, maxZ);
     }
+
+    @Override
+    public int intersectAabb(float minX, float minY, float minZ, float maxX, float maxY, float maxZ, int planeMask) {
+        final float[][] planes = this.clippingHelper.frustum;
+
+        final float x1 = (float) (minX - this.xPosition);
+        final float y1 = (float) (minY - this.yPosition);
+        final float z1 = (float) (minZ - this.zPosition);
+        final float x2 = (float) (maxX - this.xPosition);
+        final float y2 = (float) (maxY - this.yPosition);
+        final float z2 = (float) (maxZ - this.zPosition);
+
+        int result = planeMask;
+
+        for (int i = 0; i < 6; i++) {
+            if ((planeMask & (1 << i)) == 0) {
+                continue;
+            }
+
+            final float[] plane = planes[i];
+
+            // The corner furthest along the plane's normal decides whether any of the box is inside, and the corner
+            // furthest against it whether all of it is
+            final float farthest = (plane[0] * (plane[0] > 0.0f ? x2 : x1)) + (plane[1] * (plane[1] > 0.0f ? y2 : y1)) + (plane[2] * (plane[2] > 0.0f ? z2 : z1)) + plane[3];
+
+            if (farthest <= 0.0f) {
+                return OUTSIDE;
+            }
+
+            final float nearest = (plane[0] * (plane[0] > 0.0f ? x1 : x2)) + (plane[1] * (plane[1] > 0.0f ? y1 : y2)) + (plane[2] * (plane[2] > 0.0f ? z1 : z2)) + plane[3];
+
+            if (nearest > 0.0f) {
+                result &= ~(1 << i);
+            }
+        }
+
+        return result;
+    }
 }
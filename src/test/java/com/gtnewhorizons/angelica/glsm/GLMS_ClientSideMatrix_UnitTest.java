@@ -0,0 +1,166 @@
+package com.gtnewhorizons.angelica.glsm;
+
+import com.gtnewhorizons.angelica.AngelicaExtension;
+import org.joml.Matrix4f;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.lwjgl.BufferUtils;
+import org.lwjgl.opengl.GL11;
+
+import java.nio.FloatBuffer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs the matrix stack suite again with the modelview and projection stacks kept client-side. Its checks flush before
+ * reading the GL matrices, so a missed or stale upload shows up as a mismatch between GL and the tracked stacks.
+ */
+@ExtendWith(AngelicaExtension.class)
+class GLMS_ClientSideMatrix_UnitTest {
+
+    private static final FloatBuffer buffer = BufferUtils.createFloatBuffer(16);
+    private static final FloatBuffer params = BufferUtils.createFloatBuffer(4);
+
+    @BeforeEach
+    void enableClientSideMatrices() {
+        GLStateManager.setClientSideMatrices(true);
+    }
+
+    @AfterEach
+    void disableClientSideMatrices() {
+        GLStateManager.setClientSideMatrices(false);
+    }
+
+    @Nested
+    class MatrixStack extends GLMS_MatrixStack_UnitTest {}
+
+    private static Matrix4f getMatrix(boolean cached) {
+        buffer.clear();
+        if (cached) {
+            GLStateManager.glGetFloat(GL11.GL_MODELVIEW_MATRIX, buffer);
+        } else {
+            GL11.glGetFloat(GL11.GL_MODELVIEW_MATRIX, buffer);
+        }
+        return new Matrix4f(buffer);
+    }
+
+    @Test
+    void testChangesWaitForDraw() {
+        GLStateManager.glMatrixMode(GL11.GL_MODELVIEW);
+        GLStateManager.glLoadIdentity();
+        GLStateManager.glTranslatef(1.0f, 2.0f, 3.0f);
+
+        final Matrix4f expected = new Matrix4f().translate(1.0f, 2.0f, 3.0f);
+        assertTrue(getMatrix(false).equals(new Matrix4f(), 0.0001f), "GL Matrix Before Draw");
+        assertTrue(getMatrix(true).equals(expected, 0.0001f), "GLSM Matrix Before Draw");
+
+        GLStateManager.glDrawArrays(GL11.GL_POINTS, 0, 0);
+
+        assertTrue(getMatrix(false).equals(expected, 0.0001f), "GL Matrix After Draw");
+
+        // Reset state that we changed during test
+        GLStateManager.glLoadIdentity();
+        GLStateManager.flushState();
+    }
+
+    @Test
+    void testUnchangedMatricesAreNotLoaded() {
+        GLStateManager.glMatrixMode(GL11.GL_MODELVIEW);
+        GLStateManager.glLoadIdentity();
+        GLStateManager.endFrame();
+
+        for (int i = 0; i < 4; i++) {
+            GLStateManager.glPushMatrix();
+            GLStateManager.glTranslatef(1.0f, 2.0f, 3.0f);
+            GLStateManager.glRotatef(90.0f, 0.0f, 1.0f, 0.0f);
+            GLStateManager.glPopMatrix();
+            GLStateManager.glDrawArrays(GL11.GL_POINTS, 0, 0);
+        }
+
+        GLStateManager.endFrame();
+
+        assertEquals(0, GLStateManager.getIssuedCallsLastFrame(), "Issued Calls");
+        assertEquals(16, GLStateManager.getAvoidedCallsLastFrame(), "Avoided Calls");
+        assertEquals(1, GLStateManager.glGetInteger(GL11.GL_MODELVIEW_STACK_DEPTH), "Stack Depth");
+    }
+
+    @Test
+    void testCalledListChangesMatrix() {
+        GLStateManager.glMatrixMode(GL11.GL_MODELVIEW);
+        GLStateManager.glLoadIdentity();
+
+        final int list = GL11.glGenLists(1);
+        GLStateManager.glNewList(list, GL11.GL_COMPILE);
+        GLStateManager.glTranslatef(1.0f, 2.0f, 3.0f);
+        GLStateManager.glEndList();
+
+        assertTrue(getMatrix(true).equals(new Matrix4f(), 0.0001f), "GLSM Matrix After Compile");
+
+        GLStateManager.glCallList(list);
+
+        final Matrix4f expected = new Matrix4f().translate(1.0f, 2.0f, 3.0f);
+        assertTrue(getMatrix(true).equals(expected, 0.0001f), "GLSM Matrix After Call");
+        assertTrue(getMatrix(false).equals(expected, 0.0001f), "GL Matrix After Call");
+
+        // Reset state that we changed during test
+        GLStateManager.glDeleteLists(list, 1);
+        GLStateManager.glLoadIdentity();
+        GLStateManager.flushState();
+    }
+
+    private static FloatBuffer params(float x, float y, float z, float w) {
+        params.clear();
+        params.put(x).put(y).put(z).put(w).flip();
+        return params;
+    }
+
+    @Test
+    void testLightPositionUsesCurrentMatrix() {
+        GLStateManager.glMatrixMode(GL11.GL_MODELVIEW);
+        GLStateManager.glLoadIdentity();
+        GLStateManager.flushState();
+
+        // Like RenderHelper, no draw happens between transforming and setting the light
+        GLStateManager.glPushMatrix();
+        GLStateManager.glTranslatef(1.0f, 2.0f, 3.0f);
+        GLStateManager.glLight(GL11.GL_LIGHT0, GL11.GL_POSITION, params(0.0f, 0.0f, 0.0f, 1.0f));
+        GLStateManager.glPopMatrix();
+
+        buffer.clear();
+        GL11.glGetLight(GL11.GL_LIGHT0, GL11.GL_POSITION, buffer);
+        assertEquals(1.0f, buffer.get(0), 0.0001f, "GL Light Position X");
+        assertEquals(2.0f, buffer.get(1), 0.0001f, "GL Light Position Y");
+        assertEquals(3.0f, buffer.get(2), 0.0001f, "GL Light Position Z");
+        assertEquals(1.0f, buffer.get(3), 0.0001f, "GL Light Position W");
+
+        // Reset state that we changed during test
+        GLStateManager.glLight(GL11.GL_LIGHT0, GL11.GL_POSITION, params(0.0f, 0.0f, 1.0f, 0.0f));
+        GLStateManager.flushState();
+    }
+
+    @Test
+    void testEyePlaneUsesCurrentMatrix() {
+        GLStateManager.glMatrixMode(GL11.GL_MODELVIEW);
+        GLStateManager.glLoadIdentity();
+        GLStateManager.flushState();
+
+        GLStateManager.glPushMatrix();
+        GLStateManager.glTranslatef(1.0f, 2.0f, 3.0f);
+        GLStateManager.glTexGen(GL11.GL_S, GL11.GL_EYE_PLANE, params(1.0f, 0.0f, 0.0f, 0.0f));
+        GLStateManager.glPopMatrix();
+
+        // Eye planes are transformed by the inverse of the modelview
+        buffer.clear();
+        GL11.glGetTexGen(GL11.GL_S, GL11.GL_EYE_PLANE, buffer);
+        assertEquals(1.0f, buffer.get(0), 0.0001f, "GL Eye Plane X");
+        assertEquals(-1.0f, buffer.get(3), 0.0001f, "GL Eye Plane W");
+
+        // Reset state that we changed during test
+        GLStateManager.glTexGen(GL11.GL_S, GL11.GL_EYE_PLANE, params(1.0f, 0.0f, 0.0f, 0.0f));
+        GLStateManager.flushState();
+    }
+}
@@ -24,6 +24,7 @@ public class GLMS_MatrixStack_UnitTest {
         if(cached) {
             GLStateManager.glGetFloat(matrix, buffer);
         } else {
+            GLStateManager.flushState();
             GL11.glGetFloat(matrix, buffer);
         }
         return new Matrix4f(buffer);
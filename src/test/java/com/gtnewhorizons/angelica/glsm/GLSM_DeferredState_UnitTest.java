@@ -0,0 +1,104 @@
+package com.gtnewhorizons.angelica.glsm;
+
+import com.gtnewhorizons.angelica.AngelicaExtension;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.lwjgl.opengl.GL11;
+
+import static com.gtnewhorizons.angelica.util.GLSMUtil.verifyState;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs the other GLSM suites again with state changes deferred. Their checks flush before reading the GL state, so
+ * any difference to the immediate mode shows up as a mismatch between GL and the tracked state.
+ */
+@ExtendWith(AngelicaExtension.class)
+class GLSM_DeferredState_UnitTest {
+
+    @BeforeEach
+    void enableDeferring() {
+        GLStateManager.setDeferringState(true);
+    }
+
+    @AfterEach
+    void disableDeferring() {
+        GLStateManager.setDeferringState(false);
+    }
+
+    @Nested
+    class PushPop extends GLSM_PushPop_UnitTest {}
+
+    @Nested
+    class Lighting extends GLSM_Lighting_UnitTest {}
+
+    @Nested
+    class DisplayList extends GLSM_DisplayList_UnitTest {}
+
+    @Test
+    void testChangesWaitForDraw() {
+        GLStateManager.enableBlend();
+        GLStateManager.glBlendFunc(GL11.GL_SRC_ALPHA, GL11.GL_ONE_MINUS_SRC_ALPHA);
+        GLStateManager.glDepthMask(false);
+
+        assertFalse(GL11.glIsEnabled(GL11.GL_BLEND), "Blend Enabled Before Draw");
+        assertEquals(GL11.GL_ONE, GL11.glGetInteger(GL11.GL_BLEND_SRC), "Blend Source Before Draw");
+        assertTrue(GL11.glGetBoolean(GL11.GL_DEPTH_WRITEMASK), "Depth Mask Before Draw");
+
+        GLStateManager.glDrawArrays(GL11.GL_POINTS, 0, 0);
+
+        assertTrue(GL11.glIsEnabled(GL11.GL_BLEND), "Blend Enabled After Draw");
+        assertEquals(GL11.GL_SRC_ALPHA, GL11.glGetInteger(GL11.GL_BLEND_SRC), "Blend Source After Draw");
+        assertFalse(GL11.glGetBoolean(GL11.GL_DEPTH_WRITEMASK), "Depth Mask After Draw");
+
+        // Reset state that we changed during test
+        GLStateManager.disableBlend();
+        GLStateManager.glBlendFunc(GL11.GL_ONE, GL11.GL_ZERO);
+        GLStateManager.glDepthMask(true);
+        GLStateManager.flushState();
+    }
+
+    @Test
+    void testRevertedChangesAreAvoided() {
+        GLStateManager.disableCull();
+        GLStateManager.disableLighting();
+        GLStateManager.glDepthFunc(GL11.GL_LESS);
+        GLStateManager.endFrame();
+
+        for (int i = 0; i < 4; i++) {
+            GLStateManager.enableCull();
+            GLStateManager.enableLighting();
+            GLStateManager.glDepthFunc(GL11.GL_LEQUAL);
+            GLStateManager.disableCull();
+            GLStateManager.disableLighting();
+            GLStateManager.glDepthFunc(GL11.GL_LESS);
+            GLStateManager.glDrawArrays(GL11.GL_POINTS, 0, 0);
+        }
+
+        GLStateManager.endFrame();
+
+        assertEquals(0, GLStateManager.getIssuedCallsLastFrame(), "Issued Calls");
+        assertEquals(24, GLStateManager.getAvoidedCallsLastFrame(), "Avoided Calls");
+        verifyState(GL11.GL_CULL_FACE, false, "Cull Face");
+        verifyState(GL11.GL_LIGHTING, false, "Lighting");
+        verifyState(GL11.GL_DEPTH_FUNC, GL11.GL_LESS, "Depth Function");
+    }
+
+    @Test
+    void testPendingChangesSurvivePushPop() {
+        GLStateManager.enableCull();
+        GLStateManager.glPushAttrib(GL11.GL_ENABLE_BIT);
+        GLStateManager.enableLighting();
+        GLStateManager.glPopAttrib();
+
+        verifyState(GL11.GL_CULL_FACE, true, "Cull Face After Pop");
+        verifyState(GL11.GL_LIGHTING, false, "Lighting After Pop");
+
+        // Reset state that we changed during test
+        GLStateManager.disableCull();
+    }
+}
@@ -1,11 +1,21 @@
 package com.gtnewhorizons.angelica.glsm;
 
 import com.gtnewhorizons.angelica.AngelicaExtension;
+import com.gtnewhorizons.angelica.config.AngelicaConfig;
+import com.gtnewhorizons.angelica.glsm.displaylist.DisplayListCompiler;
+import net.minecraft.client.renderer.Tessellator;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.lwjgl.BufferUtils;
 import org.lwjgl.opengl.GL11;
 
+import java.nio.ByteBuffer;
+import java.nio.FloatBuffer;
+
 import static com.gtnewhorizons.angelica.util.GLSMUtil.verifyState;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @ExtendWith(AngelicaExtension.class)
 class GLSM_DisplayList_UnitTest {
@@ -43,4 +53,144 @@ class GLSM_DisplayList_UnitTest {
         // Reset state that we changed during test
         GLStateManager.glDisable(GL11.GL_LIGHTING);
     }
+
+    @Test
+    void testCompiledDisplayList() {
+        final boolean vboDisplayLists = AngelicaConfig.enableVBODisplayLists;
+        AngelicaConfig.enableVBODisplayLists = true;
+
+        GLStateManager.glMatrixMode(GL11.GL_PROJECTION);
+        GLStateManager.glPushMatrix();
+        GLStateManager.glLoadIdentity();
+        GLStateManager.glMatrixMode(GL11.GL_MODELVIEW);
+        GLStateManager.glPushMatrix();
+        GLStateManager.glLoadIdentity();
+        GLStateManager.glDisable(GL11.GL_TEXTURE_2D);
+        GLStateManager.glClearColor(0.0f, 0.0f, 0.0f, 0.0f);
+        GLStateManager.glClear(GL11.GL_COLOR_BUFFER_BIT);
+
+        final float[] modelView = getFloats(GL11.GL_MODELVIEW_MATRIX);
+        final int list = GL11.glGenLists(1);
+
+        try {
+            GLStateManager.glNewList(list, GL11.GL_COMPILE);
+            GLStateManager.glPushMatrix();
+            GLStateManager.glTranslatef(0.5f, 0.0f, 0.0f);
+            GLStateManager.glEnable(GL11.GL_BLEND);
+
+            // What MixinTessellator does when the list is drawn into
+            final Tessellator tessellator = Tessellator.instance;
+            tessellator.startDrawingQuads();
+            tessellator.setColorOpaque_F(1.0f, 0.0f, 0.0f);
+            tessellator.addVertex(-0.25, -0.25, 0.0);
+            tessellator.addVertex(0.25, -0.25, 0.0);
+            tessellator.addVertex(0.25, 0.25, 0.0);
+            tessellator.addVertex(-0.25, 0.25, 0.0);
+            assertTrue(DisplayListCompiler.recordDraw(tessellator), "Tessellator Draw Recorded");
+            tessellator.isDrawing = false;
+            tessellator.reset();
+
+            GLStateManager.glPopMatrix();
+            GLStateManager.glColor4f(0.0f, 1.0f, 0.0f, 1.0f);
+
+            // Not redirected, so it has to end up in a driver list segment
+            GL11.glLineWidth(4.0f);
+            GLStateManager.glEndList();
+
+            assertNotNull(DisplayListCompiler.get(list), "Display List Compiled");
+            verifyState(GL11.GL_BLEND, false, "GL_BLEND Post Display List Compile");
+            verifyState(GL11.GL_LINE_WIDTH, 1.0f, "GL_LINE_WIDTH Post Display List Compile");
+            assertArrayEquals(new int[] { 0, 0, 0 }, readPixel(600, 300), "Pixel Post Display List Compile");
+
+            GLStateManager.glCallList(list);
+
+            verifyState(GL11.GL_BLEND, true, "GL_BLEND Post Display List Call");
+            verifyState(GL11.GL_CURRENT_COLOR, new float[] { 0.0f, 1.0f, 0.0f, 1.0f }, "GL_CURRENT_COLOR Post Display List Call");
+            verifyState(GL11.GL_LINE_WIDTH, 4.0f, "GL_LINE_WIDTH Post Display List Call");
+            verifyState(GL11.GL_MODELVIEW_MATRIX, modelView, "GL_MODELVIEW_MATRIX Post Display List Call");
+            assertArrayEquals(new int[] { 255, 0, 0 }, readPixel(600, 300), "Translated Quad");
+            assertArrayEquals(new int[] { 0, 0, 0 }, readPixel(400, 300), "Untranslated Quad");
+        } finally {
+            // Reset state that we changed during test
+            AngelicaConfig.enableVBODisplayLists = vboDisplayLists;
+            GLStateManager.glDeleteLists(list, 1);
+            GLStateManager.glDisable(GL11.GL_BLEND);
+            GLStateManager.glColor4f(1.0f, 1.0f, 1.0f, 1.0f);
+            GL11.glLineWidth(1.0f);
+            GLStateManager.glPopMatrix();
+            GLStateManager.glMatrixMode(GL11.GL_PROJECTION);
+            GLStateManager.glPopMatrix();
+            GLStateManager.glMatrixMode(GL11.GL_MODELVIEW);
+        }
+    }
+
+    @Test
+    void testCompiledDisplayListUnredirectedOnly() {
+        final boolean vboDisplayLists = AngelicaConfig.enableVBODisplayLists;
+        AngelicaConfig.enableVBODisplayLists = true;
+
+        final int list = GL11.glGenLists(1);
+
+        try {
+            GLStateManager.glNewList(list, GL11.GL_COMPILE);
+            GL11.glLineWidth(4.0f);
+            GLStateManager.glEndList();
+
+            verifyState(GL11.GL_LINE_WIDTH, 1.0f, "GL_LINE_WIDTH Post Display List Compile");
+
+            GLStateManager.glCallList(list);
+
+            verifyState(GL11.GL_LINE_WIDTH, 4.0f, "GL_LINE_WIDTH Post Display List Call");
+        } finally {
+            // Reset state that we changed during test
+            AngelicaConfig.enableVBODisplayLists = vboDisplayLists;
+            GLStateManager.glDeleteLists(list, 1);
+            GL11.glLineWidth(1.0f);
+        }
+    }
+
+    @Test
+    void testCompiledDisplayListUnredirectedOrder() {
+        final boolean vboDisplayLists = AngelicaConfig.enableVBODisplayLists;
+        AngelicaConfig.enableVBODisplayLists = true;
+
+        final int list = GL11.glGenLists(1);
+
+        try {
+            GLStateManager.glNewList(list, GL11.GL_COMPILE);
+            GL11.glLineWidth(2.0f);
+            GLStateManager.glEnable(GL11.GL_BLEND);
+            GL11.glLineWidth(4.0f);
+            GLStateManager.glDisable(GL11.GL_BLEND);
+            GLStateManager.glEndList();
+
+            assertNotNull(DisplayListCompiler.get(list), "Display List Compiled");
+
+            GLStateManager.glCallList(list);
+
+            // Both calls have to be replayed around the recorded ones, in the order they were compiled
+            verifyState(GL11.GL_LINE_WIDTH, 4.0f, "GL_LINE_WIDTH Post Display List Call");
+            verifyState(GL11.GL_BLEND, false, "GL_BLEND Post Display List Call");
+        } finally {
+            // Reset state that we changed during test
+            AngelicaConfig.enableVBODisplayLists = vboDisplayLists;
+            GLStateManager.glDeleteLists(list, 1);
+            GLStateManager.glDisable(GL11.GL_BLEND);
+            GL11.glLineWidth(1.0f);
+        }
+    }
+
+    private static float[] getFloats(int pname) {
+        final FloatBuffer buffer = BufferUtils.createFloatBuffer(16);
+        GLStateManager.glGetFloat(pname, buffer);
+        final float[] values = new float[16];
+        buffer.get(values);
+        return values;
+    }
+
+    private static int[] readPixel(int x, int y) {
+        final ByteBuffer pixel = BufferUtils.createByteBuffer(4);
+        GL11.glReadPixels(x, y, 1, 1, GL11.GL_RGBA, GL11.GL_UNSIGNED_BYTE, pixel);
+        return new int[] { pixel.get(0) & 0xFF, pixel.get(1) & 0xFF, pixel.get(2) & 0xFF };
+    }
 }
@@ -20,6 +20,7 @@ public class GLSMUtil {
     }
 
     public static void verifyIsEnabled(int glCap, boolean expected, String message) {
+        GLStateManager.flushState();
         assertAll( message,
             () -> assertEquals(expected, GL11.glIsEnabled(glCap), "GL State Mismatch"),
             () -> assertEquals(expected, GLStateManager.glIsEnabled(glCap), "GLSM State Mismatch")
@@ -31,6 +32,7 @@ public class GLSMUtil {
     }
 
     public static void verifyState(int glCap, boolean expected, String message) {
+        GLStateManager.flushState();
         assertAll( message,
             () -> assertEquals(expected, GL11.glGetBoolean(glCap), "GL State Mismatch"),
             () -> assertEquals(expected, GLStateManager.glGetBoolean(glCap), "GLSM State Mismatch")
@@ -41,6 +43,7 @@ public class GLSMUtil {
         verifyState(glCap, expected, "Int State Mismatch");
     }
     public static void verifyState(int glCap, int expected, String message) {
+        GLStateManager.flushState();
         assertAll(message,
             () -> assertEquals(expected, GL11.glGetInteger(glCap), "GL State Mismatch"),
             () -> assertEquals(expected, GLStateManager.glGetInteger(glCap), "GLSM State Mismatch")
@@ -51,6 +54,7 @@ public class GLSMUtil {
         verifyState(glCap, expected, "Float State Mismatch");
     }
     public static void verifyState(int glCap, float expected, String message) {
+        GLStateManager.flushState();
         assertAll(message,
             () -> assertEquals(expected, GL11.glGetFloat(glCap), 0.0001f, "GL State Mismatch"),
             () -> assertEquals(expected, GLStateManager.glGetFloat(glCap), 0.0001f, "GLSM State Mismatch")
@@ -64,6 +68,7 @@ public class GLSMUtil {
     static final IntBuffer glsmIntBuffer = BufferUtils.createIntBuffer(16);
 
     public static void verifyState(int glCap, int[] expected, String message) {
+        GLStateManager.flushState();
         GL11.glGetInteger(glCap, (IntBuffer) glIntBuffer.clear());
         GLStateManager.glGetInteger(glCap, (IntBuffer) glsmIntBuffer.clear());
         IntStream.range (0, expected.length).forEach(i -> assertAll(message,
@@ -81,6 +86,7 @@ public class GLSMUtil {
     static final FloatBuffer glsmFloatBuffer = BufferUtils.createFloatBuffer(16);
 
     public static void verifyState(int glCap, float[] expected, String message) {
+        GLStateManager.flushState();
         GL11.glGetFloat(glCap, (FloatBuffer) glFloatBuffer.clear());
         GLStateManager.glGetFloat(glCap, (FloatBuffer) glsmFloatBuffer.clear());
         IntStream.range (0, expected.length).forEach(i -> assertAll(message,
@@ -90,6 +96,7 @@ public class GLSMUtil {
     }
 
     public static void verifyNotDefaultState(int glCap, float[] expected, String message) {
+        GLStateManager.flushState();
         GL11.glGetFloat(glCap, (FloatBuffer) glFloatBuffer.clear());
         GLStateManager.glGetFloat(glCap, (FloatBuffer) glsmFloatBuffer.clear());
         IntStream.range (0, expected.length).forEach(i -> assertAll(message,
@@ -106,7 +113,7 @@ public class GLSMUtil {
     static final ByteBuffer glsmByteBuffer = BufferUtils.createByteBuffer(16);
 
     public static void verifyState(int glCap, boolean[] expected, String message) {
-
+        GLStateManager.flushState();
         GL11.glGetBoolean(glCap, (ByteBuffer) glByteBuffer.clear());
         GLStateManager.glGetBoolean(glCap, (ByteBuffer) glsmByteBuffer.clear());
         IntStream.range (0, expected.length).forEach(i -> assertAll(message,
@@ -117,6 +124,7 @@ public class GLSMUtil {
 
 
     public static void verifyLightState(int glLight, int pname, float[] expected, String message) {
+        GLStateManager.flushState();
         GL11.glGetLight(glLight, pname, (FloatBuffer) glFloatBuffer.clear());
         GLStateManager.glGetLight(glLight, pname, (FloatBuffer) glsmFloatBuffer.clear());
         IntStream.range (0, expected.length).forEach(i -> assertAll(message,
@@ -126,6 +134,7 @@ public class GLSMUtil {
     }
 
     public static void verifyMaterialState(int face, int pname, float[] expected, String message) {
+        GLStateManager.flushState();
         GL11.glGetMaterial(face, pname, (FloatBuffer) glFloatBuffer.clear());
         GLStateManager.glGetMaterial(face, pname, (FloatBuffer) glsmFloatBuffer.clear());
         IntStream.range (0, expected.length).forEach(i -> assertAll(message,
@@ -0,0 +1,261 @@
+package com.prupe.mcpatcher.ctm;
+
+import com.gtnewhorizons.angelica.AngelicaExtension;
+import com.prupe.mcpatcher.MCLogger;
+import com.prupe.mcpatcher.mal.resource.ResourceLocationWithSource;
+import com.prupe.mcpatcher.mal.tile.TileLoader;
+import jss.notfine.config.MCPatcherForgeConfig;
+import net.minecraft.block.Block;
+import net.minecraft.block.material.Material;
+import net.minecraft.client.renderer.texture.TextureAtlasSprite;
+import net.minecraft.client.renderer.texture.TextureMap;
+import net.minecraft.client.resources.IResourcePack;
+import net.minecraft.util.IIcon;
+import net.minecraft.util.ResourceLocation;
+import net.minecraft.world.IBlockAccess;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Resolves connected texture icons from 1 up to N threads at once, each with its own {@link CTMRenderContext} the way
+ * chunk build workers have, and logs the combined throughput for every thread count.
+ *
+ * An in-memory resource pack provides a full 47 tile {@code method=ctm} override for the stone tile, so every lookup
+ * goes through block state setup, the override lookup by tile, the neighbor checks and the tile selection, and has to
+ * come back with one of the override's tiles.
+ *
+ * Only runs with {@code -Dangelica.benchmarks=true}. N defaults to the number of processors and can be set with
+ * {@code -Dangelica.benchmarkThreads=<count>}.
+ */
+@ExtendWith(AngelicaExtension.class)
+@EnabledIfSystemProperty(named = "angelica.benchmarks", matches = "true")
+public class CTMResolutionBenchmark {
+    private static final int WARMUP_LOOKUPS = 1_000_000;
+    private static final int LOOKUPS = 4_000_000; /* per thread */
+    private static final int TILES = 47;
+
+    private static final String PROPERTIES = "mcpatcher/ctm/stone/stone.properties";
+    private static final String TILE_PATH = "mcpatcher/ctm/stone/";
+
+    private static MCPatcherForgeConfig.LogLevel logging;
+    private static boolean standard;
+    private static boolean nonStandard;
+    private static int maxRecursion;
+
+    private static MCLogger logger;
+    private static final Set<IIcon> tiles = Collections.newSetFromMap(new IdentityHashMap<>());
+
+    private static final IIcon icon = (IIcon) Proxy.newProxyInstance(CTMResolutionBenchmark.class.getClassLoader(),
+        new Class<?>[] { IIcon.class }, (proxy, method, args) -> {
+            if (method.getName().equals("getIconName")) {
+                return "stone";
+            }
+            throw new UnsupportedOperationException(method.getName());
+        });
+    private static final Block block = new Block(Material.rock) {
+        @Override
+        public IIcon getIcon(IBlockAccess worldIn, int x, int y, int z, int side) {
+            return icon;
+        }
+
+        @Override
+        public IIcon getIcon(int side, int meta) {
+            return icon;
+        }
+    };
+    private static final IBlockAccess blockAccess = (IBlockAccess) Proxy.newProxyInstance(
+        CTMResolutionBenchmark.class.getClassLoader(), new Class<?>[] { IBlockAccess.class }, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "getBlock":
+                    // A solid cube of stone, so every face connects on all sides
+                    return block;
+                case "getBlockMetadata":
+                    return ((int) args[0] + (int) args[2]) & 3;
+                default:
+                    throw new UnsupportedOperationException(method.getName());
+            }
+        });
+
+    @BeforeAll
+    static void loadOverrides() throws IOException {
+        logging = MCPatcherForgeConfig.ConnectedTextures.logging;
+        standard = MCPatcherForgeConfig.ConnectedTextures.standard;
+        nonStandard = MCPatcherForgeConfig.ConnectedTextures.nonStandard;
+        maxRecursion = MCPatcherForgeConfig.ConnectedTextures.maxRecursion;
+
+        // The config isn't loaded outside of the game, so use its defaults
+        MCPatcherForgeConfig.ConnectedTextures.logging = MCPatcherForgeConfig.LogLevel.INFO;
+        MCPatcherForgeConfig.ConnectedTextures.standard = true;
+        MCPatcherForgeConfig.ConnectedTextures.nonStandard = true;
+        MCPatcherForgeConfig.ConnectedTextures.maxRecursion = 4;
+
+        logger = MCLogger.getLogger(MCLogger.Category.CONNECTED_TEXTURES, "CTM");
+
+        final Map<String, byte[]> files = new HashMap<>();
+        files.put(PROPERTIES, ("method=ctm\nmatchTiles=stone\ntiles=0-" + (TILES - 1) + "\n")
+            .getBytes(StandardCharsets.ISO_8859_1));
+        for (int i = 0; i < TILES; i++) {
+            final BufferedImage image = new BufferedImage(16, 16, BufferedImage.TYPE_INT_ARGB);
+            image.setRGB(0, 0, 0xff000000 | i);
+            final ByteArrayOutputStream output = new ByteArrayOutputStream();
+            ImageIO.write(image, "png", output);
+            files.put(TILE_PATH + i + ".png", output.toByteArray());
+        }
+
+        final IResourcePack pack = (IResourcePack) Proxy.newProxyInstance(CTMResolutionBenchmark.class.getClassLoader(),
+            new Class<?>[] { IResourcePack.class }, (proxy, method, args) -> {
+                switch (method.getName()) {
+                    case "getInputStream": {
+                        final byte[] data = files.get(((ResourceLocation) args[0]).getResourcePath());
+                        if (data == null) {
+                            throw new FileNotFoundException(args[0].toString());
+                        }
+                        return new ByteArrayInputStream(data);
+                    }
+                    case "resourceExists":
+                        return files.containsKey(((ResourceLocation) args[0]).getResourcePath());
+                    case "getPackName":
+                        return "CTM Benchmark";
+                    case "hashCode":
+                        return System.identityHashCode(proxy);
+                    case "equals":
+                        return proxy == args[0];
+                    default:
+                        throw new UnsupportedOperationException(method.getName());
+                }
+            });
+
+        final TextureMap textureMap = mock(TextureMap.class);
+        when(textureMap.registerIcon(anyString()))
+            .thenAnswer(invocation -> new TextureAtlasSprite(invocation.getArgument(0)) {});
+
+        // Stands in for the start of a resource reload, which resets the tile loaders
+        TileLoader.registerIcons(textureMap, "textures/blocks", new HashMap<>());
+
+        CTMUtils.clearOverrides();
+        final TileLoader tileLoader = new TileLoader("textures/blocks", logger);
+        final ResourceLocation properties = new ResourceLocationWithSource(pack, new ResourceLocation(PROPERTIES));
+        final TileOverride override = TileOverride.create(properties, tileLoader);
+        assertNotNull(override, "Override wasn't loaded");
+        CTMUtils.registerOverride(override);
+
+        final Map<String, TextureAtlasSprite> sprites = new HashMap<>();
+        TileLoader.registerIcons(textureMap, "textures/blocks", sprites);
+        assertEquals(TILES, sprites.size(), "Registered tiles");
+        tiles.addAll(sprites.values());
+
+        CTMUtils.publishOverrides();
+    }
+
+    @AfterAll
+    static void clearOverrides() {
+        CTMUtils.clearOverrides();
+
+        MCPatcherForgeConfig.ConnectedTextures.logging = logging;
+        MCPatcherForgeConfig.ConnectedTextures.standard = standard;
+        MCPatcherForgeConfig.ConnectedTextures.nonStandard = nonStandard;
+        MCPatcherForgeConfig.ConnectedTextures.maxRecursion = maxRecursion;
+    }
+
+    @Test
+    void benchmarkThreads() throws InterruptedException {
+        final int maxThreads = Integer.getInteger("angelica.benchmarkThreads", Runtime.getRuntime().availableProcessors());
+
+        resolve(maxThreads, WARMUP_LOOKUPS);
+
+        double single = 0.0D;
+
+        for (int threads = 1; threads <= maxThreads; threads++) {
+            final long time = resolve(threads, LOOKUPS);
+            final double throughput = (double) threads * LOOKUPS / (time / 1_000_000_000.0D);
+
+            if (threads == 1) {
+                single = throughput;
+            }
+
+            logger.info("CTM resolution: %d threads, %.2f M lookups/s, %.2fx single thread", threads,
+                throughput / 1_000_000.0D, throughput / single);
+        }
+    }
+
+    /**
+     * @return The time it took all threads to finish their lookups, in nanoseconds
+     */
+    private long resolve(int threads, int lookups) throws InterruptedException {
+        final CountDownLatch ready = new CountDownLatch(threads);
+        final CountDownLatch start = new CountDownLatch(1);
+        final CountDownLatch done = new CountDownLatch(threads);
+        final AtomicInteger mismatches = new AtomicInteger();
+        final AtomicReference<Throwable> failure = new AtomicReference<>();
+
+        for (int i = 0; i < threads; i++) {
+            final Thread thread = new Thread(() -> {
+                new CTMRenderContext().makeCurrent();
+                ready.countDown();
+
+                try {
+                    start.await();
+
+                    for (int lookup = 0; lookup < lookups; lookup++) {
+                        final int x = lookup & 15;
+                        final int z = (lookup >> 4) & 15;
+                        final IIcon result = (lookup & 1) == 0
+                            ? CTMUtils.getBlockIcon(icon, block, blockAccess, x, 64, z, lookup % 6)
+                            : CTMUtils.getBlockIcon(icon, block, lookup % 6, x & 3);
+
+                        if (!tiles.contains(result)) {
+                            mismatches.incrementAndGet();
+                        }
+                    }
+                } catch (Throwable e) {
+                    failure.compareAndSet(null, e);
+                } finally {
+                    done.countDown();
+                }
+            }, "CTM Benchmark #" + i);
+
+            thread.start();
+        }
+
+        ready.await();
+
+        final long begin = System.nanoTime();
+        start.countDown();
+        done.await();
+        final long time = System.nanoTime() - begin;
+
+        if (failure.get() != null) {
+            throw new AssertionError("A lookup thread failed", failure.get());
+        }
+
+        assertEquals(0, mismatches.get(), "Lookups which didn't resolve to one of the override's tiles");
+
+        return time;
+    }
+}
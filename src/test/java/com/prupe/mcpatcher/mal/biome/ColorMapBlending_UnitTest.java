@@ -0,0 +1,154 @@
+package com.prupe.mcpatcher.mal.biome;
+
+import net.minecraft.util.ResourceLocation;
+import net.minecraft.world.IBlockAccess;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.Collection;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Renders the blended colors of a few chunk columns with {@link ColorMapBase.SectionBlended} and compares them, bit for
+ * bit, against the image {@link ColorMapBase.Blended} produces for the same color map.
+ */
+class ColorMapBlending_UnitTest {
+
+    private int version;
+
+    private final IBlockAccess slice = (IBlockAccess) Proxy.newProxyInstance(getClass().getClassLoader(),
+        new Class<?>[] { IBlockAccess.class, IVersionedBlockAccess.class }, (proxy, method, args) -> {
+            if (method.getName().equals("getSnapshotVersion")) {
+                return version;
+            }
+            throw new UnsupportedOperationException(method.getName());
+        });
+
+    @Test
+    void testMatchesBlended() {
+        for (boolean heightDependent : new boolean[] { false, true }) {
+            for (int radius = 1; radius <= 7; radius += 3) {
+                final ColorMapBase.Blended blended = new ColorMapBase.Blended(new NoiseColorMap(heightDependent), radius);
+                final ColorMapBase.SectionBlended sectionBlended = new ColorMapBase.SectionBlended(new NoiseColorMap(heightDependent), radius);
+
+                for (int column = 0; column < 3; column++) {
+                    version++;
+                    final int baseI = column * 16 - 32;
+                    final int baseK = column * 48 + 16;
+
+                    for (int j = 63; j <= 65; j++) {
+                        final float[] expected = render(blended, baseI, j, baseK);
+                        final float[] actual = render(sectionBlended, baseI, j, baseK);
+
+                        assertArrayEquals(expected, actual, "Radius " + radius + ", height dependent " + heightDependent + ", column " + column + ", y " + j);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    void testSamplesOncePerSection() {
+        final int radius = 4;
+        final NoiseColorMap parent = new NoiseColorMap(false);
+        final ColorMapBase.SectionBlended sectionBlended = new ColorMapBase.SectionBlended(parent, radius);
+        version++;
+
+        render(sectionBlended, 0, 64, 0);
+        final int oneLayer = parent.calls;
+
+        // Vertex smoothing alternates between neighbouring heights, which share the layer
+        for (int j = 64; j < 80; j++) {
+            render(sectionBlended, 0, j, 0);
+        }
+
+        final int size = 17 + 2 * radius;
+        assertTrue(oneLayer > 0 && oneLayer <= size * size, "Parent Samples");
+        assertEquals(oneLayer, parent.calls, "Parent Samples For Other Heights");
+
+        version++;
+        render(sectionBlended, 0, 64, 0);
+        assertEquals(2 * oneLayer, parent.calls, "Parent Samples After New Snapshot");
+    }
+
+    @Test
+    void testHeightDependentLayers() {
+        final NoiseColorMap parent = new NoiseColorMap(true);
+        final ColorMapBase.SectionBlended sectionBlended = new ColorMapBase.SectionBlended(parent, 2);
+        version++;
+
+        render(sectionBlended, 0, 64, 0);
+        final int oneLayer = parent.calls;
+        render(sectionBlended, 0, 65, 0);
+        render(sectionBlended, 0, 64, 0);
+        render(sectionBlended, 0, 65, 0);
+
+        assertTrue(oneLayer > 0, "Parent Samples");
+        assertEquals(2 * oneLayer, parent.calls, "Parent Samples For Two Heights");
+    }
+
+    private float[] render(IColorMap map, int baseI, int j, int baseK) {
+        final float[] image = new float[17 * 17 * 3];
+        int idx = 0;
+        for (int k = baseK; k <= baseK + 16; k++) {
+            for (int i = baseI; i <= baseI + 16; i++) {
+                final float[] color = map.getColorMultiplierF(slice, i, j, k);
+                image[idx++] = color[0];
+                image[idx++] = color[1];
+                image[idx++] = color[2];
+            }
+        }
+        return image;
+    }
+
+    private static final class NoiseColorMap implements IColorMap {
+
+        private final boolean heightDependent;
+        private final float[] color = new float[3];
+        private int calls;
+
+        private NoiseColorMap(boolean heightDependent) {
+            this.heightDependent = heightDependent;
+        }
+
+        @Override
+        public boolean isHeightDependent() {
+            return heightDependent;
+        }
+
+        @Override
+        public int getColorMultiplier() {
+            return 0xffffff;
+        }
+
+        @Override
+        public int getColorMultiplier(IBlockAccess blockAccess, int i, int j, int k) {
+            return ColorUtils.float3ToInt(getColorMultiplierF(blockAccess, i, j, k));
+        }
+
+        @Override
+        public float[] getColorMultiplierF(IBlockAccess blockAccess, int i, int j, int k) {
+            calls++;
+            int hash = i * 73856093 ^ (heightDependent ? j : 0) * 19349663 ^ k * 83492791;
+            hash ^= hash >>> 13;
+            hash *= 0x5bd1e995;
+            hash ^= hash >>> 15;
+            color[0] = (hash & 0xff) / 255.0f;
+            color[1] = (hash >>> 8 & 0xff) / 255.0f;
+            color[2] = (hash >>> 16 & 0xff) / 255.0f;
+            return color;
+        }
+
+        @Override
+        public void claimResources(Collection<ResourceLocation> resources) {
+        }
+
+        @Override
+        public IColorMap copy() {
+            return new NoiseColorMap(heightDependent);
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package me.jellysquid.mods.sodium.client.render.chunk.cull.graph;
+
+import com.gtnewhorizon.gtnhlib.blockpos.BlockPos;
+import com.gtnewhorizons.angelica.compat.mojang.ChunkOcclusionData;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import me.jellysquid.mods.sodium.client.util.math.FrustumExtended;
+import net.minecraftforge.common.util.ForgeDirection;
+import org.joml.Matrix4f;
+import org.joml.Vector4f;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Flies a camera over a synthetic world and checks that, for every frame, the chunk graph culler finds the same visible
+ * sections with per-plane frustum tests as with the plain box test that frustums without plane access fall back to.
+ */
+class ChunkGraphCuller_UnitTest {
+    private static final int RENDER_DISTANCE = 8;
+    private static final int FRAMES = 300;
+
+    private static final FrustumExtended EVERYTHING = (minX, minY, minZ, maxX, maxY, maxZ) -> true;
+
+    @Test
+    void testPlaneMasksMatchBoxTests() {
+        final ChunkGraphCuller culler = createWorld();
+        final BlockPos origin = new BlockPos();
+
+        int visible = 0;
+        int culled = 0;
+
+        for (int frame = 0; frame < FRAMES; frame++) {
+            final float[] point = pathPoint(frame);
+            origin.set((int) Math.floor(point[0]), (int) Math.floor(point[1]), (int) Math.floor(point[2]));
+
+            final IntArrayList planeMasks = new IntArrayList(culler.computeVisible(origin, new PathFrustum(point, true), frame, false));
+            final IntArrayList boxTests = new IntArrayList(culler.computeVisible(origin, new PathFrustum(point, false), frame, false));
+            final int reachable = culler.computeVisible(origin, EVERYTHING, frame, false).size();
+
+            assertEquals(boxTests, planeMasks, "Visible sections at frame " + frame);
+
+            visible += planeMasks.size();
+            culled += reachable - planeMasks.size();
+        }
+
+        assertTrue(visible > 0, "Nothing was visible along the camera path");
+        assertTrue(culled > 0, "Nothing was culled by the frustum along the camera path");
+    }
+
+    /**
+     * Flies forward at sprinting speed while looking around, crossing plenty of section and region boundaries.
+     *
+     * @return The camera's x, y, z, yaw and pitch at the given frame
+     */
+    private static float[] pathPoint(int frame) {
+        return new float[] { frame * 0.35f, 70.0f + (float) Math.sin(frame * 0.01f) * 12.0f, frame * 0.1f, frame * 4.5f,
+            (float) Math.sin(frame * 0.03f) * 30.0f };
+    }
+
+    /**
+     * Loads every section within range of the path, with solid ground below sea level, open air above it, and some
+     * random caves which are only partially visible through.
+     */
+    private static ChunkGraphCuller createWorld() {
+        final ChunkGraphCuller culler = new ChunkGraphCuller(null, RENDER_DISTANCE);
+        final Random random = new Random(42L);
+
+        final ChunkOcclusionData solid = new ChunkOcclusionData();
+
+        final ChunkOcclusionData open = new ChunkOcclusionData();
+        open.fill(true);
+
+        final int range = RENDER_DISTANCE + 2;
+        int id = 0;
+
+        for (int x = -range; x <= range + 8; x++) {
+            for (int z = -range; z <= range + 2; z++) {
+                for (int y = 0; y < 16; y++) {
+                    culler.onSectionLoaded(x, y, z, id++);
+
+                    final ChunkOcclusionData data;
+
+                    if (y >= 4) {
+                        data = open;
+                    } else if (random.nextInt(4) == 0) {
+                        data = new ChunkOcclusionData();
+
+                        for (ForgeDirection from : ForgeDirection.VALID_DIRECTIONS) {
+                            for (ForgeDirection to : ForgeDirection.VALID_DIRECTIONS) {
+                                if (random.nextBoolean()) {
+                                    data.setVisibleThrough(from, to, true);
+                                }
+                            }
+                        }
+                    } else {
+                        data = solid;
+                    }
+
+                    culler.onSectionStateChanged(x, y, z, data);
+                }
+            }
+        }
+
+        return culler;
+    }
+
+    private static final class PathFrustum implements FrustumExtended {
+        private final Vector4f[] planes = new Vector4f[6];
+        private final boolean planeMasks;
+
+        PathFrustum(float[] point, boolean planeMasks) {
+            this.planeMasks = planeMasks;
+
+            final Matrix4f matrix = new Matrix4f()
+                .perspective((float) Math.toRadians(70.0D), 16.0f / 9.0f, 0.05f, RENDER_DISTANCE * 16.0f * 2.0f)
+                .rotateX((float) Math.toRadians(point[4]))
+                .rotateY((float) Math.toRadians(point[3] + 180.0f))
+                .translate(-point[0], -point[1], -point[2]);
+
+            for (int i = 0; i < 6; i++) {
+                this.planes[i] = matrix.frustumPlane(i, new Vector4f());
+            }
+        }
+
+        @Override
+        public boolean fastAabbTest(float minX, float minY, float minZ, float maxX, float maxY, float maxZ) {
+            return this.testPlanes(minX, minY, minZ, maxX, maxY, maxZ, ALL_PLANES) != OUTSIDE;
+        }
+
+        @Override
+        public int intersectAabb(float minX, float minY, float minZ, float maxX, float maxY, float maxZ, int planeMask) {
+            if (!this.planeMasks) {
+                return FrustumExtended.super.intersectAabb(minX, minY, minZ, maxX, maxY, maxZ, planeMask);
+            }
+
+            return this.testPlanes(minX, minY, minZ, maxX, maxY, maxZ, planeMask);
+        }
+
+        private int testPlanes(float minX, float minY, float minZ, float maxX, float maxY, float maxZ, int planeMask) {
+            int result = planeMask;
+
+            for (int i = 0; i < 6; i++) {
+                if ((planeMask & (1 << i)) == 0) {
+                    continue;
+                }
+
+                final Vector4f p = this.planes[i];
+
+                if (p.x * (p.x > 0 ? maxX : minX) + p.y * (p.y > 0 ? maxY : minY) + p.z * (p.z > 0 ? maxZ : minZ) + p.w <= 0) {
+                    return OUTSIDE;
+                }
+
+                if (p.x * (p.x > 0 ? minX : maxX) + p.y * (p.y > 0 ? minY : maxY) + p.z * (p.z > 0 ? minZ : maxZ) + p.w > 0) {
+                    result &= ~(1 << i);
+                }
+            }
+
+            return result;
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package net.coderbot.iris.uniforms.custom;
+
+import net.coderbot.iris.gl.uniform.FloatSupplier;
+import net.coderbot.iris.uniforms.SystemTimeUniforms;
+import org.joml.Vector2f;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static net.coderbot.iris.gl.uniform.UniformUpdateFrequency.PER_FRAME;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Compiles custom uniform definitions against a few fake builtins and checks the values they evaluate to.
+ */
+class CustomUniforms_UnitTest {
+	private float x = 1.5f;
+	private final Vector2f size = new Vector2f(640.0f, 480.0f);
+
+	@AfterEach
+	void resetTimer() {
+		SystemTimeUniforms.TIMER.reset();
+	}
+
+	private CustomUniforms build(String... definitions) {
+		final BuiltinUniforms builtins = new BuiltinUniforms();
+
+		builtins
+			.uniform1f(PER_FRAME, "x", (FloatSupplier) () -> x)
+			.uniform1b(PER_FRAME, "flag", () -> true)
+			.uniform2f(PER_FRAME, "size", () -> size)
+			.constant("BIOME_SWAMP", 6.0f);
+
+		final CustomUniforms.Builder builder = new CustomUniforms.Builder();
+
+		for (int i = 0; i < definitions.length; i += 2) {
+			final String[] key = definitions[i].split("\\.", 3);
+
+			builder.add(key[1], key[2], definitions[i + 1], "uniform".equals(key[0]));
+		}
+
+		return builder.build(builtins);
+	}
+
+	private float evaluate(String expression) {
+		return build("uniform.float.result", expression).getValue("result", 0);
+	}
+
+	@Test
+	void testOperatorPrecedence() {
+		assertEquals(7.0f, evaluate("1 + 2 * 3"), "Multiplication Before Addition");
+		assertEquals(9.0f, evaluate("(1 + 2) * 3"), "Parentheses");
+		assertEquals(-5.0f, evaluate("-2 * 3 + 1"), "Negation");
+		assertEquals(3.0f, evaluate("10 - 4 - 3"), "Left Associative Subtraction");
+		assertEquals(1.0f, evaluate("8 / 4 / 2"), "Left Associative Division");
+		assertEquals(3.0f, evaluate("7 % 4"), "Remainder");
+		assertEquals(1.0f, evaluate("1 + 2 == 3"), "Addition Before Equality");
+		assertEquals(1.0f, evaluate("1 > 2 && 3 > 2 || 2 >= 2"), "And Before Or");
+		assertEquals(0.0f, evaluate("1 > 2 && (3 > 2 || 2 >= 2)"), "Parenthesized Or");
+		assertEquals(1.0f, evaluate("!(1 > 2) && x < 2"), "Not");
+	}
+
+	@Test
+	void testConditionalFunctions() {
+		assertEquals(10.0f, evaluate("if(x > 1, 10, x > 0, 20, 30)"), "If First Branch");
+		assertEquals(20.0f, evaluate("if(x > 2, 10, x > 0, 20, 30)"), "If Second Branch");
+		assertEquals(30.0f, evaluate("if(x > 2, 10, x > 1.5, 20, 30)"), "If Else");
+		assertEquals(1.0f, evaluate("between(x, 1, 2)"), "Between");
+		assertEquals(0.0f, evaluate("between(x, 2, 3)"), "Not Between");
+		assertEquals(1.0f, evaluate("in(6, 1, BIOME_SWAMP, 9)"), "In");
+		assertEquals(0.0f, evaluate("in(x, 1, 2)"), "Not In");
+		assertEquals(1.0f, evaluate("equals(x, 1.501, 0.01)"), "Equals");
+		assertEquals(1.0f, evaluate("if(flag, 1, 0)"), "Boolean Builtin");
+		assertEquals(2.0f, evaluate("clamp(max(1, 5, 3), 0, 2)"), "Min Max Clamp");
+	}
+
+	@Test
+	void testVectorComponents() {
+		final CustomUniforms uniforms = build(
+			"uniform.vec3.color", "vec3(x, x * 2, x * 3)",
+			"uniform.float.green", "color.g",
+			"uniform.float.blue", "color.2",
+			"uniform.float.aspect", "size.x / size.y",
+			"uniform.vec3.copy", "color",
+			"uniform.float.missing", "color.w");
+
+		assertEquals(1.5f, uniforms.getValue("color", 0), "Vector X");
+		assertEquals(3.0f, uniforms.getValue("green", 0), "Component By Color");
+		assertEquals(4.5f, uniforms.getValue("blue", 0), "Component By Index");
+		assertEquals(640.0f / 480.0f, uniforms.getValue("aspect", 0), 1.0e-6f, "Builtin Vector Components");
+		assertEquals(4.5f, uniforms.getValue("copy", 2), "Copied Vector");
+		assertTrue(Float.isNaN(uniforms.getValue("missing", 0)), "Missing Component");
+	}
+
+	@Test
+	void testDependencyOrder() {
+		final CustomUniforms uniforms = build(
+			"uniform.float.last", "middle * 2",
+			"variable.float.middle", "first + 1",
+			"variable.float.first", "x * 10",
+			"uniform.int.truncated", "last / 5");
+
+		assertEquals(32.0f, uniforms.getValue("last", 0), "Evaluated After Dependencies");
+		assertEquals(6.0f, uniforms.getValue("truncated", 0), "Int Truncation");
+
+		// Everything is evaluated in one pass, dependencies first
+		x = 2.5f;
+		uniforms.update();
+
+		assertEquals(52.0f, uniforms.getValue("last", 0), "Evaluated After Dependencies On Update");
+	}
+
+	@Test
+	void testCyclesRejected() {
+		final CustomUniforms uniforms = build(
+			"variable.float.a", "b + 1",
+			"variable.float.b", "a + 1",
+			"uniform.float.dependent", "a * 2",
+			"uniform.float.self", "self + 1",
+			"uniform.float.unrelated", "x + 1",
+			"uniform.float.unknown", "missing + 1");
+
+		assertTrue(Float.isNaN(uniforms.getValue("a", 0)), "Cyclic Variable");
+		assertTrue(Float.isNaN(uniforms.getValue("b", 0)), "Cyclic Variable");
+		assertTrue(Float.isNaN(uniforms.getValue("dependent", 0)), "Dependent On Cycle");
+		assertTrue(Float.isNaN(uniforms.getValue("self", 0)), "Self Reference");
+		assertTrue(Float.isNaN(uniforms.getValue("unknown", 0)), "Unknown Variable");
+		assertEquals(2.5f, uniforms.getValue("unrelated", 0), "Unrelated Definition");
+	}
+
+	@Test
+	void testSmooth() {
+		x = 0.0f;
+
+		final CustomUniforms uniforms = build(
+			"uniform.float.smoothed", "smooth(1, x, 1, 1)",
+			"uniform.float.instant", "smooth(x, 0)");
+
+		assertEquals(0.0f, uniforms.getValue("smoothed", 0), "Initial Value");
+
+		// One frame of 0.1 seconds, which is one half life
+		SystemTimeUniforms.TIMER.reset();
+		SystemTimeUniforms.TIMER.beginFrame(0L);
+		SystemTimeUniforms.TIMER.beginFrame(100_000_000L);
+		x = 1.0f;
+		uniforms.update();
+
+		assertEquals(0.5f, uniforms.getValue("smoothed", 0), 1.0e-4f, "After One Half Life");
+		assertEquals(1.0f, uniforms.getValue("instant", 0), "Without Half Life");
+
+		uniforms.update();
+
+		assertEquals(0.75f, uniforms.getValue("smoothed", 0), 1.0e-4f, "After Two Half Lives");
+	}
+}